@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.benchmark;
+
+import org.apache.druid.query.vector.NumericVectorKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loops of {@link NumericVectorKernels} on one vector of the default maximum vector size. Equality
+ * selection is compared against the branching loop it replaced, at several selectivities, since the branch-free loop
+ * only pays off when the branch is hard to predict.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumericVectorKernelsBenchmark
+{
+  @Param({"512"})
+  private int vectorSize;
+
+  @Param({"0.0", "0.01", "0.5", "0.99"})
+  private double selectivity;
+
+  private long[] longs;
+  private double[] doubles;
+  private int[] selection;
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0);
+    longs = new long[vectorSize];
+    doubles = new double[vectorSize];
+    for (int i = 0; i < vectorSize; i++) {
+      longs[i] = random.nextDouble() < selectivity ? 0 : 1 + random.nextInt(1000);
+      doubles[i] = longs[i];
+    }
+    selection = new int[vectorSize];
+  }
+
+  @Benchmark
+  public int selectEqualsBranchFree()
+  {
+    return NumericVectorKernels.selectEquals(longs, vectorSize, 0L, selection);
+  }
+
+  @Benchmark
+  public int selectEqualsBranching()
+  {
+    int numRows = 0;
+    for (int i = 0; i < vectorSize; i++) {
+      if (longs[i] == 0L) {
+        selection[numRows++] = i;
+      }
+    }
+    return numRows;
+  }
+
+  @Benchmark
+  public long sumLongs()
+  {
+    return NumericVectorKernels.sum(longs, 0, vectorSize);
+  }
+
+  @Benchmark
+  public double sumDoubles()
+  {
+    return NumericVectorKernels.sum(doubles, 0, vectorSize);
+  }
+
+  @Benchmark
+  public long maxLongs()
+  {
+    return NumericVectorKernels.max(Long.MIN_VALUE, longs, 0, vectorSize);
+  }
+}
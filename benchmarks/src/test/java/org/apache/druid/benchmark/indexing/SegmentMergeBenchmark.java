@@ -0,0 +1,450 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.benchmark.indexing;
+
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.data.input.impl.AggregateProjectionSpec;
+import org.apache.druid.data.input.impl.DimensionSchema;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.data.input.impl.LongDimensionSchema;
+import org.apache.druid.data.input.impl.NewSpatialDimensionSchema;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.math.expr.ExprMacroTable;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesSerde;
+import org.apache.druid.query.expression.TestExprMacroTable;
+import org.apache.druid.segment.AutoTypeColumnSchema;
+import org.apache.druid.segment.IndexIO;
+import org.apache.druid.segment.IndexMerger;
+import org.apache.druid.segment.IndexMergerV10;
+import org.apache.druid.segment.IndexMergerV9;
+import org.apache.druid.segment.IndexSpec;
+import org.apache.druid.segment.QueryableIndex;
+import org.apache.druid.segment.column.ColumnConfig;
+import org.apache.druid.segment.column.StringEncodingStrategy;
+import org.apache.druid.segment.data.CompressionFactory;
+import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.FrontCodedIndexed;
+import org.apache.druid.segment.generator.DataGenerator;
+import org.apache.druid.segment.generator.GeneratorBasicSchemas;
+import org.apache.druid.segment.generator.GeneratorSchemaInfo;
+import org.apache.druid.segment.incremental.IncrementalIndex;
+import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.segment.incremental.OnheapIncrementalIndex;
+import org.apache.druid.segment.serde.ComplexMetrics;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMediumFactory;
+import org.apache.druid.segment.writeout.SegmentWriteOutMediumFactory;
+import org.apache.druid.segment.writeout.TmpFileSegmentWriteOutMediumFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges generated segments with {@link IndexMergerV9} or {@link IndexMergerV10} across a range of column types,
+ * {@link IndexSpec} choices and input shapes. {@link IndexMergeBenchmark} only covers merging a handful of large
+ * 'basic' schema segments; this benchmark also covers auto, nested and spatial columns, projections, and the shape
+ * produced by realtime hand-off, where a sink merges many small intermediate persists ("hydrants").
+ *
+ * Besides merges per second, each run reports input rows per second and bytes written per second through
+ * {@link MergeThroughput}, and the peak heap usage seen during the iteration through {@link MergeHeapUsage}.
+ * The parameter space is large, so pick a slice of it with {@code -p}, for example
+ * {@code -p shape=100x3750 -p columns=auto -p indexSpec=frontCoded}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseG1GC")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class SegmentMergeBenchmark
+{
+  private static final Logger log = new Logger(SegmentMergeBenchmark.class);
+  private static final int RNG_SEED = 9999;
+  private static final String NESTED_COLUMN = "nested";
+  private static final String SPATIAL_COLUMN = "coordinates";
+  private static final String GRANULARITY_COLUMN = "__gran";
+
+  private static final IndexIO INDEX_IO;
+  private static final ObjectMapper JSON_MAPPER;
+
+  static {
+    JSON_MAPPER = new DefaultObjectMapper();
+    InjectableValues.Std injectableValues = new InjectableValues.Std();
+    injectableValues.addValue(ExprMacroTable.class, TestExprMacroTable.INSTANCE);
+    JSON_MAPPER.setInjectableValues(injectableValues);
+    INDEX_IO = new IndexIO(JSON_MAPPER, ColumnConfig.DEFAULT);
+  }
+
+  /**
+   * Number of segments to merge and rows per segment, as "segments x rows". "5x75000" is a typical compaction of a
+   * few large segments, "100x3750" resembles a realtime sink handing off many small intermediate persists.
+   */
+  @Param({"5x75000", "100x3750"})
+  private String shape;
+
+  @Param({"v9", "v10"})
+  private String format;
+
+  /**
+   * "string" ingests the 'basic' schema dimensions as classic string columns, "auto" ingests them as auto typed
+   * columns plus a nested json column, and "spatial" adds a spatial dimension built from two of the metric inputs.
+   */
+  @Param({"string", "auto", "spatial"})
+  private String columns;
+
+  @Param({"none", "hourly"})
+  private String projections;
+
+  @Param({"default", "frontCoded", "zstd", "uncompressed", "frameOfReference"})
+  private String indexSpec;
+
+  @Param({"true", "false"})
+  private boolean rollup;
+
+  @Param({"1", "4"})
+  private int columnMergeThreads;
+
+  @Param({"OFF_HEAP", "TMP_FILE"})
+  private IndexMergeBenchmark.SegmentWriteOutType factoryType;
+
+  private GeneratorSchemaInfo schemaInfo;
+  private IndexMerger indexMerger;
+  private IndexSpec mergeIndexSpec;
+  private List<QueryableIndex> indexesToMerge;
+  private long rowsToMerge;
+  private File tmpDir;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException
+  {
+    ComplexMetrics.registerSerde(HyperUniquesSerde.TYPE_NAME, new HyperUniquesSerde());
+
+    final String[] segmentsAndRows = shape.split("x");
+    if (segmentsAndRows.length != 2) {
+      throw new IAE("Invalid shape[%s], expected 'segments x rows', for example 5x75000", shape);
+    }
+    final int numSegments = Integer.parseInt(segmentsAndRows[0]);
+    final int rowsPerSegment = Integer.parseInt(segmentsAndRows[1]);
+
+    schemaInfo = GeneratorBasicSchemas.SCHEMA_MAP.get(GeneratorBasicSchemas.BASIC_SCHEMA);
+    mergeIndexSpec = makeIndexSpec(indexSpec);
+
+    final SegmentWriteOutMediumFactory writeOutMediumFactory = getSegmentWriteOutMediumFactory(factoryType);
+    switch (format) {
+      case "v9":
+        indexMerger = new IndexMergerV9(JSON_MAPPER, INDEX_IO, writeOutMediumFactory, false, columnMergeThreads);
+        break;
+      case "v10":
+        indexMerger = new IndexMergerV10(JSON_MAPPER, INDEX_IO, writeOutMediumFactory, columnMergeThreads);
+        break;
+      default:
+        throw new IAE("Unknown format[%s]", format);
+    }
+
+    // intermediate persists are always v9 segments with the default spec, like the hydrants of a realtime sink
+    final IndexMergerV9 persister = new IndexMergerV9(JSON_MAPPER, INDEX_IO, writeOutMediumFactory);
+    final DimensionsSpec dimensionsSpec = makeDimensionsSpec();
+    tmpDir = FileUtils.createTempDir();
+    log.info("Using temp dir: " + tmpDir.getAbsolutePath());
+
+    indexesToMerge = new ArrayList<>();
+    rowsToMerge = 0;
+    for (int i = 0; i < numSegments; i++) {
+      final DataGenerator gen = new DataGenerator(
+          schemaInfo.getColumnSchemas(),
+          RNG_SEED + i,
+          schemaInfo.getDataInterval(),
+          rowsPerSegment
+      );
+
+      final IncrementalIndex incIndex = new OnheapIncrementalIndex.Builder()
+          .setIndexSchema(
+              IncrementalIndexSchema.builder()
+                                    .withDimensionsSpec(dimensionsSpec)
+                                    .withMetrics(schemaInfo.getAggsArray())
+                                    .withRollup(rollup)
+                                    .withProjections(makeProjections(dimensionsSpec))
+                                    .build()
+          )
+          .setMaxRowCount(rowsPerSegment)
+          .build();
+
+      for (int row = 0; row < rowsPerSegment; row++) {
+        incIndex.add(makeRow(gen.nextRow()));
+      }
+
+      final File indexFile = persister.persist(
+          incIndex,
+          new File(tmpDir, "persist-" + i),
+          IndexSpec.getDefault(),
+          null
+      );
+      incIndex.close();
+
+      final QueryableIndex index = INDEX_IO.loadIndex(indexFile);
+      rowsToMerge += index.getNumRows();
+      indexesToMerge.add(index);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException
+  {
+    for (QueryableIndex index : indexesToMerge) {
+      index.close();
+    }
+    FileUtils.deleteDirectory(tmpDir);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void merge(MergeThroughput throughput, MergeHeapUsage heapUsage, Blackhole blackhole) throws IOException
+  {
+    final File outDir = FileUtils.createTempDirInLocation(tmpDir.toPath(), "merged");
+    try {
+      final File mergedFile = indexMerger.mergeQueryableIndex(
+          indexesToMerge,
+          rollup,
+          schemaInfo.getAggsArray(),
+          outDir,
+          mergeIndexSpec,
+          null,
+          -1
+      );
+      blackhole.consume(mergedFile);
+
+      throughput.rows += rowsToMerge;
+      throughput.bytesWritten += sizeOf(outDir);
+      heapUsage.sample();
+    }
+    finally {
+      FileUtils.deleteDirectory(outDir);
+    }
+  }
+
+  /**
+   * Input rows and output bytes of each merge, reported by JMH as rates alongside the primary result.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class MergeThroughput
+  {
+    public long rows;
+    public long bytesWritten;
+
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+      rows = 0;
+      bytesWritten = 0;
+    }
+  }
+
+  /**
+   * Peak heap usage during an iteration, as the sum of the peak usage of every heap memory pool. Pools peak at
+   * different times, so this is an upper bound on the true peak, but it is stable enough to compare runs.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class MergeHeapUsage
+  {
+    public long peakHeapBytes;
+
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+      peakHeapBytes = 0;
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP) {
+          pool.resetPeakUsage();
+        }
+      }
+    }
+
+    void sample()
+    {
+      long peak = 0;
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP) {
+          peak += pool.getPeakUsage().getUsed();
+        }
+      }
+      peakHeapBytes = Math.max(peakHeapBytes, peak);
+    }
+  }
+
+  private DimensionsSpec makeDimensionsSpec()
+  {
+    final List<DimensionSchema> dimensions = new ArrayList<>();
+    switch (columns) {
+      case "string":
+        dimensions.addAll(schemaInfo.getDimensionsSpecExcludeAggs().getDimensions());
+        break;
+      case "auto":
+        for (DimensionSchema dimension : schemaInfo.getDimensionsSpecExcludeAggs().getDimensions()) {
+          dimensions.add(AutoTypeColumnSchema.of(dimension.getName()));
+        }
+        dimensions.add(AutoTypeColumnSchema.of(NESTED_COLUMN));
+        break;
+      case "spatial":
+        dimensions.addAll(schemaInfo.getDimensionsSpecExcludeAggs().getDimensions());
+        dimensions.add(new NewSpatialDimensionSchema(SPATIAL_COLUMN, List.of("metFloatNormal", "metFloatZipf")));
+        break;
+      default:
+        throw new IAE("Unknown columns[%s]", columns);
+    }
+    return DimensionsSpec.builder().setDimensions(dimensions).build();
+  }
+
+  private List<AggregateProjectionSpec> makeProjections(DimensionsSpec dimensionsSpec)
+  {
+    switch (projections) {
+      case "none":
+        return Collections.emptyList();
+      case "hourly":
+        return Collections.singletonList(
+            AggregateProjectionSpec.builder("dimZipf_hourly")
+                                   .virtualColumns(
+                                       Granularities.toVirtualColumn(Granularities.HOUR, GRANULARITY_COLUMN)
+                                   )
+                                   .groupingColumns(
+                                       dimensionsSpec.getSchema("dimZipf"),
+                                       new LongDimensionSchema(GRANULARITY_COLUMN)
+                                   )
+                                   .aggregators(
+                                       new CountAggregatorFactory("rows"),
+                                       new LongSumAggregatorFactory("sumLongSequential", "sumLongSequential")
+                                   )
+                                   .build()
+        );
+      default:
+        throw new IAE("Unknown projections[%s]", projections);
+    }
+  }
+
+  private InputRow makeRow(InputRow row)
+  {
+    if (!"auto".equals(columns)) {
+      return row;
+    }
+    final Map<String, Object> event = new HashMap<>(((MapBasedInputRow) row).getEvent());
+    event.put(
+        NESTED_COLUMN,
+        ImmutableMap.of(
+            "sequential", event.get("dimSequential"),
+            "nesteder", ImmutableMap.of("uniform", event.get("dimUniform"), "long", event.get("metLongUniform"))
+        )
+    );
+    final List<String> dimensions = new ArrayList<>(row.getDimensions());
+    dimensions.add(NESTED_COLUMN);
+    return new MapBasedInputRow(row.getTimestamp(), dimensions, event);
+  }
+
+  private static IndexSpec makeIndexSpec(String name)
+  {
+    switch (name) {
+      case "default":
+        return IndexSpec.getDefault();
+      case "frontCoded":
+        return IndexSpec.builder()
+                        .withStringDictionaryEncoding(new StringEncodingStrategy.FrontCoded(16, FrontCodedIndexed.V1))
+                        .build();
+      case "zstd":
+        return IndexSpec.builder()
+                        .withDimensionCompression(CompressionStrategy.ZSTD)
+                        .withMetricCompression(CompressionStrategy.ZSTD)
+                        .withJsonCompression(CompressionStrategy.ZSTD)
+                        .build();
+      case "uncompressed":
+        return IndexSpec.builder()
+                        .withDimensionCompression(CompressionStrategy.UNCOMPRESSED)
+                        .withMetricCompression(CompressionStrategy.NONE)
+                        .withLongEncoding(CompressionFactory.LongEncodingStrategy.LONGS)
+                        .build();
+      case "frameOfReference":
+        return IndexSpec.builder()
+                        .withLongEncoding(CompressionFactory.LongEncodingStrategy.FRAME_OF_REFERENCE)
+                        .build();
+      default:
+        throw new IAE("Unknown indexSpec[%s]", name);
+    }
+  }
+
+  private static SegmentWriteOutMediumFactory getSegmentWriteOutMediumFactory(
+      IndexMergeBenchmark.SegmentWriteOutType type
+  )
+  {
+    switch (type) {
+      case TMP_FILE:
+        return TmpFileSegmentWriteOutMediumFactory.instance();
+      case OFF_HEAP:
+        return OffHeapMemorySegmentWriteOutMediumFactory.instance();
+      default:
+        throw new IAE("Unsupported SegmentWriteOutMediumFactory type[%s]", type);
+    }
+  }
+
+  private static long sizeOf(File file)
+  {
+    if (!file.isDirectory()) {
+      return file.length();
+    }
+    long size = 0;
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        size += sizeOf(child);
+      }
+    }
+    return size;
+  }
+}
@@ -101,6 +101,7 @@ public class RabbitStreamIndexTaskTuningConfig extends SeekableStreamIndexTaskTu
         maxSavedParseExceptions,
         numPersistThreads,
         maxColumnsToMerge,
+        null,
         null
     );
 
@@ -2963,6 +2963,7 @@ public class KafkaIndexTaskTest extends SeekableStreamIndexTaskTestBase
         maxSavedParseExceptions,
         null,
         null,
+        null,
         null
     );
     if (!context.containsKey(SeekableStreamSupervisor.CHECKPOINTS_CTX_KEY)) {
@@ -74,6 +74,7 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertFalse(config.isReportParseExceptions());
     Assert.assertEquals(Duration.ofMinutes(15).toMillis(), config.getHandoffConditionTimeout());
     Assert.assertEquals(1, config.getNumPersistThreads());
+    Assert.assertEquals(1, config.getNumMergeThreads());
     Assert.assertEquals(-1, config.getMaxColumnsToMerge());
   }
 
@@ -93,7 +94,8 @@ public class KafkaIndexTaskTuningConfigTest
                      + "  \"indexSpec\": { \"metricCompression\" : \"NONE\" },\n"
                      + "  \"indexSpecForIntermediatePersists\": { \"dimensionCompression\" : \"uncompressed\" },\n"
                      + "  \"appendableIndexSpec\": { \"type\" : \"onheap\" },\n"
-                     + "  \"numPersistThreads\": 2\n"
+                     + "  \"numPersistThreads\": 2,\n"
+                     + "  \"numMergeThreads\": 3\n"
                      + "}";
 
     KafkaIndexTaskTuningConfig config = (KafkaIndexTaskTuningConfig) mapper.readValue(
@@ -125,6 +127,7 @@ public class KafkaIndexTaskTuningConfigTest
         config.getIndexSpecForIntermediatePersists()
     );
     Assert.assertEquals(2, config.getNumPersistThreads());
+    Assert.assertEquals(3, config.getNumMergeThreads());
     Assert.assertEquals(-1, config.getMaxColumnsToMerge());
   }
 
@@ -135,6 +138,7 @@ public class KafkaIndexTaskTuningConfigTest
         .withIntermediatePersistPeriod(new Period("PT3S"))
         .withHandoffConditionTimeout(5L)
         .withNumPersistThreads(2)
+        .withNumMergeThreads(3)
         .withMaxRowsInMemory(1)
         .withMaxRowsPerSegment(2)
         .withMaxTotalRows(10L)
@@ -158,6 +162,7 @@ public class KafkaIndexTaskTuningConfigTest
     Assert.assertTrue(copy.isReportParseExceptions());
     Assert.assertEquals(5L, copy.getHandoffConditionTimeout());
     Assert.assertEquals(2, copy.getNumPersistThreads());
+    Assert.assertEquals(3, copy.getNumMergeThreads());
     Assert.assertEquals(5, copy.getMaxColumnsToMerge());
   }
 
@@ -186,7 +191,8 @@ public class KafkaIndexTaskTuningConfigTest
         42,
         2,
         -1,
-        false
+        false,
+        null
     );
 
     String serialized = mapper.writeValueAsString(base);
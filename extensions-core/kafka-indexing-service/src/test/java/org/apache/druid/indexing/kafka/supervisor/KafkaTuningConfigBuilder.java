@@ -35,6 +35,7 @@ public class KafkaTuningConfigBuilder extends TuningConfigBuilder<KafkaTuningCon
   private Period offsetFetchPeriod;
   private Period intermediateHandoffPeriod;
   private Boolean releaseLocksOnHandoff;
+  private Integer numMergeThreads;
 
   public KafkaTuningConfigBuilder withIntermediatePersistPeriod(Period intermediatePersistPeriod)
   {
@@ -84,6 +85,12 @@ public class KafkaTuningConfigBuilder extends TuningConfigBuilder<KafkaTuningCon
     return this;
   }
 
+  public KafkaTuningConfigBuilder withNumMergeThreads(Integer numMergeThreads)
+  {
+    this.numMergeThreads = numMergeThreads;
+    return this;
+  }
+
   @Override
   public KafkaSupervisorTuningConfig build()
   {
@@ -113,7 +120,8 @@ public class KafkaTuningConfigBuilder extends TuningConfigBuilder<KafkaTuningCon
         maxSavedParseExceptions,
         numPersistThreads,
         maxColumnsToMerge,
-        releaseLocksOnHandoff
+        releaseLocksOnHandoff,
+        numMergeThreads
     );
   }
 }
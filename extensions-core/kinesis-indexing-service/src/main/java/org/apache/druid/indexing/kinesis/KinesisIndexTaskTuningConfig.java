@@ -113,7 +113,8 @@ public class KinesisIndexTaskTuningConfig extends SeekableStreamIndexTaskTuningC
         maxSavedParseExceptions,
         null,
         maxColumnsToMerge,
-        false
+        false,
+        null
     );
     this.recordBufferSize = recordBufferSize;
     this.recordBufferSizeBytes = recordBufferSizeBytes;
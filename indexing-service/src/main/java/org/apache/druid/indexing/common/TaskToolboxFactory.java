@@ -261,9 +261,10 @@ public class TaskToolboxFactory
         .cachePopulatorStats(cachePopulatorStats)
         .indexMerger(
             config.buildV10()
-            ? indexMergerV10Factory.create()
+            ? indexMergerV10Factory.create(config.getColumnMergeThreads())
             : indexMergerV9Factory.create(
-                task.getContextValue(Tasks.STORE_EMPTY_COLUMNS_KEY, config.isStoreEmptyColumns())
+                task.getContextValue(Tasks.STORE_EMPTY_COLUMNS_KEY, config.isStoreEmptyColumns()),
+                config.getColumnMergeThreads()
             )
         )
         .druidNodeAnnouncer(druidNodeAnnouncer)
@@ -23,6 +23,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.druid.common.config.Configs;
 import org.apache.druid.common.utils.IdUtils;
+import org.apache.druid.error.InvalidInput;
+import org.apache.druid.segment.IndexMerger;
 import org.apache.druid.segment.loading.StorageLocationConfig;
 import org.apache.druid.segment.realtime.appenderator.TaskDirectory;
 import org.joda.time.Period;
@@ -83,6 +85,9 @@ public class TaskConfig implements TaskDirectory
   @JsonProperty
   private final boolean buildV10;
 
+  @JsonProperty
+  private final int columnMergeThreads;
+
   @JsonCreator
   public TaskConfig(
       @JsonProperty("baseDir") String baseDir,
@@ -96,7 +101,8 @@ public class TaskConfig implements TaskDirectory
       @JsonProperty("encapsulatedTask") boolean enableTaskLevelLogPush,
       @JsonProperty("tmpStorageBytesPerTask") @Nullable Long tmpStorageBytesPerTask,
       @JsonProperty("allowHadoopTaskExecution") boolean allowHadoopTaskExecution,
-      @JsonProperty("buildV10") boolean buildV10
+      @JsonProperty("buildV10") boolean buildV10,
+      @JsonProperty("columnMergeThreads") @Nullable Integer columnMergeThreads
   )
   {
     this.baseDir = Configs.valueOrDefault(baseDir, System.getProperty("java.io.tmpdir"));
@@ -124,6 +130,10 @@ public class TaskConfig implements TaskDirectory
     this.tmpStorageBytesPerTask = Configs.valueOrDefault(tmpStorageBytesPerTask, DEFAULT_TMP_STORAGE_BYTES_PER_TASK);
     this.allowHadoopTaskExecution = allowHadoopTaskExecution;
     this.buildV10 = buildV10;
+    this.columnMergeThreads = Configs.valueOrDefault(columnMergeThreads, IndexMerger.DEFAULT_COLUMN_MERGE_THREADS);
+    if (this.columnMergeThreads < 1) {
+      throw InvalidInput.exception("columnMergeThreads[%d] must be at least 1", this.columnMergeThreads);
+    }
   }
 
   private TaskConfig(
@@ -138,7 +148,8 @@ public class TaskConfig implements TaskDirectory
       boolean encapsulatedTask,
       long tmpStorageBytesPerTask,
       boolean allowHadoopTaskExecution,
-      boolean buildV10
+      boolean buildV10,
+      int columnMergeThreads
   )
   {
     this.baseDir = baseDir;
@@ -153,6 +164,7 @@ public class TaskConfig implements TaskDirectory
     this.tmpStorageBytesPerTask = tmpStorageBytesPerTask;
     this.allowHadoopTaskExecution = allowHadoopTaskExecution;
     this.buildV10 = buildV10;
+    this.columnMergeThreads = columnMergeThreads;
   }
 
   @JsonProperty
@@ -257,6 +269,15 @@ public class TaskConfig implements TaskDirectory
     return buildV10;
   }
 
+  /**
+   * Number of threads each task uses to build the dimension columns of a segment concurrently.
+   */
+  @JsonProperty
+  public int getColumnMergeThreads()
+  {
+    return columnMergeThreads;
+  }
+
   private String defaultDir(@Nullable String configParameter, final String defaultVal)
   {
     if (configParameter == null) {
@@ -280,7 +301,8 @@ public class TaskConfig implements TaskDirectory
         encapsulatedTask,
         tmpStorageBytesPerTask,
         allowHadoopTaskExecution,
-        buildV10
+        buildV10,
+        columnMergeThreads
     );
   }
 
@@ -298,7 +320,8 @@ public class TaskConfig implements TaskDirectory
         encapsulatedTask,
         tmpStorageBytesPerTask,
         allowHadoopTaskExecution,
-        buildV10
+        buildV10,
+        columnMergeThreads
     );
   }
 }
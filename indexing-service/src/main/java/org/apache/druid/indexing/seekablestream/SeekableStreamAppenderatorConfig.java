@@ -174,6 +174,12 @@ public class SeekableStreamAppenderatorConfig implements AppenderatorConfig
     return tuningConfig.getNumPersistThreads();
   }
 
+  @Override
+  public int getNumMergeThreads()
+  {
+    return tuningConfig.getNumMergeThreads();
+  }
+
   @Override
   public Integer getMaxRowsPerSegment()
   {
@@ -70,6 +70,7 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
   private final int numPersistThreads;
   private final int maxColumnsToMerge;
   private final boolean releaseLocksOnHandoff;
+  private final int numMergeThreads;
 
   public SeekableStreamIndexTaskTuningConfig(
       @Nullable AppendableIndexSpec appendableIndexSpec,
@@ -94,7 +95,8 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
       @Nullable Integer maxSavedParseExceptions,
       @Nullable Integer numPersistThreads,
       @Nullable Integer maxColumnsToMerge,
-      @Nullable Boolean releaseLocksOnHandoff
+      @Nullable Boolean releaseLocksOnHandoff,
+      @Nullable Integer numMergeThreads
   )
   {
     this.appendableIndexSpec = appendableIndexSpec == null ? DEFAULT_APPENDABLE_INDEX : appendableIndexSpec;
@@ -150,6 +152,10 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
     }
     this.maxColumnsToMerge = maxColumnsToMerge == null ? DEFAULT_MAX_COLUMNS_TO_MERGE : maxColumnsToMerge;
     this.releaseLocksOnHandoff = Configs.valueOrDefault(releaseLocksOnHandoff, DEFAULT_RELEASE_LOCKS_ON_HANDOFF);
+    this.numMergeThreads = Math.max(
+        Configs.valueOrDefault(numMergeThreads, AppenderatorConfig.DEFAULT_NUM_MERGE_THREADS),
+        AppenderatorConfig.DEFAULT_NUM_MERGE_THREADS
+    );
   }
 
   @Override
@@ -303,6 +309,12 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
     return releaseLocksOnHandoff;
   }
 
+  @JsonProperty
+  public int getNumMergeThreads()
+  {
+    return numMergeThreads;
+  }
+
   public abstract SeekableStreamIndexTaskTuningConfig withBasePersistDirectory(File dir);
 
   @Override
@@ -330,6 +342,7 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
            numPersistThreads == that.numPersistThreads &&
            maxColumnsToMerge == that.maxColumnsToMerge &&
            releaseLocksOnHandoff == that.releaseLocksOnHandoff &&
+           numMergeThreads == that.numMergeThreads &&
            Objects.equals(partitionsSpec, that.partitionsSpec) &&
            Objects.equals(intermediatePersistPeriod, that.intermediatePersistPeriod) &&
            Objects.equals(basePersistDirectory, that.basePersistDirectory) &&
@@ -364,7 +377,8 @@ public abstract class SeekableStreamIndexTaskTuningConfig implements TuningConfi
         maxSavedParseExceptions,
         numPersistThreads,
         maxColumnsToMerge,
-        releaseLocksOnHandoff
+        releaseLocksOnHandoff,
+        numMergeThreads
     );
   }
 
@@ -38,6 +38,7 @@ public class TaskConfigBuilder
   private Long tmpStorageBytesPerTask;
   private boolean allowHadoopTaskExecution;
   private boolean buildV10;
+  private Integer columnMergeThreads;
 
   public TaskConfigBuilder setBaseDir(String baseDir)
   {
@@ -111,6 +112,12 @@ public class TaskConfigBuilder
     return this;
   }
 
+  public TaskConfigBuilder setColumnMergeThreads(Integer columnMergeThreads)
+  {
+    this.columnMergeThreads = columnMergeThreads;
+    return this;
+  }
+
   public TaskConfig build()
   {
     return new TaskConfig(
@@ -125,7 +132,8 @@ public class TaskConfigBuilder
         enableTaskLevelLogPush,
         tmpStorageBytesPerTask,
         allowHadoopTaskExecution,
-        buildV10
+        buildV10,
+        columnMergeThreads
     );
   }
 }
@@ -478,6 +478,7 @@ public abstract class SeekableStreamSupervisorTestBase
             null,
             null,
             null,
+            null,
             null
         )
         {
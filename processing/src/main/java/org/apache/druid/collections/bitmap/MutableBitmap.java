@@ -64,4 +64,17 @@ public interface MutableBitmap extends ImmutableBitmap
    */
   void remove(int entry);
 
+  /**
+   * Add every integer from start (inclusive) to end (exclusive) to the bitmap.
+   *
+   * @param start first integer to be added
+   * @param end   integer after the last one to be added
+   */
+  default void addRange(int start, int end)
+  {
+    for (int entry = start; entry < end; entry++) {
+      add(entry);
+    }
+  }
+
 }
@@ -118,6 +118,14 @@ public class WrappedBitSetBitmap extends WrappedImmutableBitSetBitmap implements
     this.bitmap.clear(entry);
   }
 
+  @Override
+  public void addRange(int start, int end)
+  {
+    if (start < end) {
+      this.bitmap.set(start, end);
+    }
+  }
+
   public void serialize(ByteBuffer buffer)
   {
     buffer.put(this.bitmap.toByteArray());
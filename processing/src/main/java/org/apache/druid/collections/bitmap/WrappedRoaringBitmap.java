@@ -184,6 +184,17 @@ public class WrappedRoaringBitmap implements MutableBitmap
     writer.get().remove(entry);
   }
 
+  @Override
+  public void addRange(int start, int end)
+  {
+    if (start < 0) {
+      throw new IllegalArgumentException("Cannot add negative ints");
+    } else if (start < end) {
+      initializeWriterIfNeeded();
+      writer.add(start, end);
+    }
+  }
+
   @Override
   public IntIterator iterator()
   {
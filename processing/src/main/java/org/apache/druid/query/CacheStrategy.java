@@ -114,6 +114,33 @@ public interface CacheStrategy<T, CacheType, QueryType extends Query<T>>
    */
   Function<T, CacheType> prepareForCache(boolean isResultLevelCache);
 
+  /**
+   * Returns whether the results of this query on a single segment are the concatenation, in ascending time order, of its
+   * results on each {@link Query#getGranularity()} bucket of the query interval. When this is true, segment-level
+   * caching may cache and reuse results per granularity bucket, so a query whose interval partially overlaps previously
+   * cached ones only computes the buckets that are missing.
+   *
+   * Must be false if any per-segment processing looks at more than one bucket at a time, such as a per-segment limit,
+   * if results are not in ascending time order, or if results do not carry the timestamp of their bucket.
+   *
+   * @param query the query to check
+   */
+  default boolean isSegmentLevelCacheSplittableByGranularity(QueryType query)
+  {
+    return false;
+  }
+
+  /**
+   * Returns the timestamp of a result, which is used to split results that span several granularity buckets by bucket.
+   * Only called if {@link #isSegmentLevelCacheSplittableByGranularity} returns true.
+   *
+   * @param result the result to get the timestamp of
+   */
+  default long getResultTimestampMillis(T result)
+  {
+    throw new UnsupportedOperationException("Results cannot be split by granularity bucket");
+  }
+
   /**
    * A function that does the inverse of the operation that the function prepareForCache returns
    *
@@ -377,6 +377,12 @@ public class DefaultQueryMetrics<QueryType extends Query<?>> implements QueryMet
     return this;
   }
 
+  @Override
+  public QueryMetrics<QueryType> reportFilterEstimatedSelectivity(double selectivity)
+  {
+    return reportMetric("query/filter/estimatedSelectivity", selectivity);
+  }
+
   @Override
   public QueryMetrics<QueryType> reportParallelMergeParallelism(int parallelism)
   {
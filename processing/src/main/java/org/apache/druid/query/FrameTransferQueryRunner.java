@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query;
+
+import org.apache.druid.frame.allocation.ArenaMemoryAllocatorFactory;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.query.context.ResponseContext;
+
+/**
+ * Query runner used by data servers that converts the result stream into frames using
+ * {@link QueryToolChest#resultsAsTransferFrames}, if {@link #shouldTransferResultsAsFrames} returns true. Frames are
+ * much cheaper for the broker to deserialize than one object per row. The broker converts them back using
+ * {@link QueryToolChest#resultsFromTransferFrames}.
+ *
+ * Like {@link FinalizeResultsQueryRunner}, which it is expected to wrap, this runner does not return sequences with
+ * type T when it converts results.
+ */
+public class FrameTransferQueryRunner<T> implements QueryRunner<T>
+{
+  private final QueryRunner<T> baseRunner;
+  private final QueryToolChest<T, Query<T>> toolChest;
+
+  public FrameTransferQueryRunner(
+      QueryRunner<T> baseRunner,
+      QueryToolChest<T, Query<T>> toolChest
+  )
+  {
+    this.baseRunner = baseRunner;
+    this.toolChest = toolChest;
+  }
+
+  @Override
+  public Sequence<T> run(final QueryPlus<T> queryPlus, ResponseContext responseContext)
+  {
+    final Query<T> query = queryPlus.getQuery();
+    final Sequence<T> results = baseRunner.run(queryPlus, responseContext);
+
+    if (!shouldTransferResultsAsFrames(query, toolChest)) {
+      return results;
+    }
+
+    // this cast is not valid; however the results are only serialized from here on.
+    //noinspection unchecked
+    return (Sequence<T>) (Sequence<?>) toolChest.resultsAsTransferFrames(
+        query,
+        results,
+        ArenaMemoryAllocatorFactory.makeDefault()
+    );
+  }
+
+  /**
+   * Returns whether results of the given query are transferred from data servers to the broker as frames. The broker
+   * and the data servers both call this method with the same query, so that they agree on the format.
+   */
+  public static <T> boolean shouldTransferResultsAsFrames(Query<T> query, QueryToolChest<T, Query<T>> toolChest)
+  {
+    return query.context().isTransferResultsAsFrames()
+           && !query.context().isBySegment()
+           && toolChest.canTransferResultsAsFrames(query);
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.utils.JvmUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link BitmapResultFactory} that splits large {@link #unionDimensionValueBitmaps} calls, such as those of
+ * {@link org.apache.druid.query.filter.InDimFilter} with thousands of values, across a shared {@link ForkJoinPool}.
+ * Everything else is passed through to the wrapped factory, which also combines the partial unions, so query metrics
+ * are still recorded by it.
+ *
+ * Whether to split is decided by a fixed size threshold rather than by estimating cost: a union is only split if it
+ * has at least {@code 2 * minBitmapsPerTask} bitmaps, regardless of how large each bitmap is. Bitmaps are fetched from
+ * the index on the calling thread; only the unions, which read immutable bitmaps, run in the pool.
+ *
+ * The calling thread waits for the unions no longer than the query's deadline, {@link QueryContexts#QUERY_FAIL_TIME}
+ * as set by the server when the query started, and cancels those not yet finished if it times out or is interrupted.
+ *
+ * Enabled by the {@link QueryContexts#PARALLEL_BITMAP_UNION} context parameter. The pool has
+ * {@link #NUM_THREADS_PROPERTY} threads, by default half of the available processors.
+ */
+public class ParallelUnionBitmapResultFactory<T> implements BitmapResultFactory<T>
+{
+  public static final int DEFAULT_MIN_BITMAPS_PER_TASK = 256;
+  public static final String NUM_THREADS_PROPERTY = "druid.processing.parallelBitmapUnion.numThreads";
+
+  private final BitmapResultFactory<T> delegate;
+  private final BitmapFactory bitmapFactory;
+  private final ForkJoinPool pool;
+  private final int minBitmapsPerTask;
+  private final long timeoutAtMillis;
+
+  @VisibleForTesting
+  ParallelUnionBitmapResultFactory(
+      BitmapResultFactory<T> delegate,
+      BitmapFactory bitmapFactory,
+      ForkJoinPool pool,
+      int minBitmapsPerTask,
+      long timeoutAtMillis
+  )
+  {
+    this.delegate = delegate;
+    this.bitmapFactory = bitmapFactory;
+    this.pool = pool;
+    this.minBitmapsPerTask = minBitmapsPerTask;
+    this.timeoutAtMillis = timeoutAtMillis;
+  }
+
+  public static <T> BitmapResultFactory<T> wrap(
+      BitmapResultFactory<T> delegate,
+      BitmapFactory bitmapFactory,
+      QueryContext queryContext
+  )
+  {
+    final ForkJoinPool pool = PoolHolder.POOL;
+    if (pool.getParallelism() < 2) {
+      return delegate;
+    }
+    return new ParallelUnionBitmapResultFactory<>(
+        delegate,
+        bitmapFactory,
+        pool,
+        DEFAULT_MIN_BITMAPS_PER_TASK,
+        getTimeoutAtMillis(queryContext)
+    );
+  }
+
+  /**
+   * Returns the deadline of the query, {@link QueryContexts#QUERY_FAIL_TIME}. If the query has not been through a
+   * server that sets it, falls back to the query timeout counted from now, which is later than the actual deadline.
+   */
+  @VisibleForTesting
+  static long getTimeoutAtMillis(QueryContext queryContext)
+  {
+    final Long failTime = queryContext.getLong(QueryContexts.QUERY_FAIL_TIME);
+    if (failTime != null) {
+      return failTime;
+    }
+    return queryContext.hasTimeout() ? System.currentTimeMillis() + queryContext.getTimeout() : Long.MAX_VALUE;
+  }
+
+  @Override
+  public T wrapDimensionValue(ImmutableBitmap bitmap)
+  {
+    return delegate.wrapDimensionValue(bitmap);
+  }
+
+  @Override
+  public T wrapAllFalse(ImmutableBitmap allFalseBitmap)
+  {
+    return delegate.wrapAllFalse(allFalseBitmap);
+  }
+
+  @Override
+  public T wrapAllTrue(ImmutableBitmap allTrueBitmap)
+  {
+    return delegate.wrapAllTrue(allTrueBitmap);
+  }
+
+  @Override
+  public boolean isEmpty(T bitmapResult)
+  {
+    return delegate.isEmpty(bitmapResult);
+  }
+
+  @Override
+  public T intersection(Iterable<T> bitmapResults)
+  {
+    return delegate.intersection(bitmapResults);
+  }
+
+  @Override
+  public T union(Iterable<T> bitmapResults)
+  {
+    return delegate.union(bitmapResults);
+  }
+
+  @Override
+  public T unionDimensionValueBitmaps(Iterable<ImmutableBitmap> dimensionValueBitmaps)
+  {
+    final List<ImmutableBitmap> bitmaps = new ArrayList<>();
+    Iterables.addAll(bitmaps, dimensionValueBitmaps);
+
+    if (bitmaps.size() < 2 * minBitmapsPerTask) {
+      return delegate.unionDimensionValueBitmaps(bitmaps);
+    }
+
+    // Split into at most one task per pool thread, each with at least minBitmapsPerTask bitmaps, however many rows
+    // they have.
+    final int numTasks = Math.min(pool.getParallelism(), bitmaps.size() / minBitmapsPerTask);
+    final int bitmapsPerTask = (bitmaps.size() + numTasks - 1) / numTasks;
+    final List<UnionTask> tasks = new ArrayList<>(numTasks);
+    for (int start = 0; start < bitmaps.size(); start += bitmapsPerTask) {
+      final UnionTask task = new UnionTask(bitmaps.subList(start, Math.min(start + bitmapsPerTask, bitmaps.size())));
+      tasks.add(task);
+      pool.execute(task);
+    }
+
+    final List<ImmutableBitmap> partialUnions = new ArrayList<>(tasks.size());
+    try {
+      for (UnionTask task : tasks) {
+        if (timeoutAtMillis == Long.MAX_VALUE) {
+          partialUnions.add(task.get());
+        } else {
+          final long timeoutMillis = timeoutAtMillis - System.currentTimeMillis();
+          if (timeoutMillis <= 0) {
+            throw new TimeoutException();
+          }
+          partialUnions.add(task.get(timeoutMillis, TimeUnit.MILLISECONDS));
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      cancelAll(tasks);
+      Thread.currentThread().interrupt();
+      throw new QueryInterruptedException(e);
+    }
+    catch (TimeoutException e) {
+      cancelAll(tasks);
+      throw new QueryTimeoutException("Query timed out while computing a bitmap union");
+    }
+    catch (ExecutionException e) {
+      cancelAll(tasks);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+    return delegate.unionDimensionValueBitmaps(partialUnions);
+  }
+
+  private static void cancelAll(List<UnionTask> tasks)
+  {
+    for (UnionTask task : tasks) {
+      task.cancel(true);
+    }
+  }
+
+  @Override
+  public T complement(T bitmapResult, int numRows)
+  {
+    return delegate.complement(bitmapResult, numRows);
+  }
+
+  @Override
+  public ImmutableBitmap toImmutableBitmap(T bitmapResult)
+  {
+    return delegate.toImmutableBitmap(bitmapResult);
+  }
+
+  private class UnionTask extends RecursiveTask<ImmutableBitmap>
+  {
+    private final List<ImmutableBitmap> bitmaps;
+
+    private UnionTask(List<ImmutableBitmap> bitmaps)
+    {
+      this.bitmaps = bitmaps;
+    }
+
+    @Override
+    protected ImmutableBitmap compute()
+    {
+      return bitmapFactory.union(bitmaps);
+    }
+  }
+
+  /**
+   * Lazily creates the shared pool, so processes that never enable parallel unions do not start its threads.
+   */
+  private static class PoolHolder
+  {
+    private static final Logger log = new Logger(ParallelUnionBitmapResultFactory.class);
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+        Integer.getInteger(
+            NUM_THREADS_PROPERTY,
+            Math.max(1, JvmUtils.getRuntimeInfo().getAvailableProcessors() / 2)
+        ),
+        pool -> {
+          final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setDaemon(true);
+          thread.setName(StringUtils.format("bitmap-union-%d", thread.getPoolIndex()));
+          return thread;
+        },
+        (t, e) -> log.error(e, "Unhandled exception in thread [%s]", t),
+        false
+    );
+  }
+}
@@ -306,6 +306,14 @@ public class QueryContext
     return getBoolean(QueryContexts.USE_RESULT_LEVEL_CACHE_KEY, defaultValue);
   }
 
+  public boolean isSegmentCacheByGranularity()
+  {
+    return getBoolean(
+        QueryContexts.SEGMENT_CACHE_BY_GRANULARITY_KEY,
+        QueryContexts.DEFAULT_SEGMENT_CACHE_BY_GRANULARITY
+    );
+  }
+
   public boolean isFinalize(boolean defaultValue)
 
   {
@@ -612,6 +620,42 @@ public class QueryContext
     );
   }
 
+  /**
+   * Returns the number of milliseconds after which the broker also sends a sub-query, which a data server has not
+   * started responding to yet, to another replica. Returns 0 if hedging is disabled, which is the default, or
+   * {@link QueryContexts#HEDGE_DELAY_ADAPTIVE} if the delay should be derived from the recent latency of the server.
+   */
+  public long getHedgeDelay()
+  {
+    if (QueryContexts.HEDGE_DELAY_AUTO.equals(get(QueryContexts.HEDGE_DELAY_KEY))) {
+      return QueryContexts.HEDGE_DELAY_ADAPTIVE;
+    }
+    final long hedgeDelay = getLong(QueryContexts.HEDGE_DELAY_KEY, QueryContexts.DEFAULT_HEDGE_DELAY);
+    if (hedgeDelay >= 0) {
+      return hedgeDelay;
+    }
+    throw new BadQueryContextException(
+        StringUtils.format(
+            "%s must be a non negative value or '%s', but was %d",
+            QueryContexts.HEDGE_DELAY_KEY,
+            QueryContexts.HEDGE_DELAY_AUTO,
+            hedgeDelay
+        )
+    );
+  }
+
+  /**
+   * Returns true if data servers should send results to the broker as frames rather than as one object per row, for
+   * query types whose toolchest supports it. See {@link QueryToolChest#canTransferResultsAsFrames}.
+   */
+  public boolean isTransferResultsAsFrames()
+  {
+    return getBoolean(
+        QueryContexts.TRANSFER_RESULTS_AS_FRAMES_KEY,
+        QueryContexts.DEFAULT_TRANSFER_RESULTS_AS_FRAMES
+    );
+  }
+
   public boolean getEnableRewriteJoinToFilter()
   {
     return getBoolean(
@@ -65,7 +65,12 @@ public class QueryContexts
   public static final String JOIN_FILTER_REWRITE_MAX_SIZE_KEY = "joinFilterRewriteMaxSize";
   public static final String MAX_NUMERIC_IN_FILTERS = "maxNumericInFilters";
   public static final String CURSOR_AUTO_ARRANGE_FILTERS = "cursorAutoArrangeFilters";
+  public static final String PARALLEL_BITMAP_UNION = "parallelBitmapUnion";
+  // Absolute time in millis at which the query fails with a timeout, set by the server when the query starts
+  public static final String QUERY_FAIL_TIME = "queryFailTime";
   public static final String CLONE_QUERY_MODE = "cloneQueryMode";
+  public static final String HEDGE_DELAY_KEY = "hedgeDelay";
+  public static final String TRANSFER_RESULTS_AS_FRAMES_KEY = "transferResultsAsFrames";
   // This flag controls whether a SQL join query with left scan should be attempted to be run as direct table access
   // instead of being wrapped inside a query. With direct table access enabled, Druid can push down the join operation to
   // data servers.
@@ -85,10 +90,13 @@ public class QueryContexts
   public static final String POPULATE_CACHE_KEY = "populateCache";
   public static final String POPULATE_RESULT_LEVEL_CACHE_KEY = "populateResultLevelCache";
   public static final String USE_RESULT_LEVEL_CACHE_KEY = "useResultLevelCache";
+  public static final String SEGMENT_CACHE_BY_GRANULARITY_KEY = "segmentCacheByGranularity";
   public static final String SERIALIZE_DATE_TIME_AS_LONG_KEY = "serializeDateTimeAsLong";
   public static final String SERIALIZE_DATE_TIME_AS_LONG_INNER_KEY = "serializeDateTimeAsLongInner";
   public static final String UNCOVERED_INTERVALS_LIMIT_KEY = "uncoveredIntervalsLimit";
   public static final String MIN_TOP_N_THRESHOLD = "minTopNThreshold";
+  public static final String APPROXIMATE_TOP_N = "approximateTopN";
+  public static final String MAX_TOP_N_THRESHOLD = "maxTopNThreshold";
   public static final String CATALOG_VALIDATION_ENABLED = "catalogValidationEnabled";
   public static final String ENGINE = "engine";
   // this flag controls whether the topN engine can use the 'pooled' algorithm when query granularity is set to
@@ -150,6 +158,7 @@ public class QueryContexts
   public static final boolean DEFAULT_USE_CACHE = true;
   public static final boolean DEFAULT_POPULATE_RESULTLEVEL_CACHE = true;
   public static final boolean DEFAULT_USE_RESULTLEVEL_CACHE = true;
+  public static final boolean DEFAULT_SEGMENT_CACHE_BY_GRANULARITY = false;
   public static final Vectorize DEFAULT_VECTORIZE = Vectorize.TRUE;
   public static final Vectorize DEFAULT_VECTORIZE_VIRTUAL_COLUMN = Vectorize.TRUE;
   public static final int DEFAULT_VECTOR_SIZE = 512;
@@ -162,6 +171,10 @@ public class QueryContexts
   public static final boolean DEFAULT_ENABLE_JOIN_FILTER_REWRITE = true;
   public static final boolean DEFAULT_ENABLE_JOIN_FILTER_REWRITE_VALUE_COLUMN_FILTERS = false;
   public static final CloneQueryMode DEFAULT_CLONE_QUERY_MODE = CloneQueryMode.EXCLUDECLONES;
+  public static final long DEFAULT_HEDGE_DELAY = 0;
+  public static final String HEDGE_DELAY_AUTO = "auto";
+  public static final long HEDGE_DELAY_ADAPTIVE = -1;
+  public static final boolean DEFAULT_TRANSFER_RESULTS_AS_FRAMES = false;
   public static final String DEFAULT_ENGINE = "native";
   public static final boolean DEFAULT_ENABLE_REWRITE_JOIN_TO_FILTER = true;
   public static final long DEFAULT_ENABLE_JOIN_FILTER_REWRITE_MAX_SIZE = 10000;
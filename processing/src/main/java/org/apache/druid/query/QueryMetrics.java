@@ -454,6 +454,13 @@ public interface QueryMetrics<QueryType extends Query<?>>
    */
   QueryMetrics<QueryType> reportPreFilteredRows(long numRows);
 
+  /**
+   * Reports the estimated fraction of rows in the segment matched by the filter, computed from column statistics when
+   * the filters are auto-arranged by cost and selectivity. Not reported if there is no estimate. Comparing it with
+   * {@link #reportPreFilteredRows(long)} shows how well the estimates used to arrange filters hold up.
+   */
+  QueryMetrics<QueryType> reportFilterEstimatedSelectivity(double selectivity);
+
   /**
    * Reports number of parallel tasks the broker used to process the query during parallel merge. This value is
    * identical to the {@link #parallelMergeParallelism} dimension value, but optionally also available as a metric.
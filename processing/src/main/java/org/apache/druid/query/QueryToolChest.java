@@ -30,6 +30,7 @@ import org.apache.druid.guice.annotations.ExtensionPoint;
 import org.apache.druid.java.util.common.UOE;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.query.aggregation.MetricManipulationFn;
+import org.apache.druid.query.rowsandcols.RowsAndColumns;
 import org.apache.druid.segment.column.RowSignature;
 import org.apache.druid.timeline.LogicalSegment;
 
@@ -423,6 +424,46 @@ public abstract class QueryToolChest<ResultType, QueryType extends Query<ResultT
     return Optional.empty();
   }
 
+  /**
+   * Returns whether the results of this query, as returned by a data server to the broker, can be converted to frames
+   * by {@link #resultsAsTransferFrames} and back by {@link #resultsFromTransferFrames}. Both sides make this decision
+   * using the same query, so it must only depend on the query itself. See {@link FrameTransferQueryRunner}.
+   */
+  public boolean canTransferResultsAsFrames(QueryType query)
+  {
+    return false;
+  }
+
+  /**
+   * Converts the results of this query on a data server into frames, which are sent to the broker in place of the
+   * results themselves. Only called if {@link #canTransferResultsAsFrames} returns true.
+   *
+   * @param query                  query being executed
+   * @param resultSequence         results of the form returned by {@link #mergeResults(QueryRunner, boolean)}
+   * @param memoryAllocatorFactory allocator for the frames
+   * @return frame-based {@link RowsAndColumns}, which are serialized as such
+   * @throws UnsupportedOperationException if this query type does not support transferring results as frames
+   */
+  public Sequence<RowsAndColumns> resultsAsTransferFrames(
+      QueryType query,
+      Sequence<ResultType> resultSequence,
+      MemoryAllocatorFactory memoryAllocatorFactory
+  )
+  {
+    throw new UOE("Query type '%s' does not support transferring results as frames", query.getType());
+  }
+
+  /**
+   * Converts frames written by {@link #resultsAsTransferFrames} on a data server back into the results of this query,
+   * as they would have been deserialized if they had been sent one object per row.
+   *
+   * @throws UnsupportedOperationException if this query type does not support transferring results as frames
+   */
+  public Sequence<ResultType> resultsFromTransferFrames(QueryType query, Sequence<RowsAndColumns> frames)
+  {
+    throw new UOE("Query type '%s' does not support transferring results as frames", query.getType());
+  }
+
   public <T> boolean canExecuteFully(Query<T> query)
   {
     DataSource dataSourceFromQuery = query.getDataSource();
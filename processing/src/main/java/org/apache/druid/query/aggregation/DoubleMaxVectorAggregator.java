@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,12 @@ public class DoubleMaxVectorAggregator implements VectorAggregator
   {
     final double[] vector = selector.getDoubleVector();
 
-    double max = buf.getDouble(position);
-    for (int i = startRow; i < endRow; i++) {
-      max = Math.max(max, vector[i]);
+    if (selector.isConstantVector() && endRow > startRow) {
+      buf.putDouble(position, Math.max(buf.getDouble(position), vector[startRow]));
+      return;
     }
 
-    buf.putDouble(position, max);
+    buf.putDouble(position, NumericVectorKernels.max(buf.getDouble(position), vector, startRow, endRow));
   }
 
   @Override
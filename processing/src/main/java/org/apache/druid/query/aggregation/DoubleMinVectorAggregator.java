@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,12 @@ public class DoubleMinVectorAggregator implements VectorAggregator
   {
     final double[] vector = selector.getDoubleVector();
 
-    double min = buf.getDouble(position);
-    for (int i = startRow; i < endRow; i++) {
-      min = Math.min(min, vector[i]);
+    if (selector.isConstantVector() && endRow > startRow) {
+      buf.putDouble(position, Math.min(buf.getDouble(position), vector[startRow]));
+      return;
     }
 
-    buf.putDouble(position, min);
+    buf.putDouble(position, NumericVectorKernels.min(buf.getDouble(position), vector, startRow, endRow));
   }
 
   @Override
@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,7 @@ public class DoubleSumVectorAggregator implements VectorAggregator
   {
     final double[] vector = selector.getDoubleVector();
 
-    double sum = 0;
-    for (int i = startRow; i < endRow; i++) {
-      sum += vector[i];
-    }
-
-    buf.putDouble(position, buf.getDouble(position) + sum);
+    buf.putDouble(position, buf.getDouble(position) + NumericVectorKernels.sum(vector, startRow, endRow));
   }
 
   @Override
@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,7 @@ public class FloatMaxVectorAggregator implements VectorAggregator
   {
     final float[] vector = selector.getFloatVector();
 
-    float max = buf.getFloat(position);
-    for (int i = startRow; i < endRow; i++) {
-      max = Math.max(max, vector[i]);
-    }
-
-    buf.putFloat(position, max);
+    buf.putFloat(position, NumericVectorKernels.max(buf.getFloat(position), vector, startRow, endRow));
   }
 
   @Override
@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,7 @@ public class FloatMinVectorAggregator implements VectorAggregator
   {
     final float[] vector = selector.getFloatVector();
 
-    float min = buf.getFloat(position);
-    for (int i = startRow; i < endRow; i++) {
-      min = Math.min(min, vector[i]);
-    }
-
-    buf.putFloat(position, min);
+    buf.putFloat(position, NumericVectorKernels.min(buf.getFloat(position), vector, startRow, endRow));
   }
 
   @Override
@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,7 @@ public class FloatSumVectorAggregator implements VectorAggregator
   {
     final float[] vector = selector.getFloatVector();
 
-    float sum = 0;
-    for (int i = startRow; i < endRow; i++) {
-      sum += vector[i];
-    }
-
-    buf.putFloat(position, buf.getFloat(position) + sum);
+    buf.putFloat(position, buf.getFloat(position) + NumericVectorKernels.sum(vector, startRow, endRow));
   }
 
 
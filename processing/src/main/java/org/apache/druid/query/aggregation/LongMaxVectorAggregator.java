@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,12 @@ public class LongMaxVectorAggregator implements VectorAggregator
   {
     final long[] vector = selector.getLongVector();
 
-    long max = buf.getLong(position);
-    for (int i = startRow; i < endRow; i++) {
-      max = Math.max(max, vector[i]);
+    if (selector.isConstantVector() && endRow > startRow) {
+      buf.putLong(position, Math.max(buf.getLong(position), vector[startRow]));
+      return;
     }
 
-    buf.putLong(position, max);
+    buf.putLong(position, NumericVectorKernels.max(buf.getLong(position), vector, startRow, endRow));
   }
 
   @Override
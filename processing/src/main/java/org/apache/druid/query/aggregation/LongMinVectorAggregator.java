@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,12 @@ public class LongMinVectorAggregator implements VectorAggregator
   {
     final long[] vector = selector.getLongVector();
 
-    long min = buf.getLong(position);
-    for (int i = startRow; i < endRow; i++) {
-      min = Math.min(min, vector[i]);
+    if (selector.isConstantVector() && endRow > startRow) {
+      buf.putLong(position, Math.min(buf.getLong(position), vector[startRow]));
+      return;
     }
 
-    buf.putLong(position, min);
+    buf.putLong(position, NumericVectorKernels.min(buf.getLong(position), vector, startRow, endRow));
   }
 
   @Override
@@ -19,6 +19,7 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.vector.VectorValueSelector;
 
 import javax.annotation.Nullable;
@@ -44,12 +45,13 @@ public class LongSumVectorAggregator implements VectorAggregator
   {
     final long[] vector = selector.getLongVector();
 
-    long sum = 0;
-    for (int i = startRow; i < endRow; i++) {
-      sum += vector[i];
+    if (selector.isConstantVector()) {
+      // Same as adding every row, including on overflow.
+      buf.putLong(position, buf.getLong(position) + (endRow > startRow ? vector[startRow] * (endRow - startRow) : 0));
+      return;
     }
 
-    buf.putLong(position, buf.getLong(position) + sum);
+    buf.putLong(position, buf.getLong(position) + NumericVectorKernels.sum(vector, startRow, endRow));
   }
 
   @Override
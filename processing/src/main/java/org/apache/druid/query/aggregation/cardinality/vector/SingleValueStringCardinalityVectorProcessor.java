@@ -50,8 +50,8 @@ public class SingleValueStringCardinalityVectorProcessor implements CardinalityV
 
       final HyperLogLogCollector collector = HyperLogLogCollector.makeCollector(buf);
 
-
-      for (int i = startRow; i < endRow; i++) {
+      // Adding a value again does not change the collector, so each run of identical ids is added once.
+      for (int i = startRow; i < endRow; i = Math.min(selector.getRunEnd(i), endRow)) {
         final String value = selector.lookupName(vector[i]);
         StringCardinalityAggregatorColumnSelectorStrategy.addStringToCollector(collector, value);
       }
@@ -35,6 +35,7 @@ import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.NonnullPair;
 import org.apache.druid.query.SegmentDescriptor;
+import org.apache.druid.query.topn.TopNErrorBounds;
 import org.apache.druid.utils.CollectionUtils;
 import org.joda.time.Interval;
 
@@ -453,6 +454,23 @@ public abstract class ResponseContext
         false
     );
 
+    /**
+     * Error bounds of an approximate topN query, reported by the Broker. See
+     * {@link org.apache.druid.query.topn.ApproximateTopNQueryRunner}.
+     */
+    public static final Key TOPN_ERROR_BOUNDS = new AbstractKey(
+        "topNErrorBounds",
+        true, true,
+        TopNErrorBounds.class
+    )
+    {
+      @Override
+      public Object mergeValues(Object oldValue, Object newValue)
+      {
+        return newValue;
+      }
+    };
+
     /**
      * Indicates if a {@link ResponseContext} was truncated during serialization.
      */
@@ -488,6 +506,7 @@ public abstract class ResponseContext
               TIMEOUT_AT,
               NUM_SCANNED_ROWS,
               CPU_CONSUMED_NANOS,
+              TOPN_ERROR_BOUNDS,
               TRUNCATED,
               }
       );
@@ -54,4 +54,14 @@ public interface BooleanFilter extends Filter
    */
   @Nullable
   BitmapColumnIndex getBitmapColumnIndex(BitmapFactory bitmapFactory, List<FilterBundle.Builder> childBuilders);
+
+  /**
+   * Whether this filter matches rows which match any of its children, like OR, rather than rows which match all of
+   * them, like AND. Used by {@link FilterBundle.Builder} to decide how the selectivity of each child should weigh on
+   * the order the children are processed in.
+   */
+  default boolean isDisjunction()
+  {
+    return false;
+  }
 }
@@ -154,22 +154,36 @@ public class FilterBundle
 
   /**
    * Wraps info needed to build a {@link FilterBundle}, and provides an estimated compute cost for
-   * {@link BitmapColumnIndex#computeBitmapResult}.
+   * {@link BitmapColumnIndex#computeBitmapResult} and an estimated selectivity from
+   * {@link BitmapColumnIndex#estimatedSelectivity(int)}.
+   * <p>
+   * With cursorAutoArrangeFilters set, the children of AND and OR filters are arranged by ascending rank, which is the
+   * estimated cost divided by the estimated benefit of processing the child early. For AND the benefit is the fraction
+   * of rows the child removes, since every later child is applied to fewer rows, and for OR the benefit is the
+   * fraction of rows the child matches, since those rows need not be checked against later children. Children with
+   * no estimate of selectivity are assumed to match {@link #DEFAULT_SELECTIVITY} of the rows, and children which
+   * cannot use an index at all always go last.
    */
   public static class Builder
   {
+    static final double DEFAULT_SELECTIVITY = 0.5;
+    private static final double MIN_BENEFIT = 1e-6;
+
     private final Filter filter;
     private final ColumnIndexSelector columnIndexSelector;
     @Nullable
     private final BitmapColumnIndex bitmapColumnIndex;
     private final List<FilterBundle.Builder> childBuilders;
     private final int estimatedIndexComputeCost;
+    private final double estimatedSelectivity;
 
     public Builder(Filter filter, ColumnIndexSelector columnIndexSelector, boolean cursorAutoArrangeFilters)
     {
       this.filter = filter;
       this.columnIndexSelector = columnIndexSelector;
+      final int numRows = columnIndexSelector.getNumRows();
       // Construct Builder instances for all child filters recursively.
+      final BitmapColumnIndex index;
       if (filter instanceof BooleanFilter) {
         final BooleanFilter bool = (BooleanFilter) filter;
         Collection<Filter> childFilters = bool.getFilters();
@@ -177,7 +191,7 @@ public class FilterBundle
         for (Filter childFilter : childFilters) {
           childBuilders.add(new FilterBundle.Builder(childFilter, columnIndexSelector, cursorAutoArrangeFilters));
         }
-        this.bitmapColumnIndex = bool.getBitmapColumnIndex(columnIndexSelector.getBitmapFactory(), childBuilders);
+        index = bool.getBitmapColumnIndex(columnIndexSelector.getBitmapFactory(), childBuilders);
       } else if (filter instanceof BooleanUnaryFilter) {
         final BooleanUnaryFilter bool = (BooleanUnaryFilter) filter;
         childBuilders = new ArrayList<>(1);
@@ -187,20 +201,42 @@ public class FilterBundle
             cursorAutoArrangeFilters
         );
         childBuilders.add(childBuilder);
-        this.bitmapColumnIndex = bool.getBitmapColumnIndex(columnIndexSelector.getNumRows(), childBuilder);
+        index = bool.getBitmapColumnIndex(numRows, childBuilder);
       } else {
         this.childBuilders = List.of();
-        this.bitmapColumnIndex = filter.getBitmapColumnIndex(columnIndexSelector);
+        index = filter.getBitmapColumnIndex(columnIndexSelector);
       }
       if (cursorAutoArrangeFilters) {
         if (!childBuilders.isEmpty()) {
-          // Sort child builders by cost in ASCENDING order, should be stable by default.
-          childBuilders.sort(Comparator.comparingInt(FilterBundle.Builder::getEstimatedIndexComputeCost));
+          // Sort child builders by rank in ASCENDING order, should be stable by default.
+          final boolean disjunction = filter instanceof BooleanFilter && ((BooleanFilter) filter).isDisjunction();
+          childBuilders.sort(Comparator.comparingDouble(childBuilder -> childBuilder.getRank(disjunction)));
+        }
+        if (index == null) {
+          this.bitmapColumnIndex = null;
+          this.estimatedSelectivity = BitmapColumnIndex.UNKNOWN_SELECTIVITY;
+        } else {
+          // The index of an AND, OR or NOT estimates its selectivity from the indexes of its children, which are the
+          // indexes of the child builders, so remembering the estimate here means each node is only estimated once.
+          this.estimatedSelectivity = index.estimatedSelectivity(numRows);
+          this.bitmapColumnIndex = new EstimatedBitmapColumnIndex(index, numRows, estimatedSelectivity);
         }
         this.estimatedIndexComputeCost = calculateEstimatedIndexComputeCost();
       } else {
+        this.bitmapColumnIndex = index;
         this.estimatedIndexComputeCost = Integer.MAX_VALUE;
+        this.estimatedSelectivity = BitmapColumnIndex.UNKNOWN_SELECTIVITY;
+      }
+    }
+
+    private double getRank(boolean disjunction)
+    {
+      if (estimatedIndexComputeCost == Integer.MAX_VALUE) {
+        return Double.POSITIVE_INFINITY;
       }
+      final double selectivity = estimatedSelectivity < 0 ? DEFAULT_SELECTIVITY : estimatedSelectivity;
+      final double benefit = disjunction ? selectivity : 1.0 - selectivity;
+      return estimatedIndexComputeCost / Math.max(benefit, MIN_BENEFIT);
     }
 
     private int calculateEstimatedIndexComputeCost()
@@ -244,6 +280,15 @@ public class FilterBundle
       return estimatedIndexComputeCost;
     }
 
+    /**
+     * Estimated fraction of rows matched by the index of this filter, or {@link BitmapColumnIndex#UNKNOWN_SELECTIVITY}
+     * if there is no index, no estimate, or cursorAutoArrangeFilters is not set.
+     */
+    public double getEstimatedSelectivity()
+    {
+      return estimatedSelectivity;
+    }
+
     public <T> FilterBundle build(
         BitmapResultFactory<T> bitmapResultFactory,
         int applyRowCount,
@@ -255,6 +300,60 @@ public class FilterBundle
     }
   }
 
+  /**
+   * {@link BitmapColumnIndex} which answers {@link #estimatedSelectivity(int)} for the segment row count from an
+   * estimate already computed by its {@link Builder}, and delegates everything else.
+   */
+  private static class EstimatedBitmapColumnIndex implements BitmapColumnIndex
+  {
+    private final BitmapColumnIndex delegate;
+    private final int numRows;
+    private final double estimatedSelectivity;
+
+    private EstimatedBitmapColumnIndex(BitmapColumnIndex delegate, int numRows, double estimatedSelectivity)
+    {
+      this.delegate = delegate;
+      this.numRows = numRows;
+      this.estimatedSelectivity = estimatedSelectivity;
+    }
+
+    @Override
+    public ColumnIndexCapabilities getIndexCapabilities()
+    {
+      return delegate.getIndexCapabilities();
+    }
+
+    @Override
+    public int estimatedComputeCost()
+    {
+      return delegate.estimatedComputeCost();
+    }
+
+    @Override
+    public double estimatedSelectivity(int totalRowCount)
+    {
+      return totalRowCount == numRows ? estimatedSelectivity : delegate.estimatedSelectivity(totalRowCount);
+    }
+
+    @Override
+    public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
+    {
+      return delegate.computeBitmapResult(bitmapResultFactory, includeUnknown);
+    }
+
+    @Nullable
+    @Override
+    public <T> T computeBitmapResult(
+        BitmapResultFactory<T> bitmapResultFactory,
+        int applyRowCount,
+        int totalRowCount,
+        boolean includeUnknown
+    )
+    {
+      return delegate.computeBitmapResult(bitmapResultFactory, applyRowCount, totalRowCount, includeUnknown);
+    }
+  }
+
   public static class SimpleIndexBundle implements IndexBundle
   {
     private final IndexBundleInfo info;
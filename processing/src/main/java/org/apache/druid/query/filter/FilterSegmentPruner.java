@@ -19,8 +19,11 @@
 
 package org.apache.druid.query.filter;
 
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
 import com.google.common.collect.RangeSet;
 import org.apache.druid.error.InvalidInput;
+import org.apache.druid.segment.data.StringBloomFilter;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.partition.ShardSpec;
 
@@ -38,10 +41,14 @@ import java.util.function.Function;
 /**
   * Uses a {@link DimFilter} to check the {@link DimFilter#getDimensionRangeSet(String)} against
  * {@link ShardSpec#possibleInDomain(Map)} in order to 'prune' a set of segments whose rows would never match a filter
- * and avoid processing those segments in the first place.
+ * and avoid processing those segments in the first place. Segments published with
+ * {@link DataSegment#getBloomFilters()} are also pruned if none of the values a filter requires of those columns are
+ * in the bloom filters.
   */
 public class FilterSegmentPruner implements SegmentPruner
 {
+  private static final Range<String> NULL_RANGE = Range.lessThan("");
+
   private final DimFilter filter;
   private final Set<String> filterFields;
   private final Map<String, Optional<RangeSet<String>>> rangeCache;
@@ -101,6 +108,21 @@ public class FilterSegmentPruner implements SegmentPruner
         }
       }
 
+      if (include && segment.getBloomFilters() != null) {
+        for (Map.Entry<String, StringBloomFilter> entry : segment.getBloomFilters().entrySet()) {
+          final String dimension = entry.getKey();
+          if (filterFields == null || filterFields.contains(dimension)) {
+            Optional<RangeSet<String>> optFilterRangeSet =
+                rangeCache.computeIfAbsent(dimension, d -> Optional.ofNullable(filter.getDimensionRangeSet(d)));
+
+            if (optFilterRangeSet.isPresent() && !mightContainAny(entry.getValue(), optFilterRangeSet.get())) {
+              include = false;
+              break;
+            }
+          }
+        }
+      }
+
       if (include) {
         retSet.add(obj);
       }
@@ -108,6 +130,38 @@ public class FilterSegmentPruner implements SegmentPruner
     return retSet;
   }
 
+  /**
+   * Returns false only if the filter range set is made of single values, or the null value, none of which are in the
+   * bloom filter. Any other range cannot be checked against a bloom filter.
+   */
+  private static boolean mightContainAny(StringBloomFilter bloomFilter, RangeSet<String> rangeSet)
+  {
+    for (Range<String> range : rangeSet.asRanges()) {
+      if (NULL_RANGE.equals(range)) {
+        // only null values are less than empty string, see SelectorDimFilter#getDimensionRangeSet
+        if (bloomFilter.mightContain(null)) {
+          return true;
+        }
+      } else if (isSingleton(range)) {
+        if (bloomFilter.mightContain(range.lowerEndpoint())) {
+          return true;
+        }
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isSingleton(Range<String> range)
+  {
+    return range.hasLowerBound()
+           && range.hasUpperBound()
+           && range.lowerBoundType() == BoundType.CLOSED
+           && range.upperBoundType() == BoundType.CLOSED
+           && range.lowerEndpoint().equals(range.upperEndpoint());
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -218,19 +218,24 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
     // Regex patterns that describes matching strings.
     private final List<Pattern> pattern;
 
+    // Runs of literal characters between wildcards, which every matching string must contain in order.
+    private final List<String> literals;
+
     private final String likePattern;
 
     private LikeMatcher(
         final String likePattern,
         final SuffixMatch suffixMatch,
         final String prefix,
-        final List<Pattern> pattern
+        final List<Pattern> pattern,
+        final List<String> literals
     )
     {
       this.likePattern = likePattern;
       this.suffixMatch = Preconditions.checkNotNull(suffixMatch, "suffixMatch");
       this.prefix = prefix;
       this.pattern = Preconditions.checkNotNull(pattern, "pattern");
+      this.literals = Preconditions.checkNotNull(literals, "literals");
     }
 
     public static LikeMatcher from(
@@ -243,6 +248,8 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
       // https://www.rexegg.com/regex-explosive-quantifiers.html#remote
       final List<Pattern> pattern = new ArrayList<>();
       final StringBuilder regex = new StringBuilder("^");
+      final List<String> literals = new ArrayList<>();
+      final StringBuilder literal = new StringBuilder();
       boolean escaping = false;
       boolean inPrefix = true;
       SuffixMatch suffixMatch = SuffixMatch.MATCH_EMPTY;
@@ -252,6 +259,7 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
           escaping = true;
         } else if (c == '%' && !escaping) {
           inPrefix = false;
+          addLiteral(literals, literal);
           if (suffixMatch == SuffixMatch.MATCH_EMPTY) {
             suffixMatch = SuffixMatch.MATCH_ANY;
           }
@@ -263,6 +271,7 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
           }
         } else if (c == '_' && !escaping) {
           inPrefix = false;
+          addLiteral(literals, literal);
           suffixMatch = SuffixMatch.MATCH_PATTERN;
           regex.append('.');
         } else {
@@ -272,9 +281,11 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
             suffixMatch = SuffixMatch.MATCH_PATTERN;
           }
           addPatternCharacter(regex, c);
+          literal.append(c);
           escaping = false;
         }
       }
+      addLiteral(literals, literal);
 
       if (likePattern.isEmpty()) {
         pattern.add(Pattern.compile("^$"));
@@ -283,7 +294,15 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
         pattern.add(Pattern.compile(regex.toString(), Pattern.DOTALL));
       }
 
-      return new LikeMatcher(likePattern, suffixMatch, prefix.toString(), pattern);
+      return new LikeMatcher(likePattern, suffixMatch, prefix.toString(), pattern, literals);
+    }
+
+    private static void addLiteral(final List<String> literals, final StringBuilder literal)
+    {
+      if (literal.length() > 0) {
+        literals.add(literal.toString());
+        literal.setLength(0);
+      }
     }
 
     private static void addPatternCharacter(final StringBuilder patternBuilder, final char c)
@@ -352,6 +371,15 @@ public class LikeDimFilter extends AbstractOptimizableDimFilter implements DimFi
       return prefix;
     }
 
+    /**
+     * Runs of literal characters between the wildcards of the pattern. Every string matching the pattern contains all
+     * of them.
+     */
+    public List<String> getLiterals()
+    {
+      return literals;
+    }
+
     public SuffixMatch getSuffixMatch()
     {
       return suffixMatch;
@@ -23,6 +23,7 @@ import org.apache.druid.math.expr.ExprEval;
 import org.apache.druid.math.expr.ExpressionType;
 import org.apache.druid.query.filter.DruidDoublePredicate;
 import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.vector.VectorValueSelector;
@@ -79,11 +80,26 @@ public class DoubleVectorValueMatcher implements VectorValueMatcherFactory
         final int[] selection = match.getSelection();
         final boolean[] nulls = selector.getNullVector();
         final boolean hasNulls = nulls != null;
+
+        if (!hasNulls) {
+          final int numRows = mask.isAllTrue(selector.getCurrentVectorSize())
+                              ? NumericVectorKernels.selectEquals(vector, mask.getSelectionSize(), matchValDouble, selection)
+                              : NumericVectorKernels.selectEquals(
+                                  vector,
+                                  mask.getSelection(),
+                                  mask.getSelectionSize(),
+                                  matchValDouble,
+                                  selection
+                              );
+          match.setSelectionSize(numRows);
+          return match;
+        }
+
         int numRows = 0;
 
         for (int i = 0; i < mask.getSelectionSize(); i++) {
           final int rowNum = mask.getSelection()[i];
-          if (hasNulls && nulls[rowNum]) {
+          if (nulls[rowNum]) {
             if (includeUnknown) {
               selection[numRows++] = rowNum;
             }
@@ -23,6 +23,7 @@ import org.apache.druid.math.expr.ExprEval;
 import org.apache.druid.math.expr.ExpressionType;
 import org.apache.druid.query.filter.DruidLongPredicate;
 import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.vector.NumericVectorKernels;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.vector.VectorValueSelector;
@@ -81,11 +82,25 @@ public class LongVectorValueMatcher implements VectorValueMatcherFactory
         final boolean[] nulls = selector.getNullVector();
         final boolean hasNulls = nulls != null;
 
+        if (!hasNulls) {
+          final int numRows = mask.isAllTrue(selector.getCurrentVectorSize())
+                              ? NumericVectorKernels.selectEquals(vector, mask.getSelectionSize(), matchValLong, selection)
+                              : NumericVectorKernels.selectEquals(
+                                  vector,
+                                  mask.getSelection(),
+                                  mask.getSelectionSize(),
+                                  matchValLong,
+                                  selection
+                              );
+          match.setSelectionSize(numRows);
+          return match;
+        }
+
         int numRows = 0;
 
         for (int i = 0; i < mask.getSelectionSize(); i++) {
           final int rowNum = mask.getSelection()[i];
-          if (hasNulls && nulls[rowNum]) {
+          if (nulls[rowNum]) {
             if (includeUnknown) {
               selection[numRows++] = rowNum;
             }
@@ -30,6 +30,7 @@ import com.google.inject.Inject;
 import org.apache.druid.error.DruidException;
 import org.apache.druid.frame.Frame;
 import org.apache.druid.frame.allocation.MemoryAllocatorFactory;
+import org.apache.druid.frame.read.FrameReader;
 import org.apache.druid.frame.segment.FrameCursorUtils;
 import org.apache.druid.frame.write.FrameWriterFactory;
 import org.apache.druid.frame.write.FrameWriterUtils;
@@ -37,6 +38,7 @@ import org.apache.druid.frame.write.FrameWriters;
 import org.apache.druid.guice.annotations.Merging;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.Pair;
+import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.MappedSequence;
 import org.apache.druid.java.util.common.guava.Sequence;
@@ -61,7 +63,13 @@ import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
 import org.apache.druid.query.dimension.DimensionSpec;
 import org.apache.druid.query.extraction.ExtractionFn;
+import org.apache.druid.query.rowsandcols.RowsAndColumns;
+import org.apache.druid.query.rowsandcols.concrete.ColumnBasedFrameRowsAndColumns;
+import org.apache.druid.segment.BaseObjectColumnValueSelector;
+import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.Cursor;
+import org.apache.druid.segment.CursorBuildSpec;
+import org.apache.druid.segment.CursorHolder;
 import org.apache.druid.segment.DimensionHandlerUtils;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.column.NullableTypeStrategy;
@@ -566,6 +574,21 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<ResultRow, GroupB
         return willMergeRunners || !segmentLevel;
       }
 
+      @Override
+      public boolean isSegmentLevelCacheSplittableByGranularity(GroupByQuery query)
+      {
+        // Per-segment limit push down looks across buckets, so results can only be split when it is off.
+        return !Granularities.ALL.equals(query.getGranularity())
+               && query.getResultRowHasTimestamp()
+               && !query.isApplyLimitPushDown();
+      }
+
+      @Override
+      public long getResultTimestampMillis(ResultRow result)
+      {
+        return result.getLong(0);
+      }
+
       @Override
       public byte[] computeCacheKey(GroupByQuery query)
       {
@@ -809,6 +832,113 @@ public class GroupByQueryQueryToolChest extends QueryToolChest<ResultRow, GroupB
     return Optional.of(frames.map(frame -> new FrameSignaturePair(frame, modifiedRowSignature)));
   }
 
+  /**
+   * Results are only transferred as frames from data servers, where the query is not the outermost one, so that rows
+   * carry intermediate aggregator values and no post-aggregators. Queries with complex-typed dimensions are not
+   * supported, since those dimensions are coerced into their proper type when read from JSON.
+   */
+  @Override
+  public boolean canTransferResultsAsFrames(GroupByQuery query)
+  {
+    if (query.context().getBoolean(GroupingEngine.CTX_KEY_OUTERMOST, true)) {
+      return false;
+    }
+    for (DimensionSpec dimensionSpec : query.getDimensions()) {
+      if (dimensionSpec.getOutputType().is(ValueType.COMPLEX)) {
+        return false;
+      }
+    }
+    final RowSignature signature = transferFrameSignature(query);
+    for (int i = 0; i < signature.size(); i++) {
+      if (!signature.getColumnType(i).isPresent()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Sequence<RowsAndColumns> resultsAsTransferFrames(
+      GroupByQuery query,
+      Sequence<ResultRow> resultSequence,
+      MemoryAllocatorFactory memoryAllocatorFactory
+  )
+  {
+    final RowSignature signature = transferFrameSignature(query);
+    final FrameWriterFactory frameWriterFactory = FrameWriters.makeColumnBasedFrameWriterFactory(
+        memoryAllocatorFactory,
+        signature,
+        new ArrayList<>()
+    );
+
+    final Pair<Cursor, Closeable> cursorAndCloseable = IterableRowsCursorHelper.getCursorFromSequence(
+        resultsAsArrays(query, resultSequence),
+        signature
+    );
+
+    return FrameCursorUtils.cursorToFramesSequence(cursorAndCloseable.lhs, frameWriterFactory)
+                           .withBaggage(cursorAndCloseable.rhs)
+                           .map(frame -> new ColumnBasedFrameRowsAndColumns(frame, signature));
+  }
+
+  @Override
+  public Sequence<ResultRow> resultsFromTransferFrames(GroupByQuery query, Sequence<RowsAndColumns> frames)
+  {
+    final RowSignature signature = transferFrameSignature(query);
+    return frames.flatMap(rac -> Sequences.simple(frameToResultRows(rac.as(Frame.class), signature)));
+  }
+
+  /**
+   * Signature of the frames written by {@link #resultsAsTransferFrames}, which is that of the result rows without
+   * post-aggregators.
+   */
+  private static RowSignature transferFrameSignature(GroupByQuery query)
+  {
+    final RowSignature rowSignature = query.getResultRowSignature(
+        query.context().isFinalize(true)
+        ? RowSignature.Finalization.YES
+        : RowSignature.Finalization.NO
+    );
+    final RowSignature.Builder builder = RowSignature.builder();
+    for (int i = 0; i < query.getResultRowSizeWithoutPostAggregators(); i++) {
+      builder.add(rowSignature.getColumnName(i), rowSignature.getColumnType(i).orElse(null));
+    }
+    return builder.build();
+  }
+
+  private static List<ResultRow> frameToResultRows(@Nullable Frame frame, RowSignature signature)
+  {
+    if (frame == null) {
+      throw DruidException.defensive("Expected frame-based results from data server");
+    }
+
+    final List<ResultRow> rows = new ArrayList<>(frame.numRows());
+    try (final CursorHolder cursorHolder = FrameReader.create(signature)
+                                                      .makeCursorFactory(frame)
+                                                      .makeCursorHolder(CursorBuildSpec.FULL_SCAN)) {
+      final Cursor cursor = cursorHolder.asCursor();
+      if (cursor == null) {
+        return rows;
+      }
+
+      final ColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
+      final List<BaseObjectColumnValueSelector<?>> selectors = new ArrayList<>(signature.size());
+      for (String columnName : signature.getColumnNames()) {
+        selectors.add(columnSelectorFactory.makeColumnValueSelector(columnName));
+      }
+
+      while (!cursor.isDone()) {
+        final ResultRow row = ResultRow.create(selectors.size());
+        for (int i = 0; i < selectors.size(); i++) {
+          row.set(i, selectors.get(i).getObject());
+        }
+        rows.add(row);
+        cursor.advance();
+      }
+    }
+    return rows;
+  }
+
   /**
    * This function checks the query for dimensions which can be optimized by applying the dimension extraction
    * as the final step of the query instead of on every event.
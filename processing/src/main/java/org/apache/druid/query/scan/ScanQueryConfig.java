@@ -20,6 +20,7 @@
 package org.apache.druid.query.scan;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.java.util.common.HumanReadableBytes;
 
 import java.util.Objects;
 
@@ -27,6 +28,7 @@ public class ScanQueryConfig
 {
   public static final String CTX_KEY_MAX_ROWS_QUEUED_FOR_ORDERING = "maxRowsQueuedForOrdering";
   public static final String CTX_KEY_MAX_SEGMENT_PARTITIONS_FOR_ORDERING = "maxSegmentPartitionsOrderedInMemory";
+  public static final String CTX_KEY_MAX_BYTES_SPILLED_FOR_ORDERING = "maxBytesSpilledForOrdering";
 
   @JsonProperty
   private int maxRowsQueuedForOrdering = 100000;
@@ -34,6 +36,13 @@ public class ScanQueryConfig
   @JsonProperty
   private int maxSegmentPartitionsOrderedInMemory = 50;
 
+  /**
+   * Temporary disk space a time-ordered scan may use when a time chunk has more segments than
+   * {@link #maxSegmentPartitionsOrderedInMemory}. Zero disables spilling, in which case such queries fail.
+   */
+  @JsonProperty
+  private HumanReadableBytes maxBytesSpilledForOrdering = HumanReadableBytes.ZERO;
+
   public int getMaxRowsQueuedForOrdering()
   {
     return maxRowsQueuedForOrdering;
@@ -44,6 +53,11 @@ public class ScanQueryConfig
     return maxSegmentPartitionsOrderedInMemory;
   }
 
+  public HumanReadableBytes getMaxBytesSpilledForOrdering()
+  {
+    return maxBytesSpilledForOrdering;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -55,13 +69,14 @@ public class ScanQueryConfig
     }
     ScanQueryConfig that = (ScanQueryConfig) o;
     return maxRowsQueuedForOrdering == that.maxRowsQueuedForOrdering
-           && maxSegmentPartitionsOrderedInMemory == that.maxSegmentPartitionsOrderedInMemory;
+           && maxSegmentPartitionsOrderedInMemory == that.maxSegmentPartitionsOrderedInMemory
+           && Objects.equals(maxBytesSpilledForOrdering, that.maxBytesSpilledForOrdering);
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(maxRowsQueuedForOrdering, maxSegmentPartitionsOrderedInMemory);
+    return Objects.hash(maxRowsQueuedForOrdering, maxSegmentPartitionsOrderedInMemory, maxBytesSpilledForOrdering);
   }
 
   @Override
@@ -70,6 +85,7 @@ public class ScanQueryConfig
     return "ScanQueryConfig{" +
            "maxRowsQueuedForOrdering=" + maxRowsQueuedForOrdering +
            ", maxSegmentPartitionsOrderedInMemory=" + maxSegmentPartitionsOrderedInMemory +
+           ", maxBytesSpilledForOrdering=" + maxBytesSpilledForOrdering +
            '}';
   }
 }
@@ -19,11 +19,15 @@
 
 package org.apache.druid.query.scan;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import org.apache.druid.collections.StableLimitingSorter;
+import org.apache.druid.guice.annotations.Smile;
+import org.apache.druid.jackson.DefaultObjectMapper;
 import org.apache.druid.java.util.common.ISE;
 import org.apache.druid.java.util.common.JodaUtils;
 import org.apache.druid.java.util.common.Pair;
@@ -32,6 +36,7 @@ import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.java.util.common.guava.Yielder;
 import org.apache.druid.java.util.common.guava.Yielders;
+import org.apache.druid.query.DruidProcessingConfig;
 import org.apache.druid.query.Order;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryPlus;
@@ -49,6 +54,7 @@ import org.apache.druid.query.spec.SpecificSegmentSpec;
 import org.apache.druid.segment.Segment;
 import org.joda.time.Interval;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -62,17 +68,38 @@ public class ScanQueryRunnerFactory implements QueryRunnerFactory<ScanResultValu
   private final ScanQueryQueryToolChest toolChest;
   private final ScanQueryEngine engine;
   private final ScanQueryConfig scanQueryConfig;
+  private final DruidProcessingConfig processingConfig;
+  private final ObjectMapper spillMapper;
 
   @Inject
   public ScanQueryRunnerFactory(
       ScanQueryQueryToolChest toolChest,
       ScanQueryEngine engine,
-      ScanQueryConfig scanQueryConfig
+      ScanQueryConfig scanQueryConfig,
+      DruidProcessingConfig processingConfig,
+      @Smile ObjectMapper spillMapper
   )
   {
     this.toolChest = toolChest;
     this.engine = engine;
     this.scanQueryConfig = scanQueryConfig;
+    this.processingConfig = processingConfig;
+    this.spillMapper = spillMapper;
+  }
+
+  public ScanQueryRunnerFactory(
+      ScanQueryQueryToolChest toolChest,
+      ScanQueryEngine engine,
+      ScanQueryConfig scanQueryConfig
+  )
+  {
+    this(
+        toolChest,
+        engine,
+        scanQueryConfig,
+        new DruidProcessingConfig(),
+        new DefaultObjectMapper(new SmileFactory(), null)
+    );
   }
 
   @Override
@@ -173,28 +200,47 @@ public class ScanQueryRunnerFactory implements QueryRunnerFactory<ScanResultValu
           int maxSegmentPartitionsOrderedInMemory = query.getMaxSegmentPartitionsOrderedInMemory() == null
                                       ? scanQueryConfig.getMaxSegmentPartitionsOrderedInMemory()
                                       : query.getMaxSegmentPartitionsOrderedInMemory();
+          // Create a list of grouped runner lists (i.e. each sublist/"runner group" corresponds to an interval) ->
+          // there should be no interval overlap.  We create a list of lists so we can create a sequence of sequences.
+          // There's no easy way to convert a LinkedHashMap to a sequence because it's non-iterable.
+          List<List<QueryRunner<ScanResultValue>>> groupedRunners =
+              partitionsGroupedByInterval.entrySet()
+                                         .stream()
+                                         .map(entry -> entry.getValue()
+                                                            .stream()
+                                                            .map(segQueryRunnerPair -> segQueryRunnerPair.rhs)
+                                                            .collect(Collectors.toList()))
+                                         .collect(Collectors.toList());
+
           if (maxNumPartitionsInSegment <= maxSegmentPartitionsOrderedInMemory) {
             // Use n-way merge strategy
-
-            // Create a list of grouped runner lists (i.e. each sublist/"runner group" corresponds to an interval) ->
-            // there should be no interval overlap.  We create a list of lists so we can create a sequence of sequences.
-            // There's no easy way to convert a LinkedHashMap to a sequence because it's non-iterable.
-            List<List<QueryRunner<ScanResultValue>>> groupedRunners =
-                partitionsGroupedByInterval.entrySet()
-                                           .stream()
-                                           .map(entry -> entry.getValue()
-                                                              .stream()
-                                                              .map(segQueryRunnerPair -> segQueryRunnerPair.rhs)
-                                                              .collect(Collectors.toList()))
-                                           .collect(Collectors.toList());
-
             return nWayMergeAndLimit(groupedRunners, queryPlus, responseContext);
           }
+
+          // The context may lower, but not raise, the amount of disk space allowed by the server config.
+          final long maxBytesSpilledForOrdering = Math.min(
+              query.context().getHumanReadableBytes(
+                  ScanQueryConfig.CTX_KEY_MAX_BYTES_SPILLED_FOR_ORDERING,
+                  scanQueryConfig.getMaxBytesSpilledForOrdering()
+              ).getBytes(),
+              scanQueryConfig.getMaxBytesSpilledForOrdering().getBytes()
+          );
+          if (maxBytesSpilledForOrdering > 0) {
+            // Use n-way merge strategy, spilling sorted runs to disk for time chunks with too many segments
+            return spillingMergeAndLimit(
+                groupedRunners,
+                queryPlus,
+                responseContext,
+                Math.max(2, maxSegmentPartitionsOrderedInMemory),
+                maxBytesSpilledForOrdering
+            );
+          }
           throw ResourceLimitExceededException.withMessage(
               "Time ordering is not supported for a Scan query with %,d segments per time chunk and a row limit of %,d. "
               + "Try reducing your query limit below maxRowsQueuedForOrdering (currently %,d), or using compaction to "
               + "reduce the number of segments per time chunk, or raising maxSegmentPartitionsOrderedInMemory "
-              + "(currently %,d) above the number of segments you have per time chunk.",
+              + "(currently %,d) above the number of segments you have per time chunk. Setting "
+              + "druid.query.scan.maxBytesSpilledForOrdering allows merging them on disk instead.",
               maxNumPartitionsInSegment,
               query.getScanRowsLimit(),
               maxRowsQueuedForOrdering,
@@ -322,19 +368,62 @@ public class ScanQueryRunnerFactory implements QueryRunnerFactory<ScanResultValu
                 runnerGroup ->
                     Sequences.map(
                         Sequences.simple(runnerGroup),
-                        (input) -> Sequences.concat(
-                            Sequences.map(
-                                input.run(queryPlus, responseContext),
-                                srv -> Sequences.simple(srv.toSingleEventScanResultValues())
-                            )
-                        )
+                        (input) -> runAndDeaggregate(input, queryPlus, responseContext)
                     ).flatMerge(
                         seq -> seq,
                         queryPlus.getQuery().getResultOrdering()
                     )
             )
         );
-    long limit = ((ScanQuery) (queryPlus.getQuery())).getScanRowsLimit();
+    return limit(resultSequence, (ScanQuery) queryPlus.getQuery());
+  }
+
+  /**
+   * Like {@link #nWayMergeAndLimit}, but merges runner groups with more than {@code maxInputsPerMerge} runners using a
+   * {@link SpillingScanResultMerger}, so at most {@code maxInputsPerMerge} runners are open at once.
+   */
+  @VisibleForTesting
+  Sequence<ScanResultValue> spillingMergeAndLimit(
+      List<List<QueryRunner<ScanResultValue>>> groupedRunners,
+      QueryPlus<ScanResultValue> queryPlus,
+      ResponseContext responseContext,
+      int maxInputsPerMerge,
+      long maxBytesOnDisk
+  )
+  {
+    Sequence<ScanResultValue> resultSequence =
+        Sequences.concat(
+            Sequences.map(
+                Sequences.simple(groupedRunners),
+                runnerGroup -> new SpillingScanResultMerger(
+                    new File(processingConfig.getTmpDir()),
+                    maxBytesOnDisk,
+                    maxInputsPerMerge,
+                    spillMapper,
+                    queryPlus.getQuery().getResultOrdering()
+                ).merge(Lists.transform(runnerGroup, input -> runAndDeaggregate(input, queryPlus, responseContext)))
+            )
+        );
+    return limit(resultSequence, (ScanQuery) queryPlus.getQuery());
+  }
+
+  private static Sequence<ScanResultValue> runAndDeaggregate(
+      QueryRunner<ScanResultValue> runner,
+      QueryPlus<ScanResultValue> queryPlus,
+      ResponseContext responseContext
+  )
+  {
+    return Sequences.concat(
+        Sequences.map(
+            runner.run(queryPlus, responseContext),
+            srv -> Sequences.simple(srv.toSingleEventScanResultValues())
+        )
+    );
+  }
+
+  private static Sequence<ScanResultValue> limit(Sequence<ScanResultValue> resultSequence, ScanQuery query)
+  {
+    long limit = query.getScanRowsLimit();
     if (limit == Long.MAX_VALUE) {
       return resultSequence;
     }
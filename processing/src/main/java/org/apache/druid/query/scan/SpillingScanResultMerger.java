@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.scan;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.io.CountingOutputStream;
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.guava.BaseSequence;
+import org.apache.druid.java.util.common.guava.LazySequence;
+import org.apache.druid.java.util.common.guava.MergeSequence;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.guava.Yielder;
+import org.apache.druid.java.util.common.guava.Yielders;
+import org.apache.druid.java.util.common.jackson.JacksonUtils;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.query.BaseQuery;
+import org.apache.druid.query.ResourceLimitExceededException;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges time-ordered scan results from more inputs than {@link ScanQueryRunnerFactory} is willing to have open at
+ * once. Inputs are merged at most {@code maxInputsPerMerge} at a time into sorted runs in temporary files, and runs are
+ * merged the same way until few enough remain to be merged straight into the output. Memory use is bounded by the
+ * number of inputs open at once, and temporary files may use at most {@code maxBytesOnDisk} bytes at any time.
+ *
+ * Runs are written with the Smile mapper and LZ4-compressed, like the spill files of
+ * {@link org.apache.druid.query.groupby.epinephelinae.SpillingGrouper}. Each input must already be sorted by the
+ * given ordering and contain one event per {@link ScanResultValue}.
+ *
+ * Not thread-safe. Temporary files are removed when the sequence returned by {@link #merge} is closed.
+ */
+class SpillingScanResultMerger implements Closeable
+{
+  private static final Logger log = new Logger(SpillingScanResultMerger.class);
+
+  private final File parentDirectory;
+  private final long maxBytesOnDisk;
+  private final int maxInputsPerMerge;
+  private final ObjectMapper spillMapper;
+  private final Ordering<ScanResultValue> ordering;
+
+  /**
+   * Size of each temporary file that currently exists. Files that are still being written have size zero here.
+   */
+  private final Map<File, Long> files = new HashMap<>();
+
+  @Nullable
+  private File storageDirectory;
+  private long bytesOnDisk;
+  private int numFilesCreated;
+
+  SpillingScanResultMerger(
+      final File parentDirectory,
+      final long maxBytesOnDisk,
+      final int maxInputsPerMerge,
+      final ObjectMapper spillMapper,
+      final Ordering<ScanResultValue> ordering
+  )
+  {
+    if (maxInputsPerMerge < 2) {
+      throw new IAE("maxInputsPerMerge[%d] < 2", maxInputsPerMerge);
+    }
+
+    this.parentDirectory = parentDirectory;
+    this.maxBytesOnDisk = maxBytesOnDisk;
+    this.maxInputsPerMerge = maxInputsPerMerge;
+    this.spillMapper = spillMapper;
+    this.ordering = ordering;
+  }
+
+  /**
+   * Returns the inputs merged by {@link #ordering}. Nothing is read or written until the returned sequence is iterated.
+   */
+  Sequence<ScanResultValue> merge(final List<Sequence<ScanResultValue>> inputs)
+  {
+    if (inputs.size() <= maxInputsPerMerge) {
+      return mergeSequences(inputs);
+    }
+
+    return Sequences.withBaggage(new LazySequence<>(() -> spillAndMerge(inputs)), this);
+  }
+
+  @Override
+  public void close()
+  {
+    files.clear();
+    bytesOnDisk = 0;
+
+    if (storageDirectory != null) {
+      try {
+        FileUtils.deleteDirectory(storageDirectory);
+      }
+      catch (IOException e) {
+        log.warn(e, "Cannot delete storageDirectory[%s]", storageDirectory);
+      }
+      storageDirectory = null;
+    }
+  }
+
+  private Sequence<ScanResultValue> spillAndMerge(final List<Sequence<ScanResultValue>> inputs)
+  {
+    List<File> runs = new ArrayList<>();
+    for (List<Sequence<ScanResultValue>> group : Lists.partition(inputs, maxInputsPerMerge)) {
+      runs.add(writeRun(mergeSequences(group)));
+    }
+
+    while (runs.size() > maxInputsPerMerge) {
+      final List<File> nextRuns = new ArrayList<>();
+      for (List<File> group : Lists.partition(runs, maxInputsPerMerge)) {
+        nextRuns.add(writeRun(mergeSequences(Lists.transform(group, this::readRun))));
+        group.forEach(this::delete);
+      }
+      runs = nextRuns;
+    }
+
+    return mergeSequences(Lists.transform(runs, this::readRun));
+  }
+
+  private Sequence<ScanResultValue> mergeSequences(final List<Sequence<ScanResultValue>> sequences)
+  {
+    return new MergeSequence<>(ordering, Sequences.simple(sequences));
+  }
+
+  private File writeRun(final Sequence<ScanResultValue> sequence)
+  {
+    final File file = createFile();
+    Yielder<ScanResultValue> yielder = Yielders.each(sequence);
+
+    try (
+        final CountingOutputStream out = new CountingOutputStream(new FileOutputStream(file));
+        final LZ4BlockOutputStream compressedOut = new LZ4BlockOutputStream(out);
+        final JsonGenerator jsonGenerator = spillMapper.getFactory().createGenerator(compressedOut)
+    ) {
+      final SerializerProvider serializers = spillMapper.getSerializerProviderInstance();
+
+      while (!yielder.isDone()) {
+        BaseQuery.checkInterrupted();
+        JacksonUtils.writeObjectUsingSerializerProvider(jsonGenerator, serializers, yielder.get());
+
+        if (bytesOnDisk + out.getCount() > maxBytesOnDisk) {
+          throw ResourceLimitExceededException.withMessage(
+              "Time-ordered Scan query exceeded its limit of %,d bytes of temporary storage. Try raising "
+              + "maxBytesSpilledForOrdering, or using compaction to reduce the number of segments per time chunk.",
+              maxBytesOnDisk
+          );
+        }
+
+        yielder = yielder.next(null);
+      }
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    finally {
+      try {
+        yielder.close();
+      }
+      catch (IOException e) {
+        log.warn(e, "Failed to close input of file[%s]", file);
+      }
+    }
+
+    final long size = file.length();
+    files.put(file, size);
+    bytesOnDisk += size;
+    return file;
+  }
+
+  private Sequence<ScanResultValue> readRun(final File file)
+  {
+    return new BaseSequence<>(
+        new BaseSequence.IteratorMaker<ScanResultValue, MappingIterator<ScanResultValue>>()
+        {
+          @Override
+          public MappingIterator<ScanResultValue> make()
+          {
+            try {
+              return spillMapper.readValues(
+                  spillMapper.getFactory().createParser(new LZ4BlockInputStream(new FileInputStream(file))),
+                  ScanResultValue.class
+              );
+            }
+            catch (IOException e) {
+              throw new RuntimeException(e);
+            }
+          }
+
+          @Override
+          public void cleanup(MappingIterator<ScanResultValue> iterFromMake)
+          {
+            try {
+              iterFromMake.close();
+            }
+            catch (IOException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        }
+    );
+  }
+
+  private File createFile()
+  {
+    try {
+      if (storageDirectory == null) {
+        FileUtils.mkdirp(parentDirectory);
+        storageDirectory = FileUtils.createTempDirInLocation(parentDirectory.toPath(), "druid-scan-ordering");
+      }
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    final File file = new File(storageDirectory, StringUtils.format("%08d.tmp", numFilesCreated++));
+    files.put(file, 0L);
+    return file;
+  }
+
+  private void delete(final File file)
+  {
+    final Long size = files.remove(file);
+    if (size != null) {
+      bytesOnDisk -= size;
+      try {
+        Files.delete(file.toPath());
+      }
+      catch (IOException e) {
+        log.warn(e, "Cannot delete file[%s]", file);
+      }
+    }
+  }
+}
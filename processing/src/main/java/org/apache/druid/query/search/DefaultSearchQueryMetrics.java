@@ -319,6 +319,12 @@ public class DefaultSearchQueryMetrics implements SearchQueryMetrics
     return delegateQueryMetrics.reportPreFilteredRows(numRows);
   }
 
+  @Override
+  public QueryMetrics reportFilterEstimatedSelectivity(double selectivity)
+  {
+    return delegateQueryMetrics.reportFilterEstimatedSelectivity(selectivity);
+  }
+
   @Override
   public QueryMetrics reportParallelMergeParallelism(int parallelism)
   {
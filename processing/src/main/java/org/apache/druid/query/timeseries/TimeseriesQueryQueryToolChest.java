@@ -280,6 +280,21 @@ public class TimeseriesQueryQueryToolChest extends QueryToolChest<Result<Timeser
         return true;
       }
 
+      @Override
+      public boolean isSegmentLevelCacheSplittableByGranularity(TimeseriesQuery query)
+      {
+        // The limit is applied per segment too, so results can only be split when there is none.
+        return !Granularities.ALL.equals(query.getGranularity())
+               && !query.isDescending()
+               && query.getLimit() == Integer.MAX_VALUE;
+      }
+
+      @Override
+      public long getResultTimestampMillis(Result<TimeseriesResultValue> result)
+      {
+        return result.getTimestamp().getMillis();
+      }
+
       @Override
       public byte[] computeCacheKey(TimeseriesQuery query)
       {
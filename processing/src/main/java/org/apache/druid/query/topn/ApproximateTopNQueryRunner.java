@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.topn;
+
+import com.google.common.collect.Lists;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.guava.LazySequence;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.QueryRunner;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.FloatSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.context.ResponseContext;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a topN query in approximate mode, enabled by the {@link QueryContexts#APPROXIMATE_TOP_N} context parameter,
+ * keeping track of how far the merged results may be from the exact topN.
+ * <p>
+ * Each segment returns its top "threshold" rows as usual. When a segment returns a full set of rows, any value it left
+ * out has a metric no greater than the smallest one it returned, which becomes the segment's "unseen" bound. Every
+ * row carries a "slack", the most its metric may be missing from the results that did not include it, and every result
+ * carries the unseen bound of the values absent from it. {@link TopNBinaryFn} adds these up while merging, and raises
+ * the unseen bound to cover the rows it truncates. This bookkeeping, as in the threshold algorithm, only holds if the
+ * metric is a sum of non-negative values, so approximate mode only applies when ordering by a count or sum aggregator.
+ * <p>
+ * On the Broker, the merged results are exact if, in every time bucket, the last of the top "threshold" rows is no
+ * lower than the upper bound of any other value, and no returned row has slack. If they are not, the query runs again
+ * with double the per-segment threshold, up to {@link QueryContexts#MAX_TOP_N_THRESHOLD}. The bounds of the last round
+ * are reported in the {@link ResponseContext.Keys#TOPN_ERROR_BOUNDS} response context key, and the bookkeeping fields
+ * are removed from the results.
+ */
+public class ApproximateTopNQueryRunner implements QueryRunner<Result<TopNResultValue>>
+{
+  static final String SLACK_FIELD = "__topNSlack";
+  static final String UNSEEN_FIELD = "__topNUnseen";
+
+  private final QueryRunner<Result<TopNResultValue>> runner;
+  private final TopNQueryConfig config;
+
+  public ApproximateTopNQueryRunner(QueryRunner<Result<TopNResultValue>> runner, TopNQueryConfig config)
+  {
+    this.runner = runner;
+    this.config = config;
+  }
+
+  @Override
+  public Sequence<Result<TopNResultValue>> run(
+      final QueryPlus<Result<TopNResultValue>> queryPlus,
+      final ResponseContext responseContext
+  )
+  {
+    if (!(queryPlus.getQuery() instanceof TopNQuery)) {
+      throw new ISE("Can only handle [%s], got [%s]", TopNQuery.class, queryPlus.getQuery().getClass());
+    }
+
+    final TopNQuery query = (TopNQuery) queryPlus.getQuery();
+    final String metric = getMetricName(query);
+    if (metric == null) {
+      throw new ISE("Cannot compute error bounds for metric[%s]", query.getTopNMetricSpec());
+    }
+
+    final int minThreshold = Math.max(
+        query.getThreshold(),
+        query.context().getInt(QueryContexts.MIN_TOP_N_THRESHOLD, config.getMinTopNThreshold())
+    );
+    final int maxThreshold = Math.max(
+        minThreshold,
+        query.context().getInt(QueryContexts.MAX_TOP_N_THRESHOLD, config.getMaxTopNThreshold())
+    );
+
+    return new LazySequence<>(
+        () -> {
+          int threshold = minThreshold;
+          while (true) {
+            final List<Result<TopNResultValue>> results =
+                runner.run(queryPlus.withQuery(query.withThreshold(threshold)), responseContext).toList();
+            final TopNErrorBounds errorBounds = computeErrorBounds(results, metric, query.getThreshold(), threshold);
+
+            if (errorBounds.isExact() || threshold >= maxThreshold) {
+              responseContext.put(ResponseContext.Keys.TOPN_ERROR_BOUNDS, errorBounds);
+              return Sequences.simple(
+                  Lists.transform(results, result -> withoutErrorBounds(result, query.getThreshold()))
+              );
+            }
+
+            threshold = (int) Math.min(maxThreshold, 2L * threshold);
+          }
+        }
+    );
+  }
+
+  /**
+   * Whether the query asked for approximate mode and orders by a metric whose error can be bounded.
+   */
+  public static boolean isEnabled(TopNQuery query)
+  {
+    return query.context().getBoolean(QueryContexts.APPROXIMATE_TOP_N, false)
+           && !query.context().isBySegment()
+           && getMetricName(query) != null;
+  }
+
+  /**
+   * Name of the aggregator the query orders by, if it is a count or a sum, in descending order. Null otherwise.
+   */
+  @Nullable
+  static String getMetricName(TopNQuery query)
+  {
+    if (!(query.getTopNMetricSpec() instanceof NumericTopNMetricSpec)) {
+      return null;
+    }
+
+    final String metric = ((NumericTopNMetricSpec) query.getTopNMetricSpec()).getMetric();
+    for (AggregatorFactory factory : query.getAggregatorSpecs()) {
+      if (factory.getName().equals(metric)) {
+        final boolean isSum = factory instanceof CountAggregatorFactory
+                              || factory instanceof LongSumAggregatorFactory
+                              || factory instanceof DoubleSumAggregatorFactory
+                              || factory instanceof FloatSumAggregatorFactory;
+        return isSum ? metric : null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds the bookkeeping fields to the result of a single segment, which was truncated to the given threshold.
+   */
+  static Result<TopNResultValue> withSegmentErrorBounds(
+      final Result<TopNResultValue> result,
+      final String metric,
+      final int threshold
+  )
+  {
+    final List<DimensionAndMetricValueExtractor> rows = result.getValue().getValue();
+
+    double unseen = 0;
+    if (rows.size() >= threshold) {
+      unseen = Double.POSITIVE_INFINITY;
+      for (DimensionAndMetricValueExtractor row : rows) {
+        unseen = Math.min(unseen, getValue(row, metric));
+      }
+    }
+
+    final List<DimensionAndMetricValueExtractor> newRows = new ArrayList<>(rows.size());
+    for (DimensionAndMetricValueExtractor row : rows) {
+      newRows.add(withSlack(row, 0));
+    }
+    return withUnseen(new Result<>(result.getTimestamp(), new TopNResultValue(newRows)), unseen);
+  }
+
+  static DimensionAndMetricValueExtractor withSlack(DimensionAndMetricValueExtractor row, double slack)
+  {
+    final Map<String, Object> map = new LinkedHashMap<>(row.getBaseObject());
+    map.put(SLACK_FIELD, slack);
+    return new DimensionAndMetricValueExtractor(map);
+  }
+
+  /**
+   * Sets the unseen bound of a result, which is kept on each of its rows.
+   */
+  static Result<TopNResultValue> withUnseen(Result<TopNResultValue> result, double unseen)
+  {
+    final List<DimensionAndMetricValueExtractor> rows = result.getValue().getValue();
+    final List<DimensionAndMetricValueExtractor> newRows = new ArrayList<>(rows.size());
+    for (DimensionAndMetricValueExtractor row : rows) {
+      final Map<String, Object> map = new LinkedHashMap<>(row.getBaseObject());
+      map.put(UNSEEN_FIELD, unseen);
+      newRows.add(new DimensionAndMetricValueExtractor(map));
+    }
+    return new Result<>(result.getTimestamp(), new TopNResultValue(newRows));
+  }
+
+  static double getValue(DimensionAndMetricValueExtractor row, String metric)
+  {
+    final Object value = row.getMetric(metric);
+    return value == null ? 0 : ((Number) value).doubleValue();
+  }
+
+  static double getSlack(DimensionAndMetricValueExtractor row)
+  {
+    return getValue(row, SLACK_FIELD);
+  }
+
+  static double getUnseen(List<DimensionAndMetricValueExtractor> rows)
+  {
+    return rows.isEmpty() ? 0 : getValue(rows.get(0), UNSEEN_FIELD);
+  }
+
+  /**
+   * Computes the bounds of merged results, whose rows are sorted by the metric in descending order.
+   *
+   * @param threshold          threshold of the original query
+   * @param segmentThreshold   threshold the results were computed with, which may be larger
+   */
+  static TopNErrorBounds computeErrorBounds(
+      final List<Result<TopNResultValue>> results,
+      final String metric,
+      final int threshold,
+      final int segmentThreshold
+  )
+  {
+    boolean exact = true;
+    double maxError = 0;
+    double maxOmittedValue = 0;
+
+    for (Result<TopNResultValue> result : results) {
+      final List<DimensionAndMetricValueExtractor> rows = result.getValue().getValue();
+      final int numReturned = Math.min(threshold, rows.size());
+
+      double omittedValue = getUnseen(rows);
+      for (int i = numReturned; i < rows.size(); i++) {
+        omittedValue = Math.max(omittedValue, getValue(rows.get(i), metric) + getSlack(rows.get(i)));
+      }
+      for (int i = 0; i < numReturned; i++) {
+        maxError = Math.max(maxError, getSlack(rows.get(i)));
+      }
+
+      if (omittedValue > 0 && (numReturned < threshold || getValue(rows.get(numReturned - 1), metric) < omittedValue)) {
+        exact = false;
+      }
+      maxOmittedValue = Math.max(maxOmittedValue, omittedValue);
+    }
+
+    return new TopNErrorBounds(segmentThreshold, exact && maxError == 0, maxError, maxOmittedValue);
+  }
+
+  /**
+   * Truncates merged results to the threshold of the original query and removes the bookkeeping fields.
+   */
+  static Result<TopNResultValue> withoutErrorBounds(Result<TopNResultValue> result, int threshold)
+  {
+    final List<DimensionAndMetricValueExtractor> rows = result.getValue().getValue();
+    final List<DimensionAndMetricValueExtractor> newRows = new ArrayList<>(Math.min(threshold, rows.size()));
+    for (DimensionAndMetricValueExtractor row : rows) {
+      if (newRows.size() == threshold) {
+        break;
+      }
+      final Map<String, Object> map = new LinkedHashMap<>(row.getBaseObject());
+      map.remove(SLACK_FIELD);
+      map.remove(UNSEEN_FIELD);
+      newRows.add(new DimensionAndMetricValueExtractor(map));
+    }
+    return new Result<>(result.getTimestamp(), new TopNResultValue(newRows));
+  }
+}
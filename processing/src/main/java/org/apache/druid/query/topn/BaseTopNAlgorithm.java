@@ -30,6 +30,7 @@ import org.apache.druid.segment.DimensionSelector;
 import org.apache.druid.segment.IdLookup;
 import org.apache.druid.segment.TopNOptimizationInspector;
 import org.apache.druid.segment.column.ColumnCapabilities;
+import org.joda.time.DateTime;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
@@ -333,11 +334,16 @@ public abstract class BaseTopNAlgorithm<DimValSelector, DimValAggregateStore, Pa
   }
 
   public static TopNResultBuilder makeResultBuilder(TopNParams params, TopNQuery query)
+  {
+    return makeResultBuilder(params.getGranularizer().getBucketStart(), query);
+  }
+
+  public static TopNResultBuilder makeResultBuilder(DateTime timestamp, TopNQuery query)
   {
     final Comparator comparator = query.getTopNMetricSpec()
                                        .getComparator(query.getAggregatorSpecs(), query.getPostAggregatorSpecs());
     return query.getTopNMetricSpec().getResultBuilder(
-        params.getGranularizer().getBucketStart(),
+        timestamp,
         query.getDimensionSpec(),
         query.getThreshold(),
         comparator,
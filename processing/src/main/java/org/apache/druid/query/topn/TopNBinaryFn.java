@@ -47,6 +47,7 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
   private final List<AggregatorFactory> aggregations;
   private final List<PostAggregator> postAggregations;
   private final Comparator comparator;
+  private final boolean trackErrorBounds;
 
   public TopNBinaryFn(
       final Granularity granularity,
@@ -56,6 +57,22 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
       final List<AggregatorFactory> aggregatorSpecs,
       final List<PostAggregator> postAggregatorSpecs
   )
+  {
+    this(granularity, dimSpec, topNMetricSpec, threshold, aggregatorSpecs, postAggregatorSpecs, false);
+  }
+
+  /**
+   * @param trackErrorBounds whether results carry the bookkeeping fields of {@link ApproximateTopNQueryRunner}
+   */
+  public TopNBinaryFn(
+      final Granularity granularity,
+      final DimensionSpec dimSpec,
+      final TopNMetricSpec topNMetricSpec,
+      final int threshold,
+      final List<AggregatorFactory> aggregatorSpecs,
+      final List<PostAggregator> postAggregatorSpecs,
+      final boolean trackErrorBounds
+  )
   {
     this.dimSpec = dimSpec;
     this.gran = granularity;
@@ -70,6 +87,7 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
 
     this.dimension = dimSpec.getOutputName();
     this.comparator = topNMetricSpec.getComparator(aggregatorSpecs, postAggregatorSpecs);
+    this.trackErrorBounds = trackErrorBounds;
   }
 
   @Override
@@ -81,6 +99,9 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
     if (arg2 == null) {
       return arg1;
     }
+    if (trackErrorBounds) {
+      return applyWithErrorBounds(arg1, arg2);
+    }
 
     Map<Object, DimensionAndMetricValueExtractor> retVals = new LinkedHashMap<>();
 
@@ -95,25 +116,101 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
       DimensionAndMetricValueExtractor arg1Val = retVals.get(dimensionValue);
 
       if (arg1Val != null) {
-        // size of map = aggregator + topNDim + postAgg (If sorting is done on post agg field)
-        Map<String, Object> retVal = CollectionUtils.newLinkedHashMapWithExpectedSize(aggregations.size() + 2);
+        retVals.put(dimensionValue, combine(dimensionValue, arg1Val, arg2Val));
+      } else {
+        retVals.put(dimensionValue, arg2Val);
+      }
+    }
+
+    TopNResultBuilder bob = makeResultBuilder(arg1);
+    for (DimensionAndMetricValueExtractor extractor : retVals.values()) {
+      bob.addEntry(extractor);
+    }
+    return bob.build();
+  }
 
-        retVal.put(dimension, dimensionValue);
-        for (AggregatorFactory factory : aggregations) {
-          final String metricName = factory.getName();
-          retVal.put(metricName, factory.combine(arg1Val.getMetric(metricName), arg2Val.getMetric(metricName)));
-        }
+  /**
+   * Same as {@link #apply}, but also merges the slack of each row and the unseen bound of each side, as described in
+   * {@link ApproximateTopNQueryRunner}. A value missing from one side may have up to that side's unseen bound there,
+   * and the rows dropped by the result builder raise the unseen bound of the merged result.
+   */
+  private Result<TopNResultValue> applyWithErrorBounds(Result<TopNResultValue> arg1, Result<TopNResultValue> arg2)
+  {
+    final String metric = topNMetricSpec.getMetricName(dimSpec);
+    final double unseen1 = ApproximateTopNQueryRunner.getUnseen(arg1.getValue().getValue());
+    final double unseen2 = ApproximateTopNQueryRunner.getUnseen(arg2.getValue().getValue());
 
-        for (PostAggregator pf : postAggregations) {
-          retVal.put(pf.getName(), pf.compute(retVal));
-        }
+    final Map<Object, DimensionAndMetricValueExtractor> arg2Vals = new LinkedHashMap<>();
+    for (DimensionAndMetricValueExtractor arg2Val : arg2.getValue()) {
+      arg2Vals.put(arg2Val.getDimensionValue(dimension), arg2Val);
+    }
 
-        retVals.put(dimensionValue, new DimensionAndMetricValueExtractor(retVal));
+    final Map<Object, DimensionAndMetricValueExtractor> retVals = new LinkedHashMap<>();
+    for (DimensionAndMetricValueExtractor arg1Val : arg1.getValue()) {
+      final Object dimensionValue = arg1Val.getDimensionValue(dimension);
+      final DimensionAndMetricValueExtractor arg2Val = arg2Vals.remove(dimensionValue);
+      final double slack1 = ApproximateTopNQueryRunner.getSlack(arg1Val);
+
+      if (arg2Val != null) {
+        retVals.put(
+            dimensionValue,
+            ApproximateTopNQueryRunner.withSlack(
+                combine(dimensionValue, arg1Val, arg2Val),
+                slack1 + ApproximateTopNQueryRunner.getSlack(arg2Val)
+            )
+        );
       } else {
-        retVals.put(dimensionValue, arg2Val);
+        retVals.put(dimensionValue, ApproximateTopNQueryRunner.withSlack(arg1Val, slack1 + unseen2));
       }
     }
+    for (Map.Entry<Object, DimensionAndMetricValueExtractor> entry : arg2Vals.entrySet()) {
+      final double slack2 = ApproximateTopNQueryRunner.getSlack(entry.getValue());
+      retVals.put(entry.getKey(), ApproximateTopNQueryRunner.withSlack(entry.getValue(), slack2 + unseen1));
+    }
+
+    final TopNResultBuilder bob = makeResultBuilder(arg1);
+    for (DimensionAndMetricValueExtractor extractor : retVals.values()) {
+      bob.addEntry(extractor);
+    }
+    final Result<TopNResultValue> result = bob.build();
+
+    double unseen = unseen1 + unseen2;
+    for (DimensionAndMetricValueExtractor kept : result.getValue()) {
+      retVals.remove(kept.getDimensionValue(dimension));
+    }
+    for (DimensionAndMetricValueExtractor dropped : retVals.values()) {
+      unseen = Math.max(
+          unseen,
+          ApproximateTopNQueryRunner.getValue(dropped, metric) + ApproximateTopNQueryRunner.getSlack(dropped)
+      );
+    }
+    return ApproximateTopNQueryRunner.withUnseen(result, unseen);
+  }
+
+  private DimensionAndMetricValueExtractor combine(
+      Object dimensionValue,
+      DimensionAndMetricValueExtractor arg1Val,
+      DimensionAndMetricValueExtractor arg2Val
+  )
+  {
+    // size of map = aggregator + topNDim + postAgg (If sorting is done on post agg field)
+    Map<String, Object> retVal = CollectionUtils.newLinkedHashMapWithExpectedSize(aggregations.size() + 2);
 
+    retVal.put(dimension, dimensionValue);
+    for (AggregatorFactory factory : aggregations) {
+      final String metricName = factory.getName();
+      retVal.put(metricName, factory.combine(arg1Val.getMetric(metricName), arg2Val.getMetric(metricName)));
+    }
+
+    for (PostAggregator pf : postAggregations) {
+      retVal.put(pf.getName(), pf.compute(retVal));
+    }
+
+    return new DimensionAndMetricValueExtractor(retVal);
+  }
+
+  private TopNResultBuilder makeResultBuilder(Result<TopNResultValue> arg1)
+  {
     final DateTime timestamp;
     if (gran instanceof AllGranularity) {
       timestamp = arg1.getTimestamp();
@@ -121,7 +218,7 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
       timestamp = gran.bucketStart(arg1.getTimestamp());
     }
 
-    TopNResultBuilder bob = topNMetricSpec.getResultBuilder(
+    return topNMetricSpec.getResultBuilder(
         timestamp,
         dimSpec,
         threshold,
@@ -129,9 +226,5 @@ public class TopNBinaryFn implements BinaryOperator<Result<TopNResultValue>>
         aggregations,
         postAggregations
     );
-    for (DimensionAndMetricValueExtractor extractor : retVals.values()) {
-      bob.addEntry(extractor);
-    }
-    return bob.build();
   }
 }
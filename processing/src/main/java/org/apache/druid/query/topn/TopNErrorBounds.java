@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.topn;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Error bounds of an approximate topN query, reported by the Broker in the
+ * {@link org.apache.druid.query.context.ResponseContext.Keys#TOPN_ERROR_BOUNDS} response context key. See
+ * {@link ApproximateTopNQueryRunner} for how they are computed.
+ */
+public class TopNErrorBounds
+{
+  private final int threshold;
+  private final boolean exact;
+  private final double maxError;
+  private final double maxOmittedValue;
+
+  @JsonCreator
+  public TopNErrorBounds(
+      @JsonProperty("threshold") int threshold,
+      @JsonProperty("exact") boolean exact,
+      @JsonProperty("maxError") double maxError,
+      @JsonProperty("maxOmittedValue") double maxOmittedValue
+  )
+  {
+    this.threshold = threshold;
+    this.exact = exact;
+    this.maxError = maxError;
+    this.maxOmittedValue = maxOmittedValue;
+  }
+
+  /**
+   * Per-segment threshold of the last round of the query.
+   */
+  @JsonProperty
+  public int getThreshold()
+  {
+    return threshold;
+  }
+
+  /**
+   * True if the results are known to be the exact topN, with exact metric values.
+   */
+  @JsonProperty
+  public boolean isExact()
+  {
+    return exact;
+  }
+
+  /**
+   * Largest amount by which the metric value of a returned row may be lower than its true value.
+   */
+  @JsonProperty
+  public double getMaxError()
+  {
+    return maxError;
+  }
+
+  /**
+   * Upper bound of the metric value of any dimension value that was not returned, across all time buckets.
+   */
+  @JsonProperty
+  public double getMaxOmittedValue()
+  {
+    return maxOmittedValue;
+  }
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TopNErrorBounds that = (TopNErrorBounds) o;
+    return threshold == that.threshold
+           && exact == that.exact
+           && Double.compare(maxError, that.maxError) == 0
+           && Double.compare(maxOmittedValue, that.maxOmittedValue) == 0;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(threshold, exact, maxError, maxOmittedValue);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "TopNErrorBounds{" +
+           "threshold=" + threshold +
+           ", exact=" + exact +
+           ", maxError=" + maxError +
+           ", maxOmittedValue=" + maxOmittedValue +
+           '}';
+  }
+}
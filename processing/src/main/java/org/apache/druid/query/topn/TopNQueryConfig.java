@@ -28,13 +28,27 @@ import javax.validation.constraints.Min;
 public class TopNQueryConfig
 {
   public static final int DEFAULT_MIN_TOPN_THRESHOLD = 1000;
+  public static final int DEFAULT_MAX_TOPN_THRESHOLD = 10000;
 
   @JsonProperty
   @Min(1)
   private int minTopNThreshold = DEFAULT_MIN_TOPN_THRESHOLD;
 
+  /**
+   * Largest per-segment threshold that {@link ApproximateTopNQueryRunner} grows to while the merged ranking is still
+   * uncertain.
+   */
+  @JsonProperty
+  @Min(1)
+  private int maxTopNThreshold = DEFAULT_MAX_TOPN_THRESHOLD;
+
   public int getMinTopNThreshold()
   {
     return minTopNThreshold;
   }
+
+  public int getMaxTopNThreshold()
+  {
+    return maxTopNThreshold;
+  }
 }
@@ -51,6 +51,8 @@ import org.apache.druid.segment.column.ColumnHolder;
 import org.apache.druid.segment.column.Types;
 import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.filter.Filters;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorCursor;
 import org.apache.druid.utils.CloseableUtils;
 
 import javax.annotation.Nullable;
@@ -74,6 +76,10 @@ public class TopNQueryEngine
    * fine {@link TopNAlgorithm} available chosen based on the type of column being aggregated. The algorithm provides a
    * mapping function to process rows from the adapter {@link Cursor} to apply {@link AggregatorFactory} and create or
    * update {@link TopNResultValue}
+   * <p>
+   * If vectorization is enabled and the dimension is eligible, the segment is processed by {@link VectorTopNEngine}
+   * instead. Unlike other query types, {@code vectorize: force} does not fail topN queries that cannot vectorize; they
+   * fall back to the non-vectorized algorithms as they always have.
    */
   public Sequence<Result<TopNResultValue>> query(
       TopNQuery query,
@@ -96,13 +102,46 @@ public class TopNQueryEngine
       if (cursorHolder.isPreAggregated()) {
         query = query.withAggregatorSpecs(Preconditions.checkNotNull(cursorHolder.getAggregatorsForPreAggregated()));
       }
+      final TimeBoundaryInspector timeBoundaryInspector = segment.as(TimeBoundaryInspector.class);
+
+      // Decide on vectorization before making any cursor, so that only the one which is used is made. The row cursor
+      // is still made after the vector cursor if the dictionary turns out to be too large for a single pass.
+      if (query.context().getVectorize() != QueryContexts.Vectorize.FALSE
+          && cursorHolder.canVectorize()
+          && VectorTopNEngine.canVectorize(query, cursorFactory)) {
+        final VectorCursor vectorCursor = cursorHolder.asVectorCursor();
+        if (vectorCursor == null) {
+          return Sequences.withBaggage(Sequences.empty(), cursorHolder);
+        }
+        final SingleValueDimensionVectorSelector dimSelector =
+            vectorCursor.getColumnSelectorFactory().makeSingleValueDimensionSelector(query.getDimensionSpec());
+        final int vectorCardinality = dimSelector.getValueCardinality();
+        if (vectorCardinality >= 0) {
+          final ResourceHolder<ByteBuffer> bufferHolder = bufferPool.take();
+          if (VectorTopNEngine.getBufferSizeNeeded(query, vectorCardinality) <= bufferHolder.get().capacity()) {
+            if (queryMetrics != null) {
+              queryMetrics.dimensionCardinality(vectorCardinality);
+            }
+            return VectorTopNEngine.process(
+                query,
+                vectorCursor,
+                dimSelector,
+                cursorHolder.getTimeOrder(),
+                timeBoundaryInspector,
+                buildSpec.getInterval(),
+                bufferHolder
+            ).withBaggage(cursorHolder);
+          }
+          // doesn't fit in a single pass, let the pooled algorithm make multiple passes instead
+          bufferHolder.close();
+        }
+      }
+
       final Cursor cursor = cursorHolder.asCursor();
       if (cursor == null) {
         return Sequences.withBaggage(Sequences.empty(), cursorHolder);
       }
 
-      final TimeBoundaryInspector timeBoundaryInspector = segment.as(TimeBoundaryInspector.class);
-
       final ColumnSelectorFactory factory = cursor.getColumnSelectorFactory();
 
       final ColumnSelectorPlus<TopNColumnAggregatesProcessor<?>> selectorPlus =
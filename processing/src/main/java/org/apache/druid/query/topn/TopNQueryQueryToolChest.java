@@ -68,11 +68,13 @@ import org.joda.time.DateTime;
 import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BinaryOperator;
 
 /**
  *
@@ -120,18 +122,8 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
   {
     final ResultMergeQueryRunner<Result<TopNResultValue>> delegateRunner = new ResultMergeQueryRunner<>(
         runner,
-        query -> ResultGranularTimestampComparator.create(query.getGranularity(), false),
-        query -> {
-          TopNQuery topNQuery = (TopNQuery) query;
-          return new TopNBinaryFn(
-              topNQuery.getGranularity(),
-              topNQuery.getDimensionSpec(),
-              topNQuery.getTopNMetricSpec(),
-              topNQuery.getThreshold(),
-              topNQuery.getAggregatorSpecs(),
-              topNQuery.getPostAggregatorSpecs()
-          );
-        }
+        this::createResultComparator,
+        this::createMergeFn
     );
     return (queryPlus, responseContext) -> {
       final TopNQuery query = (TopNQuery) queryPlus.getQuery();
@@ -169,6 +161,31 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
     };
   }
 
+  /**
+   * Also used by the broker to merge results from data servers in parallel, see
+   * {@link org.apache.druid.java.util.common.guava.ParallelMergeCombiningSequence}.
+   */
+  @Override
+  public BinaryOperator<Result<TopNResultValue>> createMergeFn(Query<Result<TopNResultValue>> query)
+  {
+    final TopNQuery topNQuery = (TopNQuery) query;
+    return new TopNBinaryFn(
+        topNQuery.getGranularity(),
+        topNQuery.getDimensionSpec(),
+        topNQuery.getTopNMetricSpec(),
+        topNQuery.getThreshold(),
+        topNQuery.getAggregatorSpecs(),
+        topNQuery.getPostAggregatorSpecs(),
+        ApproximateTopNQueryRunner.isEnabled(topNQuery)
+    );
+  }
+
+  @Override
+  public Comparator<Result<TopNResultValue>> createResultComparator(Query<Result<TopNResultValue>> query)
+  {
+    return ResultGranularTimestampComparator.create(query.getGranularity(), false);
+  }
+
   @Override
   public TopNQueryMetrics makeMetrics(TopNQuery query)
   {
@@ -285,6 +302,7 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
           query.getPostAggregatorSpecs(),
           query.getTopNMetricSpec().getMetricName(query.getDimensionSpec())
       );
+      private final boolean trackErrorBounds = ApproximateTopNQueryRunner.isEnabled(query);
 
       @Override
       public boolean isCacheable(TopNQuery query, boolean willMergeRunners, boolean segmentLevel)
@@ -304,6 +322,11 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
             .appendCacheables(query.getAggregatorSpecs())
             .appendCacheable(query.getVirtualColumns());
 
+        if (trackErrorBounds) {
+          // Results carry the bookkeeping fields of ApproximateTopNQueryRunner.
+          builder.appendBoolean(true);
+        }
+
         final List<PostAggregator> postAggregators = prunePostAggregators(query);
         if (!postAggregators.isEmpty()) {
           // Append post aggregators only when they are used as sort keys.
@@ -326,6 +349,10 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
             .appendCacheables(query.getAggregatorSpecs())
             .appendCacheable(query.getVirtualColumns())
             .appendCacheables(query.getPostAggregatorSpecs());
+        if (trackErrorBounds) {
+          // Approximate mode may use a larger threshold than minTopNThreshold.
+          builder.appendBoolean(true);
+        }
         return builder.build();
       }
 
@@ -360,6 +387,9 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
                 for (PostAggregator postAgg : query.getPostAggregatorSpecs()) {
                   vals.add(result.getMetric(postAgg.getName()));
                 }
+              } else if (trackErrorBounds) {
+                vals.add(result.getMetric(ApproximateTopNQueryRunner.SLACK_FIELD));
+                vals.add(result.getMetric(ApproximateTopNQueryRunner.UNSEEN_FIELD));
               }
               retVal.add(vals);
             }
@@ -414,6 +444,10 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
                 for (PostAggregator postAgg : postAggs) {
                   vals.put(postAgg.getName(), postAgg.compute(vals));
                 }
+                if (trackErrorBounds) {
+                  vals.put(ApproximateTopNQueryRunner.SLACK_FIELD, resultIter.next());
+                  vals.put(ApproximateTopNQueryRunner.UNSEEN_FIELD, resultIter.next());
+                }
               }
               retVal.add(vals);
             }
@@ -454,6 +488,7 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
         runner,
         config
     );
+    final ApproximateTopNQueryRunner approximateRunner = new ApproximateTopNQueryRunner(runner, config);
     return new QueryRunner<>()
     {
 
@@ -463,7 +498,11 @@ public class TopNQueryQueryToolChest extends QueryToolChest<Result<TopNResultVal
       )
       {
         // thresholdRunner.run throws ISE if query is not TopNQuery
-        final Sequence<Result<TopNResultValue>> resultSequence = thresholdRunner.run(queryPlus, responseContext);
+        final boolean approximate = queryPlus.getQuery() instanceof TopNQuery
+                                    && ApproximateTopNQueryRunner.isEnabled((TopNQuery) queryPlus.getQuery());
+        final Sequence<Result<TopNResultValue>> resultSequence = approximate
+                                                                 ? approximateRunner.run(queryPlus, responseContext)
+                                                                 : thresholdRunner.run(queryPlus, responseContext);
         final TopNQuery topNQuery = (TopNQuery) queryPlus.getQuery();
         if (!TopNQueryEngine.canApplyExtractionInPost(topNQuery)) {
           return resultSequence;
@@ -75,11 +75,18 @@ public class TopNQueryRunnerFactory implements QueryRunnerFactory<Result<TopNRes
         }
 
         TopNQuery query = (TopNQuery) input.getQuery();
-        return queryEngine.query(
+        final Sequence<Result<TopNResultValue>> results = queryEngine.query(
             query,
             segment,
             (TopNQueryMetrics) input.getQueryMetrics()
         );
+        if (ApproximateTopNQueryRunner.isEnabled(query)) {
+          final String metric = ApproximateTopNQueryRunner.getMetricName(query);
+          return results.map(
+              result -> ApproximateTopNQueryRunner.withSegmentErrorBounds(result, metric, query.getThreshold())
+          );
+        }
+        return results;
       }
     };
 
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.topn;
+
+import org.apache.druid.collections.ResourceHolder;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.guava.Sequence;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.io.Closer;
+import org.apache.druid.query.Order;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.AggregatorAdapters;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.dimension.DimensionSpec;
+import org.apache.druid.query.vector.VectorCursorGranularizer;
+import org.apache.druid.segment.ColumnInspector;
+import org.apache.druid.segment.CursorHolder;
+import org.apache.druid.segment.TimeBoundaryInspector;
+import org.apache.druid.segment.column.ColumnCapabilities;
+import org.apache.druid.segment.column.Types;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.vector.SingleValueDimensionVectorSelector;
+import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
+import org.apache.druid.segment.vector.VectorCursor;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Vectorized engine for {@link TopNQuery}. It handles the same kind of dimension as {@link PooledTopNAlgorithm}: a
+ * single-valued, dictionary encoded string column with unique dictionary values and no extraction function.
+ *
+ * Rows are aggregated with {@link org.apache.druid.query.aggregation.VectorAggregator} into a buffer laid out by
+ * dictionary id, so the aggregation position of a row is its dictionary id times the size of a record. A record is
+ * initialized the first time its dictionary id is seen in a time bucket, and at the end of the bucket only the ids that
+ * were seen are offered to the {@link TopNResultBuilder} of the query's {@link TopNMetricSpec}, which keeps the top
+ * values in a heap.
+ *
+ * The whole dictionary must fit in the processing buffer in a single pass; see {@link #getBufferSizeNeeded}. Queries
+ * that do not fit use the non-vectorized {@link PooledTopNAlgorithm}, which can make multiple passes.
+ */
+public class VectorTopNEngine
+{
+  private VectorTopNEngine()
+  {
+    // No instantiation.
+  }
+
+  /**
+   * Whether the dimension of the query can be processed by this engine. The caller must separately check
+   * {@link CursorHolder#canVectorize()}, that the cardinality of the dimension selector is known, and
+   * {@link #getBufferSizeNeeded}.
+   *
+   * @param query     topN query
+   * @param inspector column inspector of the segment, such as its {@link org.apache.druid.segment.CursorFactory}
+   */
+  public static boolean canVectorize(final TopNQuery query, final ColumnInspector inspector)
+  {
+    final DimensionSpec dimensionSpec = query.getDimensionSpec();
+    if (!dimensionSpec.canVectorize() || dimensionSpec.mustDecorate() || dimensionSpec.getExtractionFn() != null) {
+      return false;
+    }
+
+    if (!dimensionSpec.getOutputType().is(ValueType.STRING)) {
+      return false;
+    }
+
+    final ColumnCapabilities capabilities = query.getVirtualColumns().getColumnCapabilitiesWithFallback(
+        inspector,
+        dimensionSpec.getDimension()
+    );
+
+    // dictionary ids are used directly as grouping keys, so they must map to distinct values, one per row
+    return Types.is(capabilities, ValueType.STRING)
+           && capabilities.isDictionaryEncoded().isTrue()
+           && capabilities.areDictionaryValuesUnique().isTrue()
+           && capabilities.hasMultipleValues().isFalse();
+  }
+
+  /**
+   * Number of buffer bytes needed to aggregate a dimension of the given cardinality in a single pass.
+   */
+  public static long getBufferSizeNeeded(final TopNQuery query, final int cardinality)
+  {
+    long recordSize = 0;
+    for (AggregatorFactory aggregatorFactory : query.getAggregatorSpecs()) {
+      recordSize += aggregatorFactory.getMaxIntermediateSizeWithNulls();
+    }
+    return recordSize * cardinality;
+  }
+
+  /**
+   * Run a single-segment, single-interval topN query. The returned sequence closes the buffer holder when done.
+   *
+   * @param cursor      vector cursor of the segment
+   * @param dimSelector selector of the query dimension, made from the cursor's column selector factory
+   * @param timeOrder   time order of the cursor, see {@link CursorHolder#getTimeOrder()}
+   */
+  public static Sequence<Result<TopNResultValue>> process(
+      final TopNQuery query,
+      final VectorCursor cursor,
+      final SingleValueDimensionVectorSelector dimSelector,
+      final Order timeOrder,
+      @Nullable final TimeBoundaryInspector timeBoundaryInspector,
+      final Interval queryInterval,
+      final ResourceHolder<ByteBuffer> bufferHolder
+  )
+  {
+    final Closer closer = Closer.create();
+    closer.register(bufferHolder);
+
+    try {
+      final VectorCursorGranularizer granularizer = VectorCursorGranularizer.create(
+          cursor,
+          timeBoundaryInspector,
+          timeOrder,
+          query.getGranularity(),
+          queryInterval
+      );
+      if (granularizer == null) {
+        return Sequences.withBaggage(Sequences.empty(), closer);
+      }
+
+      final VectorColumnSelectorFactory columnSelectorFactory = cursor.getColumnSelectorFactory();
+      final AggregatorAdapters aggregators =
+          AggregatorAdapters.factorizeVector(columnSelectorFactory, query.getAggregatorSpecs());
+      closer.register(aggregators::reset);
+
+      final int cardinality = dimSelector.getValueCardinality();
+      final ByteBuffer buffer = bufferHolder.get();
+      if (cardinality < 0 || (long) cardinality * aggregators.spaceNeeded() > buffer.capacity()) {
+        throw new ISE(
+            "Not enough space for aggregators, needed [%,d] bytes for cardinality [%,d] but have only [%,d].",
+            (long) cardinality * aggregators.spaceNeeded(),
+            cardinality,
+            buffer.capacity()
+        );
+      }
+
+      final DictionaryIdAggregator dictionaryIdAggregator = new DictionaryIdAggregator(
+          query,
+          dimSelector,
+          aggregators,
+          buffer,
+          cardinality,
+          cursor.getMaxVectorSize()
+      );
+
+      return Sequences.withBaggage(
+          Sequences.simple(granularizer.getBucketIterable()).map(
+              bucketInterval -> {
+                while (!cursor.isDone()) {
+                  granularizer.setCurrentOffsets(bucketInterval);
+
+                  if (granularizer.getEndOffset() > granularizer.getStartOffset()) {
+                    dictionaryIdAggregator.aggregate(granularizer.getStartOffset(), granularizer.getEndOffset());
+                  }
+
+                  if (!granularizer.advanceCursorWithinBucket()) {
+                    break;
+                  }
+                }
+
+                return dictionaryIdAggregator.buildAndReset(DateTimes.utc(bucketInterval.getStartMillis()));
+              }
+          ),
+          closer
+      );
+    }
+    catch (Throwable t1) {
+      try {
+        closer.close();
+      }
+      catch (Throwable t2) {
+        t1.addSuppressed(t2);
+      }
+      throw t1;
+    }
+  }
+
+  /**
+   * Aggregation state for one time bucket, with one record per dictionary id.
+   */
+  private static class DictionaryIdAggregator
+  {
+    private final TopNQuery query;
+    private final SingleValueDimensionVectorSelector dimSelector;
+    private final AggregatorAdapters aggregators;
+    private final ByteBuffer buffer;
+    private final int recordSize;
+    private final int numAggregators;
+
+    /**
+     * Dictionary ids seen in the current bucket, in order of first appearance, and a bitmap of the same ids.
+     */
+    private final int[] seenIds;
+    private final BitSet seen;
+    private int numSeen;
+
+    private final int[] positions;
+    private final int[] rows;
+
+    DictionaryIdAggregator(
+        final TopNQuery query,
+        final SingleValueDimensionVectorSelector dimSelector,
+        final AggregatorAdapters aggregators,
+        final ByteBuffer buffer,
+        final int cardinality,
+        final int maxVectorSize
+    )
+    {
+      this.query = query;
+      this.dimSelector = dimSelector;
+      this.aggregators = aggregators;
+      this.buffer = buffer;
+      this.recordSize = aggregators.spaceNeeded();
+      this.numAggregators = aggregators.size();
+      this.seenIds = new int[cardinality];
+      this.seen = new BitSet(cardinality);
+      this.positions = new int[maxVectorSize];
+      this.rows = new int[maxVectorSize];
+    }
+
+    /**
+     * Aggregate rows [startOffset, endOffset) of the current vector.
+     */
+    void aggregate(final int startOffset, final int endOffset)
+    {
+      final int[] ids = dimSelector.getRowVector();
+      final int numRows = endOffset - startOffset;
+
+      for (int i = 0; i < numRows; i++) {
+        final int row = startOffset + i;
+        final int id = ids[row];
+        final int position = id * recordSize;
+        if (!seen.get(id)) {
+          seen.set(id);
+          seenIds[numSeen++] = id;
+          aggregators.init(buffer, position);
+        }
+        positions[i] = position;
+        rows[i] = row;
+      }
+
+      aggregators.aggregateVector(buffer, numRows, positions, startOffset == 0 ? null : rows);
+    }
+
+    /**
+     * Offer every dictionary id seen in the bucket to a fresh result builder, then forget them for the next bucket.
+     */
+    Result<TopNResultValue> buildAndReset(final DateTime timestamp)
+    {
+      final TopNResultBuilder resultBuilder = BaseTopNAlgorithm.makeResultBuilder(timestamp, query);
+
+      for (int i = 0; i < numSeen; i++) {
+        final int id = seenIds[i];
+        final int position = id * recordSize;
+        final Object[] vals = new Object[numAggregators];
+        for (int j = 0; j < numAggregators; j++) {
+          vals[j] = aggregators.get(buffer, position, j);
+        }
+
+        // Output type must be STRING for this engine to be used; so no need to convert value.
+        resultBuilder.addEntry(dimSelector.lookupName(id), id, vals);
+        seen.clear(id);
+      }
+      numSeen = 0;
+
+      return resultBuilder.build();
+    }
+  }
+}
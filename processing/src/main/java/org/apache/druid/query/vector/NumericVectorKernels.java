@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.vector;
+
+/**
+ * Inner loops over primitive vectors shared by the vectorized aggregators and value matchers.
+ *
+ * Reductions are plain sequential loops. C2 can vectorize that shape for long sums, and for min and max. Floating point
+ * sums keep the sequential order, because reordering the additions would change results compared to the
+ * nonvectorized aggregators.
+ *
+ * Equality selection loops write the row number unconditionally and advance the write cursor only on a match, so their
+ * cost does not depend on how predictable the predicate is. The write into the selection is not vectorizable, so
+ * these loops are scalar. See NumericVectorKernelsBenchmark in the benchmarks module for a comparison against the
+ * branching loop at various selectivities.
+ *
+ * Only equality matchers use these kernels. Bound and range matchers, and the vector processors of
+ * {@link org.apache.druid.math.expr.Expr}, still have their own loops.
+ */
+public final class NumericVectorKernels
+{
+  private NumericVectorKernels()
+  {
+    // No instantiation.
+  }
+
+  public static long sum(final long[] vector, final int startRow, final int endRow)
+  {
+    long sum = 0;
+    for (int i = startRow; i < endRow; i++) {
+      sum += vector[i];
+    }
+    return sum;
+  }
+
+  public static double sum(final double[] vector, final int startRow, final int endRow)
+  {
+    double sum = 0;
+    for (int i = startRow; i < endRow; i++) {
+      sum += vector[i];
+    }
+    return sum;
+  }
+
+  public static float sum(final float[] vector, final int startRow, final int endRow)
+  {
+    float sum = 0;
+    for (int i = startRow; i < endRow; i++) {
+      sum += vector[i];
+    }
+    return sum;
+  }
+
+  public static long min(final long initial, final long[] vector, final int startRow, final int endRow)
+  {
+    long min = initial;
+    for (int i = startRow; i < endRow; i++) {
+      min = Math.min(min, vector[i]);
+    }
+    return min;
+  }
+
+  public static long max(final long initial, final long[] vector, final int startRow, final int endRow)
+  {
+    long max = initial;
+    for (int i = startRow; i < endRow; i++) {
+      max = Math.max(max, vector[i]);
+    }
+    return max;
+  }
+
+  public static double min(final double initial, final double[] vector, final int startRow, final int endRow)
+  {
+    double min = initial;
+    for (int i = startRow; i < endRow; i++) {
+      min = Math.min(min, vector[i]);
+    }
+    return min;
+  }
+
+  public static double max(final double initial, final double[] vector, final int startRow, final int endRow)
+  {
+    double max = initial;
+    for (int i = startRow; i < endRow; i++) {
+      max = Math.max(max, vector[i]);
+    }
+    return max;
+  }
+
+  public static float min(final float initial, final float[] vector, final int startRow, final int endRow)
+  {
+    float min = initial;
+    for (int i = startRow; i < endRow; i++) {
+      min = Math.min(min, vector[i]);
+    }
+    return min;
+  }
+
+  public static float max(final float initial, final float[] vector, final int startRow, final int endRow)
+  {
+    float max = initial;
+    for (int i = startRow; i < endRow; i++) {
+      max = Math.max(max, vector[i]);
+    }
+    return max;
+  }
+
+  /**
+   * Writes the row numbers in [0, size) for which {@code vector[row] == value} into {@code selection}, in ascending
+   * order, and returns how many were written.
+   */
+  public static int selectEquals(final long[] vector, final int size, final long value, final int[] selection)
+  {
+    int numRows = 0;
+    for (int i = 0; i < size; i++) {
+      selection[numRows] = i;
+      numRows += vector[i] == value ? 1 : 0;
+    }
+    return numRows;
+  }
+
+  /**
+   * Same as {@link #selectEquals(long[], int, long, int[])}, for doubles. Comparison uses {@code ==}, so NaN never
+   * matches and -0.0 matches 0.0.
+   */
+  public static int selectEquals(final double[] vector, final int size, final double value, final int[] selection)
+  {
+    int numRows = 0;
+    for (int i = 0; i < size; i++) {
+      selection[numRows] = i;
+      numRows += vector[i] == value ? 1 : 0;
+    }
+    return numRows;
+  }
+
+  /**
+   * Same as {@link #selectEquals(long[], int, long, int[])}, but only considers rows listed in the first {@code size}
+   * entries of {@code mask}.
+   */
+  public static int selectEquals(
+      final long[] vector,
+      final int[] mask,
+      final int size,
+      final long value,
+      final int[] selection
+  )
+  {
+    int numRows = 0;
+    for (int i = 0; i < size; i++) {
+      final int rowNum = mask[i];
+      selection[numRows] = rowNum;
+      numRows += vector[rowNum] == value ? 1 : 0;
+    }
+    return numRows;
+  }
+
+  /**
+   * Same as {@link #selectEquals(double[], int, double, int[])}, but only considers rows listed in the first
+   * {@code size} entries of {@code mask}.
+   */
+  public static int selectEquals(
+      final double[] vector,
+      final int[] mask,
+      final int size,
+      final double value,
+      final int[] selection
+  )
+  {
+    int numRows = 0;
+    for (int i = 0; i < size; i++) {
+      final int rowNum = mask[i];
+      selection[numRows] = rowNum;
+      numRows += vector[rowNum] == value ? 1 : 0;
+    }
+    return numRows;
+  }
+}
@@ -48,6 +48,7 @@ import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.IndexedInts;
 import org.apache.druid.segment.data.ObjectStrategy;
+import org.apache.druid.segment.data.RunLengthColumnarIntsSerializer;
 import org.apache.druid.segment.data.SingleValueColumnarIntsSerializer;
 import org.apache.druid.segment.data.V3CompressedVSizeColumnarMultiIntsSerializer;
 import org.apache.druid.segment.data.VSizeColumnarIntsSerializer;
@@ -469,8 +470,9 @@ public abstract class DictionaryEncodedColumnMerger<T extends Comparable<T>> imp
             new VSizeColumnarMultiIntsSerializer(outputName, segmentWriteOutMedium, cardinality);
       }
     } else {
+      final SingleValueColumnarIntsSerializer singleValueSerializer;
       if (compressionStrategy != CompressionStrategy.UNCOMPRESSED) {
-        encodedValueSerializer = CompressedVSizeColumnarIntsSerializer.create(
+        singleValueSerializer = CompressedVSizeColumnarIntsSerializer.create(
             outputName,
             segmentWriteOutMedium,
             filenameBase,
@@ -479,7 +481,13 @@ public abstract class DictionaryEncodedColumnMerger<T extends Comparable<T>> imp
             segmentWriteOutMedium.getCloser()
         );
       } else {
-        encodedValueSerializer = new VSizeColumnarIntsSerializer(segmentWriteOutMedium, cardinality);
+        singleValueSerializer = new VSizeColumnarIntsSerializer(segmentWriteOutMedium, cardinality);
+      }
+      if (indexSpec.isRunLengthEncoded(dimensionName)) {
+        // written in the regular format instead if that turns out smaller, such as when there are many short runs
+        encodedValueSerializer = new RunLengthColumnarIntsSerializer(segmentWriteOutMedium, singleValueSerializer);
+      } else {
+        encodedValueSerializer = singleValueSerializer;
       }
     }
     encodedValueSerializer.open();
@@ -29,17 +29,20 @@ import org.apache.druid.segment.data.ByteBufferWriter;
 import org.apache.druid.segment.data.ColumnarDoublesSerializer;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.NumericZoneMap;
+import org.apache.druid.segment.data.NumericZoneMapSerializer;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
 
 /**
  * Column Serializer for double column.
- * The column is serialized in two parts, first a bitmap indicating the nullability of row values
- * and second the actual row values.
+ * The column is serialized as the actual row values, followed by an optional {@link NumericZoneMap} and a bitmap
+ * indicating the nullability of row values, which is omitted if there are no null values.
  * This class is unsafe for concurrent use from multiple threads.
  */
 public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
@@ -51,6 +54,29 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
       CompressionStrategy compression,
       BitmapSerdeFactory bitmapSerdeFactory
   )
+  {
+    return create(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        compression,
+        bitmapSerdeFactory,
+        0
+    );
+  }
+
+  /**
+   * @param zoneMapRows number of rows per entry of the {@link NumericZoneMap} written after the values, or 0 to not
+   *                    write a zone map
+   */
+  public static DoubleColumnSerializerV2 create(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      CompressionStrategy compression,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      int zoneMapRows
+  )
   {
     return new DoubleColumnSerializerV2(
         columnName,
@@ -58,7 +84,8 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
         filenameBase,
         IndexIO.BYTE_ORDER,
         compression,
-        bitmapSerdeFactory
+        bitmapSerdeFactory,
+        zoneMapRows
     );
   }
 
@@ -68,10 +95,13 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
   private final ByteOrder byteOrder;
   private final CompressionStrategy compression;
   private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final int zoneMapRows;
 
   private ColumnarDoublesSerializer writer;
   private ByteBufferWriter<ImmutableBitmap> nullValueBitmapWriter;
   private MutableBitmap nullRowsBitmap;
+  @Nullable
+  private NumericZoneMapSerializer zoneMapWriter;
   private int rowCount = 0;
 
   private DoubleColumnSerializerV2(
@@ -80,7 +110,8 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
       String filenameBase,
       ByteOrder byteOrder,
       CompressionStrategy compression,
-      BitmapSerdeFactory bitmapSerdeFactory
+      BitmapSerdeFactory bitmapSerdeFactory,
+      int zoneMapRows
   )
   {
     this.columnName = columnName;
@@ -89,6 +120,7 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     this.byteOrder = byteOrder;
     this.compression = compression;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.zoneMapRows = zoneMapRows;
   }
 
   @Override
@@ -109,6 +141,10 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     );
     nullValueBitmapWriter.open();
     nullRowsBitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyMutableBitmap();
+    if (zoneMapRows > 0) {
+      zoneMapWriter = new NumericZoneMapSerializer(NumericZoneMap.Type.DOUBLE, zoneMapRows, segmentWriteOutMedium);
+      zoneMapWriter.open();
+    }
   }
 
   @Override
@@ -117,8 +153,15 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     if (selector.isNull()) {
       nullRowsBitmap.add(rowCount);
       writer.add(0D);
+      if (zoneMapWriter != null) {
+        zoneMapWriter.addNull();
+      }
     } else {
-      writer.add(selector.getDouble());
+      final double val = selector.getDouble();
+      writer.add(val);
+      if (zoneMapWriter != null) {
+        zoneMapWriter.addDouble(val);
+      }
     }
     rowCount++;
   }
@@ -130,7 +173,8 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
     long bitmapSize = nullRowsBitmap.isEmpty()
                       ? 0L
                       : nullValueBitmapWriter.getSerializedSize();
-    return Integer.BYTES + writer.getSerializedSize() + bitmapSize;
+    long zoneMapSize = zoneMapWriter == null ? 0L : zoneMapWriter.getSerializedSize();
+    return Integer.BYTES + writer.getSerializedSize() + zoneMapSize + bitmapSize;
   }
 
   @Override
@@ -138,6 +182,9 @@ public class DoubleColumnSerializerV2 implements GenericColumnSerializer<Object>
   {
     SerializerUtils.writeInt(channel, Ints.checkedCast(writer.getSerializedSize()));
     writer.writeTo(channel, fileBuilder);
+    if (zoneMapWriter != null) {
+      zoneMapWriter.writeTo(channel, fileBuilder);
+    }
     if (!nullRowsBitmap.isEmpty()) {
       nullValueBitmapWriter.writeTo(channel, fileBuilder);
     }
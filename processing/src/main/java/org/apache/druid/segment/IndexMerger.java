@@ -52,6 +52,7 @@ public interface IndexMerger
   SerializerUtils SERIALIZER_UTILS = new SerializerUtils();
   int INVALID_ROW = -1;
   int UNLIMITED_MAX_COLUMNS_TO_MERGE = -1;
+  int DEFAULT_COLUMN_MERGE_THREADS = 1;
 
   /**
    * Returns merged dimensions, not including {@link ColumnHolder#TIME_COLUMN_NAME}, from a set of indexes.
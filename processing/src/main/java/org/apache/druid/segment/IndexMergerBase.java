@@ -21,6 +21,7 @@ package org.apache.druid.segment;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -29,8 +30,10 @@ import org.apache.druid.error.DruidException;
 import org.apache.druid.java.util.common.FileUtils;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnDescriptor;
 import org.apache.druid.segment.column.ColumnFormat;
 import org.apache.druid.segment.column.ColumnHolder;
@@ -67,6 +70,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -75,20 +83,40 @@ import java.util.stream.Collectors;
  */
 public abstract class IndexMergerBase implements IndexMerger
 {
+  private static final long COLUMN_MERGE_PROGRESS_INTERVAL_MILLIS = 1000;
+
   protected final ObjectMapper mapper;
   protected final IndexIO indexIO;
   protected final SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory;
 
+  /**
+   * Number of threads used to merge value dictionaries and build indexes of dimension columns, see
+   * {@link #forEachDimensionMerger}. 1 builds all columns on the calling thread.
+   */
+  protected final int columnMergeThreads;
+
   protected IndexMergerBase(
       ObjectMapper mapper,
       IndexIO indexIO,
       SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory
   )
+  {
+    this(mapper, indexIO, defaultSegmentWriteOutMediumFactory, DEFAULT_COLUMN_MERGE_THREADS);
+  }
+
+  protected IndexMergerBase(
+      ObjectMapper mapper,
+      IndexIO indexIO,
+      SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory,
+      int columnMergeThreads
+  )
   {
     this.mapper = Preconditions.checkNotNull(mapper, "null ObjectMapper");
     this.indexIO = Preconditions.checkNotNull(indexIO, "null IndexIO");
     this.defaultSegmentWriteOutMediumFactory =
         Preconditions.checkNotNull(defaultSegmentWriteOutMediumFactory, "null SegmentWriteOutMediumFactory");
+    Preconditions.checkArgument(columnMergeThreads > 0, "columnMergeThreads[%s] must be positive", columnMergeThreads);
+    this.columnMergeThreads = columnMergeThreads;
   }
 
   /**
@@ -899,18 +927,137 @@ public abstract class IndexMergerBase implements IndexMerger
       final List<IndexableAdapter> indexes,
       final ProgressIndicator progress,
       final List<String> mergedDimensions,
-      final List<DimensionMergerV9> mergers
+      final List<DimensionMergerV9> mergers,
+      @Nullable final ExecutorService columnMergeExec
   ) throws IOException
   {
     final String section = "setup dimension conversions";
     progress.startSection(section);
 
-    for (int dimIndex = 0; dimIndex < mergedDimensions.size(); ++dimIndex) {
-      mergers.get(dimIndex).writeMergedValueDictionary(indexes);
-    }
+    forEachDimensionMerger(
+        columnMergeExec,
+        progress,
+        mergers.subList(0, mergedDimensions.size()),
+        merger -> merger.writeMergedValueDictionary(indexes)
+    );
     progress.stopSection(section);
   }
 
+  /**
+   * Makes the executor used by {@link #forEachDimensionMerger} for one merge, or returns null if
+   * {@link #columnMergeThreads} is 1. The executor is shut down when {@code closer} is closed.
+   */
+  @Nullable
+  protected ExecutorService makeColumnMergeExecutor(final int numDimensions, final Closer closer)
+  {
+    if (columnMergeThreads == 1 || numDimensions <= 1) {
+      return null;
+    }
+    final ExecutorService exec = Execs.multiThreaded(
+        Math.min(columnMergeThreads, numDimensions),
+        "IndexMerger-column-%d"
+    );
+    closer.register(exec::shutdownNow);
+    return exec;
+  }
+
+  /**
+   * Makes the merger of a dimension column. When {@link #columnMergeThreads} is greater than 1, each merger gets its own
+   * child {@link SegmentWriteOutMedium} and {@link Closer}, since neither is thread-safe, so that mergers of different
+   * columns can be driven concurrently by {@link #forEachDimensionMerger}. For the same reason, the mergers do not get
+   * {@code progress}, which {@link #forEachDimensionMerger} reports on instead.
+   */
+  protected DimensionMergerV9 makeDimensionMerger(
+      final DimensionHandler handler,
+      final String outputName,
+      final IndexSpec indexSpec,
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final ColumnCapabilities capabilities,
+      final ProgressIndicator progress,
+      final File segmentBaseDir,
+      final Closer closer
+  ) throws IOException
+  {
+    if (columnMergeThreads == 1) {
+      return handler.makeMerger(
+          outputName,
+          indexSpec,
+          segmentWriteOutMedium,
+          capabilities,
+          progress,
+          segmentBaseDir,
+          closer
+      );
+    }
+    return handler.makeMerger(
+        outputName,
+        indexSpec,
+        segmentWriteOutMedium.makeChildWriteOutMedium(),
+        capabilities,
+        new BaseProgressIndicator(),
+        segmentBaseDir,
+        closer.register(Closer.create())
+    );
+  }
+
+  /**
+   * Runs {@code action} on each of the given mergers, concurrently on {@code columnMergeExec} if it is not null.
+   * Mergers made by {@link #makeDimensionMerger} only share read-only state, so this is used for the per-column phases
+   * of a merge that do not depend on each other: merging value dictionaries, and building indexes once all rows have
+   * been written. {@link ProgressIndicator} is not thread-safe, so progress is reported from the calling thread while
+   * it waits.
+   */
+  protected void forEachDimensionMerger(
+      @Nullable final ExecutorService columnMergeExec,
+      final ProgressIndicator progress,
+      final List<DimensionMergerV9> mergers,
+      final DimensionMergerAction action
+  ) throws IOException
+  {
+    if (columnMergeExec == null || mergers.size() <= 1) {
+      for (DimensionMergerV9 merger : mergers) {
+        action.apply(merger);
+      }
+      return;
+    }
+
+    final List<Future<?>> futures = new ArrayList<>(mergers.size());
+    try {
+      for (DimensionMergerV9 merger : mergers) {
+        futures.add(columnMergeExec.submit(() -> {
+          action.apply(merger);
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        while (true) {
+          try {
+            future.get(COLUMN_MERGE_PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            break;
+          }
+          catch (TimeoutException e) {
+            progress.progress();
+          }
+        }
+        progress.progress();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+    finally {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
   protected void mergeFormat(
       final List<IndexableAdapter> adapters,
       final List<String> mergedDimensions,
@@ -1091,6 +1238,7 @@ public abstract class IndexMergerBase implements IndexMerger
     return LongNumericColumnPartSerdeV2.serializerBuilder()
                                        .withByteOrder(IndexIO.BYTE_ORDER)
                                        .withBitmapSerdeFactory(indexSpec.getBitmapSerdeFactory())
+                                       .withZoneMap(getNumericZoneMapRows(indexSpec) > 0)
                                        .withDelegate(serializer)
                                        .build();
   }
@@ -1100,6 +1248,7 @@ public abstract class IndexMergerBase implements IndexMerger
     return DoubleNumericColumnPartSerdeV2.serializerBuilder()
                                          .withByteOrder(IndexIO.BYTE_ORDER)
                                          .withBitmapSerdeFactory(indexSpec.getBitmapSerdeFactory())
+                                         .withZoneMap(getNumericZoneMapRows(indexSpec) > 0)
                                          .withDelegate(serializer)
                                          .build();
   }
@@ -1125,7 +1274,8 @@ public abstract class IndexMergerBase implements IndexMerger
         columnName,
         indexSpec.getMetricCompression(),
         indexSpec.getLongEncoding(),
-        indexSpec.getBitmapSerdeFactory()
+        indexSpec.getBitmapSerdeFactory(),
+        getNumericZoneMapRows(indexSpec)
     );
   }
 
@@ -1140,7 +1290,8 @@ public abstract class IndexMergerBase implements IndexMerger
         segmentWriteOutMedium,
         columnName,
         indexSpec.getMetricCompression(),
-        indexSpec.getBitmapSerdeFactory()
+        indexSpec.getBitmapSerdeFactory(),
+        getNumericZoneMapRows(indexSpec)
     );
   }
 
@@ -1159,6 +1310,18 @@ public abstract class IndexMergerBase implements IndexMerger
     );
   }
 
+  private static int getNumericZoneMapRows(IndexSpec indexSpec)
+  {
+    final Integer zoneMapRows = indexSpec.getNumericZoneMapRows();
+    return zoneMapRows == null ? 0 : zoneMapRows;
+  }
+
+  @FunctionalInterface
+  protected interface DimensionMergerAction
+  {
+    void apply(DimensionMergerV9 merger) throws IOException;
+  }
+
   protected static class IndexMergeResult
   {
     @Nullable
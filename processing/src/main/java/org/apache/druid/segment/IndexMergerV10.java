@@ -54,6 +54,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -73,7 +74,17 @@ public class IndexMergerV10 extends IndexMergerBase
       SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory
   )
   {
-    super(mapper, indexIO, defaultSegmentWriteOutMediumFactory);
+    this(mapper, indexIO, defaultSegmentWriteOutMediumFactory, DEFAULT_COLUMN_MERGE_THREADS);
+  }
+
+  public IndexMergerV10(
+      ObjectMapper mapper,
+      IndexIO indexIO,
+      SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory,
+      int columnMergeThreads
+  )
+  {
+    super(mapper, indexIO, defaultSegmentWriteOutMediumFactory, columnMergeThreads);
   }
 
   @Override
@@ -160,8 +171,8 @@ public class IndexMergerV10 extends IndexMergerBase
       final Map<String, DimensionMergerV9> mergersMap = Maps.newHashMapWithExpectedSize(mergedDimensions.size());
       final List<DimensionMergerV9> mergers = new ArrayList<>();
       for (int i = 0; i < mergedDimensions.size(); i++) {
-        DimensionHandler handler = handlers.get(mergedDimensions.get(i));
-        DimensionMergerV9 merger = handler.makeMerger(
+        DimensionMergerV9 merger = makeDimensionMerger(
+            handlers.get(mergedDimensions.get(i)),
             basePrefix + mergedDimensions.get(i),
             indexSpec,
             segmentWriteOutMedium,
@@ -186,10 +197,13 @@ public class IndexMergerV10 extends IndexMergerBase
         }
       }
 
+      // sized once for the whole merge, and shut down by the closer
+      final ExecutorService columnMergeExec = makeColumnMergeExecutor(mergers.size(), closer);
+
       /************* Setup Dim Conversions **************/
       progress.progress();
       startTime = System.currentTimeMillis();
-      writeDimValuesAndSetupDimConversion(adapters, progress, mergedDimensions, mergers);
+      writeDimValuesAndSetupDimConversion(adapters, progress, mergedDimensions, mergers, columnMergeExec);
       log.debug("Completed dim conversions in %,d millis.", System.currentTimeMillis() - startTime);
 
       /************* Walk through data sets, merge them, and write merged columns *************/
@@ -229,9 +243,14 @@ public class IndexMergerV10 extends IndexMergerBase
           basePrefix
       );
 
+      forEachDimensionMerger(
+          columnMergeExec,
+          progress,
+          mergers,
+          merger -> merger.writeIndexes(indexMergeResult.rowNumConversions)
+      );
       for (int i = 0; i < mergedDimensions.size(); i++) {
         DimensionMergerV9 merger = mergers.get(i);
-        merger.writeIndexes(indexMergeResult.rowNumConversions);
         if (!merger.hasOnlyNulls()) {
           ColumnDescriptor columnDesc = merger.makeColumnDescriptor();
           makeColumn(v10Smoosher, basePrefix + mergedDimensions.get(i), columnDesc);
@@ -49,4 +49,9 @@ public class IndexMergerV10Factory
   {
     return new IndexMergerV10(mapper, indexIO, defaultSegmentWriteOutMediumFactory);
   }
+
+  public IndexMergerV10 create(int columnMergeThreads)
+  {
+    return new IndexMergerV10(mapper, indexIO, defaultSegmentWriteOutMediumFactory, columnMergeThreads);
+  }
 }
@@ -61,6 +61,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -89,7 +90,22 @@ public class IndexMergerV9 extends IndexMergerBase
       boolean storeEmptyColumns
   )
   {
-    super(mapper, indexIO, defaultSegmentWriteOutMediumFactory);
+    this(mapper, indexIO, defaultSegmentWriteOutMediumFactory, storeEmptyColumns, DEFAULT_COLUMN_MERGE_THREADS);
+  }
+
+  /**
+   * @param columnMergeThreads number of threads used to build dimension columns concurrently, see
+   *                           {@link IndexMergerBase#forEachDimensionMerger}
+   */
+  public IndexMergerV9(
+      ObjectMapper mapper,
+      IndexIO indexIO,
+      SegmentWriteOutMediumFactory defaultSegmentWriteOutMediumFactory,
+      boolean storeEmptyColumns,
+      int columnMergeThreads
+  )
+  {
+    super(mapper, indexIO, defaultSegmentWriteOutMediumFactory, columnMergeThreads);
     this.storeEmptyColumns = storeEmptyColumns;
   }
 
@@ -171,8 +187,8 @@ public class IndexMergerV9 extends IndexMergerBase
       final Map<String, DimensionMergerV9> mergersMap = Maps.newHashMapWithExpectedSize(mergedDimensions.size());
       final List<DimensionMergerV9> mergers = new ArrayList<>();
       for (int i = 0; i < mergedDimensions.size(); i++) {
-        DimensionHandler handler = handlers.get(mergedDimensions.get(i));
-        DimensionMergerV9 merger = handler.makeMerger(
+        DimensionMergerV9 merger = makeDimensionMerger(
+            handlers.get(mergedDimensions.get(i)),
             mergedDimensions.get(i),
             indexSpec,
             segmentWriteOutMedium,
@@ -196,10 +212,13 @@ public class IndexMergerV9 extends IndexMergerBase
         }
       }
 
+      // sized once for the whole merge, and shut down by the closer
+      final ExecutorService columnMergeExec = makeColumnMergeExecutor(mergers.size(), closer);
+
       /************* Setup Dim Conversions **************/
       progress.progress();
       startTime = System.currentTimeMillis();
-      writeDimValuesAndSetupDimConversion(adapters, progress, mergedDimensions, mergers);
+      writeDimValuesAndSetupDimConversion(adapters, progress, mergedDimensions, mergers, columnMergeExec);
       log.debug("Completed dim conversions in %,d millis.", System.currentTimeMillis() - startTime);
 
       /************* Walk through data sets, merge them, and write merged columns *************/
@@ -239,9 +258,14 @@ public class IndexMergerV9 extends IndexMergerBase
           ""
       );
 
+      forEachDimensionMerger(
+          columnMergeExec,
+          progress,
+          mergers,
+          merger -> merger.writeIndexes(indexMergeResult.rowNumConversions)
+      );
       for (int i = 0; i < mergedDimensions.size(); i++) {
         DimensionMergerV9 merger = mergers.get(i);
-        merger.writeIndexes(indexMergeResult.rowNumConversions);
         if (!merger.hasOnlyNulls()) {
           ColumnDescriptor columnDesc = merger.makeColumnDescriptor();
           makeColumn(v9Smoosher, mergedDimensions.get(i), columnDesc);
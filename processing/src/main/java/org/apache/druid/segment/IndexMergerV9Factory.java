@@ -48,4 +48,15 @@ public class IndexMergerV9Factory
   {
     return new IndexMergerV9(mapper, indexIO, defaultSegmentWriteOutMediumFactory, storeEmptyColumns);
   }
+
+  public IndexMergerV9 create(boolean storeEmptyColumns, int columnMergeThreads)
+  {
+    return new IndexMergerV9(
+        mapper,
+        indexIO,
+        defaultSegmentWriteOutMediumFactory,
+        storeEmptyColumns,
+        columnMergeThreads
+    );
+  }
 }
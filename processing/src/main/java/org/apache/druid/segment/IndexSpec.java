@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.error.InvalidInput;
 import org.apache.druid.guice.BuiltInTypesModule;
 import org.apache.druid.segment.column.StringEncodingStrategy;
 import org.apache.druid.segment.data.BitmapSerde;
@@ -34,6 +35,7 @@ import org.apache.druid.segment.nested.NestedCommonFormatColumnFormatSpec;
 
 import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * IndexSpec defines segment storage format options to be used at indexing time,
@@ -76,6 +78,18 @@ public class IndexSpec
   private final NestedCommonFormatColumnFormatSpec autoColumnFormatSpec;
   @Nullable
   private final CompressionStrategy metadataCompression;
+  @Nullable
+  private final Integer numericZoneMapRows;
+  @Nullable
+  private final Set<String> trigramIndexColumns;
+  @Nullable
+  private final Set<String> bloomFilterColumns;
+  @Nullable
+  private final Integer maxPublishedBloomFilterBytes;
+  @Nullable
+  private final Set<String> runLengthEncodedColumns;
+  @Nullable
+  private final Boolean extendedStringColumnFormat;
 
   /**
    * Creates an IndexSpec with the given storage format settings.
@@ -109,6 +123,30 @@ public class IndexSpec
    *                                 used to load the written segment
    * @param autoColumnFormatSpec     specify the default {@link NestedCommonFormatColumnFormatSpec} to use for json and
    *                                 auto columns. Defaults to null upon calling {@link #getEffectiveSpec()}.
+   * @param numericZoneMapRows       number of rows covered by each entry of the min/max zone maps written for long and
+   *                                 double columns, see {@link org.apache.druid.segment.data.NumericZoneMap}. Null or
+   *                                 0 to not write zone maps, which is the default.
+   * @param trigramIndexColumns      names of string dimensions to write a trigram index for, which speeds up substring
+   *                                 filters such as LIKE '%foo%', see
+   *                                 {@link org.apache.druid.segment.data.Utf8TrigramIndex}. Null or empty to not write
+   *                                 any, which is the default.
+   * @param bloomFilterColumns       names of string dimensions to write a
+   *                                 {@link org.apache.druid.segment.data.StringBloomFilter} of their values for. Null or
+   *                                 empty to not write any, which is the default.
+   * @param maxPublishedBloomFilterBytes if set, the bloom filters of {@link #bloomFilterColumns} are also published with
+   *                                 the segment metadata, folded down to at most this many bytes per column, so that
+   *                                 brokers can skip segments that cannot match equality filters. Null to not publish
+   *                                 them, which is the default.
+   * @param runLengthEncodedColumns  names of single-valued string dimensions to store the dictionary ids of as runs of
+   *                                 identical values, see {@link org.apache.druid.segment.data.RunLengthColumnarInts}.
+   *                                 Columns for which that would be larger still use the regular encoding. Null or
+   *                                 empty to use the regular encoding for all of them, which is the default.
+   * @param extendedStringColumnFormat whether {@link #trigramIndexColumns}, {@link #bloomFilterColumns} and
+   *                                 {@link #runLengthEncodedColumns} are applied. They add feature flags to string
+   *                                 columns that older versions of Druid do not know about and misread, so they are
+   *                                 ignored unless this is true, which should only be set once every server that may
+   *                                 load the segments has been upgraded. Null or false to ignore them, which is the
+   *                                 default.
    */
   @JsonCreator
   public IndexSpec(
@@ -121,9 +159,24 @@ public class IndexSpec
       @JsonProperty("complexMetricCompression") @Nullable CompressionStrategy complexMetricCompression,
       @Deprecated @JsonProperty("jsonCompression") @Nullable CompressionStrategy jsonCompression,
       @JsonProperty("segmentLoader") @Nullable SegmentizerFactory segmentLoader,
-      @JsonProperty("autoColumnFormatSpec") @Nullable NestedCommonFormatColumnFormatSpec autoColumnFormatSpec
+      @JsonProperty("autoColumnFormatSpec") @Nullable NestedCommonFormatColumnFormatSpec autoColumnFormatSpec,
+      @JsonProperty("numericZoneMapRows") @Nullable Integer numericZoneMapRows,
+      @JsonProperty("trigramIndexColumns") @Nullable Set<String> trigramIndexColumns,
+      @JsonProperty("bloomFilterColumns") @Nullable Set<String> bloomFilterColumns,
+      @JsonProperty("maxPublishedBloomFilterBytes") @Nullable Integer maxPublishedBloomFilterBytes,
+      @JsonProperty("runLengthEncodedColumns") @Nullable Set<String> runLengthEncodedColumns,
+      @JsonProperty("extendedStringColumnFormat") @Nullable Boolean extendedStringColumnFormat
   )
   {
+    if (numericZoneMapRows != null && numericZoneMapRows < 0) {
+      throw InvalidInput.exception("numericZoneMapRows[%s] must not be negative", numericZoneMapRows);
+    }
+    if (maxPublishedBloomFilterBytes != null && maxPublishedBloomFilterBytes < 0) {
+      throw InvalidInput.exception(
+          "maxPublishedBloomFilterBytes[%s] must not be negative",
+          maxPublishedBloomFilterBytes
+      );
+    }
     this.bitmapSerdeFactory = bitmapSerdeFactory;
     this.metadataCompression = metadataCompression;
     this.dimensionCompression = dimensionCompression;
@@ -134,6 +187,12 @@ public class IndexSpec
     this.jsonCompression = jsonCompression;
     this.segmentLoader = segmentLoader;
     this.autoColumnFormatSpec = autoColumnFormatSpec;
+    this.numericZoneMapRows = numericZoneMapRows;
+    this.trigramIndexColumns = trigramIndexColumns;
+    this.bloomFilterColumns = bloomFilterColumns;
+    this.maxPublishedBloomFilterBytes = maxPublishedBloomFilterBytes;
+    this.runLengthEncodedColumns = runLengthEncodedColumns;
+    this.extendedStringColumnFormat = extendedStringColumnFormat;
   }
 
   @JsonProperty("bitmap")
@@ -212,6 +271,89 @@ public class IndexSpec
     return autoColumnFormatSpec;
   }
 
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Integer getNumericZoneMapRows()
+  {
+    return numericZoneMapRows;
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  @Nullable
+  public Set<String> getTrigramIndexColumns()
+  {
+    return trigramIndexColumns;
+  }
+
+  /**
+   * Returns true if a trigram index should be written for the given string dimension.
+   */
+  public boolean hasTrigramIndex(String columnName)
+  {
+    return isExtendedStringColumnFormat() && trigramIndexColumns != null && trigramIndexColumns.contains(columnName);
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  @Nullable
+  public Set<String> getBloomFilterColumns()
+  {
+    return bloomFilterColumns;
+  }
+
+  /**
+   * Returns true if a bloom filter should be written for the given string dimension.
+   */
+  public boolean hasBloomFilter(String columnName)
+  {
+    return isExtendedStringColumnFormat() && bloomFilterColumns != null && bloomFilterColumns.contains(columnName);
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Integer getMaxPublishedBloomFilterBytes()
+  {
+    return maxPublishedBloomFilterBytes;
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  @Nullable
+  public Set<String> getRunLengthEncodedColumns()
+  {
+    return runLengthEncodedColumns;
+  }
+
+  /**
+   * Returns true if the dictionary ids of the given string dimension should be run-length encoded.
+   */
+  public boolean isRunLengthEncoded(String columnName)
+  {
+    return isExtendedStringColumnFormat()
+           && runLengthEncodedColumns != null
+           && runLengthEncodedColumns.contains(columnName);
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  @Nullable
+  public Boolean getExtendedStringColumnFormat()
+  {
+    return extendedStringColumnFormat;
+  }
+
+  /**
+   * Returns true if string columns may be written with trigram indexes, bloom filters and run-length encoding, which
+   * older versions of Druid cannot read.
+   */
+  public boolean isExtendedStringColumnFormat()
+  {
+    return Boolean.TRUE.equals(extendedStringColumnFormat);
+  }
+
   /**
    * Populate all null fields of {@link IndexSpec}, first from {@link #getDefault()} and finally falling back to hard
    * coded defaults if no overrides are defined.
@@ -298,6 +440,42 @@ public class IndexSpec
       );
     }
 
+    if (numericZoneMapRows != null) {
+      bob.withNumericZoneMapRows(numericZoneMapRows);
+    } else if (defaultSpec.numericZoneMapRows != null) {
+      bob.withNumericZoneMapRows(defaultSpec.numericZoneMapRows);
+    }
+
+    if (trigramIndexColumns != null) {
+      bob.withTrigramIndexColumns(trigramIndexColumns);
+    } else if (defaultSpec.trigramIndexColumns != null) {
+      bob.withTrigramIndexColumns(defaultSpec.trigramIndexColumns);
+    }
+
+    if (bloomFilterColumns != null) {
+      bob.withBloomFilterColumns(bloomFilterColumns);
+    } else if (defaultSpec.bloomFilterColumns != null) {
+      bob.withBloomFilterColumns(defaultSpec.bloomFilterColumns);
+    }
+
+    if (maxPublishedBloomFilterBytes != null) {
+      bob.withMaxPublishedBloomFilterBytes(maxPublishedBloomFilterBytes);
+    } else if (defaultSpec.maxPublishedBloomFilterBytes != null) {
+      bob.withMaxPublishedBloomFilterBytes(defaultSpec.maxPublishedBloomFilterBytes);
+    }
+
+    if (runLengthEncodedColumns != null) {
+      bob.withRunLengthEncodedColumns(runLengthEncodedColumns);
+    } else if (defaultSpec.runLengthEncodedColumns != null) {
+      bob.withRunLengthEncodedColumns(defaultSpec.runLengthEncodedColumns);
+    }
+
+    if (extendedStringColumnFormat != null) {
+      bob.withExtendedStringColumnFormat(extendedStringColumnFormat);
+    } else if (defaultSpec.extendedStringColumnFormat != null) {
+      bob.withExtendedStringColumnFormat(defaultSpec.extendedStringColumnFormat);
+    }
+
     return bob.build();
   }
 
@@ -320,7 +498,13 @@ public class IndexSpec
            Objects.equals(complexMetricCompression, indexSpec.complexMetricCompression) &&
            Objects.equals(jsonCompression, indexSpec.jsonCompression) &&
            Objects.equals(segmentLoader, indexSpec.segmentLoader) &&
-           Objects.equals(autoColumnFormatSpec, indexSpec.autoColumnFormatSpec);
+           Objects.equals(autoColumnFormatSpec, indexSpec.autoColumnFormatSpec) &&
+           Objects.equals(numericZoneMapRows, indexSpec.numericZoneMapRows) &&
+           Objects.equals(trigramIndexColumns, indexSpec.trigramIndexColumns) &&
+           Objects.equals(bloomFilterColumns, indexSpec.bloomFilterColumns) &&
+           Objects.equals(maxPublishedBloomFilterBytes, indexSpec.maxPublishedBloomFilterBytes) &&
+           Objects.equals(runLengthEncodedColumns, indexSpec.runLengthEncodedColumns) &&
+           Objects.equals(extendedStringColumnFormat, indexSpec.extendedStringColumnFormat);
   }
 
   @Override
@@ -336,7 +520,13 @@ public class IndexSpec
         complexMetricCompression,
         jsonCompression,
         segmentLoader,
-        autoColumnFormatSpec
+        autoColumnFormatSpec,
+        numericZoneMapRows,
+        trigramIndexColumns,
+        bloomFilterColumns,
+        maxPublishedBloomFilterBytes,
+        runLengthEncodedColumns,
+        extendedStringColumnFormat
     );
   }
 
@@ -354,6 +544,12 @@ public class IndexSpec
            ", autoColumnFormatSpec=" + autoColumnFormatSpec +
            ", jsonCompression=" + jsonCompression +
            ", segmentLoader=" + segmentLoader +
+           ", numericZoneMapRows=" + numericZoneMapRows +
+           ", trigramIndexColumns=" + trigramIndexColumns +
+           ", bloomFilterColumns=" + bloomFilterColumns +
+           ", maxPublishedBloomFilterBytes=" + maxPublishedBloomFilterBytes +
+           ", runLengthEncodedColumns=" + runLengthEncodedColumns +
+           ", extendedStringColumnFormat=" + extendedStringColumnFormat +
            '}';
   }
 
@@ -379,6 +575,18 @@ public class IndexSpec
     private SegmentizerFactory segmentLoader;
     @Nullable
     private NestedCommonFormatColumnFormatSpec autoColumnFormatSpec;
+    @Nullable
+    private Integer numericZoneMapRows;
+    @Nullable
+    private Set<String> trigramIndexColumns;
+    @Nullable
+    private Set<String> bloomFilterColumns;
+    @Nullable
+    private Integer maxPublishedBloomFilterBytes;
+    @Nullable
+    private Set<String> runLengthEncodedColumns;
+    @Nullable
+    private Boolean extendedStringColumnFormat;
 
     public Builder withBitmapSerdeFactory(@Nullable BitmapSerdeFactory bitmapSerdeFactory)
     {
@@ -441,6 +649,42 @@ public class IndexSpec
       return this;
     }
 
+    public Builder withNumericZoneMapRows(@Nullable Integer numericZoneMapRows)
+    {
+      this.numericZoneMapRows = numericZoneMapRows;
+      return this;
+    }
+
+    public Builder withTrigramIndexColumns(@Nullable Set<String> trigramIndexColumns)
+    {
+      this.trigramIndexColumns = trigramIndexColumns;
+      return this;
+    }
+
+    public Builder withBloomFilterColumns(@Nullable Set<String> bloomFilterColumns)
+    {
+      this.bloomFilterColumns = bloomFilterColumns;
+      return this;
+    }
+
+    public Builder withMaxPublishedBloomFilterBytes(@Nullable Integer maxPublishedBloomFilterBytes)
+    {
+      this.maxPublishedBloomFilterBytes = maxPublishedBloomFilterBytes;
+      return this;
+    }
+
+    public Builder withRunLengthEncodedColumns(@Nullable Set<String> runLengthEncodedColumns)
+    {
+      this.runLengthEncodedColumns = runLengthEncodedColumns;
+      return this;
+    }
+
+    public Builder withExtendedStringColumnFormat(@Nullable Boolean extendedStringColumnFormat)
+    {
+      this.extendedStringColumnFormat = extendedStringColumnFormat;
+      return this;
+    }
+
     public IndexSpec build()
     {
       return new IndexSpec(
@@ -453,7 +697,13 @@ public class IndexSpec
           complexMetricCompression,
           jsonCompression,
           segmentLoader,
-          autoColumnFormatSpec
+          autoColumnFormatSpec,
+          numericZoneMapRows,
+          trigramIndexColumns,
+          bloomFilterColumns,
+          maxPublishedBloomFilterBytes,
+          runLengthEncodedColumns,
+          extendedStringColumnFormat
       );
     }
   }
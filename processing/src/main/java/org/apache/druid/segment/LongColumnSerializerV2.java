@@ -29,17 +29,20 @@ import org.apache.druid.segment.data.ByteBufferWriter;
 import org.apache.druid.segment.data.ColumnarLongsSerializer;
 import org.apache.druid.segment.data.CompressionFactory;
 import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.NumericZoneMap;
+import org.apache.druid.segment.data.NumericZoneMapSerializer;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
 
 /**
  * Column Serializer for long column.
- * The column is serialized in two parts, first a bitmap indicating the nullability of row values
- * and second the actual row values.
+ * The column is serialized as the actual row values, followed by an optional {@link NumericZoneMap} and a bitmap
+ * indicating the nullability of row values, which is omitted if there are no null values.
  * This class is unsafe for concurrent use from multiple threads.
  */
 public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
@@ -52,6 +55,31 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
       CompressionFactory.LongEncodingStrategy encoding,
       BitmapSerdeFactory bitmapSerdeFactory
   )
+  {
+    return create(
+        columnName,
+        segmentWriteOutMedium,
+        filenameBase,
+        compression,
+        encoding,
+        bitmapSerdeFactory,
+        0
+    );
+  }
+
+  /**
+   * @param zoneMapRows number of rows per entry of the {@link NumericZoneMap} written after the values, or 0 to not
+   *                    write a zone map
+   */
+  public static LongColumnSerializerV2 create(
+      String columnName,
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      CompressionStrategy compression,
+      CompressionFactory.LongEncodingStrategy encoding,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      int zoneMapRows
+  )
   {
     return new LongColumnSerializerV2(
         columnName,
@@ -60,7 +88,8 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
         IndexIO.BYTE_ORDER,
         compression,
         encoding,
-        bitmapSerdeFactory
+        bitmapSerdeFactory,
+        zoneMapRows
     );
   }
 
@@ -71,10 +100,13 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   private final CompressionStrategy compression;
   private final CompressionFactory.LongEncodingStrategy encoding;
   private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final int zoneMapRows;
 
   private ColumnarLongsSerializer writer;
   private ByteBufferWriter<ImmutableBitmap> nullValueBitmapWriter;
   private MutableBitmap nullRowsBitmap;
+  @Nullable
+  private NumericZoneMapSerializer zoneMapWriter;
   private int rowCount = 0;
 
   private LongColumnSerializerV2(
@@ -84,7 +116,8 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
       ByteOrder byteOrder,
       CompressionStrategy compression,
       CompressionFactory.LongEncodingStrategy encoding,
-      BitmapSerdeFactory bitmapSerdeFactory
+      BitmapSerdeFactory bitmapSerdeFactory,
+      int zoneMapRows
   )
   {
     this.columnName = columnName;
@@ -94,6 +127,7 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
     this.compression = compression;
     this.encoding = encoding;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.zoneMapRows = zoneMapRows;
   }
 
   @Override
@@ -115,6 +149,10 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
     );
     nullValueBitmapWriter.open();
     nullRowsBitmap = bitmapSerdeFactory.getBitmapFactory().makeEmptyMutableBitmap();
+    if (zoneMapRows > 0) {
+      zoneMapWriter = new NumericZoneMapSerializer(NumericZoneMap.Type.LONG, zoneMapRows, segmentWriteOutMedium);
+      zoneMapWriter.open();
+    }
   }
 
   @Override
@@ -134,6 +172,9 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   {
     nullRowsBitmap.add(rowCount);
     writer.add(0L);
+    if (zoneMapWriter != null) {
+      zoneMapWriter.addNull();
+    }
     ++rowCount;
   }
 
@@ -143,6 +184,9 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   public void serializeValue(long val) throws IOException
   {
     writer.add(val);
+    if (zoneMapWriter != null) {
+      zoneMapWriter.addLong(val);
+    }
     ++rowCount;
   }
 
@@ -153,7 +197,8 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
     long bitmapSize = nullRowsBitmap.isEmpty()
                       ? 0L
                       : nullValueBitmapWriter.getSerializedSize();
-    return Integer.BYTES + writer.getSerializedSize() + bitmapSize;
+    long zoneMapSize = zoneMapWriter == null ? 0L : zoneMapWriter.getSerializedSize();
+    return Integer.BYTES + writer.getSerializedSize() + zoneMapSize + bitmapSize;
   }
 
   @Override
@@ -161,6 +206,9 @@ public class LongColumnSerializerV2 implements GenericColumnSerializer<Object>
   {
     SerializerUtils.writeInt(channel, Ints.checkedCast(writer.getSerializedSize()));
     writer.writeTo(channel, fileBuilder);
+    if (zoneMapWriter != null) {
+      zoneMapWriter.writeTo(channel, fileBuilder);
+    }
     if (!nullRowsBitmap.isEmpty()) {
       nullValueBitmapWriter.writeTo(channel, fileBuilder);
     }
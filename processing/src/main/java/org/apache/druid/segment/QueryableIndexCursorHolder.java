@@ -31,6 +31,7 @@ import org.apache.druid.query.BitmapResultFactory;
 import org.apache.druid.query.DefaultBitmapResultFactory;
 import org.apache.druid.query.Order;
 import org.apache.druid.query.OrderBy;
+import org.apache.druid.query.ParallelUnionBitmapResultFactory;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContext;
 import org.apache.druid.query.QueryContexts;
@@ -117,6 +118,7 @@ public class QueryableIndexCursorHolder implements CursorHolder
             interval,
             filter,
             cursorBuildSpec.getQueryContext().getBoolean(QueryContexts.CURSOR_AUTO_ARRANGE_FILTERS, true),
+            cursorBuildSpec.getQueryContext(),
             metrics
         )
     );
@@ -672,6 +674,7 @@ public class QueryableIndexCursorHolder implements CursorHolder
         Interval interval,
         @Nullable Filter filter,
         boolean cursorAutoArrangeFilters,
+        QueryContext queryContext,
         @Nullable QueryMetrics<? extends Query<?>> metrics
     )
     {
@@ -688,6 +691,7 @@ public class QueryableIndexCursorHolder implements CursorHolder
                 filter
             ),
             cursorAutoArrangeFilters,
+            queryContext,
             columnCache,
             numRows,
             metrics
@@ -727,28 +731,33 @@ public class QueryableIndexCursorHolder implements CursorHolder
   private static FilterBundle makeFilterBundle(
       @Nullable final Filter filter,
       boolean cursorAutoArrangeFilters,
+      final QueryContext queryContext,
       final ColumnIndexSelector bitmapIndexSelector,
       final int numRows,
       @Nullable final QueryMetrics<?> metrics
   )
   {
     final BitmapFactory bitmapFactory = bitmapIndexSelector.getBitmapFactory();
-    final BitmapResultFactory<?> bitmapResultFactory;
+    BitmapResultFactory<?> bitmapResultFactory;
     if (metrics != null) {
       bitmapResultFactory = metrics.makeBitmapResultFactory(bitmapFactory);
       metrics.reportSegmentRows(numRows);
     } else {
       bitmapResultFactory = new DefaultBitmapResultFactory(bitmapFactory);
     }
+    if (queryContext.getBoolean(QueryContexts.PARALLEL_BITMAP_UNION, false)) {
+      bitmapResultFactory = ParallelUnionBitmapResultFactory.wrap(bitmapResultFactory, bitmapFactory, queryContext);
+    }
     if (filter == null) {
       return null;
     }
     final long bitmapConstructionStartNs = System.nanoTime();
-    final FilterBundle filterBundle = new FilterBundle.Builder(
+    final FilterBundle.Builder filterBundleBuilder = new FilterBundle.Builder(
         filter,
         bitmapIndexSelector,
         cursorAutoArrangeFilters
-    ).build(
+    );
+    final FilterBundle filterBundle = filterBundleBuilder.build(
         bitmapResultFactory,
         numRows,
         numRows,
@@ -759,6 +768,9 @@ public class QueryableIndexCursorHolder implements CursorHolder
       metrics.reportBitmapConstructionTime(buildTime);
       final FilterBundle.BundleInfo info = filterBundle.getInfo();
       metrics.filterBundle(info);
+      if (filterBundleBuilder.getEstimatedSelectivity() >= 0) {
+        metrics.reportFilterEstimatedSelectivity(filterBundleBuilder.getEstimatedSelectivity());
+      }
       log.debug("Filter partitioning (%sms):%s", TimeUnit.NANOSECONDS.toMillis(buildTime), info);
       if (filterBundle.getIndex() != null) {
         metrics.reportPreFilteredRows(filterBundle.getIndex().getBitmap().size());
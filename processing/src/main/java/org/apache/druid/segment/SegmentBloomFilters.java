@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment;
+
+import org.apache.druid.segment.column.ColumnHolder;
+import org.apache.druid.segment.column.ColumnIndexSupplier;
+import org.apache.druid.segment.data.StringBloomFilter;
+import org.apache.druid.timeline.DataSegment;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Utilities for publishing the {@link StringBloomFilter} of segment columns with {@link DataSegment#getBloomFilters()}.
+ */
+public class SegmentBloomFilters
+{
+  private SegmentBloomFilters()
+  {
+    // no instantiation
+  }
+
+  /**
+   * Returns the bloom filters of the columns of the index that should be published according to the
+   * {@link IndexSpec} the index was written with, folded down to {@link IndexSpec#getMaxPublishedBloomFilterBytes()}.
+   * Returns an empty map if publishing is disabled.
+   */
+  public static Map<String, StringBloomFilter> getPublishedBloomFilters(QueryableIndex index, IndexSpec indexSpec)
+  {
+    final Integer maxBytes = indexSpec.getMaxPublishedBloomFilterBytes();
+    if (maxBytes == null || indexSpec.getBloomFilterColumns() == null) {
+      return Collections.emptyMap();
+    }
+    final Map<String, StringBloomFilter> bloomFilters = new TreeMap<>();
+    for (String column : indexSpec.getBloomFilterColumns()) {
+      final ColumnHolder columnHolder = index.getColumnHolder(column);
+      if (columnHolder == null) {
+        continue;
+      }
+      final ColumnIndexSupplier indexSupplier = columnHolder.getIndexSupplier();
+      final StringBloomFilter bloomFilter = indexSupplier == null ? null : indexSupplier.as(StringBloomFilter.class);
+      if (bloomFilter != null) {
+        bloomFilters.put(column, bloomFilter.fold(maxBytes));
+      }
+    }
+    return bloomFilters;
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.druid.collections.spatial.RTree;
 import org.apache.druid.collections.spatial.split.LinearGutmanSplitStrategy;
 import org.apache.druid.error.DruidException;
 import org.apache.druid.java.util.common.Pair;
+import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.segment.column.ColumnCapabilities;
 import org.apache.druid.segment.column.ColumnDescriptor;
@@ -43,12 +44,15 @@ import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
 import org.apache.druid.segment.data.Indexed;
 import org.apache.druid.segment.data.ListIndexed;
 import org.apache.druid.segment.data.ObjectStrategy;
+import org.apache.druid.segment.data.StringBloomFilter;
+import org.apache.druid.segment.data.Utf8TrigramIndexWriter;
 import org.apache.druid.segment.serde.DictionaryEncodedColumnPartSerde;
 import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
 
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -64,6 +68,12 @@ public class StringDimensionMergerV9 extends DictionaryEncodedColumnMerger<Strin
   @Nullable
   private ByteBufferWriter<ImmutableRTree> spatialWriter;
 
+  @Nullable
+  private Utf8TrigramIndexWriter trigramWriter;
+
+  @Nullable
+  private StringBloomFilter bloomFilter;
+
   /**
    * @param dimensionName         column name
    * @param outputName            output smoosh file name. if this is a base table column, it will be the equivalent to
@@ -129,10 +139,47 @@ public class StringDimensionMergerV9 extends DictionaryEncodedColumnMerger<Strin
   @Override
   protected ExtendedIndexesMerger getExtendedIndexesMerger()
   {
+    final List<ExtendedIndexesMerger> mergers = new ArrayList<>();
     if (capabilities.hasSpatialIndexes()) {
-      return new SpatialIndexesMerger();
+      mergers.add(new SpatialIndexesMerger());
+    }
+    if (indexSpec.hasTrigramIndex(dimensionName)) {
+      mergers.add(new TrigramIndexesMerger());
+    }
+    if (indexSpec.hasBloomFilter(dimensionName)) {
+      mergers.add(new BloomFilterIndexesMerger());
+    }
+    if (mergers.isEmpty()) {
+      return null;
+    } else if (mergers.size() == 1) {
+      return mergers.get(0);
     }
-    return null;
+    return new ExtendedIndexesMerger()
+    {
+      @Override
+      public void initialize() throws IOException
+      {
+        for (ExtendedIndexesMerger merger : mergers) {
+          merger.initialize();
+        }
+      }
+
+      @Override
+      public void mergeIndexes(int dictId, MutableBitmap mergedIndexes) throws IOException
+      {
+        for (ExtendedIndexesMerger merger : mergers) {
+          merger.mergeIndexes(dictId, mergedIndexes);
+        }
+      }
+
+      @Override
+      public void write() throws IOException
+      {
+        for (ExtendedIndexesMerger merger : mergers) {
+          merger.write();
+        }
+      }
+    };
   }
 
   @Override
@@ -156,6 +203,8 @@ public class StringDimensionMergerV9 extends DictionaryEncodedColumnMerger<Strin
         .withBitmapSerdeFactory(bitmapSerdeFactory)
         .withBitmapIndex(bitmapWriter)
         .withSpatialIndex(spatialWriter)
+        .withTrigramIndex(trigramWriter)
+        .withBloomFilter(bloomFilter)
         .withByteOrder(IndexIO.BYTE_ORDER);
 
     if (writeDictionary) {
@@ -235,4 +284,62 @@ public class StringDimensionMergerV9 extends DictionaryEncodedColumnMerger<Strin
       }
     }
   }
+
+  /**
+   * Write trigram indexes for string columns listed in {@link IndexSpec#getTrigramIndexColumns()}
+   */
+  public class TrigramIndexesMerger implements ExtendedIndexesMerger
+  {
+    @Override
+    public void initialize()
+    {
+      trigramWriter = new Utf8TrigramIndexWriter(
+          segmentWriteOutMedium,
+          StringUtils.format("%s.trigrams", outputName),
+          indexSpec.getBitmapSerdeFactory()
+      );
+    }
+
+    @Override
+    public void mergeIndexes(int dictId, MutableBitmap mergedIndexes) throws IOException
+    {
+      trigramWriter.add(dictId, dictionaryWriter.get(dictId));
+    }
+
+    @Override
+    public void write()
+    {
+      // postings are written along with the column
+    }
+  }
+
+  /**
+   * Write bloom filters for string columns listed in {@link IndexSpec#getBloomFilterColumns()}
+   */
+  public class BloomFilterIndexesMerger implements ExtendedIndexesMerger
+  {
+    @Override
+    public void initialize()
+    {
+      bloomFilter = StringBloomFilter.create(
+          dictionarySize,
+          StringBloomFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY
+      );
+    }
+
+    @Override
+    public void mergeIndexes(int dictId, MutableBitmap mergedIndexes) throws IOException
+    {
+      // only values that are present in some row, since the dictionary of a projection is shared with its parent
+      if (!mergedIndexes.isEmpty()) {
+        bloomFilter.add(dictionaryWriter.get(dictId));
+      }
+    }
+
+    @Override
+    public void write()
+    {
+      // the filter is written along with the column
+    }
+  }
 }
@@ -583,6 +583,25 @@ public class StringUtf8DictionaryEncodedColumn implements DictionaryEncodedColum
       return vector;
     }
 
+    @Override
+    public int getRunEnd(int position)
+    {
+      final int vectorSize = offset.getCurrentVectorSize();
+      if (offset.isContiguous()) {
+        final int startOffset = offset.getStartOffset();
+        return Math.min(column.getRunEnd(startOffset + position) - startOffset, vectorSize);
+      }
+
+      // offsets are ascending, so the run covers every following offset before its end
+      final int[] offsets = offset.getOffsets();
+      final int runEnd = column.getRunEnd(offsets[position]);
+      int end = position + 1;
+      while (end < vectorSize && offsets[end] < runEnd) {
+        end++;
+      }
+      return end;
+    }
+
     @Override
     public boolean supportsLookupNameUtf8()
     {
@@ -224,6 +224,39 @@ public class BlockLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs>
       }
     }
 
+    @Override
+    public boolean isConstant(int start, int length)
+    {
+      if (length <= 0) {
+        return false;
+      }
+      int bufferNum = start / sizePer;
+      int bufferIndex = start % sizePer;
+      long value = 0;
+
+      int p = 0;
+      while (p < length) {
+        if (bufferNum != currBufferNum) {
+          loadBuffer(bufferNum);
+        }
+
+        final int limit = Math.min(length - p, sizePer - bufferIndex);
+        if (!reader.isConstant(bufferIndex, limit)) {
+          return false;
+        }
+        final long bufferValue = reader.read(bufferIndex);
+        if (p == 0) {
+          value = bufferValue;
+        } else if (bufferValue != value) {
+          return false;
+        }
+        p += limit;
+        bufferNum++;
+        bufferIndex = 0;
+      }
+      return true;
+    }
+
     protected void loadBuffer(int bufferNum)
     {
       if (holder != null) {
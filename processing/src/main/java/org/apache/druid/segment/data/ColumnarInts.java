@@ -34,4 +34,14 @@ public interface ColumnarInts extends IndexedInts, Closeable
       out[offset + i] = get(i + start);
     }
   }
+
+  /**
+   * Returns the row after the last row of the run of identical values containing the given row, so that callers
+   * processing rows in order can handle a whole run in one step. Implementations that do not store runs return
+   * index + 1, even if neighbouring rows happen to have the same value.
+   */
+  default int getRunEnd(int index)
+  {
+    return index + 1;
+  }
 }
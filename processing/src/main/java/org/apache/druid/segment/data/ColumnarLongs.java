@@ -33,6 +33,7 @@ import org.roaringbitmap.PeekableIntIterator;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
+import java.util.Arrays;
 
 /**
  * Resource that provides random access to a packed array of primitive longs. Backs up {@link
@@ -63,6 +64,16 @@ public interface ColumnarLongs extends Closeable
     }
   }
 
+  /**
+   * Returns true if rows start through start + length - 1 are known to all have the same value, without reading each
+   * of them, for example because the encoding stores a single value for the whole range. Returning false does not
+   * mean the values differ.
+   */
+  default boolean isConstant(int start, int length)
+  {
+    return false;
+  }
+
   @Override
   void close();
 
@@ -172,6 +183,7 @@ public interface ColumnarLongs extends Closeable
 
       @Nullable
       private boolean[] nullVector = null;
+      private boolean constantVector = false;
 
       private ColumnarLongsVectorValueSelector()
       {
@@ -194,6 +206,13 @@ public interface ColumnarLongs extends Closeable
         return longVector;
       }
 
+      @Override
+      public boolean isConstantVector()
+      {
+        computeVectorsIfNeeded();
+        return constantVector;
+      }
+
       private void computeVectorsIfNeeded()
       {
         if (id == offset.getId()) {
@@ -205,17 +224,29 @@ public interface ColumnarLongs extends Closeable
             nullIterator = nullValueBitmap.peekableIterator();
           }
           offsetMark = offset.getStartOffset() + offset.getCurrentVectorSize();
-          ColumnarLongs.this.get(longVector, offset.getStartOffset(), offset.getCurrentVectorSize());
+          constantVector = ColumnarLongs.this.isConstant(offset.getStartOffset(), offset.getCurrentVectorSize());
+          if (constantVector) {
+            Arrays.fill(longVector, 0, offset.getCurrentVectorSize(), ColumnarLongs.this.get(offset.getStartOffset()));
+          } else {
+            ColumnarLongs.this.get(longVector, offset.getStartOffset(), offset.getCurrentVectorSize());
+          }
         } else {
           final int[] offsets = offset.getOffsets();
           if (offsets[offsets.length - 1] < offsetMark) {
             nullIterator = nullValueBitmap.peekableIterator();
           }
           offsetMark = offsets[offsets.length - 1];
-          ColumnarLongs.this.get(longVector, offsets, offset.getCurrentVectorSize());
+          final int size = offset.getCurrentVectorSize();
+          constantVector = size > 0 && ColumnarLongs.this.isConstant(offsets[0], offsets[size - 1] - offsets[0] + 1);
+          if (constantVector) {
+            Arrays.fill(longVector, 0, size, ColumnarLongs.this.get(offsets[0]));
+          } else {
+            ColumnarLongs.this.get(longVector, offsets, size);
+          }
         }
 
         nullVector = VectorSelectorUtils.populateNullVector(nullVector, offset, nullIterator);
+        constantVector = constantVector && nullVector == null;
 
         id = offset.getId();
       }
@@ -87,6 +87,15 @@ public class CompressionFactory
 
   public static final int MAX_TABLE_SIZE = 256;
 
+  /**
+   * Frame of reference Encoding Header v1:
+   * Byte 1 : version
+   *
+   * Base values and bit widths are stored per mini-block alongside the data, see
+   * {@link FrameOfReferenceLongEncodingWriter}.
+   */
+  public static final byte FRAME_OF_REFERENCE_ENCODING_VERSION = 0x1;
+
   /*
    * There is no header or version for Longs encoding for backward compatibility
    */
@@ -137,7 +146,14 @@ public class CompressionFactory
     /**
      * LONGS strategy always encode the values using LONGS format
      */
-    LONGS;
+    LONGS,
+
+    /**
+     * FRAME_OF_REFERENCE strategy always encodes the values using FRAME_OF_REFERENCE format. Values are bit-packed with
+     * a base and width chosen per mini-block, so they can be decoded straight into vectors. Mostly useful together with
+     * {@link CompressionStrategy#NONE}, to avoid a general-purpose decompression step on read.
+     */
+    FRAME_OF_REFERENCE;
 
     @JsonValue
     @Override
@@ -179,6 +195,17 @@ public class CompressionFactory
         return new TableLongEncodingReader(buffer);
       }
     },
+    /**
+     * FRAME_OF_REFERENCE format is similar to DELTA, but splits values into mini-blocks with their own base value and
+     * number of bits per value, see {@link FrameOfReferenceLongEncodingWriter}.
+     */
+    FRAME_OF_REFERENCE((byte) 0x2) {
+      @Override
+      public LongEncodingReader getReader(ByteBuffer buffer, ByteOrder order)
+      {
+        return new FrameOfReferenceLongEncodingReader(buffer, order);
+      }
+    },
     /**
      * LONGS format encodes longs as is, using 8 bytes for each value.
      */
@@ -298,6 +325,15 @@ public class CompressionFactory
 
     int read(long[] out, int outPosition, int[] indexes, int length, int indexOffset, int limit);
 
+    /**
+     * Returns true if the values at startIndex through startIndex + length - 1 of the current buffer are known to all
+     * be the same without reading each of them. Returning false does not mean the values differ.
+     */
+    default boolean isConstant(int startIndex, int length)
+    {
+      return false;
+    }
+
     /**
      * Duplicates this reader, creating a new reader that does not share any state. Important to achieve thread-safety,
      * because a common pattern is to duplicate a reader multiple times and then call {@link #setBuffer} on the
@@ -384,6 +420,25 @@ public class CompressionFactory
             closer
         );
       }
+    } else if (encodingStrategy == LongEncodingStrategy.FRAME_OF_REFERENCE) {
+      if (compressionStrategy == CompressionStrategy.NONE) {
+        return new EntireLayoutColumnarLongsSerializer(
+            columnName,
+            segmentWriteOutMedium,
+            new FrameOfReferenceLongEncodingWriter(order, segmentWriteOutMedium)
+        );
+      } else {
+        return new BlockLayoutColumnarLongsSerializer(
+            columnName,
+            segmentWriteOutMedium,
+            filenameBase,
+            order,
+            new FrameOfReferenceLongEncodingWriter(order),
+            compressionStrategy,
+            GenericIndexedWriter.MAX_FILE_SIZE,
+            closer
+        );
+      }
     } else {
       throw new IAE("unknown encoding strategy : %s", encodingStrategy.toString());
     }
@@ -36,11 +36,18 @@ public class EntireLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs
   @Override
   public ColumnarLongs get()
   {
-    return new EntireLayoutColumnarLongs();
+    // readers may keep per-buffer state, such as lazily built deserializers, so each column gets its own
+    return new EntireLayoutColumnarLongs(reader.duplicate());
   }
 
   private class EntireLayoutColumnarLongs implements ColumnarLongs
   {
+    private final CompressionFactory.LongEncodingReader reader;
+
+    private EntireLayoutColumnarLongs(CompressionFactory.LongEncodingReader reader)
+    {
+      this.reader = reader;
+    }
 
     @Override
     public int size()
@@ -54,6 +61,31 @@ public class EntireLayoutColumnarLongsSupplier implements Supplier<ColumnarLongs
       return reader.read(index);
     }
 
+    @Override
+    public void get(final long[] out, final int start, final int length)
+    {
+      get(out, 0, start, length);
+    }
+
+    @Override
+    public void get(long[] out, int offset, int start, int length)
+    {
+      reader.read(out, offset, start, length);
+    }
+
+    @Override
+    public void get(final long[] out, final int[] indexes, final int length)
+    {
+      final int numRead = reader.read(out, 0, indexes, length, 0, totalSize);
+      assert numRead == length;
+    }
+
+    @Override
+    public boolean isConstant(int start, int length)
+    {
+      return reader.isConstant(start, length);
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Reads values written by {@link FrameOfReferenceLongEncodingWriter}. Contiguous reads unpack each mini-block straight
+ * into the output vector with {@link VSizeLongSerde.LongDeserializer#getDelta}, and constant mini-blocks are filled
+ * without touching packed data at all.
+ */
+public class FrameOfReferenceLongEncodingReader implements CompressionFactory.LongEncodingReader
+{
+  private static final int MINI_BLOCK_MASK = FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SIZE - 1;
+
+  private final ByteOrder order;
+  private ByteBuffer buffer;
+  private int regionStart;
+
+  /**
+   * Lazily created deserializers for each mini-block of the current region, reset by {@link #setBuffer}.
+   */
+  private VSizeLongSerde.LongDeserializer[] deserializers = new VSizeLongSerde.LongDeserializer[0];
+
+  public FrameOfReferenceLongEncodingReader(ByteBuffer fromBuffer, ByteOrder order)
+  {
+    final ByteBuffer buffer = fromBuffer.asReadOnlyBuffer();
+    final byte version = buffer.get();
+    if (version != CompressionFactory.FRAME_OF_REFERENCE_ENCODING_VERSION) {
+      throw new IAE("Unknown version[%s]", version);
+    }
+    fromBuffer.position(buffer.position());
+    this.order = order;
+    setBuffer(buffer);
+  }
+
+  private FrameOfReferenceLongEncodingReader(ByteOrder order, ByteBuffer buffer)
+  {
+    this.order = order;
+    setBuffer(buffer);
+  }
+
+  @Override
+  public void setBuffer(ByteBuffer buffer)
+  {
+    this.buffer = buffer.duplicate().order(order);
+    this.regionStart = buffer.position();
+    Arrays.fill(deserializers, null);
+  }
+
+  @Override
+  public long read(int index)
+  {
+    final int block = index >>> FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SHIFT;
+    final int headerOffset = regionStart + block * FrameOfReferenceLongEncodingWriter.HEADER_SIZE;
+    final long base = buffer.getLong(headerOffset);
+    final int bitsPerValue = buffer.get(headerOffset + Long.BYTES);
+    if (bitsPerValue == 0) {
+      return base;
+    }
+    return base + getDeserializer(block, headerOffset, bitsPerValue).get(index & MINI_BLOCK_MASK);
+  }
+
+  @Override
+  public void read(long[] out, int outPosition, int startIndex, int length)
+  {
+    int i = 0;
+    while (i < length) {
+      final int index = startIndex + i;
+      final int block = index >>> FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SHIFT;
+      final int indexInBlock = index & MINI_BLOCK_MASK;
+      final int numToRead = Math.min(length - i, FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SIZE - indexInBlock);
+      final int headerOffset = regionStart + block * FrameOfReferenceLongEncodingWriter.HEADER_SIZE;
+      final long base = buffer.getLong(headerOffset);
+      final int bitsPerValue = buffer.get(headerOffset + Long.BYTES);
+
+      if (bitsPerValue == 0) {
+        Arrays.fill(out, outPosition + i, outPosition + i + numToRead, base);
+      } else {
+        getDeserializer(block, headerOffset, bitsPerValue).getDelta(out, outPosition + i, indexInBlock, numToRead, base);
+      }
+      i += numToRead;
+    }
+  }
+
+  @Override
+  public int read(long[] out, int outPosition, int[] indexes, int length, int indexOffset, int limit)
+  {
+    for (int i = 0; i < length; i++) {
+      final int index = indexes[outPosition + i] - indexOffset;
+      if (index >= limit) {
+        return i;
+      }
+
+      out[outPosition + i] = read(index);
+    }
+
+    return length;
+  }
+
+  @Override
+  public boolean isConstant(int startIndex, int length)
+  {
+    if (length <= 0) {
+      return false;
+    }
+    final int firstBlock = startIndex >>> FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SHIFT;
+    final int lastBlock = (startIndex + length - 1) >>> FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SHIFT;
+    final long base = buffer.getLong(regionStart + firstBlock * FrameOfReferenceLongEncodingWriter.HEADER_SIZE);
+    for (int block = firstBlock; block <= lastBlock; block++) {
+      final int headerOffset = regionStart + block * FrameOfReferenceLongEncodingWriter.HEADER_SIZE;
+      if (buffer.get(headerOffset + Long.BYTES) != 0 || buffer.getLong(headerOffset) != base) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public CompressionFactory.LongEncodingReader duplicate()
+  {
+    return new FrameOfReferenceLongEncodingReader(order, buffer.duplicate().position(regionStart));
+  }
+
+  @Override
+  public CompressionFactory.LongEncodingStrategy getStrategy()
+  {
+    return CompressionFactory.LongEncodingStrategy.FRAME_OF_REFERENCE;
+  }
+
+  private VSizeLongSerde.LongDeserializer getDeserializer(int block, int headerOffset, int bitsPerValue)
+  {
+    if (block >= deserializers.length) {
+      deserializers = Arrays.copyOf(deserializers, Math.max(block + 1, deserializers.length * 2));
+    }
+    VSizeLongSerde.LongDeserializer deserializer = deserializers[block];
+    if (deserializer == null) {
+      final int dataOffset = buffer.getInt(headerOffset + Long.BYTES + 1);
+      deserializer = VSizeLongSerde.getDeserializer(bitsPerValue, buffer, regionStart + dataOffset);
+      deserializers[block] = deserializer;
+    }
+    return deserializer;
+  }
+}
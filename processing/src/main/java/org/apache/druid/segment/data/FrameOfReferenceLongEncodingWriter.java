@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.apache.druid.segment.writeout.HeapByteBufferWriteOutBytes;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Writes longs as a sequence of mini-blocks of {@link #MINI_BLOCK_SIZE} values, each with its own frame of reference:
+ * the mini-block minimum is stored as a base, and every value is stored as its bit-packed offset from that base using
+ * the smallest width from {@link VSizeLongSerde#SUPPORTED_SIZES} that fits. A mini-block where every value is the same
+ * stores no packed data at all.
+ *
+ * Unlike {@link DeltaLongEncodingWriter}, which picks a single base and width for the whole column, the width adapts to
+ * the local range of the data, so a few outliers only widen the mini-blocks they appear in. The layout of a region
+ * (the whole column for {@link EntireLayoutColumnarLongsSerializer}, or one block for
+ * {@link BlockLayoutColumnarLongsSerializer}) is:
+ *
+ * <pre>
+ * | header (mini-block 0) | header (mini-block 1) | ... | packed data (mini-block 0) | packed data (mini-block 1) | ...
+ * </pre>
+ *
+ * where each header is {@link #HEADER_SIZE} bytes: the base (long), the bit width (byte), and the offset of the packed
+ * data from the start of the region (int). Headers are fixed-size so random access does not need to scan the region.
+ *
+ * Each mini-block is packed as soon as it is full. Since the headers precede the packed data, only the headers are
+ * kept in memory until {@link #flush()}, while the packed data goes to a separate {@link WriteOutBytes} of the
+ * {@link SegmentWriteOutMedium}, or to a heap buffer for the small regions of {@link #setBuffer}.
+ */
+public class FrameOfReferenceLongEncodingWriter implements CompressionFactory.LongEncodingWriter
+{
+  public static final int MINI_BLOCK_SHIFT = 7;
+  public static final int MINI_BLOCK_SIZE = 1 << MINI_BLOCK_SHIFT;
+  public static final int HEADER_SIZE = Long.BYTES + 1 + Integer.BYTES;
+
+  private final ByteOrder order;
+  @Nullable
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+
+  private final long[] miniBlock = new long[MINI_BLOCK_SIZE];
+  private int miniBlockSize = 0;
+  private final ByteBuffer miniBlockData;
+
+  // headers of the mini-blocks of the current region, with data offsets relative to the start of the packed data
+  private final LongArrayList bases = new LongArrayList();
+  private final ByteArrayList bitsPerValue = new ByteArrayList();
+  private final IntArrayList dataOffsets = new IntArrayList();
+  private int packedSize = 0;
+
+  @Nullable
+  private ByteBuffer buffer;
+  @Nullable
+  private WriteOutBytes output;
+
+  /**
+   * Packed data of the current region, if writing to {@link #output}.
+   */
+  @Nullable
+  private WriteOutBytes packedOut;
+
+  /**
+   * Packed data of the current region, if writing to {@link #buffer}. Grows as needed, and is reused across regions.
+   */
+  private ByteBuffer packedBuffer;
+
+  public FrameOfReferenceLongEncodingWriter(ByteOrder order)
+  {
+    this(order, null);
+  }
+
+  /**
+   * @param segmentWriteOutMedium used for the packed data when writing to {@link #setOutputStream}, if not null.
+   *                              Otherwise, the packed data of a region is kept on heap until {@link #flush()}.
+   */
+  public FrameOfReferenceLongEncodingWriter(ByteOrder order, @Nullable SegmentWriteOutMedium segmentWriteOutMedium)
+  {
+    this.order = order;
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.miniBlockData = ByteBuffer.allocate(VSizeLongSerde.getSerializedSize(Long.SIZE, MINI_BLOCK_SIZE)).order(order);
+    this.packedBuffer = ByteBuffer.allocate(0);
+  }
+
+  @Override
+  public void setBuffer(ByteBuffer buffer)
+  {
+    this.buffer = buffer;
+    this.output = null;
+    resetRegion();
+  }
+
+  @Override
+  public void setOutputStream(WriteOutBytes output)
+  {
+    this.output = output;
+    this.buffer = null;
+    resetRegion();
+  }
+
+  @Override
+  public void write(long value) throws IOException
+  {
+    miniBlock[miniBlockSize++] = value;
+    if (miniBlockSize == MINI_BLOCK_SIZE) {
+      packMiniBlock();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException
+  {
+    if (miniBlockSize > 0) {
+      packMiniBlock();
+    }
+    final int numMiniBlocks = bases.size();
+    if (numMiniBlocks == 0) {
+      return;
+    }
+
+    final int headersSize = numMiniBlocks * HEADER_SIZE;
+    final ByteBuffer headers = ByteBuffer.allocate(headersSize).order(order);
+    for (int block = 0; block < numMiniBlocks; block++) {
+      headers.putLong(bases.getLong(block));
+      headers.put(bitsPerValue.getByte(block));
+      headers.putInt(Ints.checkedCast((long) headersSize + dataOffsets.getInt(block)));
+    }
+    headers.flip();
+
+    if (output != null) {
+      output.write(headers);
+      if (packedOut != null) {
+        packedOut.writeTo(output);
+      }
+    } else if (buffer != null) {
+      buffer.put(headers);
+      packedBuffer.flip();
+      buffer.put(packedBuffer);
+    }
+    resetRegion();
+  }
+
+  @Override
+  public void putMeta(ByteBuffer metaOut, CompressionStrategy strategy)
+  {
+    metaOut.put(CompressionFactory.setEncodingFlag(strategy.getId()));
+    metaOut.put(CompressionFactory.LongEncodingFormat.FRAME_OF_REFERENCE.getId());
+    metaOut.put(CompressionFactory.FRAME_OF_REFERENCE_ENCODING_VERSION);
+  }
+
+  @Override
+  public int metaSize()
+  {
+    return 1 + 1 + 1;
+  }
+
+  @Override
+  public int getBlockSize(int bytesPerBlock)
+  {
+    int ret = 1;
+    while (getNumBytes(ret) <= bytesPerBlock) {
+      ret *= 2;
+    }
+    return ret / 2;
+  }
+
+  /**
+   * Worst case size of a region of the given number of values, when every mini-block needs the full 64 bits.
+   */
+  @Override
+  public int getNumBytes(int values)
+  {
+    final int numFullMiniBlocks = values >>> MINI_BLOCK_SHIFT;
+    final int remainder = values & (MINI_BLOCK_SIZE - 1);
+    int size = numFullMiniBlocks * (HEADER_SIZE + VSizeLongSerde.getSerializedSize(Long.SIZE, MINI_BLOCK_SIZE));
+    if (remainder > 0) {
+      size += HEADER_SIZE + VSizeLongSerde.getSerializedSize(Long.SIZE, remainder);
+    }
+    return size;
+  }
+
+  private void packMiniBlock() throws IOException
+  {
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < miniBlockSize; i++) {
+      min = Math.min(min, miniBlock[i]);
+      max = Math.max(max, miniBlock[i]);
+    }
+    final int bits = getBitsForRange(min, max);
+    bases.add(min);
+    bitsPerValue.add((byte) bits);
+    dataOffsets.add(packedSize);
+
+    if (bits > 0) {
+      Arrays.fill(miniBlockData.array(), (byte) 0);
+      miniBlockData.clear();
+      final VSizeLongSerde.LongSerializer serializer = VSizeLongSerde.getSerializer(bits, miniBlockData, 0);
+      for (int i = 0; i < miniBlockSize; i++) {
+        serializer.write(miniBlock[i] - min);
+      }
+      serializer.close();
+
+      final int length = VSizeLongSerde.getSerializedSize(bits, miniBlockSize);
+      if (output != null) {
+        if (packedOut == null) {
+          packedOut = segmentWriteOutMedium != null
+                      ? segmentWriteOutMedium.makeWriteOutBytes()
+                      : new HeapByteBufferWriteOutBytes();
+        }
+        packedOut.write(miniBlockData.array(), 0, length);
+      } else {
+        if (packedBuffer.remaining() < length) {
+          final ByteBuffer grown = ByteBuffer.allocate(Math.max(packedBuffer.capacity() * 2, packedSize + length));
+          packedBuffer.flip();
+          grown.put(packedBuffer);
+          packedBuffer = grown;
+        }
+        packedBuffer.put(miniBlockData.array(), 0, length);
+      }
+      packedSize = Math.addExact(packedSize, length);
+    }
+    miniBlockSize = 0;
+  }
+
+  private void resetRegion()
+  {
+    miniBlockSize = 0;
+    bases.clear();
+    bitsPerValue.clear();
+    dataOffsets.clear();
+    packedSize = 0;
+    packedOut = null;
+    packedBuffer.clear();
+  }
+
+  /**
+   * Encodes the values as a single region.
+   */
+  @VisibleForTesting
+  static ByteBuffer encode(LongList values, ByteOrder order) throws IOException
+  {
+    final FrameOfReferenceLongEncodingWriter writer = new FrameOfReferenceLongEncodingWriter(order);
+    final HeapByteBufferWriteOutBytes out = new HeapByteBufferWriteOutBytes();
+    writer.setOutputStream(out);
+    for (int i = 0; i < values.size(); i++) {
+      writer.write(values.getLong(i));
+    }
+    writer.flush();
+
+    final ByteBuffer encoded = ByteBuffer.allocate(Ints.checkedCast(out.size())).order(order);
+    out.writeTo(encoded);
+    encoded.flip();
+    return encoded;
+  }
+
+  /**
+   * Number of bits needed to store offsets from min for values in [min, max], or zero if min == max. Ranges that do not
+   * fit in a signed long use the full 64 bits, where offsets wrap around and still add back to the original value.
+   */
+  static int getBitsForRange(long min, long max)
+  {
+    if (min == max) {
+      return 0;
+    }
+    final long range = max - min;
+    if (range < 0 || range == Long.MAX_VALUE) {
+      return Long.SIZE;
+    }
+    return VSizeLongSerde.getBitsForMax(range + 1);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Per-block min/max/null-count metadata for a long or double column, written by {@link NumericZoneMapSerializer}.
+ * Rows are split into consecutive zones of {@link #getRowsPerZone()} rows (the last one may be shorter), and each zone
+ * records the smallest and largest non-null value and how many rows are null, so that range filters can skip whole
+ * zones, and accept whole zones, without reading the values. Layout:
+ *
+ * <pre>
+ * | version (byte) | type (byte) | rowsPerZone (int) | numRows (int) | numZones (int) | entries |
+ * </pre>
+ *
+ * where each entry is {@link #ENTRY_SIZE} bytes: min (long bits), max (long bits), and null count (int). Doubles are
+ * stored as their {@link Double#doubleToLongBits} and ordered with {@link Double#compare}. The min and max of a zone
+ * where every row is null are meaningless.
+ */
+public class NumericZoneMap
+{
+  public static final byte VERSION = 1;
+  public static final int HEADER_SIZE = 1 + 1 + Integer.BYTES * 3;
+  public static final int ENTRY_SIZE = Long.BYTES * 2 + Integer.BYTES;
+
+  public enum Type
+  {
+    LONG,
+    DOUBLE;
+
+    public byte getId()
+    {
+      return (byte) ordinal();
+    }
+
+    public static Type fromId(byte id)
+    {
+      if (id < 0 || id >= values().length) {
+        throw new IAE("Unknown zone map type[%s]", id);
+      }
+      return values()[id];
+    }
+  }
+
+  /**
+   * Reads a zone map starting at the current position of the buffer, and moves the position past it.
+   */
+  public static NumericZoneMap read(ByteBuffer buffer)
+  {
+    final ByteBuffer view = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+    final byte version = view.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown zone map version[%s]", version);
+    }
+    final Type type = Type.fromId(view.get());
+    final int rowsPerZone = view.getInt();
+    final int numRows = view.getInt();
+    final int numZones = view.getInt();
+    final int size = HEADER_SIZE + numZones * ENTRY_SIZE;
+    buffer.position(buffer.position() + size);
+    view.limit(size);
+    return new NumericZoneMap(type, rowsPerZone, numRows, numZones, view);
+  }
+
+  private final Type type;
+  private final int rowsPerZone;
+  private final int numRows;
+  private final int numZones;
+  private final ByteBuffer buffer;
+
+  private NumericZoneMap(Type type, int rowsPerZone, int numRows, int numZones, ByteBuffer buffer)
+  {
+    this.type = type;
+    this.rowsPerZone = rowsPerZone;
+    this.numRows = numRows;
+    this.numZones = numZones;
+    this.buffer = buffer;
+  }
+
+  public Type getType()
+  {
+    return type;
+  }
+
+  public int getRowsPerZone()
+  {
+    return rowsPerZone;
+  }
+
+  public int getNumRows()
+  {
+    return numRows;
+  }
+
+  public int getNumZones()
+  {
+    return numZones;
+  }
+
+  public int getZoneStart(int zone)
+  {
+    return zone * rowsPerZone;
+  }
+
+  public int getZoneRowCount(int zone)
+  {
+    return Math.min(rowsPerZone, numRows - getZoneStart(zone));
+  }
+
+  public int getNullCount(int zone)
+  {
+    return buffer.getInt(entryOffset(zone) + Long.BYTES * 2);
+  }
+
+  public long getLongMin(int zone)
+  {
+    return buffer.getLong(entryOffset(zone));
+  }
+
+  public long getLongMax(int zone)
+  {
+    return buffer.getLong(entryOffset(zone) + Long.BYTES);
+  }
+
+  public double getDoubleMin(int zone)
+  {
+    return Double.longBitsToDouble(getLongMin(zone));
+  }
+
+  public double getDoubleMax(int zone)
+  {
+    return Double.longBitsToDouble(getLongMax(zone));
+  }
+
+  private static int entryOffset(int zone)
+  {
+    return HEADER_SIZE + zone * ENTRY_SIZE;
+  }
+}
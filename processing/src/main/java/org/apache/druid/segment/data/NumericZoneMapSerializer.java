@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.segment.file.SegmentFileBuilder;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a {@link NumericZoneMap}, the min, max, and null count of every consecutive block of rows of a long or double
+ * column. Rows are added in order with {@link #addLong}, {@link #addDouble}, or {@link #addNull}, and a zone entry is
+ * written out every time a zone is filled.
+ * <p>
+ * This class is unsafe for concurrent use from multiple threads.
+ */
+public class NumericZoneMapSerializer implements Serializer
+{
+  private final NumericZoneMap.Type type;
+  private final int rowsPerZone;
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final ByteBuffer entryBuffer = ByteBuffer.allocate(NumericZoneMap.ENTRY_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+  @Nullable
+  private WriteOutBytes entries;
+  private int numRows = 0;
+  private int numZones = 0;
+
+  private int rowsInZone = 0;
+  private int nullsInZone = 0;
+  private long minBits;
+  private long maxBits;
+
+  public NumericZoneMapSerializer(
+      NumericZoneMap.Type type,
+      int rowsPerZone,
+      SegmentWriteOutMedium segmentWriteOutMedium
+  )
+  {
+    if (rowsPerZone <= 0) {
+      throw new IAE("rowsPerZone[%s] must be positive", rowsPerZone);
+    }
+    this.type = type;
+    this.rowsPerZone = rowsPerZone;
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+  }
+
+  public void open() throws IOException
+  {
+    entries = segmentWriteOutMedium.makeWriteOutBytes();
+  }
+
+  public void addLong(long value) throws IOException
+  {
+    if (rowsInZone == nullsInZone) {
+      minBits = value;
+      maxBits = value;
+    } else {
+      minBits = Math.min(minBits, value);
+      maxBits = Math.max(maxBits, value);
+    }
+    addRow();
+  }
+
+  /**
+   * Adds a double value. Values are ordered with {@link Double#compare}, so NaN is larger than any other value,
+   * matching the ordering used by numeric range filters.
+   */
+  public void addDouble(double value) throws IOException
+  {
+    if (rowsInZone == nullsInZone) {
+      minBits = Double.doubleToLongBits(value);
+      maxBits = minBits;
+    } else {
+      if (Double.compare(value, Double.longBitsToDouble(minBits)) < 0) {
+        minBits = Double.doubleToLongBits(value);
+      }
+      if (Double.compare(value, Double.longBitsToDouble(maxBits)) > 0) {
+        maxBits = Double.doubleToLongBits(value);
+      }
+    }
+    addRow();
+  }
+
+  public void addNull() throws IOException
+  {
+    nullsInZone++;
+    addRow();
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    flushZone();
+    return NumericZoneMap.HEADER_SIZE + entries.size();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, SegmentFileBuilder fileBuilder) throws IOException
+  {
+    flushZone();
+    final ByteBuffer header = ByteBuffer.allocate(NumericZoneMap.HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+    header.put(NumericZoneMap.VERSION);
+    header.put(type.getId());
+    header.putInt(rowsPerZone);
+    header.putInt(numRows);
+    header.putInt(numZones);
+    header.flip();
+    channel.write(header);
+    entries.writeTo(channel);
+  }
+
+  private void addRow() throws IOException
+  {
+    numRows++;
+    if (++rowsInZone == rowsPerZone) {
+      flushZone();
+    }
+  }
+
+  private void flushZone() throws IOException
+  {
+    if (rowsInZone == 0) {
+      return;
+    }
+    if (rowsInZone == nullsInZone) {
+      minBits = 0;
+      maxBits = 0;
+    }
+    entryBuffer.clear();
+    entryBuffer.putLong(minBits);
+    entryBuffer.putLong(maxBits);
+    entryBuffer.putInt(nullsInZone);
+    entryBuffer.flip();
+    entries.write(entryBuffer);
+    numZones++;
+    rowsInZone = 0;
+    nullsInZone = 0;
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.query.monomorphicprocessing.RuntimeShapeInspector;
+import org.apache.druid.segment.file.SegmentFileBuilder;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * {@link ColumnarInts} stored as runs of identical values, which is much smaller than {@link VSizeColumnarInts} or
+ * {@link CompressedVSizeColumnarIntsSupplier} for dictionary id columns of segments sorted by that column. A column
+ * with a single value is stored as a single run, and read as a constant.
+ * <p>
+ * Binary format, all ints big-endian:
+ * <pre>
+ * version (byte) | numRows (int) | numRuns (int) | run start rows (int * numRuns) | run values (int * numRuns)
+ * </pre>
+ * Run start rows are strictly ascending and the first one is always 0.
+ * <p>
+ * Instances remember the last run they looked at, so that rows read in ascending order, as is the case with a
+ * {@link ReadableOffset} of a cursor, are found in constant time rather than with a binary search. As a consequence
+ * they are not thread-safe; the supplier returned by {@link #read} makes a new instance each time.
+ */
+public class RunLengthColumnarInts implements ColumnarInts
+{
+  public static final byte VERSION = 0x1;
+
+  private final IntBuffer runStarts;
+  private final IntBuffer runValues;
+  private final int numRows;
+  private final int numRuns;
+
+  private int currentRun = 0;
+  private int currentRunStart;
+  private int currentRunEnd;
+  private int currentValue;
+
+  private RunLengthColumnarInts(IntBuffer runStarts, IntBuffer runValues, int numRows)
+  {
+    this.runStarts = runStarts;
+    this.runValues = runValues;
+    this.numRows = numRows;
+    this.numRuns = runStarts.limit();
+    if (numRuns > 0) {
+      setRun(0);
+    }
+  }
+
+  public static WritableSupplier<ColumnarInts> read(ByteBuffer buffer)
+  {
+    final byte versionFromBuffer = buffer.get();
+    if (versionFromBuffer != VERSION) {
+      throw new IAE("Unknown version[%s]", versionFromBuffer);
+    }
+    final int numRows = buffer.getInt();
+    final int numRuns = buffer.getInt();
+    final ByteBuffer data = buffer.asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+    data.limit(data.position() + 2 * numRuns * Integer.BYTES);
+    buffer.position(data.limit());
+    return new RunLengthSupplier(data.slice().order(ByteOrder.BIG_ENDIAN), numRows, numRuns);
+  }
+
+  @Override
+  public int size()
+  {
+    return numRows;
+  }
+
+  @Override
+  public int get(int index)
+  {
+    if (index < currentRunStart || index >= currentRunEnd) {
+      seek(index);
+    }
+    return currentValue;
+  }
+
+  @Override
+  public void get(int[] out, int start, int length)
+  {
+    get(out, 0, start, length);
+  }
+
+  @Override
+  public void get(int[] out, int offset, int start, int length)
+  {
+    int row = start;
+    final int end = start + length;
+    while (row < end) {
+      if (row < currentRunStart || row >= currentRunEnd) {
+        seek(row);
+      }
+      final int runStop = Math.min(currentRunEnd, end);
+      Arrays.fill(out, offset + row - start, offset + runStop - start, currentValue);
+      row = runStop;
+    }
+  }
+
+  @Override
+  public void get(int[] out, int[] indexes, int length)
+  {
+    for (int i = 0; i < length; i++) {
+      out[i] = get(indexes[i]);
+    }
+  }
+
+  @Override
+  public int getRunEnd(int index)
+  {
+    if (index < currentRunStart || index >= currentRunEnd) {
+      seek(index);
+    }
+    return currentRunEnd;
+  }
+
+  public int getNumRuns()
+  {
+    return numRuns;
+  }
+
+  private void seek(int index)
+  {
+    if (index < 0 || index >= numRows) {
+      throw new IAE("Index[%d] >= size[%d] or < 0", index, numRows);
+    }
+    // Rows are usually read in ascending order, so try the next run before searching.
+    if (index >= currentRunEnd && currentRun + 1 < numRuns && index < runEnd(currentRun + 1)) {
+      setRun(currentRun + 1);
+      return;
+    }
+    int lo = 0;
+    int hi = numRuns - 1;
+    while (lo < hi) {
+      final int mid = (lo + hi + 1) >>> 1;
+      if (runStarts.get(mid) <= index) {
+        lo = mid;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    setRun(lo);
+  }
+
+  private void setRun(int run)
+  {
+    currentRun = run;
+    currentRunStart = runStarts.get(run);
+    currentRunEnd = runEnd(run);
+    currentValue = runValues.get(run);
+  }
+
+  private int runEnd(int run)
+  {
+    return run + 1 < numRuns ? runStarts.get(run + 1) : numRows;
+  }
+
+  @Override
+  public void close()
+  {
+    // Do nothing
+  }
+
+  @Override
+  public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+  {
+    inspector.visit("runStarts", runStarts);
+    inspector.visit("runValues", runValues);
+  }
+
+  /**
+   * Reads {@link RunLengthColumnarInts} of a column, and can write them back out unchanged.
+   */
+  private static class RunLengthSupplier implements WritableSupplier<ColumnarInts>
+  {
+    private static final MetaSerdeHelper<RunLengthSupplier> META_SERDE_HELPER = MetaSerdeHelper
+        .firstWriteByte((RunLengthSupplier x) -> VERSION)
+        .writeInt(x -> x.numRows)
+        .writeInt(x -> x.numRuns);
+
+    private final ByteBuffer data;
+    private final int numRows;
+    private final int numRuns;
+
+    private RunLengthSupplier(ByteBuffer data, int numRows, int numRuns)
+    {
+      this.data = data;
+      this.numRows = numRows;
+      this.numRuns = numRuns;
+    }
+
+    @Override
+    public ColumnarInts get()
+    {
+      if (numRuns == 1) {
+        return new ConstantColumnarInts(data.getInt(Integer.BYTES), numRows);
+      }
+      final ByteBuffer starts = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+      starts.limit(numRuns * Integer.BYTES);
+      final ByteBuffer values = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+      values.position(numRuns * Integer.BYTES);
+      return new RunLengthColumnarInts(
+          starts.slice().order(ByteOrder.BIG_ENDIAN).asIntBuffer(),
+          values.slice().order(ByteOrder.BIG_ENDIAN).asIntBuffer(),
+          numRows
+      );
+    }
+
+    @Override
+    public long getSerializedSize()
+    {
+      return META_SERDE_HELPER.size(this) + (long) data.remaining();
+    }
+
+    @Override
+    public void writeTo(WritableByteChannel channel, SegmentFileBuilder fileBuilder) throws IOException
+    {
+      META_SERDE_HELPER.writeTo(channel, this);
+      channel.write(data.asReadOnlyBuffer());
+    }
+  }
+
+  /**
+   * {@link ColumnarInts} of a column with the same value in every row, which is a run-length encoded column with a
+   * single run.
+   */
+  public static class ConstantColumnarInts implements ColumnarInts
+  {
+    private final int value;
+    private final int numRows;
+
+    public ConstantColumnarInts(int value, int numRows)
+    {
+      this.value = value;
+      this.numRows = numRows;
+    }
+
+    @Override
+    public int size()
+    {
+      return numRows;
+    }
+
+    @Override
+    public int get(int index)
+    {
+      return value;
+    }
+
+    @Override
+    public void get(int[] out, int start, int length)
+    {
+      Arrays.fill(out, 0, length, value);
+    }
+
+    @Override
+    public void get(int[] out, int offset, int start, int length)
+    {
+      Arrays.fill(out, offset, offset + length, value);
+    }
+
+    @Override
+    public void get(int[] out, int[] indexes, int length)
+    {
+      Arrays.fill(out, 0, length, value);
+    }
+
+    @Override
+    public int getRunEnd(int index)
+    {
+      return numRows;
+    }
+
+    @Override
+    public void close()
+    {
+      // Do nothing
+    }
+
+    @Override
+    public void inspectRuntimeShape(RuntimeShapeInspector inspector)
+    {
+      // nothing to inspect
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.segment.file.SegmentFileBuilder;
+import org.apache.druid.segment.serde.MetaSerdeHelper;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams integers out in the binary format described by {@link RunLengthColumnarInts}, or, if that turns out larger,
+ * in the format of a fallback serializer, which is given every value as well. Which format was written is reported by
+ * {@link #isRunLengthEncoded()}, which may only be called once all values have been added.
+ */
+public class RunLengthColumnarIntsSerializer extends SingleValueColumnarIntsSerializer
+{
+  private static final MetaSerdeHelper<RunLengthColumnarIntsSerializer> META_SERDE_HELPER = MetaSerdeHelper
+      .firstWriteByte((RunLengthColumnarIntsSerializer x) -> RunLengthColumnarInts.VERSION)
+      .writeInt(x -> x.numRows)
+      .writeInt(x -> x.numRuns);
+
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final SingleValueColumnarIntsSerializer fallback;
+
+  @Nullable
+  private WriteOutBytes runStartsOut = null;
+  @Nullable
+  private WriteOutBytes runValuesOut = null;
+
+  private int numRows = 0;
+  private int numRuns = 0;
+  private int lastValue;
+  @Nullable
+  private Boolean runLengthEncoded = null;
+
+  public RunLengthColumnarIntsSerializer(
+      final SegmentWriteOutMedium segmentWriteOutMedium,
+      final SingleValueColumnarIntsSerializer fallback
+  )
+  {
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public void open() throws IOException
+  {
+    runStartsOut = segmentWriteOutMedium.makeWriteOutBytes();
+    runValuesOut = segmentWriteOutMedium.makeWriteOutBytes();
+    fallback.open();
+  }
+
+  @Override
+  public void addValue(int val) throws IOException
+  {
+    if (runLengthEncoded != null) {
+      throw new IllegalStateException("written out already");
+    }
+    if (numRows == 0 || val != lastValue) {
+      runStartsOut.writeInt(numRows);
+      runValuesOut.writeInt(val);
+      lastValue = val;
+      numRuns++;
+    }
+    numRows++;
+    fallback.addValue(val);
+  }
+
+  public int getNumRuns()
+  {
+    return numRuns;
+  }
+
+  /**
+   * Returns whether the values are written run-length encoded, which is the case unless the fallback format is smaller.
+   * No more values may be added after this is called.
+   */
+  public boolean isRunLengthEncoded() throws IOException
+  {
+    if (runLengthEncoded == null) {
+      runLengthEncoded = getRunLengthEncodedSize() <= fallback.getSerializedSize();
+    }
+    return runLengthEncoded;
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    return isRunLengthEncoded() ? getRunLengthEncodedSize() : fallback.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, SegmentFileBuilder fileBuilder) throws IOException
+  {
+    if (isRunLengthEncoded()) {
+      META_SERDE_HELPER.writeTo(channel, this);
+      runStartsOut.writeTo(channel);
+      runValuesOut.writeTo(channel);
+    } else {
+      fallback.writeTo(channel, fileBuilder);
+    }
+  }
+
+  private long getRunLengthEncodedSize()
+  {
+    return META_SERDE_HELPER.size(this) + runStartsOut.size() + runValuesOut.size();
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Bloom filter over the values of a string column, used to skip segments and columns that cannot contain a value an
+ * equality or IN filter is looking for. The number of bits is always a power of two, so that a filter can be
+ * {@link #fold folded} into a smaller one, with a higher false positive rate, by OR-ing its halves together. This lets
+ * the same filter be stored in full in the segment file and published in shrunken form along with the segment metadata.
+ * <p>
+ * Serialized as:
+ *
+ * <pre>
+ * | version (byte) | numHashes (byte) | hasNull (byte) | numWords (int) | words (long * numWords) |
+ * </pre>
+ *
+ * and as a base64 string of the same bytes in JSON.
+ */
+public class StringBloomFilter
+{
+  public static final byte VERSION = 1;
+  public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  private static final int HEADER_SIZE = 1 + 1 + 1 + Integer.BYTES;
+  private static final int MAX_HASHES = 16;
+  private static final int MAX_WORDS = 1 << 22;
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  /**
+   * Creates an empty filter sized for the given number of distinct values and false positive probability.
+   */
+  public static StringBloomFilter create(int expectedValues, double falsePositiveProbability)
+  {
+    final int n = Math.max(1, expectedValues);
+    final double optimalBits = -n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+    int numWords = 1;
+    while (numWords < MAX_WORDS && (long) numWords * Long.SIZE < optimalBits) {
+      numWords <<= 1;
+    }
+    final long numBits = (long) numWords * Long.SIZE;
+    final int numHashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) numBits / n * Math.log(2))));
+    return new StringBloomFilter(new long[numWords], numHashes, false);
+  }
+
+  /**
+   * Reads a filter starting at the current position of the buffer, and moves the position past it.
+   */
+  public static StringBloomFilter fromByteBuffer(ByteBuffer buffer)
+  {
+    final ByteBuffer bigEndian = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    final byte version = bigEndian.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown bloom filter version[%s]", version);
+    }
+    final int numHashes = bigEndian.get();
+    final boolean hasNull = bigEndian.get() != 0;
+    final int numWords = bigEndian.getInt();
+    if (numWords <= 0 || Integer.bitCount(numWords) != 1) {
+      throw new IAE("Invalid number of bloom filter words[%s]", numWords);
+    }
+    final long[] words = new long[numWords];
+    bigEndian.asLongBuffer().get(words);
+    buffer.position(bigEndian.position() + numWords * Long.BYTES);
+    return new StringBloomFilter(words, numHashes, hasNull);
+  }
+
+  @JsonCreator
+  public static StringBloomFilter fromBase64(String base64)
+  {
+    return fromByteBuffer(ByteBuffer.wrap(StringUtils.decodeBase64String(base64)));
+  }
+
+  private final long[] words;
+  private final int numHashes;
+  private boolean hasNull;
+
+  private StringBloomFilter(long[] words, int numHashes, boolean hasNull)
+  {
+    this.words = words;
+    this.numHashes = numHashes;
+    this.hasNull = hasNull;
+  }
+
+  public void add(@Nullable String value)
+  {
+    if (value == null) {
+      hasNull = true;
+      return;
+    }
+    final ByteBuffer hash = hash(value);
+    final long hash1 = hash.getLong(0);
+    final long hash2 = hash.getLong(Long.BYTES);
+    final long mask = (long) words.length * Long.SIZE - 1;
+    for (int i = 0; i < numHashes; i++) {
+      final long bit = (hash1 + i * hash2) & mask;
+      words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  /**
+   * Returns false if the value was definitely never {@link #add added}, true if it might have been.
+   */
+  public boolean mightContain(@Nullable String value)
+  {
+    if (value == null) {
+      return hasNull;
+    }
+    final ByteBuffer hash = hash(value);
+    final long hash1 = hash.getLong(0);
+    final long hash2 = hash.getLong(Long.BYTES);
+    final long mask = (long) words.length * Long.SIZE - 1;
+    for (int i = 0; i < numHashes; i++) {
+      final long bit = (hash1 + i * hash2) & mask;
+      if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a filter no larger than maxBytes when serialized, if possible, that contains at least the values of this
+   * one. Returns this filter if it is already small enough.
+   */
+  public StringBloomFilter fold(int maxBytes)
+  {
+    long[] folded = words;
+    while (folded.length > 1 && HEADER_SIZE + (long) folded.length * Long.BYTES > maxBytes) {
+      final int half = folded.length / 2;
+      final long[] next = Arrays.copyOf(folded, half);
+      for (int i = 0; i < half; i++) {
+        next[i] |= folded[half + i];
+      }
+      folded = next;
+    }
+    return folded == words ? this : new StringBloomFilter(folded, numHashes, hasNull);
+  }
+
+  public int getSerializedSize()
+  {
+    return HEADER_SIZE + words.length * Long.BYTES;
+  }
+
+  public byte[] toBytes()
+  {
+    final ByteBuffer buffer = ByteBuffer.allocate(getSerializedSize()).order(ByteOrder.BIG_ENDIAN);
+    buffer.put(VERSION);
+    buffer.put((byte) numHashes);
+    buffer.put((byte) (hasNull ? 1 : 0));
+    buffer.putInt(words.length);
+    buffer.asLongBuffer().put(words);
+    return buffer.array();
+  }
+
+  @JsonValue
+  public String toBase64()
+  {
+    return StringUtils.encodeBase64String(toBytes());
+  }
+
+  private static ByteBuffer hash(String value)
+  {
+    return ByteBuffer.wrap(HASH_FUNCTION.hashBytes(StringUtils.toUtf8(value)).asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StringBloomFilter that = (StringBloomFilter) o;
+    return numHashes == that.numHashes && hasNull == that.hasNull && Arrays.equals(words, that.words);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return 31 * (31 * Arrays.hashCode(words) + numHashes) + (hasNull ? 1 : 0);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "StringBloomFilter{" +
+           "numBits=" + (long) words.length * Long.SIZE +
+           ", numHashes=" + numHashes +
+           ", hasNull=" + hasNull +
+           '}';
+  }
+}
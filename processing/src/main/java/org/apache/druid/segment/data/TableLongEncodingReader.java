@@ -77,6 +77,12 @@ public class TableLongEncodingReader implements CompressionFactory.LongEncodingR
     deserializer.getTable(out, outPosition, startIndex, length, table);
   }
 
+  @Override
+  public boolean isConstant(int startIndex, int length)
+  {
+    return table.length == 1;
+  }
+
   @Override
   public int read(long[] out, int outPosition, int[] indexes, int length, int indexOffset, int limit)
   {
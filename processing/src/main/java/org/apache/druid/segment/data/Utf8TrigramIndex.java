@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.java.util.common.IAE;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.segment.file.SegmentFileMapper;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Inverted index from the trigrams (every run of 3 consecutive bytes) of the UTF-8 encoded values of a string
+ * dictionary to the ids of the dictionary values containing them, written by {@link Utf8TrigramIndexWriter}.
+ * <p>
+ * Since a string contains another only if its UTF-8 bytes contain the other's UTF-8 bytes, intersecting the postings
+ * of every trigram of a substring gives a superset of the dictionary ids of values containing it, which only needs to
+ * be checked against the real predicate instead of the whole dictionary. Matching is case-sensitive. Layout:
+ *
+ * <pre>
+ * | version (byte) | numGrams (int) | grams (int * numGrams, ascending) | postings (GenericIndexed of bitmaps) |
+ * </pre>
+ *
+ * where each gram is its three bytes packed into the low 24 bits of an int, and the postings are bitmaps of dictionary
+ * ids in the same order as the grams.
+ */
+public class Utf8TrigramIndex
+{
+  public static final byte VERSION = 1;
+  public static final int GRAM_SIZE = 3;
+
+  /**
+   * Reads an index starting at the current position of the buffer, and moves the position past it.
+   */
+  public static Utf8TrigramIndex read(
+      ByteBuffer buffer,
+      BitmapSerdeFactory bitmapSerdeFactory,
+      @Nullable SegmentFileMapper fileMapper
+  )
+  {
+    final byte version = buffer.get();
+    if (version != VERSION) {
+      throw new IAE("Unknown trigram index version[%s]", version);
+    }
+    final int numGrams = buffer.getInt();
+    final ByteBuffer gramsBuffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+    gramsBuffer.limit(numGrams * Integer.BYTES);
+    buffer.position(buffer.position() + numGrams * Integer.BYTES);
+    final GenericIndexed<ImmutableBitmap> postings = GenericIndexed.read(
+        buffer,
+        bitmapSerdeFactory.getObjectStrategy(),
+        fileMapper
+    );
+    return new Utf8TrigramIndex(gramsBuffer.asIntBuffer(), postings);
+  }
+
+  /**
+   * Returns the distinct trigrams of a string, or an empty array if its UTF-8 encoding is shorter than 3 bytes.
+   */
+  public static int[] getGrams(String value)
+  {
+    final byte[] utf8 = StringUtils.toUtf8(value);
+    final IntSet grams = new IntOpenHashSet();
+    for (int i = 0; i + GRAM_SIZE <= utf8.length; i++) {
+      grams.add(gramAt(utf8, i));
+    }
+    return grams.toIntArray();
+  }
+
+  static int gramAt(byte[] utf8, int position)
+  {
+    return (utf8[position] & 0xFF) << 16 | (utf8[position + 1] & 0xFF) << 8 | (utf8[position + 2] & 0xFF);
+  }
+
+  private final IntBuffer grams;
+  private final GenericIndexed<ImmutableBitmap> postings;
+
+  private Utf8TrigramIndex(IntBuffer grams, GenericIndexed<ImmutableBitmap> postings)
+  {
+    this.grams = grams;
+    this.postings = postings;
+  }
+
+  public int getNumGrams()
+  {
+    return grams.limit();
+  }
+
+  /**
+   * Returns the bitmap of the dictionary ids of values containing the trigram, or null if no value contains it.
+   */
+  @Nullable
+  public ImmutableBitmap getDictionaryIds(int gram)
+  {
+    int low = 0;
+    int high = grams.limit() - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int midGram = grams.get(mid);
+      if (midGram < gram) {
+        low = mid + 1;
+      } else if (midGram > gram) {
+        high = mid - 1;
+      } else {
+        return postings.get(mid);
+      }
+    }
+    return null;
+  }
+}
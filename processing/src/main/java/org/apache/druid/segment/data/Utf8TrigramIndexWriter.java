@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.segment.file.SegmentFileBuilder;
+import org.apache.druid.segment.serde.Serializer;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Writes a {@link Utf8TrigramIndex}. Dictionary values are added in dictionary id order with {@link #add}, and the
+ * postings of every trigram are collected in memory until {@link #getSerializedSize()} or {@link #writeTo} is called.
+ * <p>
+ * This class is unsafe for concurrent use from multiple threads.
+ */
+public class Utf8TrigramIndexWriter implements Serializer
+{
+  private final SegmentWriteOutMedium segmentWriteOutMedium;
+  private final String filenameBase;
+  private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final Int2ObjectMap<MutableBitmap> postings = new Int2ObjectOpenHashMap<>();
+
+  @Nullable
+  private int[] sortedGrams;
+  @Nullable
+  private GenericIndexedWriter<ImmutableBitmap> postingsWriter;
+
+  public Utf8TrigramIndexWriter(
+      SegmentWriteOutMedium segmentWriteOutMedium,
+      String filenameBase,
+      BitmapSerdeFactory bitmapSerdeFactory
+  )
+  {
+    this.segmentWriteOutMedium = segmentWriteOutMedium;
+    this.filenameBase = filenameBase;
+    this.bitmapSerdeFactory = bitmapSerdeFactory;
+  }
+
+  /**
+   * Adds the trigrams of a dictionary value. Null values, and values shorter than 3 bytes, have no trigrams.
+   */
+  public void add(int dictId, @Nullable String value)
+  {
+    if (value == null) {
+      return;
+    }
+    final byte[] utf8 = StringUtils.toUtf8(value);
+    final BitmapFactory bitmapFactory = bitmapSerdeFactory.getBitmapFactory();
+    for (int i = 0; i + Utf8TrigramIndex.GRAM_SIZE <= utf8.length; i++) {
+      postings.computeIfAbsent(Utf8TrigramIndex.gramAt(utf8, i), k -> bitmapFactory.makeEmptyMutableBitmap())
+              .add(dictId);
+    }
+  }
+
+  @Override
+  public long getSerializedSize() throws IOException
+  {
+    writePostings();
+    return 1 + Integer.BYTES + (long) sortedGrams.length * Integer.BYTES + postingsWriter.getSerializedSize();
+  }
+
+  @Override
+  public void writeTo(WritableByteChannel channel, SegmentFileBuilder fileBuilder) throws IOException
+  {
+    writePostings();
+    final ByteBuffer header = ByteBuffer.allocate(1 + Integer.BYTES + sortedGrams.length * Integer.BYTES)
+                                        .order(ByteOrder.BIG_ENDIAN);
+    header.put(Utf8TrigramIndex.VERSION);
+    header.putInt(sortedGrams.length);
+    for (int gram : sortedGrams) {
+      header.putInt(gram);
+    }
+    header.flip();
+    channel.write(header);
+    postingsWriter.writeTo(channel, fileBuilder);
+  }
+
+  private void writePostings() throws IOException
+  {
+    if (postingsWriter != null) {
+      return;
+    }
+    sortedGrams = postings.keySet().toIntArray();
+    Arrays.sort(sortedGrams);
+    postingsWriter = new GenericIndexedWriter<>(
+        segmentWriteOutMedium,
+        filenameBase,
+        bitmapSerdeFactory.getObjectStrategy()
+    );
+    postingsWriter.open();
+    postingsWriter.setObjectsNotSorted();
+    final BitmapFactory bitmapFactory = bitmapSerdeFactory.getBitmapFactory();
+    for (int gram : sortedGrams) {
+      postingsWriter.write(bitmapFactory.makeImmutableBitmap(postings.get(gram)));
+    }
+    postings.clear();
+  }
+}
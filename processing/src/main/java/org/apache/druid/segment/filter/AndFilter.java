@@ -156,6 +156,20 @@ public class AndFilter implements BooleanFilter
         return 0;
       }
 
+      @Override
+      public double estimatedSelectivity(int totalRowCount)
+      {
+        // Assume children are independent, and treat children without an estimate as matching everything.
+        double selectivity = UNKNOWN_SELECTIVITY;
+        for (final BitmapColumnIndex index : bitmapColumnIndices) {
+          final double childSelectivity = index.estimatedSelectivity(totalRowCount);
+          if (childSelectivity >= 0) {
+            selectivity = selectivity < 0 ? childSelectivity : selectivity * childSelectivity;
+          }
+        }
+        return selectivity;
+      }
+
       @Override
       public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
       {
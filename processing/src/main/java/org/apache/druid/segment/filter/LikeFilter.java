@@ -37,6 +37,7 @@ import org.apache.druid.segment.ColumnSelectorFactory;
 import org.apache.druid.segment.column.ColumnIndexSupplier;
 import org.apache.druid.segment.index.BitmapColumnIndex;
 import org.apache.druid.segment.index.semantic.LexicographicalRangeIndexes;
+import org.apache.druid.segment.index.semantic.StringSubstringIndexes;
 import org.apache.druid.segment.index.semantic.StringValueSetIndexes;
 import org.apache.druid.segment.vector.VectorColumnSelectorFactory;
 
@@ -98,6 +99,19 @@ public class LikeFilter implements Filter
       }
     }
 
+    if (extractionFn == null) {
+      final StringSubstringIndexes substringIndexes = indexSupplier.as(StringSubstringIndexes.class);
+      if (substringIndexes != null) {
+        final BitmapColumnIndex substringIndex = substringIndexes.forSubstrings(
+            likeMatcher.getLiterals(),
+            likeMatcher.predicateFactory(null)
+        );
+        if (substringIndex != null) {
+          return substringIndex;
+        }
+      }
+    }
+
     // fallback to predicate index
     return Filters.makePredicateIndex(
         dimension,
@@ -196,6 +196,13 @@ public class NotFilter implements BooleanUnaryFilter
           return 0;
         }
 
+        @Override
+        public double estimatedSelectivity(int totalRowCount)
+        {
+          final double baseSelectivity = baseIndex.estimatedSelectivity(totalRowCount);
+          return baseSelectivity < 0 ? UNKNOWN_SELECTIVITY : 1.0 - baseSelectivity;
+        }
+
         @Override
         public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
         {
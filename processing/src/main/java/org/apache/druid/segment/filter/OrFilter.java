@@ -477,6 +477,21 @@ public class OrFilter implements BooleanFilter
         return 0;
       }
 
+      @Override
+      public double estimatedSelectivity(int totalRowCount)
+      {
+        // Assume children are independent. Any child without an estimate could match everything, so give up then.
+        double notSelected = 1.0;
+        for (final BitmapColumnIndex index : bitmapColumnIndices) {
+          final double childSelectivity = index.estimatedSelectivity(totalRowCount);
+          if (childSelectivity < 0) {
+            return UNKNOWN_SELECTIVITY;
+          }
+          notSelected *= 1.0 - childSelectivity;
+        }
+        return 1.0 - notSelected;
+      }
+
       @Override
       public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
       {
@@ -765,6 +780,12 @@ public class OrFilter implements BooleanFilter
     return filters.stream().allMatch(filter -> filter.canVectorizeMatcher(inspector));
   }
 
+  @Override
+  public boolean isDisjunction()
+  {
+    return true;
+  }
+
   @Override
   public LinkedHashSet<Filter> getFilters()
   {
@@ -24,6 +24,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.druid.java.util.common.IAE;
 import org.apache.druid.query.extraction.ExtractionFn;
+import org.apache.druid.query.filter.ColumnIndexSelector;
 import org.apache.druid.query.filter.DruidDoublePredicate;
 import org.apache.druid.query.filter.DruidFloatPredicate;
 import org.apache.druid.query.filter.DruidLongPredicate;
@@ -32,8 +33,14 @@ import org.apache.druid.query.filter.DruidPredicateFactory;
 import org.apache.druid.query.filter.DruidPredicateMatch;
 import org.apache.druid.query.filter.Filter;
 import org.apache.druid.query.filter.FilterTuning;
+import org.apache.druid.query.search.ContainsSearchQuerySpec;
 import org.apache.druid.query.search.SearchQuerySpec;
+import org.apache.druid.segment.column.ColumnIndexSupplier;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+import org.apache.druid.segment.index.semantic.StringSubstringIndexes;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 
@@ -61,6 +68,33 @@ public class SearchQueryFilter extends DimensionPredicateFilter
     this.query = query;
   }
 
+  @Nullable
+  @Override
+  public BitmapColumnIndex getBitmapColumnIndex(ColumnIndexSelector selector)
+  {
+    if (extractionFn == null && query instanceof ContainsSearchQuerySpec) {
+      final ContainsSearchQuerySpec containsSpec = (ContainsSearchQuerySpec) query;
+      // substring indexes are case-sensitive, so they can only narrow down case-sensitive searches
+      if (containsSpec.isCaseSensitive()
+          && containsSpec.getValue() != null
+          && Filters.checkFilterTuningUseIndex(dimension, selector, filterTuning)) {
+        final ColumnIndexSupplier indexSupplier = selector.getIndexSupplier(dimension);
+        final StringSubstringIndexes substringIndexes =
+            indexSupplier == null ? null : indexSupplier.as(StringSubstringIndexes.class);
+        if (substringIndexes != null) {
+          final BitmapColumnIndex substringIndex = substringIndexes.forSubstrings(
+              Collections.singletonList(containsSpec.getValue()),
+              predicateFactory
+          );
+          if (substringIndex != null) {
+            return substringIndex;
+          }
+        }
+      }
+    }
+    return super.getBitmapColumnIndex(selector);
+  }
+
   @Override
   public boolean supportsRequiredColumnRewrite()
   {
@@ -0,0 +1,625 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.incremental;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import org.apache.druid.data.input.MapBasedRow;
+import org.apache.druid.data.input.Row;
+import org.apache.druid.error.DruidException;
+import org.apache.druid.error.InvalidInput;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.common.parsers.ParseException;
+import org.apache.druid.query.aggregation.AggregatorFactory;
+import org.apache.druid.query.aggregation.BufferAggregator;
+import org.apache.druid.query.aggregation.PostAggregator;
+import org.apache.druid.segment.ColumnSelectorFactory;
+import org.apache.druid.segment.CursorBuildSpec;
+import org.apache.druid.segment.DimensionHandler;
+import org.apache.druid.segment.DimensionIndexer;
+import org.apache.druid.segment.column.ValueType;
+import org.apache.druid.segment.projections.QueryableProjection;
+import org.apache.druid.utils.JvmUtils;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link IncrementalIndex} that keeps the aggregated metrics of each row off-heap, in direct memory, using the
+ * {@link BufferAggregator} of each {@link AggregatorFactory}. All rows share one set of buffer aggregators, and each row
+ * gets a fixed-size slot of {@link AggregatorFactory#getMaxIntermediateSizeWithNulls()} bytes per metric in one of a
+ * list of fixed-size chunks. Compared to {@link OnheapIncrementalIndex}, which holds a set of {@code Aggregator}
+ * objects per row, this removes most of the per-row heap footprint and garbage, so more rows fit between persists.
+ *
+ * Row keys and the facts table are the same as for {@link OnheapIncrementalIndex}, and still live on heap, so
+ * {@link #getBytesInMemory()} only accounts for those. Off-heap usage is bounded separately by
+ * the {@code maxOffheapBytesInMemory} property of its {@link Spec}.
+ *
+ * Aggregators with a large maximum intermediate size, such as most sketches, would reserve that much memory for
+ * every row, and their buffer aggregators usually keep on-heap state per row that {@link #getBytesInMemory()} does
+ * not see.
+ * If any metric's size is above the {@code maxAggregatorIntermediateSize} property of the {@link Spec},
+ * {@link Builder} builds an {@link OnheapIncrementalIndex} instead.
+ *
+ * Rows are added by a single thread while queries may read them concurrently. Access to the aggregator state of a
+ * row is guarded by one of {@link #NUM_ROW_LOCKS} striped locks chosen by row index, so a query reading one row
+ * only waits on ingestion while it updates a row that shares the same lock. This relies on buffer aggregators keeping
+ * all of their per-row state in the buffer, which is why those that do not are left to {@link OnheapIncrementalIndex}.
+ *
+ * Aggregate projections and {@code preserveExistingMetrics} are not supported.
+ */
+public class OffheapIncrementalIndex extends IncrementalIndex
+{
+  private static final Logger log = new Logger(OffheapIncrementalIndex.class);
+
+  /**
+   * Number of striped locks guarding the aggregator state of rows, must be a power of two.
+   */
+  static final int NUM_ROW_LOCKS = 256;
+
+  private final FactsHolder facts;
+  private final AtomicInteger indexIncrement = new AtomicInteger(0);
+  private final int maxRowCount;
+  private final long maxBytesInMemory;
+  private final long maxOffheapBytesInMemory;
+  private final int chunkSize;
+
+  /**
+   * Set by {@link #initAggs}, which is called by the superclass constructor.
+   */
+  @Nullable
+  private BufferAggregator[] aggs;
+  @Nullable
+  private int[] aggOffsetInRow;
+  private int rowSize;
+
+  private int rowsPerChunk;
+
+  /**
+   * Chunks holding aggregator state, row {@code i} is in chunk {@code i / rowsPerChunk}. Only grown by the thread
+   * adding rows, and replaced rather than modified so concurrent readers always see a consistent array.
+   */
+  private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+  private final AtomicLong offheapBytesAllocated = new AtomicLong(0);
+  private final Object[] rowLocks = new Object[NUM_ROW_LOCKS];
+
+  @Nullable
+  private String outOfRowsReason = null;
+
+  OffheapIncrementalIndex(
+      IncrementalIndexSchema incrementalIndexSchema,
+      int maxRowCount,
+      long maxBytesInMemory,
+      long maxOffheapBytesInMemory,
+      int chunkSize
+  )
+  {
+    super(incrementalIndexSchema, false);
+    if (!incrementalIndexSchema.getProjections().isEmpty()) {
+      throw InvalidInput.exception(
+          "appendableIndexSpec type[%s] does not support projections, use type[%s] instead",
+          Spec.TYPE,
+          OnheapIncrementalIndex.Spec.TYPE
+      );
+    }
+
+    this.maxRowCount = maxRowCount;
+    this.maxBytesInMemory = maxBytesInMemory == 0 ? Long.MAX_VALUE : maxBytesInMemory;
+    this.maxOffheapBytesInMemory = maxOffheapBytesInMemory;
+    this.chunkSize = chunkSize;
+    this.rowsPerChunk = rowSize == 0 ? Integer.MAX_VALUE : Math.max(1, chunkSize / rowSize);
+    for (int i = 0; i < rowLocks.length; i++) {
+      rowLocks[i] = new Object();
+    }
+
+    if (incrementalIndexSchema.isRollup()) {
+      this.facts = new OnheapIncrementalIndex.RollupFactsHolder(dimsComparator(), getDimensions(), timePosition == 0);
+    } else if (timePosition == 0) {
+      this.facts = new OnheapIncrementalIndex.PlainTimeOrderedFactsHolder(dimsComparator());
+    } else {
+      this.facts = new OnheapIncrementalIndex.PlainNonTimeOrderedFactsHolder(dimsComparator());
+    }
+  }
+
+  @Override
+  public FactsHolder getFacts()
+  {
+    return facts;
+  }
+
+  @Override
+  protected void initAggs(
+      final AggregatorFactory[] metrics,
+      final InputRowHolder inputRowHolder
+  )
+  {
+    // All non-complex aggregators share a column selector factory. Helps with value reuse.
+    ColumnSelectorFactory nonComplexColumnSelectorFactory = null;
+    aggs = new BufferAggregator[metrics.length];
+    aggOffsetInRow = new int[metrics.length];
+    rowSize = 0;
+    for (int i = 0; i < metrics.length; i++) {
+      final AggregatorFactory agg = metrics[i];
+      final ColumnSelectorFactory factory;
+      if (agg.getIntermediateType().is(ValueType.COMPLEX)) {
+        factory = new OnheapIncrementalIndex.CachingColumnSelectorFactory(
+            makeColumnSelectorFactory(agg, inputRowHolder)
+        );
+      } else {
+        if (nonComplexColumnSelectorFactory == null) {
+          nonComplexColumnSelectorFactory = new OnheapIncrementalIndex.CachingColumnSelectorFactory(
+              makeColumnSelectorFactory(null, inputRowHolder)
+          );
+        }
+        factory = nonComplexColumnSelectorFactory;
+      }
+      aggs[i] = agg.factorizeBuffered(factory);
+      aggOffsetInRow[i] = rowSize;
+      rowSize += agg.getMaxIntermediateSizeWithNulls();
+    }
+  }
+
+  @Override
+  protected AddToFactsResult addToFacts(
+      IncrementalIndexRow key,
+      InputRowHolder inputRowHolder
+  )
+  {
+    final List<String> parseExceptionMessages = new ArrayList<>();
+    final AtomicLong totalSizeInBytes = getBytesInMemory();
+    final AtomicInteger numEntries = getNumEntries();
+
+    final int priorIndex = facts.getPriorIndex(key);
+    if (IncrementalIndexRow.EMPTY_ROW_INDEX != priorIndex) {
+      doAggregate(priorIndex, parseExceptionMessages);
+    } else {
+      final int rowIndex = indexIncrement.getAndIncrement();
+      final ByteBuffer chunk = getOrAllocateChunk(rowIndex);
+      final int rowPosition = getRowPosition(rowIndex);
+      for (int i = 0; i < aggs.length; i++) {
+        aggs[i].init(chunk, rowPosition + aggOffsetInRow[i]);
+      }
+      doAggregate(rowIndex, parseExceptionMessages);
+
+      final int prev = facts.putIfAbsent(key, rowIndex);
+      if (IncrementalIndexRow.EMPTY_ROW_INDEX == prev) {
+        numEntries.incrementAndGet();
+      } else {
+        throw DruidException.defensive("Encountered existing fact entry for new key, possible concurrent add?");
+      }
+
+      // Only the key and the facts table entry are on heap.
+      totalSizeInBytes.addAndGet(key.estimateBytesInMemory() + OnheapIncrementalIndex.ROUGH_OVERHEAD_PER_MAP_ENTRY);
+    }
+
+    return new AddToFactsResult(numEntries.get(), totalSizeInBytes.get(), parseExceptionMessages);
+  }
+
+  private void doAggregate(final int rowIndex, final List<String> parseExceptionsHolder)
+  {
+    final ByteBuffer chunk = getChunk(rowIndex);
+    final int rowPosition = getRowPosition(rowIndex);
+    // Rows may be read by queries while they are being aggregated into.
+    synchronized (getRowLock(rowIndex)) {
+      for (int i = 0; i < aggs.length; i++) {
+        try {
+          aggs[i].aggregate(chunk, rowPosition + aggOffsetInRow[i]);
+        }
+        catch (ParseException e) {
+          // "aggregate" can throw ParseExceptions if a selector expects something but gets something else.
+          log.debug(e, "Encountered parse error, skipping aggregator[%s].", getMetricAggs()[i].getName());
+          parseExceptionsHolder.add(e.getMessage());
+        }
+      }
+    }
+  }
+
+  private Object getRowLock(final int rowIndex)
+  {
+    return rowLocks[rowIndex & (NUM_ROW_LOCKS - 1)];
+  }
+
+  private ByteBuffer getOrAllocateChunk(final int rowIndex)
+  {
+    final int chunkIndex = rowIndex / rowsPerChunk;
+    final ByteBuffer[] current = chunks;
+    if (chunkIndex < current.length) {
+      return current[chunkIndex];
+    }
+
+    final int chunkCapacity = rowSize == 0 ? 0 : rowsPerChunk * rowSize;
+    final ByteBuffer[] grown = Arrays.copyOf(current, chunkIndex + 1);
+    grown[chunkIndex] = ByteBuffer.allocateDirect(chunkCapacity);
+    offheapBytesAllocated.addAndGet(chunkCapacity);
+    chunks = grown;
+    return grown[chunkIndex];
+  }
+
+  private ByteBuffer getChunk(final int rowIndex)
+  {
+    return chunks[rowIndex / rowsPerChunk];
+  }
+
+  private int getRowPosition(final int rowIndex)
+  {
+    return (rowIndex % rowsPerChunk) * rowSize;
+  }
+
+  @Override
+  public int getLastRowIndex()
+  {
+    return indexIncrement.get() - 1;
+  }
+
+  @Nullable
+  @Override
+  public QueryableProjection<IncrementalIndexRowSelector> getProjection(CursorBuildSpec buildSpec)
+  {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public IncrementalIndexRowSelector getProjection(String name)
+  {
+    return null;
+  }
+
+  @Override
+  public boolean canAppendRow()
+  {
+    final boolean countCheck = numRows() < maxRowCount;
+    // if maxBytesInMemory = -1, then ignore sizeCheck
+    final boolean sizeCheck = maxBytesInMemory <= 0 || getBytesInMemory().get() < maxBytesInMemory;
+    // if maxOffheapBytesInMemory <= 0, then ignore offheapSizeCheck
+    final boolean offheapSizeCheck = maxOffheapBytesInMemory <= 0
+                                     || (long) (numRows() + 1) * rowSize <= maxOffheapBytesInMemory;
+
+    if (!countCheck) {
+      outOfRowsReason = StringUtils.format("Maximum number of rows [%d] reached", maxRowCount);
+    } else if (!sizeCheck) {
+      outOfRowsReason = StringUtils.format("Maximum size in bytes [%d] reached", maxBytesInMemory);
+    } else if (!offheapSizeCheck) {
+      outOfRowsReason = StringUtils.format("Maximum off-heap size in bytes [%d] reached", maxOffheapBytesInMemory);
+    }
+
+    return countCheck && sizeCheck && offheapSizeCheck;
+  }
+
+  @Override
+  public String getOutOfRowsReason()
+  {
+    return outOfRowsReason;
+  }
+
+  /**
+   * Bytes of direct memory currently allocated for aggregator state.
+   */
+  public long getOffheapBytesAllocated()
+  {
+    return offheapBytesAllocated.get();
+  }
+
+  @Override
+  public float getMetricFloatValue(int rowOffset, int aggOffset)
+  {
+    synchronized (getRowLock(rowOffset)) {
+      return aggs[aggOffset].getFloat(getChunk(rowOffset), getRowPosition(rowOffset) + aggOffsetInRow[aggOffset]);
+    }
+  }
+
+  @Override
+  public long getMetricLongValue(int rowOffset, int aggOffset)
+  {
+    synchronized (getRowLock(rowOffset)) {
+      return aggs[aggOffset].getLong(getChunk(rowOffset), getRowPosition(rowOffset) + aggOffsetInRow[aggOffset]);
+    }
+  }
+
+  @Override
+  public double getMetricDoubleValue(int rowOffset, int aggOffset)
+  {
+    synchronized (getRowLock(rowOffset)) {
+      return aggs[aggOffset].getDouble(getChunk(rowOffset), getRowPosition(rowOffset) + aggOffsetInRow[aggOffset]);
+    }
+  }
+
+  @Nullable
+  @Override
+  public Object getMetricObjectValue(int rowOffset, int aggOffset)
+  {
+    synchronized (getRowLock(rowOffset)) {
+      return aggs[aggOffset].get(getChunk(rowOffset), getRowPosition(rowOffset) + aggOffsetInRow[aggOffset]);
+    }
+  }
+
+  @Override
+  public boolean isNull(int rowOffset, int aggOffset)
+  {
+    synchronized (getRowLock(rowOffset)) {
+      return aggs[aggOffset].isNull(getChunk(rowOffset), getRowPosition(rowOffset) + aggOffsetInRow[aggOffset]);
+    }
+  }
+
+  @Override
+  public Iterable<Row> iterableWithPostAggregations(
+      @Nullable final List<PostAggregator> postAggs,
+      final boolean descending
+  )
+  {
+    final AggregatorFactory[] metrics = getMetricAggs();
+
+    return () -> {
+      final List<DimensionDesc> dimensions = getDimensions();
+
+      return Iterators.transform(
+          getFacts().iterator(descending),
+          incrementalIndexRow -> {
+            final int rowOffset = incrementalIndexRow.getRowIndex();
+
+            Object[] theDims = incrementalIndexRow.getDims();
+
+            Map<String, Object> theVals = Maps.newLinkedHashMap();
+            for (int i = 0; i < theDims.length; ++i) {
+              Object dim = theDims[i];
+              DimensionDesc dimensionDesc = dimensions.get(i);
+              if (dimensionDesc == null) {
+                continue;
+              }
+              String dimensionName = dimensionDesc.getName();
+              DimensionHandler handler = dimensionDesc.getHandler();
+              if (dim == null || handler.getLengthOfEncodedKeyComponent(dim) == 0) {
+                theVals.put(dimensionName, null);
+                continue;
+              }
+              final DimensionIndexer indexer = dimensionDesc.getIndexer();
+              Object rowVals = indexer.convertUnsortedEncodedKeyComponentToActualList(dim);
+              theVals.put(dimensionName, rowVals);
+            }
+
+            for (int i = 0; i < metrics.length; ++i) {
+              theVals.put(metrics[i].getName(), getMetricObjectValue(rowOffset, i));
+            }
+
+            if (postAggs != null) {
+              for (PostAggregator postAgg : postAggs) {
+                theVals.put(postAgg.getName(), postAgg.compute(theVals));
+              }
+            }
+
+            return new MapBasedRow(incrementalIndexRow.getTimestamp(), theVals);
+          }
+      );
+    };
+  }
+
+  /**
+   * Releases the direct memory held by this index.
+   * NOTE: This is NOT thread-safe with add... so make sure all the adding is DONE before closing
+   */
+  @Override
+  public void close()
+  {
+    super.close();
+    facts.clear();
+    if (aggs != null) {
+      for (BufferAggregator agg : aggs) {
+        agg.close();
+      }
+    }
+    final ByteBuffer[] toFree = chunks;
+    chunks = new ByteBuffer[0];
+    for (ByteBuffer chunk : toFree) {
+      ByteBufferUtils.free(chunk);
+    }
+    offheapBytesAllocated.set(0);
+  }
+
+  public static class Builder extends AppendableIndexBuilder
+  {
+    private long maxOffheapBytesInMemory = 0;
+    private int chunkSize = Spec.DEFAULT_CHUNK_SIZE;
+    private int maxAggregatorIntermediateSize = Spec.DEFAULT_MAX_AGGREGATOR_INTERMEDIATE_SIZE;
+
+    public Builder setMaxOffheapBytesInMemory(final long maxOffheapBytesInMemory)
+    {
+      this.maxOffheapBytesInMemory = maxOffheapBytesInMemory;
+      return this;
+    }
+
+    public Builder setChunkSize(final int chunkSize)
+    {
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    public Builder setMaxAggregatorIntermediateSize(final int maxAggregatorIntermediateSize)
+    {
+      this.maxAggregatorIntermediateSize = maxAggregatorIntermediateSize;
+      return this;
+    }
+
+    @Override
+    protected IncrementalIndex buildInner()
+    {
+      final IncrementalIndexSchema schema =
+          Objects.requireNonNull(incrementalIndexSchema, "incrementIndexSchema is null");
+      for (AggregatorFactory metric : schema.getMetrics()) {
+        if (metric.getMaxIntermediateSizeWithNulls() > maxAggregatorIntermediateSize) {
+          log.warn(
+              "Metric[%s] has a maximum intermediate size of [%d] bytes, above maxAggregatorIntermediateSize[%d]. "
+              + "Using appendableIndexSpec type[%s] instead of [%s].",
+              metric.getName(),
+              metric.getMaxIntermediateSizeWithNulls(),
+              maxAggregatorIntermediateSize,
+              OnheapIncrementalIndex.Spec.TYPE,
+              Spec.TYPE
+          );
+          return new OnheapIncrementalIndex(schema, maxRowCount, maxBytesInMemory, preserveExistingMetrics);
+        }
+      }
+
+      if (preserveExistingMetrics) {
+        throw InvalidInput.exception(
+            "appendableIndexSpec type[%s] does not support preserveExistingMetrics, use type[%s] instead",
+            Spec.TYPE,
+            OnheapIncrementalIndex.Spec.TYPE
+        );
+      }
+      return new OffheapIncrementalIndex(
+          schema,
+          maxRowCount,
+          maxBytesInMemory,
+          maxOffheapBytesInMemory,
+          chunkSize
+      );
+    }
+  }
+
+  public static class Spec implements AppendableIndexSpec
+  {
+    public static final String TYPE = "offheap";
+    static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    static final int DEFAULT_MAX_AGGREGATOR_INTERMEDIATE_SIZE = 2048;
+
+    // Upper bound on direct memory used for aggregator state by a single index. If not set, defaults to 1/6 of the
+    // direct memory available to the JVM, matching how maxBytesInMemory defaults to 1/6 of the heap.
+    @Nullable
+    private final Long maxOffheapBytesInMemory;
+
+    // Size of each chunk of direct memory allocated for aggregator state.
+    private final int chunkSize;
+
+    // Largest AggregatorFactory#getMaxIntermediateSizeWithNulls() of any metric for which aggregator state is kept off
+    // heap. Every row reserves that many bytes per metric, and the buffer aggregators of large types such as sketches
+    // usually keep on-heap state that is not accounted for, so indexes with such metrics are built on heap instead.
+    private final int maxAggregatorIntermediateSize;
+
+    public Spec()
+    {
+      this(null, null, null);
+    }
+
+    @JsonCreator
+    public Spec(
+        final @JsonProperty("maxOffheapBytesInMemory") @Nullable Long maxOffheapBytesInMemory,
+        final @JsonProperty("chunkSize") @Nullable Integer chunkSize,
+        final @JsonProperty("maxAggregatorIntermediateSize") @Nullable Integer maxAggregatorIntermediateSize
+    )
+    {
+      this.maxOffheapBytesInMemory = maxOffheapBytesInMemory;
+      this.chunkSize = chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+      if (this.chunkSize <= 0) {
+        throw InvalidInput.exception("chunkSize[%d] must be positive", this.chunkSize);
+      }
+      this.maxAggregatorIntermediateSize = maxAggregatorIntermediateSize != null
+                                           ? maxAggregatorIntermediateSize
+                                           : DEFAULT_MAX_AGGREGATOR_INTERMEDIATE_SIZE;
+      if (this.maxAggregatorIntermediateSize <= 0) {
+        throw InvalidInput.exception(
+            "maxAggregatorIntermediateSize[%d] must be positive",
+            this.maxAggregatorIntermediateSize
+        );
+      }
+    }
+
+    @Nullable
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getMaxOffheapBytesInMemory()
+    {
+      return maxOffheapBytesInMemory;
+    }
+
+    @JsonProperty
+    public int getChunkSize()
+    {
+      return chunkSize;
+    }
+
+    @JsonProperty
+    public int getMaxAggregatorIntermediateSize()
+    {
+      return maxAggregatorIntermediateSize;
+    }
+
+    @Override
+    public AppendableIndexBuilder builder()
+    {
+      return new Builder().setMaxOffheapBytesInMemory(getEffectiveMaxOffheapBytesInMemory())
+                          .setChunkSize(chunkSize)
+                          .setMaxAggregatorIntermediateSize(maxAggregatorIntermediateSize);
+    }
+
+    private long getEffectiveMaxOffheapBytesInMemory()
+    {
+      if (maxOffheapBytesInMemory != null) {
+        return maxOffheapBytesInMemory;
+      }
+      try {
+        return JvmUtils.getRuntimeInfo().getDirectMemorySizeBytes() / 6;
+      }
+      catch (UnsupportedOperationException e) {
+        // Unknown direct memory limit, leave it to maxRowsInMemory and maxBytesInMemory.
+        return 0;
+      }
+    }
+
+    @Override
+    public long getDefaultMaxBytesInMemory()
+    {
+      // Same as OnheapIncrementalIndex, but here it only needs to cover keys and facts, so more rows fit.
+      return JvmUtils.getRuntimeInfo().getMaxHeapSizeBytes() / 6;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Spec spec = (Spec) o;
+      return chunkSize == spec.chunkSize
+             && maxAggregatorIntermediateSize == spec.maxAggregatorIntermediateSize
+             && Objects.equals(maxOffheapBytesInMemory, spec.maxOffheapBytesInMemory);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hash(maxOffheapBytesInMemory, chunkSize, maxAggregatorIntermediateSize);
+    }
+  }
+}
@@ -56,6 +56,12 @@ public class AllFalseBitmapColumnIndex implements BitmapColumnIndex
     return 0;
   }
 
+  @Override
+  public double estimatedSelectivity(int totalRowCount)
+  {
+    return 0.0;
+  }
+
   @Override
   public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
   {
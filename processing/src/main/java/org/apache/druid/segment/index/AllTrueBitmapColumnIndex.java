@@ -53,6 +53,12 @@ public class AllTrueBitmapColumnIndex implements BitmapColumnIndex
     return 0;
   }
 
+  @Override
+  public double estimatedSelectivity(int totalRowCount)
+  {
+    return 1.0;
+  }
+
   @Override
   public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
   {
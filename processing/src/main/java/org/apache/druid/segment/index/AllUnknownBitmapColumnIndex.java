@@ -57,6 +57,12 @@ public class AllUnknownBitmapColumnIndex implements BitmapColumnIndex
     return 0;
   }
 
+  @Override
+  public double estimatedSelectivity(int totalRowCount)
+  {
+    return 0.0;
+  }
+
   @Override
   public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
   {
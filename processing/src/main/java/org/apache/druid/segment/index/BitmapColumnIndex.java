@@ -32,6 +32,11 @@ import javax.annotation.Nullable;
  */
 public interface BitmapColumnIndex
 {
+  /**
+   * Returned by {@link #estimatedSelectivity(int)} when no cheap estimate is available.
+   */
+  double UNKNOWN_SELECTIVITY = -1.0;
+
   ColumnIndexCapabilities getIndexCapabilities();
 
   /**
@@ -42,6 +47,20 @@ public interface BitmapColumnIndex
    */
   int estimatedComputeCost();
 
+  /**
+   * Returns an estimate of the fraction of rows, between 0.0 and 1.0, that this index would match, or
+   * {@link #UNKNOWN_SELECTIVITY} if it cannot be estimated cheaply. Implementations may look at bitmap sizes, sample a
+   * few of the bitmaps they would union, or fall back to the ratio of matching values to dictionary cardinality, but
+   * must not compute the full bitmap result. Used with {@link #estimatedComputeCost()} to arrange the children of
+   * AND and OR filters.
+   *
+   * @param totalRowCount total number of rows in the segment
+   */
+  default double estimatedSelectivity(int totalRowCount)
+  {
+    return UNKNOWN_SELECTIVITY;
+  }
+
   /**
    * Compute a bitmap result wrapped with the {@link BitmapResultFactory} representing the rows matched by this index.
    * If building a cursor, use {@link #computeBitmapResult(BitmapResultFactory, int, int, boolean)} instead.
@@ -86,4 +105,16 @@ public interface BitmapColumnIndex
   {
     return computeBitmapResult(bitmapResultFactory, includeUnknown);
   }
+
+  /**
+   * Helper for {@link #estimatedSelectivity(int)} implementations, returning the fraction of totalRowCount covered by
+   * numMatchedRows, capped at 1.0.
+   */
+  static double computeSelectivity(double numMatchedRows, int totalRowCount)
+  {
+    if (totalRowCount <= 0) {
+      return 0.0;
+    }
+    return Math.min(1.0, numMatchedRows / totalRowCount);
+  }
 }
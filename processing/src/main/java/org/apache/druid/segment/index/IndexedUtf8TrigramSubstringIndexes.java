@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.index;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.query.filter.DruidObjectPredicate;
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.segment.data.Indexed;
+import org.apache.druid.segment.data.Utf8TrigramIndex;
+import org.apache.druid.segment.index.semantic.StringSubstringIndexes;
+import org.roaringbitmap.IntIterator;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link StringSubstringIndexes} backed by a {@link Utf8TrigramIndex}. The postings of every trigram of the
+ * substrings are intersected to find the candidate dictionary ids, and only the candidates are checked against the
+ * predicate, which makes the cost proportional to the number of candidates rather than the size of the dictionary.
+ */
+public final class IndexedUtf8TrigramSubstringIndexes<TDictionary extends Indexed<String>>
+    implements StringSubstringIndexes
+{
+  private final BitmapFactory bitmapFactory;
+  private final TDictionary dictionary;
+  private final Indexed<ImmutableBitmap> bitmaps;
+  private final Utf8TrigramIndex trigramIndex;
+
+  public IndexedUtf8TrigramSubstringIndexes(
+      BitmapFactory bitmapFactory,
+      TDictionary dictionary,
+      Indexed<ImmutableBitmap> bitmaps,
+      Utf8TrigramIndex trigramIndex
+  )
+  {
+    this.bitmapFactory = bitmapFactory;
+    this.dictionary = dictionary;
+    this.bitmaps = bitmaps;
+    this.trigramIndex = trigramIndex;
+  }
+
+  @Nullable
+  @Override
+  public BitmapColumnIndex forSubstrings(List<String> substrings, DruidPredicateFactory predicateFactory)
+  {
+    final List<ImmutableBitmap> postings = new ArrayList<>();
+    for (String substring : substrings) {
+      for (int gram : Utf8TrigramIndex.getGrams(substring)) {
+        final ImmutableBitmap posting = trigramIndex.getDictionaryIds(gram);
+        if (posting == null) {
+          // no value contains this trigram, so no non-null value can match
+          return makeIndex(bitmapFactory.makeEmptyImmutableBitmap(), predicateFactory);
+        }
+        postings.add(posting);
+      }
+    }
+    if (postings.isEmpty()) {
+      return null;
+    }
+
+    // intersect smallest first, so the intermediate results stay small
+    postings.sort(Comparator.comparingInt(ImmutableBitmap::size));
+    ImmutableBitmap candidates = postings.get(0);
+    for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+      candidates = candidates.intersection(postings.get(i));
+    }
+    return makeIndex(candidates, predicateFactory);
+  }
+
+  private BitmapColumnIndex makeIndex(ImmutableBitmap candidates, DruidPredicateFactory predicateFactory)
+  {
+    final DruidObjectPredicate<String> stringPredicate = predicateFactory.makeStringPredicate();
+    // null values have no trigrams, so the null value is always a candidate since the predicate may match it when
+    // including unknowns
+    final boolean hasNull = dictionary.size() > 0 && dictionary.get(0) == null;
+
+    return new DictionaryScanningBitmapIndex(candidates.size() + (hasNull ? 1 : 0))
+    {
+      @Override
+      public Iterable<ImmutableBitmap> getBitmapIterable(boolean includeUnknown)
+      {
+        return () -> new Iterator<>()
+        {
+          final IntIterator iterator = candidates.iterator();
+          boolean checkNull = hasNull;
+          boolean nextSet = false;
+          int index = -1;
+
+          @Override
+          public boolean hasNext()
+          {
+            if (!nextSet) {
+              findNext();
+            }
+            return nextSet;
+          }
+
+          @Override
+          public ImmutableBitmap next()
+          {
+            if (!nextSet) {
+              findNext();
+              if (!nextSet) {
+                throw new NoSuchElementException();
+              }
+            }
+            nextSet = false;
+
+            final ImmutableBitmap bitmap = bitmaps.get(index);
+            return bitmap == null ? bitmapFactory.makeEmptyImmutableBitmap() : bitmap;
+          }
+
+          private void findNext()
+          {
+            if (checkNull) {
+              checkNull = false;
+              if (stringPredicate.apply(null).matches(includeUnknown)) {
+                index = 0;
+                nextSet = true;
+                return;
+              }
+            }
+            while (!nextSet && iterator.hasNext()) {
+              index = iterator.next();
+              nextSet = stringPredicate.apply(dictionary.get(index)).matches(includeUnknown);
+            }
+          }
+        };
+      }
+    };
+  }
+}
@@ -82,12 +82,22 @@ public final class IndexedUtf8ValueIndexes<TDictionary extends Indexed<ByteBuffe
     final ByteBuffer utf8 = StringUtils.toUtf8ByteBuffer(value);
     return new SimpleBitmapColumnIndex()
     {
+      // looked up once, since the selectivity estimate and the bitmap result both need it
+      @Nullable
+      private ImmutableBitmap bitmapForValue;
+
       @Override
       public int estimatedComputeCost()
       {
         return 1;
       }
 
+      @Override
+      public double estimatedSelectivity(int totalRowCount)
+      {
+        return BitmapColumnIndex.computeSelectivity(getBitmapForValue().size(), totalRowCount);
+      }
+
       @Override
       public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
       {
@@ -101,8 +111,10 @@ public final class IndexedUtf8ValueIndexes<TDictionary extends Indexed<ByteBuffe
 
       private ImmutableBitmap getBitmapForValue()
       {
-        final int idx = dictionary.indexOf(utf8);
-        return getBitmap(idx);
+        if (bitmapForValue == null) {
+          bitmapForValue = getBitmap(dictionary.indexOf(utf8));
+        }
+        return bitmapForValue;
       }
     };
   }
@@ -41,6 +41,12 @@ public final class SimpleImmutableBitmapIndex extends SimpleBitmapColumnIndex
     return 0;
   }
 
+  @Override
+  public double estimatedSelectivity(int totalRowCount)
+  {
+    return BitmapColumnIndex.computeSelectivity(bitmap.size(), totalRowCount);
+  }
+
   @Override
   public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
   {
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.index.semantic;
+
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Index for predicates that can only match values containing a set of substrings, such as LIKE '%foo%bar%' or a
+ * case-sensitive CONTAINS_STRING, which narrows down the values that must be checked against the predicate instead of
+ * checking every value like {@link DruidPredicateIndexes} does.
+ */
+public interface StringSubstringIndexes
+{
+  /**
+   * Get a {@link BitmapColumnIndex} corresponding to all the rows that match the supplied {@link DruidPredicateFactory}.
+   * The predicate must not match any non-null value that does not contain every one of the substrings, which are
+   * compared case-sensitively.
+   * <p>
+   * If this method returns null it indicates that the substrings are too short to narrow down the values, and
+   * {@link DruidPredicateIndexes} or a {@link org.apache.druid.query.filter.ValueMatcher} must be used instead.
+   */
+  @Nullable
+  BitmapColumnIndex forSubstrings(List<String> substrings, DruidPredicateFactory predicateFactory);
+}
@@ -56,6 +56,12 @@ public interface ValueSetIndexes
    */
   int SIZE_WORTH_CHECKING_MIN = 8;
 
+  /**
+   * maximum number of value bitmaps looked at by {@link BaseValueSetIndexesFromIterable#sampleSelectivity} when
+   * estimating selectivity.
+   */
+  int SELECTIVITY_SAMPLE_SIZE = 16;
+
   /**
    * Get the wrapped {@link ImmutableBitmap} corresponding to the specified set of values (if they are contained in the
    * underlying column). The set must be sorted using the comparator of the supplied matchValueType.
@@ -104,6 +110,14 @@ public interface ValueSetIndexes
         return Integer.max(size, dictionary.size());
       }
 
+      @Override
+      public double estimatedSelectivity(int totalRowCount)
+      {
+        // sampling could walk most of the dictionary here, so assume values are spread evenly across it instead
+        final int dictionarySize = dictionary.size();
+        return dictionarySize == 0 ? 0.0 : Math.min(1.0, (double) size / dictionarySize);
+      }
+
       @Override
       public Iterable<ImmutableBitmap> getBitmapIterable()
       {
@@ -193,6 +207,12 @@ public interface ValueSetIndexes
         return size;
       }
 
+      @Override
+      public double estimatedSelectivity(int totalRowCount)
+      {
+        return sampleSelectivity(size, totalRowCount);
+      }
+
       @Override
       public Iterable<ImmutableBitmap> getBitmapIterable()
       {
@@ -274,6 +294,12 @@ public interface ValueSetIndexes
         return size;
       }
 
+      @Override
+      public double estimatedSelectivity(int totalRowCount)
+      {
+        return sampleSelectivity(size, totalRowCount);
+      }
+
       @Override
       public Iterable<ImmutableBitmap> getBitmapIterable()
       {
@@ -341,6 +367,25 @@ public interface ValueSetIndexes
       return unknownsBitmap.get();
     }
 
+    /**
+     * Estimates selectivity from the sizes of the first {@link #SELECTIVITY_SAMPLE_SIZE} bitmaps of
+     * {@link #getBitmapIterable()}, extrapolated to numValues if there are more.
+     */
+    protected double sampleSelectivity(int numValues, int totalRowCount)
+    {
+      final Iterator<ImmutableBitmap> iterator = getBitmapIterable().iterator();
+      long matchedRows = 0;
+      int sampled = 0;
+      while (sampled < SELECTIVITY_SAMPLE_SIZE && iterator.hasNext()) {
+        matchedRows += iterator.next().size();
+        sampled++;
+      }
+      if (!iterator.hasNext()) {
+        return BitmapColumnIndex.computeSelectivity(matchedRows, totalRowCount);
+      }
+      return BitmapColumnIndex.computeSelectivity((double) matchedRows * numValues / sampled, totalRowCount);
+    }
+
     protected ImmutableBitmap getBitmap(int idx)
     {
       if (idx < 0) {
@@ -17,8 +17,13 @@
  * under the License.
  */
 
+
 package org.apache.druid.segment.join;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.query.DataSource;
 import org.apache.druid.query.InlineDataSource;
@@ -26,17 +31,46 @@ import org.apache.druid.segment.join.table.IndexedTable;
 import org.apache.druid.segment.join.table.IndexedTableJoinable;
 import org.apache.druid.segment.join.table.RowBasedIndexedTable;
 
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 /**
  * A {@link JoinableFactory} for {@link InlineDataSource}.
  * It works by building an {@link IndexedTable}.
  *
+ * Tables are read-only once built, so they can be shared by every segment of a query, and, if
+ * {@link InlineJoinableFactoryConfig#getMaxCachedTableRows()} is positive, by later queries that join against the same
+ * rows on the same keys, such as the same dimension subquery issued by many dashboard queries.
+ *
  * It is not valid to pass any other DataSource type to the "build" method.
  */
 public class InlineJoinableFactory implements JoinableFactory
 {
+  @Nullable
+  private final Cache<TableKey, IndexedTable> tableCache;
+
+  public InlineJoinableFactory()
+  {
+    this(new InlineJoinableFactoryConfig());
+  }
+
+  @Inject
+  public InlineJoinableFactory(InlineJoinableFactoryConfig config)
+  {
+    if (config.getMaxCachedTableRows() > 0) {
+      this.tableCache = CacheBuilder.newBuilder()
+                                    .maximumWeight(config.getMaxCachedTableRows())
+                                    .weigher((TableKey key, IndexedTable table) -> table.numRows())
+                                    .build();
+    } else {
+      this.tableCache = null;
+    }
+  }
+
   @Override
   public boolean isDirectlyJoinable(DataSource dataSource)
   {
@@ -53,20 +87,83 @@ public class InlineJoinableFactory implements JoinableFactory
 
     if (condition.canHashJoin()) {
       final Set<String> rightKeyColumns = condition.getRightEquiConditionKeys();
-
-      return Optional.of(
-          new IndexedTableJoinable(
-              new RowBasedIndexedTable<>(
-                  inlineDataSource.getRowsAsList(),
-                  inlineDataSource.rowAdapter(),
-                  inlineDataSource.getRowSignature(),
-                  rightKeyColumns,
-                  DateTimes.nowUtc().toString()
-              )
-          )
-      );
+      return Optional.of(new IndexedTableJoinable(getOrBuildTable(inlineDataSource, rightKeyColumns)));
     } else {
       return Optional.empty();
     }
   }
+
+  private IndexedTable getOrBuildTable(final InlineDataSource inlineDataSource, final Set<String> rightKeyColumns)
+  {
+    // Lazy rows can only be compared by identity, so only materialized rows are worth a cache entry.
+    if (tableCache == null || !(inlineDataSource.getRows() instanceof List)) {
+      return buildTable(inlineDataSource, rightKeyColumns);
+    }
+
+    try {
+      return tableCache.get(
+          new TableKey(inlineDataSource, rightKeyColumns),
+          () -> buildTable(inlineDataSource, rightKeyColumns)
+      );
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  @VisibleForTesting
+  long getCachedTableCount()
+  {
+    return tableCache == null ? 0 : tableCache.size();
+  }
+
+  private static IndexedTable buildTable(final InlineDataSource inlineDataSource, final Set<String> rightKeyColumns)
+  {
+    return new RowBasedIndexedTable<>(
+        inlineDataSource.getRowsAsList(),
+        inlineDataSource.rowAdapter(),
+        inlineDataSource.getRowSignature(),
+        rightKeyColumns,
+        DateTimes.nowUtc().toString()
+    );
+  }
+
+  /**
+   * Rows and key columns a table was built from. Equality compares the rows themselves, which is linear in their
+   * number but much cheaper than building the key indexes again.
+   */
+  private static class TableKey
+  {
+    private final InlineDataSource dataSource;
+    private final Set<String> keyColumns;
+    private final int hashCode;
+
+    private TableKey(InlineDataSource dataSource, Set<String> keyColumns)
+    {
+      this.dataSource = dataSource;
+      this.keyColumns = keyColumns;
+      this.hashCode = Objects.hash(dataSource, keyColumns);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TableKey tableKey = (TableKey) o;
+      return hashCode == tableKey.hashCode
+             && keyColumns.equals(tableKey.keyColumns)
+             && dataSource.equals(tableKey.dataSource);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return hashCode;
+    }
+  }
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.join;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configuration for {@link InlineJoinableFactory}, bound to "druid.join.inline".
+ */
+public class InlineJoinableFactoryConfig
+{
+  /**
+   * Total number of rows of the tables built from inline datasources that are kept for reuse by later queries that
+   * join against identical rows on the same keys. Zero disables reuse, so every query builds its own table.
+   */
+  @JsonProperty
+  private int maxCachedTableRows = 0;
+
+  public InlineJoinableFactoryConfig()
+  {
+  }
+
+  public InlineJoinableFactoryConfig(int maxCachedTableRows)
+  {
+    this.maxCachedTableRows = maxCachedTableRows;
+  }
+
+  public int getMaxCachedTableRows()
+  {
+    return maxCachedTableRows;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "InlineJoinableFactoryConfig{" +
+           "maxCachedTableRows=" + maxCachedTableRows +
+           '}';
+  }
+}
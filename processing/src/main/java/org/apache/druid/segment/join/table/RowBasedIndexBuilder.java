@@ -23,6 +23,7 @@ import com.google.common.primitives.Ints;
 import it.unimi.dsi.fastutil.ints.IntAVLTreeSet;
 import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSets;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
@@ -98,7 +99,8 @@ public class RowBasedIndexBuilder
       final Object castKey = DimensionHandlerUtils.convertObjectToType(key, keyType);
 
       if (castKey != null) {
-        index.computeIfAbsent(castKey, k -> new IntAVLTreeSet()).add(currentRow);
+        final int row = currentRow;
+        index.compute(castKey, (k, rows) -> addRow(rows, row));
         nonNullKeys++;
 
         // Track min, max long value so we can decide later on if it's appropriate to use an array-backed implementation.
@@ -117,6 +119,26 @@ public class RowBasedIndexBuilder
     return this;
   }
 
+  /**
+   * Adds a row to the rows of a key. Join keys are usually unique, so the first row of each key is kept in an
+   * immutable singleton, which is much smaller than a tree set. Rows are added in ascending order, so a key only
+   * needs a tree set once it has a second row.
+   */
+  private static IntSortedSet addRow(@Nullable final IntSortedSet rows, final int row)
+  {
+    if (rows == null) {
+      return IntSortedSets.singleton(row);
+    } else if (rows.size() == 1) {
+      final IntSortedSet newRows = new IntAVLTreeSet();
+      newRows.add(rows.firstInt());
+      newRows.add(row);
+      return newRows;
+    } else {
+      rows.add(row);
+      return rows;
+    }
+  }
+
   /**
    * Create the index. After calling this, the state of the builder is undefined, and you should discard it.
    */
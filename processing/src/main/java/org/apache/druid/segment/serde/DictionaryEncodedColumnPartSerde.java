@@ -47,6 +47,11 @@ import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.GenericIndexedWriter;
 import org.apache.druid.segment.data.ImmutableRTreeObjectStrategy;
 import org.apache.druid.segment.data.Indexed;
+import org.apache.druid.segment.data.RunLengthColumnarInts;
+import org.apache.druid.segment.data.RunLengthColumnarIntsSerializer;
+import org.apache.druid.segment.data.StringBloomFilter;
+import org.apache.druid.segment.data.Utf8TrigramIndex;
+import org.apache.druid.segment.data.Utf8TrigramIndexWriter;
 import org.apache.druid.segment.data.V3CompressedVSizeColumnarMultiIntsSupplier;
 import org.apache.druid.segment.data.VSizeColumnarInts;
 import org.apache.druid.segment.data.VSizeColumnarMultiInts;
@@ -70,7 +75,12 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
   {
     MULTI_VALUE,
     MULTI_VALUE_V3,
-    NO_BITMAP_INDEX;
+    NO_BITMAP_INDEX,
+    // older versions ignore the following flags and misread the column, so they are only written if
+    // IndexSpec#isExtendedStringColumnFormat is set
+    TRIGRAM_INDEX,
+    BLOOM_FILTER,
+    RUN_LENGTH_ENCODED;
 
     public boolean isSet(int flags)
     {
@@ -165,6 +175,10 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
     @Nullable
     private ByteBufferWriter<ImmutableRTree> spatialIndexWriter = null;
     @Nullable
+    private Utf8TrigramIndexWriter trigramIndexWriter = null;
+    @Nullable
+    private StringBloomFilter bloomFilter = null;
+    @Nullable
     private ByteOrder byteOrder = null;
 
     public SerializerBuilder withDictionary(DictionaryWriter<String> dictionaryWriter)
@@ -197,6 +211,30 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
       return this;
     }
 
+    public SerializerBuilder withTrigramIndex(@Nullable Utf8TrigramIndexWriter trigramIndexWriter)
+    {
+      if (trigramIndexWriter == null) {
+        flags &= ~Feature.TRIGRAM_INDEX.getMask();
+      } else {
+        flags |= Feature.TRIGRAM_INDEX.getMask();
+      }
+
+      this.trigramIndexWriter = trigramIndexWriter;
+      return this;
+    }
+
+    public SerializerBuilder withBloomFilter(@Nullable StringBloomFilter bloomFilter)
+    {
+      if (bloomFilter == null) {
+        flags &= ~Feature.BLOOM_FILTER.getMask();
+      } else {
+        flags |= Feature.BLOOM_FILTER.getMask();
+      }
+
+      this.bloomFilter = bloomFilter;
+      return this;
+    }
+
     public SerializerBuilder withByteOrder(ByteOrder byteOrder)
     {
       this.byteOrder = byteOrder;
@@ -206,6 +244,11 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
     public SerializerBuilder withValue(ColumnarIntsSerializer valueWriter, boolean hasMultiValue, boolean compressed)
     {
       this.valueWriter = valueWriter;
+      if (isRunLengthEncoded(valueWriter)) {
+        flags |= Feature.RUN_LENGTH_ENCODED.getMask();
+      } else {
+        flags &= ~Feature.RUN_LENGTH_ENCODED.getMask();
+      }
       if (hasMultiValue) {
         if (compressed) {
           this.version = VERSION.COMPRESSED;
@@ -224,6 +267,20 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
       return this;
     }
 
+    private static boolean isRunLengthEncoded(ColumnarIntsSerializer valueWriter)
+    {
+      if (!(valueWriter instanceof RunLengthColumnarIntsSerializer)) {
+        return false;
+      }
+      try {
+        // falls back to the regular format if run-length encoding is larger, so check which one it picked
+        return ((RunLengthColumnarIntsSerializer) valueWriter).isRunLengthEncoded();
+      }
+      catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     public DictionaryEncodedColumnPartSerde build()
     {
       if (mustWriteFlags(flags) && version.compareTo(VERSION.COMPRESSED) < 0) {
@@ -252,6 +309,12 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
               if (bitmapIndexWriter != null) {
                 size += bitmapIndexWriter.getSerializedSize();
               }
+              if (trigramIndexWriter != null) {
+                size += trigramIndexWriter.getSerializedSize();
+              }
+              if (bloomFilter != null) {
+                size += bloomFilter.getSerializedSize();
+              }
               if (spatialIndexWriter != null) {
                 size += spatialIndexWriter.getSerializedSize();
               }
@@ -274,6 +337,12 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
               if (bitmapIndexWriter != null) {
                 bitmapIndexWriter.writeTo(channel, fileBuilder);
               }
+              if (trigramIndexWriter != null) {
+                trigramIndexWriter.writeTo(channel, fileBuilder);
+              }
+              if (bloomFilter != null) {
+                Channels.writeFully(channel, ByteBuffer.wrap(bloomFilter.toBytes()));
+              }
               if (spatialIndexWriter != null) {
                 spatialIndexWriter.writeTo(channel, fileBuilder);
               }
@@ -336,7 +405,9 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
           rMultiValuedColumn = readMultiValuedColumn(rVersion, buffer, rFlags, builder.getFileMapper());
           rSingleValuedColumn = null;
         } else {
-          rSingleValuedColumn = readSingleValuedColumn(rVersion, buffer, builder.getFileMapper());
+          rSingleValuedColumn = Feature.RUN_LENGTH_ENCODED.isSet(rFlags)
+                                ? RunLengthColumnarInts.read(buffer)
+                                : readSingleValuedColumn(rVersion, buffer, builder.getFileMapper());
           rMultiValuedColumn = null;
         }
 
@@ -353,6 +424,8 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
                .setDictionaryEncodedColumnSupplier(supplier);
 
         GenericIndexed<ImmutableBitmap> rBitmaps = null;
+        Utf8TrigramIndex rTrigramIndex = null;
+        StringBloomFilter rBloomFilter = null;
         ImmutableRTree rSpatialIndex = null;
         if (!Feature.NO_BITMAP_INDEX.isSet(rFlags)) {
           rBitmaps = GenericIndexed.read(
@@ -362,6 +435,14 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
           );
         }
 
+        if (Feature.TRIGRAM_INDEX.isSet(rFlags)) {
+          rTrigramIndex = Utf8TrigramIndex.read(buffer, bitmapSerdeFactory, builder.getFileMapper());
+        }
+
+        if (Feature.BLOOM_FILTER.isSet(rFlags)) {
+          rBloomFilter = StringBloomFilter.fromByteBuffer(buffer);
+        }
+
         if (buffer.hasRemaining()) {
           rSpatialIndex = new ImmutableRTreeObjectStrategy(
               bitmapSerdeFactory.getBitmapFactory()
@@ -374,7 +455,9 @@ public class DictionaryEncodedColumnPartSerde implements ColumnPartSerde
                   bitmapSerdeFactory.getBitmapFactory(),
                   dictionarySupplier,
                   rBitmaps,
-                  rSpatialIndex
+                  rSpatialIndex,
+                  rTrigramIndex,
+                  rBloomFilter
               ),
               rBitmaps != null,
               rSpatialIndex != null
@@ -20,6 +20,7 @@
 package org.apache.druid.segment.serde;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Supplier;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
@@ -28,6 +29,7 @@ import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.ColumnarDoubles;
 import org.apache.druid.segment.data.CompressedColumnarDoublesSuppliers;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 
 import javax.annotation.Nullable;
@@ -42,12 +44,14 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
   @JsonCreator
   public static DoubleNumericColumnPartSerdeV2 getDoubleGenericColumnPartSerde(
       @JsonProperty("byteOrder") ByteOrder byteOrder,
-      @JsonProperty("bitmapSerdeFactory") @Nullable BitmapSerdeFactory bitmapSerdeFactory
+      @JsonProperty("bitmapSerdeFactory") @Nullable BitmapSerdeFactory bitmapSerdeFactory,
+      @JsonProperty("zoneMap") boolean zoneMap
   )
   {
     return new DoubleNumericColumnPartSerdeV2(
         byteOrder,
         bitmapSerdeFactory != null ? bitmapSerdeFactory : new BitmapSerde.LegacyBitmapSerdeFactory(),
+        zoneMap,
         null
     );
   }
@@ -56,15 +60,18 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
   @Nullable
   private final Serializer serializer;
   private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final boolean zoneMap;
 
   public DoubleNumericColumnPartSerdeV2(
       ByteOrder byteOrder,
       BitmapSerdeFactory bitmapSerdeFactory,
+      boolean zoneMap,
       @Nullable Serializer serializer
   )
   {
     this.byteOrder = byteOrder;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.zoneMap = zoneMap;
     this.serializer = serializer;
   }
 
@@ -80,6 +87,16 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
     return bitmapSerdeFactory;
   }
 
+  /**
+   * Whether a {@link NumericZoneMap} is stored between the values and the null value bitmap.
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public boolean isZoneMap()
+  {
+    return zoneMap;
+  }
+
   public static SerializerBuilder serializerBuilder()
   {
     return new SerializerBuilder();
@@ -93,6 +110,7 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
     private Serializer delegate = null;
     @Nullable
     private BitmapSerdeFactory bitmapSerdeFactory = null;
+    private boolean zoneMap = false;
 
     public SerializerBuilder withByteOrder(final ByteOrder byteOrder)
     {
@@ -112,6 +130,12 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
       return this;
     }
 
+    public SerializerBuilder withZoneMap(boolean zoneMap)
+    {
+      this.zoneMap = zoneMap;
+      return this;
+    }
+
     public DoubleNumericColumnPartSerdeV2 build()
     {
       Serializer serializer = new Serializer()
@@ -128,7 +152,7 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
           delegate.writeTo(channel, fileSmoosher);
         }
       };
-      return new DoubleNumericColumnPartSerdeV2(byteOrder, bitmapSerdeFactory, serializer);
+      return new DoubleNumericColumnPartSerdeV2(byteOrder, bitmapSerdeFactory, zoneMap, serializer);
     }
   }
 
@@ -152,6 +176,7 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
       );
 
       buffer.position(initialPos + offset);
+      final NumericZoneMap numericZoneMap = zoneMap ? NumericZoneMap.read(buffer) : null;
       final ImmutableBitmap bitmap;
       final boolean hasNulls;
       if (buffer.hasRemaining()) {
@@ -164,8 +189,21 @@ public class DoubleNumericColumnPartSerdeV2 implements ColumnPartSerde
       builder.setType(ValueType.DOUBLE)
              .setHasMultipleValues(false)
              .setHasNulls(hasNulls)
-             .setNumericColumnSupplier(new DoubleNumericColumnSupplier(column, bitmap))
-             .setNullValueIndexSupplier(bitmap);
+             .setNumericColumnSupplier(new DoubleNumericColumnSupplier(column, bitmap));
+      if (numericZoneMap != null) {
+        builder.setIndexSupplier(
+            NumericZoneMapIndexSupplier.forDoubles(
+                numericZoneMap,
+                column,
+                bitmapSerdeFactory.getBitmapFactory(),
+                bitmap
+            ),
+            false,
+            false
+        );
+      } else {
+        builder.setNullValueIndexSupplier(bitmap);
+      }
     };
   }
 }
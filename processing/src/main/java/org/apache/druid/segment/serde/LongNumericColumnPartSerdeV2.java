@@ -20,12 +20,14 @@
 package org.apache.druid.segment.serde;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.druid.collections.bitmap.ImmutableBitmap;
 import org.apache.druid.segment.column.ValueType;
 import org.apache.druid.segment.data.BitmapSerde;
 import org.apache.druid.segment.data.BitmapSerdeFactory;
 import org.apache.druid.segment.data.CompressedColumnarLongsSupplier;
+import org.apache.druid.segment.data.NumericZoneMap;
 import org.apache.druid.segment.file.SegmentFileBuilder;
 
 import javax.annotation.Nullable;
@@ -40,12 +42,14 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
   @JsonCreator
   public static LongNumericColumnPartSerdeV2 createDeserializer(
       @JsonProperty("byteOrder") ByteOrder byteOrder,
-      @JsonProperty("bitmapSerdeFactory") @Nullable BitmapSerdeFactory bitmapSerdeFactory
+      @JsonProperty("bitmapSerdeFactory") @Nullable BitmapSerdeFactory bitmapSerdeFactory,
+      @JsonProperty("zoneMap") boolean zoneMap
   )
   {
     return new LongNumericColumnPartSerdeV2(
         byteOrder,
         bitmapSerdeFactory != null ? bitmapSerdeFactory : new BitmapSerde.LegacyBitmapSerdeFactory(),
+        zoneMap,
         null
     );
   }
@@ -56,15 +60,18 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
   private final ByteOrder byteOrder;
   @Nullable
   private final BitmapSerdeFactory bitmapSerdeFactory;
+  private final boolean zoneMap;
 
   private LongNumericColumnPartSerdeV2(
       @Nullable ByteOrder byteOrder,
       @Nullable BitmapSerdeFactory bitmapSerdeFactory,
+      boolean zoneMap,
       @Nullable Serializer serializer
   )
   {
     this.byteOrder = byteOrder;
     this.bitmapSerdeFactory = bitmapSerdeFactory;
+    this.zoneMap = zoneMap;
     this.serializer = serializer;
   }
 
@@ -80,6 +87,16 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
     return bitmapSerdeFactory;
   }
 
+  /**
+   * Whether a {@link NumericZoneMap} is stored between the values and the null value bitmap.
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public boolean isZoneMap()
+  {
+    return zoneMap;
+  }
+
   public static SerializerBuilder serializerBuilder()
   {
     return new SerializerBuilder();
@@ -93,6 +110,7 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
     private Serializer delegate = null;
     @Nullable
     private BitmapSerdeFactory bitmapSerdeFactory = null;
+    private boolean zoneMap = false;
 
     public SerializerBuilder withByteOrder(final ByteOrder byteOrder)
     {
@@ -112,6 +130,12 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
       return this;
     }
 
+    public SerializerBuilder withZoneMap(boolean zoneMap)
+    {
+      this.zoneMap = zoneMap;
+      return this;
+    }
+
     public LongNumericColumnPartSerdeV2 build()
     {
       Serializer serializer = new Serializer()
@@ -128,7 +152,7 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
           delegate.writeTo(channel, fileBuilder);
         }
       };
-      return new LongNumericColumnPartSerdeV2(byteOrder, bitmapSerdeFactory, serializer);
+      return new LongNumericColumnPartSerdeV2(byteOrder, bitmapSerdeFactory, zoneMap, serializer);
     }
   }
 
@@ -151,6 +175,7 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
           builder.getFileMapper()
       );
       buffer.position(initialPos + offset);
+      final NumericZoneMap numericZoneMap = zoneMap ? NumericZoneMap.read(buffer) : null;
       final ImmutableBitmap bitmap;
       final boolean hasNulls;
       if (buffer.hasRemaining()) {
@@ -163,8 +188,21 @@ public class LongNumericColumnPartSerdeV2 implements ColumnPartSerde
       builder.setType(ValueType.LONG)
              .setHasMultipleValues(false)
              .setHasNulls(hasNulls)
-             .setNumericColumnSupplier(new LongNumericColumnSupplier(column, bitmap))
-             .setNullValueIndexSupplier(bitmap);
+             .setNumericColumnSupplier(new LongNumericColumnSupplier(column, bitmap));
+      if (numericZoneMap != null) {
+        builder.setIndexSupplier(
+            NumericZoneMapIndexSupplier.forLongs(
+                numericZoneMap,
+                column,
+                bitmapSerdeFactory.getBitmapFactory(),
+                bitmap
+            ),
+            false,
+            false
+        );
+      } else {
+        builder.setNullValueIndexSupplier(bitmap);
+      }
     };
   }
 }
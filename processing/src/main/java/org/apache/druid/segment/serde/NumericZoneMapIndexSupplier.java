@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.serde;
+
+import com.google.common.base.Supplier;
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.query.BitmapResultFactory;
+import org.apache.druid.segment.column.ColumnIndexSupplier;
+import org.apache.druid.segment.data.ColumnarDoubles;
+import org.apache.druid.segment.data.ColumnarLongs;
+import org.apache.druid.segment.data.NumericZoneMap;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+import org.apache.druid.segment.index.SimpleBitmapColumnIndex;
+import org.apache.druid.segment.index.SimpleImmutableBitmapIndex;
+import org.apache.druid.segment.index.semantic.NullValueIndex;
+import org.apache.druid.segment.index.semantic.NumericRangeIndexes;
+import org.roaringbitmap.PeekableIntIterator;
+
+import javax.annotation.Nullable;
+
+/**
+ * {@link ColumnIndexSupplier} for long and double columns written with a {@link NumericZoneMap}. In addition to the
+ * {@link NullValueIndex} provided by {@link NullValueIndexSupplier}, this provides {@link NumericRangeIndexes} which use
+ * the min and max of each zone to skip zones that cannot match and to accept zones that match entirely without
+ * reading their values. Only the values of zones that straddle a bound of the range are read and checked row by row.
+ */
+public class NumericZoneMapIndexSupplier implements ColumnIndexSupplier
+{
+  /**
+   * Number of values read from the column at a time when checking the rows of a partially matching zone.
+   */
+  private static final int READ_BATCH_SIZE = 512;
+
+  private static final int ZONE_NONE = 0;
+  private static final int ZONE_SOME = 1;
+  private static final int ZONE_ALL = 2;
+
+  public static NumericZoneMapIndexSupplier forLongs(
+      NumericZoneMap zoneMap,
+      Supplier<ColumnarLongs> column,
+      BitmapFactory bitmapFactory,
+      ImmutableBitmap nullValueBitmap
+  )
+  {
+    return new NumericZoneMapIndexSupplier(zoneMap, column, null, bitmapFactory, nullValueBitmap);
+  }
+
+  public static NumericZoneMapIndexSupplier forDoubles(
+      NumericZoneMap zoneMap,
+      Supplier<ColumnarDoubles> column,
+      BitmapFactory bitmapFactory,
+      ImmutableBitmap nullValueBitmap
+  )
+  {
+    return new NumericZoneMapIndexSupplier(zoneMap, null, column, bitmapFactory, nullValueBitmap);
+  }
+
+  private final NumericZoneMap zoneMap;
+  @Nullable
+  private final Supplier<ColumnarLongs> longColumn;
+  @Nullable
+  private final Supplier<ColumnarDoubles> doubleColumn;
+  private final BitmapFactory bitmapFactory;
+  private final ImmutableBitmap nullValueBitmap;
+  private final SimpleImmutableBitmapIndex nullValueIndex;
+
+  private NumericZoneMapIndexSupplier(
+      NumericZoneMap zoneMap,
+      @Nullable Supplier<ColumnarLongs> longColumn,
+      @Nullable Supplier<ColumnarDoubles> doubleColumn,
+      BitmapFactory bitmapFactory,
+      ImmutableBitmap nullValueBitmap
+  )
+  {
+    this.zoneMap = zoneMap;
+    this.longColumn = longColumn;
+    this.doubleColumn = doubleColumn;
+    this.bitmapFactory = bitmapFactory;
+    this.nullValueBitmap = nullValueBitmap;
+    this.nullValueIndex = new SimpleImmutableBitmapIndex(nullValueBitmap);
+  }
+
+  @Nullable
+  @Override
+  public <T> T as(Class<T> clazz)
+  {
+    if (clazz.equals(NullValueIndex.class)) {
+      final NullValueIndex nullIndex = () -> nullValueIndex;
+      return (T) nullIndex;
+    } else if (clazz.equals(NumericRangeIndexes.class)) {
+      final NumericRangeIndexes rangeIndexes = longColumn != null ? this::forLongRange : this::forDoubleRange;
+      return (T) rangeIndexes;
+    }
+    return null;
+  }
+
+  private BitmapColumnIndex forLongRange(
+      @Nullable Number startValue,
+      boolean startStrict,
+      @Nullable Number endValue,
+      boolean endStrict
+  )
+  {
+    // same rounding as the range index of nested long columns, so fractional bounds select the same rows
+    final long start;
+    final long end;
+    if (startValue == null) {
+      start = Long.MIN_VALUE;
+      startStrict = false;
+    } else if (startStrict) {
+      start = (long) Math.floor(startValue.doubleValue());
+    } else {
+      start = (long) Math.ceil(startValue.doubleValue());
+    }
+    if (endValue == null) {
+      end = Long.MAX_VALUE;
+      endStrict = false;
+    } else if (endStrict) {
+      end = (long) Math.ceil(endValue.doubleValue());
+    } else {
+      end = (long) Math.floor(endValue.doubleValue());
+    }
+    final boolean lowerStrict = startStrict;
+    final boolean upperStrict = endStrict;
+    return new ZoneMapRangeIndex()
+    {
+      @Override
+      int classifyZone(int zone)
+      {
+        final long min = zoneMap.getLongMin(zone);
+        final long max = zoneMap.getLongMax(zone);
+        if (!aboveLower(max) || !belowUpper(min)) {
+          return ZONE_NONE;
+        }
+        return aboveLower(min) && belowUpper(max) ? ZONE_ALL : ZONE_SOME;
+      }
+
+      @Override
+      void matchZone(int zone, MutableBitmap bitmap)
+      {
+        final long[] values = new long[Math.min(READ_BATCH_SIZE, zoneMap.getRowsPerZone())];
+        final int zoneStart = zoneMap.getZoneStart(zone);
+        final int zoneEnd = zoneStart + zoneMap.getZoneRowCount(zone);
+        final boolean hasNulls = zoneMap.getNullCount(zone) > 0;
+        final ColumnarLongs longs = longColumn.get();
+        try {
+          for (int batchStart = zoneStart; batchStart < zoneEnd; batchStart += values.length) {
+            final int batchSize = Math.min(values.length, zoneEnd - batchStart);
+            longs.get(values, batchStart, batchSize);
+            for (int i = 0; i < batchSize; i++) {
+              final int row = batchStart + i;
+              if (aboveLower(values[i]) && belowUpper(values[i]) && !(hasNulls && nullValueBitmap.get(row))) {
+                bitmap.add(row);
+              }
+            }
+          }
+        }
+        finally {
+          longs.close();
+        }
+      }
+
+      private boolean aboveLower(long value)
+      {
+        return lowerStrict ? value > start : value >= start;
+      }
+
+      private boolean belowUpper(long value)
+      {
+        return upperStrict ? value < end : value <= end;
+      }
+    };
+  }
+
+  private BitmapColumnIndex forDoubleRange(
+      @Nullable Number startValue,
+      boolean startStrict,
+      @Nullable Number endValue,
+      boolean endStrict
+  )
+  {
+    final boolean hasLower = startValue != null;
+    final boolean hasUpper = endValue != null;
+    final double start = hasLower ? startValue.doubleValue() : 0;
+    final double end = hasUpper ? endValue.doubleValue() : 0;
+    return new ZoneMapRangeIndex()
+    {
+      @Override
+      int classifyZone(int zone)
+      {
+        final double min = zoneMap.getDoubleMin(zone);
+        final double max = zoneMap.getDoubleMax(zone);
+        if (!aboveLower(max) || !belowUpper(min)) {
+          return ZONE_NONE;
+        }
+        return aboveLower(min) && belowUpper(max) ? ZONE_ALL : ZONE_SOME;
+      }
+
+      @Override
+      void matchZone(int zone, MutableBitmap bitmap)
+      {
+        final double[] values = new double[Math.min(READ_BATCH_SIZE, zoneMap.getRowsPerZone())];
+        final int zoneStart = zoneMap.getZoneStart(zone);
+        final int zoneEnd = zoneStart + zoneMap.getZoneRowCount(zone);
+        final boolean hasNulls = zoneMap.getNullCount(zone) > 0;
+        final ColumnarDoubles doubles = doubleColumn.get();
+        try {
+          for (int batchStart = zoneStart; batchStart < zoneEnd; batchStart += values.length) {
+            final int batchSize = Math.min(values.length, zoneEnd - batchStart);
+            doubles.get(values, batchStart, batchSize);
+            for (int i = 0; i < batchSize; i++) {
+              final int row = batchStart + i;
+              if (aboveLower(values[i]) && belowUpper(values[i]) && !(hasNulls && nullValueBitmap.get(row))) {
+                bitmap.add(row);
+              }
+            }
+          }
+        }
+        finally {
+          doubles.close();
+        }
+      }
+
+      private boolean aboveLower(double value)
+      {
+        if (!hasLower) {
+          return true;
+        }
+        final int cmp = Double.compare(value, start);
+        return startStrict ? cmp > 0 : cmp >= 0;
+      }
+
+      private boolean belowUpper(double value)
+      {
+        if (!hasUpper) {
+          return true;
+        }
+        final int cmp = Double.compare(value, end);
+        return endStrict ? cmp < 0 : cmp <= 0;
+      }
+    };
+  }
+
+  /**
+   * Range index which classifies every zone using the zone map, and only reads values for zones which partially match.
+   * Null rows never match, and are added back when 'unknown' rows are requested.
+   */
+  private abstract class ZoneMapRangeIndex extends SimpleBitmapColumnIndex
+  {
+    /**
+     * Returns {@link #ZONE_NONE} if no non-null row of the zone can match, {@link #ZONE_ALL} if every non-null row
+     * matches, and {@link #ZONE_SOME} otherwise.
+     */
+    abstract int classifyZone(int zone);
+
+    /**
+     * Reads the values of the zone and adds the non-null matching rows to the bitmap.
+     */
+    abstract void matchZone(int zone, MutableBitmap bitmap);
+
+    @Override
+    public int estimatedComputeCost()
+    {
+      return zoneMap.getNumZones();
+    }
+
+    @Override
+    public <T> T computeBitmapResult(BitmapResultFactory<T> bitmapResultFactory, boolean includeUnknown)
+    {
+      final MutableBitmap bitmap = bitmapFactory.makeEmptyMutableBitmap();
+      for (int zone = 0; zone < zoneMap.getNumZones(); zone++) {
+        final int nullCount = zoneMap.getNullCount(zone);
+        final int rowCount = zoneMap.getZoneRowCount(zone);
+        if (nullCount == rowCount) {
+          continue;
+        }
+        switch (classifyZone(zone)) {
+          case ZONE_ALL:
+            final int zoneStart = zoneMap.getZoneStart(zone);
+            final int zoneEnd = zoneStart + rowCount;
+            bitmap.addRange(zoneStart, zoneEnd);
+            if (nullCount > 0) {
+              final PeekableIntIterator nullRows = nullValueBitmap.peekableIterator();
+              nullRows.advanceIfNeeded(zoneStart);
+              while (nullRows.hasNext() && nullRows.peekNext() < zoneEnd) {
+                bitmap.remove(nullRows.next());
+              }
+            }
+            break;
+          case ZONE_SOME:
+            matchZone(zone, bitmap);
+            break;
+          default:
+            break;
+        }
+      }
+      ImmutableBitmap result = bitmapFactory.makeImmutableBitmap(bitmap);
+      if (includeUnknown && !nullValueBitmap.isEmpty()) {
+        result = result.union(nullValueBitmap);
+      }
+      return bitmapResultFactory.wrapDimensionValue(result);
+    }
+
+    /**
+     * Returns null, to use a value matcher instead, if the zone map cannot rule out or accept any zone, or if the rows
+     * of the partially matching zones which need to be read outnumber the rows the filter would be applied to.
+     */
+    @Nullable
+    @Override
+    public <T> T computeBitmapResult(
+        BitmapResultFactory<T> bitmapResultFactory,
+        int applyRowCount,
+        int totalRowCount,
+        boolean includeUnknown
+    )
+    {
+      long rowsToRead = 0;
+      boolean anyDecided = false;
+      for (int zone = 0; zone < zoneMap.getNumZones(); zone++) {
+        final int rowCount = zoneMap.getZoneRowCount(zone);
+        if (zoneMap.getNullCount(zone) == rowCount || classifyZone(zone) != ZONE_SOME) {
+          anyDecided = true;
+        } else {
+          rowsToRead += rowCount;
+        }
+      }
+      if (!anyDecided || rowsToRead > applyRowCount) {
+        return null;
+      }
+      return computeBitmapResult(bitmapResultFactory, includeUnknown);
+    }
+  }
+}
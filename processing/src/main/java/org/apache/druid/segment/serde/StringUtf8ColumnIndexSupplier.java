@@ -27,10 +27,13 @@ import org.apache.druid.segment.column.ColumnIndexSupplier;
 import org.apache.druid.segment.column.StringEncodingStrategies;
 import org.apache.druid.segment.data.GenericIndexed;
 import org.apache.druid.segment.data.Indexed;
+import org.apache.druid.segment.data.StringBloomFilter;
+import org.apache.druid.segment.data.Utf8TrigramIndex;
 import org.apache.druid.segment.index.BitmapColumnIndex;
 import org.apache.druid.segment.index.IndexedStringDictionaryEncodedStringValueIndex;
 import org.apache.druid.segment.index.IndexedStringDruidPredicateIndexes;
 import org.apache.druid.segment.index.IndexedUtf8LexicographicalRangeIndexes;
+import org.apache.druid.segment.index.IndexedUtf8TrigramSubstringIndexes;
 import org.apache.druid.segment.index.IndexedUtf8ValueIndexes;
 import org.apache.druid.segment.index.SimpleImmutableBitmapIndex;
 import org.apache.druid.segment.index.semantic.DictionaryEncodedStringValueIndex;
@@ -39,6 +42,7 @@ import org.apache.druid.segment.index.semantic.DruidPredicateIndexes;
 import org.apache.druid.segment.index.semantic.LexicographicalRangeIndexes;
 import org.apache.druid.segment.index.semantic.NullValueIndex;
 import org.apache.druid.segment.index.semantic.SpatialIndex;
+import org.apache.druid.segment.index.semantic.StringSubstringIndexes;
 import org.apache.druid.segment.index.semantic.StringValueSetIndexes;
 import org.apache.druid.segment.index.semantic.Utf8ValueSetIndexes;
 import org.apache.druid.segment.index.semantic.ValueIndexes;
@@ -58,17 +62,37 @@ public class StringUtf8ColumnIndexSupplier<TIndexed extends Indexed<ByteBuffer>>
   @Nullable
   private final ImmutableRTree indexedTree;
 
+  @Nullable
+  private final Utf8TrigramIndex trigramIndex;
+
+  @Nullable
+  private final StringBloomFilter bloomFilter;
+
   public StringUtf8ColumnIndexSupplier(
           BitmapFactory bitmapFactory,
           Supplier<TIndexed> utf8Dictionary,
           @Nullable GenericIndexed<ImmutableBitmap> bitmaps,
           @Nullable ImmutableRTree indexedTree
   )
+  {
+    this(bitmapFactory, utf8Dictionary, bitmaps, indexedTree, null, null);
+  }
+
+  public StringUtf8ColumnIndexSupplier(
+          BitmapFactory bitmapFactory,
+          Supplier<TIndexed> utf8Dictionary,
+          @Nullable GenericIndexed<ImmutableBitmap> bitmaps,
+          @Nullable ImmutableRTree indexedTree,
+          @Nullable Utf8TrigramIndex trigramIndex,
+          @Nullable StringBloomFilter bloomFilter
+  )
   {
     this.bitmapFactory = bitmapFactory;
     this.bitmaps = bitmaps;
     this.utf8Dictionary = utf8Dictionary;
     this.indexedTree = indexedTree;
+    this.trigramIndex = trigramIndex;
+    this.bloomFilter = bloomFilter;
   }
 
   @Nullable
@@ -106,6 +130,13 @@ public class StringUtf8ColumnIndexSupplier<TIndexed extends Indexed<ByteBuffer>>
             new StringEncodingStrategies.Utf8ToStringIndexed(dict),
             singleThreadedBitmaps
         );
+      } else if (trigramIndex != null && clazz.equals(StringSubstringIndexes.class)) {
+        return (T) new IndexedUtf8TrigramSubstringIndexes<>(
+            bitmapFactory,
+            new StringEncodingStrategies.Utf8ToStringIndexed(dict),
+            singleThreadedBitmaps,
+            trigramIndex
+        );
       } else if (clazz.equals(LexicographicalRangeIndexes.class)) {
         return (T) new IndexedUtf8LexicographicalRangeIndexes<>(
             bitmapFactory,
@@ -125,6 +156,10 @@ public class StringUtf8ColumnIndexSupplier<TIndexed extends Indexed<ByteBuffer>>
         );
       }
     }
+    // only read to publish the filter for brokers, equality filters above already look values up in the dictionary
+    if (bloomFilter != null && clazz.equals(StringBloomFilter.class)) {
+      return (T) bloomFilter;
+    }
     if (indexedTree != null && clazz.equals(SpatialIndex.class)) {
       return (T) (SpatialIndex) () -> indexedTree;
     }
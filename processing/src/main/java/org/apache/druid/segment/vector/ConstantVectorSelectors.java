@@ -64,6 +64,12 @@ public class ConstantVectorSelectors
         return null;
       }
 
+      @Override
+      public boolean isConstantVector()
+      {
+        return true;
+      }
+
       @Override
       public int getMaxVectorSize()
       {
@@ -34,4 +34,16 @@ public interface SingleValueDimensionVectorSelector extends DimensionDictionaryS
    * Get the current vector. The array will be reused, so it is not a good idea to retain a reference to it.
    */
   int[] getRowVector();
+
+  /**
+   * Returns the position after the last position of the current vector that is known to be in the same run of
+   * identical values as the given position, capped at {@link #getCurrentVectorSize()}. Selectors over columns that
+   * store runs, such as {@link org.apache.druid.segment.data.RunLengthColumnarInts}, can return more than one
+   * position, letting callers for which repeated values are redundant process each run once. Other selectors return
+   * position + 1.
+   */
+  default int getRunEnd(int position)
+  {
+    return position + 1;
+  }
 }
@@ -52,4 +52,17 @@ public interface VectorValueSelector extends VectorSizeInspector
    */
   @Nullable
   boolean[] getNullVector();
+
+  /**
+   * Returns true if every row of the current vector is known to have the same non-null value, in which case
+   * {@link #getNullVector()} returns null. Aggregators may then read only the first element of the current vector and
+   * handle all rows at once, for example a sum as that value times the number of rows. Selectors return true when
+   * their column stores a single value for the whole range, such as constant blocks of frame of reference encoded or
+   * single-valued long columns, and false whenever they cannot tell without reading every row, so returning false
+   * does not mean the values differ.
+   */
+  default boolean isConstantVector()
+  {
+    return false;
+  }
 }
@@ -39,6 +39,7 @@ import org.apache.druid.jackson.CommaListJoinDeserializer;
 import org.apache.druid.jackson.CommaListJoinSerializer;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.query.SegmentDescriptor;
+import org.apache.druid.segment.data.StringBloomFilter;
 import org.apache.druid.timeline.partition.NumberedShardSpec;
 import org.apache.druid.timeline.partition.ShardSpec;
 import org.joda.time.Interval;
@@ -125,6 +126,14 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
   @Nullable
   private final String indexingStateFingerprint;
 
+  /**
+   * Bloom filters of the values of some string columns of this segment, which let brokers skip the segment for
+   * equality and IN filters on those columns that cannot match. Null if none were published, see
+   * {@link org.apache.druid.segment.IndexSpec#getMaxPublishedBloomFilterBytes()}.
+   */
+  @Nullable
+  private final Map<String, StringBloomFilter> bloomFilters;
+
   /**
    * @deprecated use {@link #builder(SegmentId)} or {@link #builder(DataSegment)} instead.
    */
@@ -213,6 +222,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
       @JsonProperty("size") long size,
       @JsonProperty("totalRows") Integer totalRows,
       @JsonProperty("indexingStateFingerprint") @Nullable String indexingStateFingerprint,
+      @JsonProperty("bloomFilters") @Nullable Map<String, StringBloomFilter> bloomFilters,
       @JacksonInject PruneSpecsHolder pruneSpecsHolder
   )
   {
@@ -230,6 +240,43 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
         size,
         totalRows,
         indexingStateFingerprint,
+        bloomFilters,
+        pruneSpecsHolder
+    );
+  }
+
+  public DataSegment(
+      String dataSource,
+      Interval interval,
+      String version,
+      @Nullable Map<String, Object> loadSpec,
+      @Nullable List<String> dimensions,
+      @Nullable List<String> metrics,
+      @Nullable List<String> projections,
+      @Nullable ShardSpec shardSpec,
+      @Nullable CompactionState lastCompactionState,
+      Integer binaryVersion,
+      long size,
+      Integer totalRows,
+      String indexingStateFingerprint,
+      PruneSpecsHolder pruneSpecsHolder
+  )
+  {
+    this(
+        dataSource,
+        interval,
+        version,
+        loadSpec,
+        dimensions,
+        metrics,
+        projections,
+        shardSpec,
+        lastCompactionState,
+        binaryVersion,
+        size,
+        totalRows,
+        indexingStateFingerprint,
+        null,
         pruneSpecsHolder
     );
   }
@@ -248,6 +295,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
       long size,
       Integer totalRows,
       String indexingStateFingerprint,
+      @Nullable Map<String, StringBloomFilter> bloomFilters,
       PruneSpecsHolder pruneSpecsHolder
   )
   {
@@ -270,6 +318,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
     this.indexingStateFingerprint = indexingStateFingerprint == null ?
                                     null :
                                     STRING_INTERNER.intern(indexingStateFingerprint);
+    this.bloomFilters = bloomFilters == null || bloomFilters.isEmpty() ? null : ImmutableMap.copyOf(bloomFilters);
   }
 
   /**
@@ -387,6 +436,14 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
     return indexingStateFingerprint;
   }
 
+  @Nullable
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public Map<String, StringBloomFilter> getBloomFilters()
+  {
+    return bloomFilters;
+  }
+
   @Override
   public boolean overshadows(DataSegment other)
   {
@@ -527,6 +584,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
            ", size=" + size +
            ", totalRows=" + totalRows +
            ", indexingStateFingerprint=" + indexingStateFingerprint +
+           ", bloomFilters=" + bloomFilters +
            '}';
   }
 
@@ -607,6 +665,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
     private long size;
     private Integer totalRows;
     private String indexingStateFingerprint;
+    private Map<String, StringBloomFilter> bloomFilters;
 
     /**
      * @deprecated use {@link #Builder(SegmentId)} or {@link #Builder(DataSegment)} instead.
@@ -652,6 +711,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
       this.size = segment.getSize();
       this.totalRows = segment.getTotalRows();
       this.indexingStateFingerprint = segment.getIndexingStateFingerprint();
+      this.bloomFilters = segment.getBloomFilters();
     }
 
     private Builder(DataSegment.Builder segmentBuilder)
@@ -669,6 +729,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
       this.size = segmentBuilder.size;
       this.totalRows = segmentBuilder.totalRows;
       this.indexingStateFingerprint = segmentBuilder.indexingStateFingerprint;
+      this.bloomFilters = segmentBuilder.bloomFilters;
     }
 
     public Builder dataSource(String dataSource)
@@ -749,6 +810,12 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
       return this;
     }
 
+    public Builder bloomFilters(Map<String, StringBloomFilter> bloomFilters)
+    {
+      this.bloomFilters = bloomFilters;
+      return this;
+    }
+
     public DataSegment build()
     {
       // Check stuff that goes into the id, at least.
@@ -771,6 +838,7 @@ public class DataSegment implements Comparable<DataSegment>, Overshadowable<Data
           size,
           totalRows,
           indexingStateFingerprint,
+          bloomFilters,
           PruneSpecsHolder.DEFAULT
       );
     }
@@ -91,6 +91,24 @@ public class WrappedRoaringBitmapTest
     }
   }
 
+  @Test
+  public void testAddRange()
+  {
+    // crosses a container boundary, and is followed by single adds both inside and after the range
+    bitmap.addRange(200, 70000);
+    bitmap.add(300);
+    bitmap.add(70001);
+    Assert.assertEquals(cardinality + 69800 + 1, bitmap.size());
+    Assert.assertFalse(bitmap.get(199));
+    Assert.assertTrue(bitmap.get(200));
+    Assert.assertTrue(bitmap.get(69999));
+    Assert.assertFalse(bitmap.get(70000));
+    Assert.assertTrue(bitmap.get(70001));
+
+    bitmap.addRange(10, 10);
+    Assert.assertEquals(cardinality + 69800 + 1, bitmap.size());
+  }
+
   @Test
   public void testClear()
   {
@@ -135,10 +135,13 @@ public class DefaultQueryMetricsTest extends InitializedNullHandlingTest
     queryMetrics.reportResultCachePoll(true).emit(serviceEmitter);
     serviceEmitter.verifyValue("query/resultCache/hit", 1);
 
+    queryMetrics.reportFilterEstimatedSelectivity(0.25).emit(serviceEmitter);
+    serviceEmitter.verifyValue("query/filter/estimatedSelectivity", 0.25);
+
     // Verify that Queried Segment Count does not get emitted by the DefaultQueryMetrics
     // and the total number of emitted metrics remains unchanged
     queryMetrics.reportQueriedSegmentCount(25).emit(serviceEmitter);
-    Assert.assertEquals(10, serviceEmitter.getNumEmittedEvents());
+    Assert.assertEquals(11, serviceEmitter.getNumEmittedEvents());
   }
 
   @Test
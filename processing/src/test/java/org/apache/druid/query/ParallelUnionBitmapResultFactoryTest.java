@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.collections.bitmap.RoaringBitmapFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.roaringbitmap.IntIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelUnionBitmapResultFactoryTest
+{
+  private static final BitmapFactory BITMAP_FACTORY = new RoaringBitmapFactory();
+  private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+  @AfterClass
+  public static void tearDown()
+  {
+    POOL.shutdownNow();
+  }
+
+  @Test
+  public void testSmallUnionIsNotSplit()
+  {
+    final CountingBitmapResultFactory delegate = new CountingBitmapResultFactory();
+    final BitmapResultFactory<ImmutableBitmap> factory =
+        new ParallelUnionBitmapResultFactory<>(delegate, BITMAP_FACTORY, POOL, 10, Long.MAX_VALUE);
+
+    final List<ImmutableBitmap> bitmaps = makeBitmaps(19);
+    final ImmutableBitmap union = factory.unionDimensionValueBitmaps(bitmaps);
+
+    Assert.assertEquals(toList(BITMAP_FACTORY.union(bitmaps)), toList(union));
+    Assert.assertEquals(19, delegate.lastUnionSize);
+  }
+
+  @Test
+  public void testLargeUnionIsSplit()
+  {
+    final CountingBitmapResultFactory delegate = new CountingBitmapResultFactory();
+    final BitmapResultFactory<ImmutableBitmap> factory =
+        new ParallelUnionBitmapResultFactory<>(delegate, BITMAP_FACTORY, POOL, 10, Long.MAX_VALUE);
+
+    final List<ImmutableBitmap> bitmaps = makeBitmaps(1000);
+    final ImmutableBitmap union = factory.unionDimensionValueBitmaps(bitmaps);
+
+    Assert.assertEquals(toList(BITMAP_FACTORY.union(bitmaps)), toList(union));
+    Assert.assertEquals(1000 * 3, union.size());
+    // one partial union per pool thread
+    Assert.assertEquals(4, delegate.lastUnionSize);
+  }
+
+  @Test
+  public void testUnionWithFewerBitmapsThanThreads()
+  {
+    final CountingBitmapResultFactory delegate = new CountingBitmapResultFactory();
+    final BitmapResultFactory<ImmutableBitmap> factory =
+        new ParallelUnionBitmapResultFactory<>(delegate, BITMAP_FACTORY, POOL, 10, Long.MAX_VALUE);
+
+    final List<ImmutableBitmap> bitmaps = makeBitmaps(25);
+    Assert.assertEquals(toList(BITMAP_FACTORY.union(bitmaps)), toList(factory.unionDimensionValueBitmaps(bitmaps)));
+    Assert.assertEquals(2, delegate.lastUnionSize);
+  }
+
+  @Test
+  public void testUnionTimesOut()
+  {
+    final CountDownLatch release = new CountDownLatch(1);
+    final BitmapFactory blockingBitmapFactory = new RoaringBitmapFactory()
+    {
+      @Override
+      public ImmutableBitmap union(Iterable<ImmutableBitmap> b)
+      {
+        try {
+          release.await();
+        }
+        catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return super.union(b);
+      }
+    };
+    final BitmapResultFactory<ImmutableBitmap> factory = new ParallelUnionBitmapResultFactory<>(
+        new CountingBitmapResultFactory(),
+        blockingBitmapFactory,
+        POOL,
+        10,
+        System.currentTimeMillis() + 100
+    );
+
+    try {
+      Assert.assertThrows(QueryTimeoutException.class, () -> factory.unionDimensionValueBitmaps(makeBitmaps(1000)));
+    }
+    finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testTimeoutAtIsQueryFailTime()
+  {
+    Assert.assertEquals(
+        1234L,
+        ParallelUnionBitmapResultFactory.getTimeoutAtMillis(
+            QueryContext.of(Map.of(QueryContexts.QUERY_FAIL_TIME, 1234L, QueryContexts.TIMEOUT_KEY, 100_000L))
+        )
+    );
+    Assert.assertEquals(
+        Long.MAX_VALUE,
+        ParallelUnionBitmapResultFactory.getTimeoutAtMillis(
+            QueryContext.of(Map.of(QueryContexts.TIMEOUT_KEY, QueryContexts.NO_TIMEOUT))
+        )
+    );
+
+    // without a fail time, the timeout counts from now
+    final long before = System.currentTimeMillis();
+    final long timeoutAt = ParallelUnionBitmapResultFactory.getTimeoutAtMillis(
+        QueryContext.of(Map.of(QueryContexts.TIMEOUT_KEY, 100_000L))
+    );
+    Assert.assertTrue(timeoutAt >= before + 100_000L);
+    Assert.assertTrue(timeoutAt <= System.currentTimeMillis() + 100_000L);
+  }
+
+  /**
+   * Bitmap {@code i} has rows {@code 3i}, {@code 3i + 1} and {@code 3i + 2}, like the index of a dictionary-encoded
+   * column sorted by that column.
+   */
+  private static List<ImmutableBitmap> makeBitmaps(int numBitmaps)
+  {
+    final List<ImmutableBitmap> bitmaps = new ArrayList<>(numBitmaps);
+    for (int i = 0; i < numBitmaps; i++) {
+      final MutableBitmap bitmap = BITMAP_FACTORY.makeEmptyMutableBitmap();
+      for (int j = 0; j < 3; j++) {
+        bitmap.add(3 * i + j);
+      }
+      bitmaps.add(BITMAP_FACTORY.makeImmutableBitmap(bitmap));
+    }
+    return bitmaps;
+  }
+
+  private static List<Integer> toList(ImmutableBitmap bitmap)
+  {
+    final List<Integer> rows = new ArrayList<>();
+    final IntIterator iterator = bitmap.iterator();
+    while (iterator.hasNext()) {
+      rows.add(iterator.next());
+    }
+    return rows;
+  }
+
+  private static class CountingBitmapResultFactory implements BitmapResultFactory<ImmutableBitmap>
+  {
+    private final DefaultBitmapResultFactory delegate = new DefaultBitmapResultFactory(BITMAP_FACTORY);
+    private int lastUnionSize = -1;
+
+    @Override
+    public ImmutableBitmap wrapDimensionValue(ImmutableBitmap bitmap)
+    {
+      return delegate.wrapDimensionValue(bitmap);
+    }
+
+    @Override
+    public ImmutableBitmap wrapAllFalse(ImmutableBitmap allFalseBitmap)
+    {
+      return delegate.wrapAllFalse(allFalseBitmap);
+    }
+
+    @Override
+    public ImmutableBitmap wrapAllTrue(ImmutableBitmap allTrueBitmap)
+    {
+      return delegate.wrapAllTrue(allTrueBitmap);
+    }
+
+    @Override
+    public boolean isEmpty(ImmutableBitmap bitmapResult)
+    {
+      return delegate.isEmpty(bitmapResult);
+    }
+
+    @Override
+    public ImmutableBitmap intersection(Iterable<ImmutableBitmap> bitmapResults)
+    {
+      return delegate.intersection(bitmapResults);
+    }
+
+    @Override
+    public ImmutableBitmap union(Iterable<ImmutableBitmap> bitmapResults)
+    {
+      return delegate.union(bitmapResults);
+    }
+
+    @Override
+    public ImmutableBitmap unionDimensionValueBitmaps(Iterable<ImmutableBitmap> dimensionValueBitmaps)
+    {
+      lastUnionSize = 0;
+      dimensionValueBitmaps.forEach(bitmap -> lastUnionSize++);
+      return delegate.unionDimensionValueBitmaps(dimensionValueBitmaps);
+    }
+
+    @Override
+    public ImmutableBitmap complement(ImmutableBitmap bitmapResult, int numRows)
+    {
+      return delegate.complement(bitmapResult, numRows);
+    }
+
+    @Override
+    public ImmutableBitmap toImmutableBitmap(ImmutableBitmap bitmapResult)
+    {
+      return delegate.toImmutableBitmap(bitmapResult);
+    }
+  }
+}
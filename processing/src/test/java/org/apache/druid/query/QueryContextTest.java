@@ -156,6 +156,21 @@ public class QueryContextTest
     assertThrows(BadQueryContextException.class, () -> context.getInt("key3", 5));
   }
 
+  @Test
+  public void testGetHedgeDelay()
+  {
+    assertEquals(QueryContexts.DEFAULT_HEDGE_DELAY, QueryContext.empty().getHedgeDelay());
+    assertEquals(100, QueryContext.of(ImmutableMap.of(QueryContexts.HEDGE_DELAY_KEY, 100)).getHedgeDelay());
+    assertEquals(
+        QueryContexts.HEDGE_DELAY_ADAPTIVE,
+        QueryContext.of(ImmutableMap.of(QueryContexts.HEDGE_DELAY_KEY, "auto")).getHedgeDelay()
+    );
+    assertThrows(
+        BadQueryContextException.class,
+        () -> QueryContext.of(ImmutableMap.of(QueryContexts.HEDGE_DELAY_KEY, -5)).getHedgeDelay()
+    );
+  }
+
   @Test
   public void testGetLong()
   {
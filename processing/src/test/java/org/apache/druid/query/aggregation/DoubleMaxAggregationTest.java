@@ -67,6 +67,7 @@ public class DoubleMaxAggregationTest
     VectorValueSelector vectorValueSelector = EasyMock.createMock(VectorValueSelector.class);
     EasyMock.expect(vectorValueSelector.getDoubleVector()).andReturn(doubleValues1).anyTimes();
     EasyMock.expect(vectorValueSelector.getNullVector()).andReturn(null).anyTimes();
+    EasyMock.expect(vectorValueSelector.isConstantVector()).andReturn(false).anyTimes();
     EasyMock.replay(vectorValueSelector);
 
     vectorColumnSelectorFactory = EasyMock.createMock(VectorColumnSelectorFactory.class);
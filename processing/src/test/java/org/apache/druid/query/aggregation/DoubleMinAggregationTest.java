@@ -68,6 +68,7 @@ public class DoubleMinAggregationTest
     VectorValueSelector vectorValueSelector = EasyMock.createMock(VectorValueSelector.class);
     EasyMock.expect(vectorValueSelector.getDoubleVector()).andReturn(doubleValues1).anyTimes();
     EasyMock.expect(vectorValueSelector.getNullVector()).andReturn(null).anyTimes();
+    EasyMock.expect(vectorValueSelector.isConstantVector()).andReturn(false).anyTimes();
     EasyMock.replay(vectorValueSelector);
 
     vectorColumnSelectorFactory = EasyMock.createMock(VectorColumnSelectorFactory.class);
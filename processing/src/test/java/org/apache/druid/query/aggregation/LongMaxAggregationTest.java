@@ -67,6 +67,7 @@ public class LongMaxAggregationTest
     VectorValueSelector vectorValueSelector = EasyMock.createMock(VectorValueSelector.class);
     EasyMock.expect(vectorValueSelector.getLongVector()).andReturn(longValues1).anyTimes();
     EasyMock.expect(vectorValueSelector.getNullVector()).andReturn(null).anyTimes();
+    EasyMock.expect(vectorValueSelector.isConstantVector()).andReturn(false).anyTimes();
     EasyMock.replay(vectorValueSelector);
 
     vectorColumnSelectorFactory = EasyMock.createMock(VectorColumnSelectorFactory.class);
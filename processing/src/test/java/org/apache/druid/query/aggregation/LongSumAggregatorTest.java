@@ -19,9 +19,13 @@
 
 package org.apache.druid.query.aggregation;
 
+import org.apache.druid.segment.vector.ConstantVectorSelectors;
+import org.apache.druid.segment.vector.NoFilterVectorOffset;
+import org.apache.druid.segment.vector.VectorValueSelector;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Comparator;
 
 /**
@@ -69,4 +73,20 @@ public class LongSumAggregatorTest
     Assert.assertEquals(0, comp.compare(agg.get(), agg.get()));
     Assert.assertEquals(1, comp.compare(agg.get(), first));
   }
+
+  @Test
+  public void testVectorAggregateConstantVector()
+  {
+    final VectorValueSelector selector =
+        ConstantVectorSelectors.vectorValueSelector(new NoFilterVectorOffset(8, 0, 8), 7L);
+    Assert.assertTrue(selector.isConstantVector());
+
+    final LongSumVectorAggregator agg = new LongSumVectorAggregator(selector);
+    final ByteBuffer buf = ByteBuffer.allocate(Long.BYTES);
+    agg.init(buf, 0);
+    agg.aggregate(buf, 0, 1, 6);
+    Assert.assertEquals(35L, agg.get(buf, 0));
+    agg.aggregate(buf, 0, 3, 3);
+    Assert.assertEquals(35L, agg.get(buf, 0));
+  }
 }
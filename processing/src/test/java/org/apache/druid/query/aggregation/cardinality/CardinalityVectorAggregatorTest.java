@@ -267,6 +267,82 @@ public class CardinalityVectorAggregatorTest extends InitializedNullHandlingTest
     testAggregate(aggregator, ids.length, 3);
   }
 
+  @Test
+  public void testAggregateSingleValueStringWithRuns()
+  {
+    final int[] ids = {1, 2, 2, 3, 3, 3, 0};
+    final int[] runEnds = {1, 3, 3, 6, 6, 6, 7};
+    final String[] dict = {null, "abc", "def", "foo"};
+
+    final CardinalityVectorAggregator aggregator = new CardinalityVectorAggregator(
+        Collections.singletonList(
+            new SingleValueStringCardinalityVectorProcessor(
+                new SingleValueDimensionVectorSelector()
+                {
+                  @Override
+                  public int[] getRowVector()
+                  {
+                    return ids;
+                  }
+
+                  @Override
+                  public int getRunEnd(int position)
+                  {
+                    return runEnds[position];
+                  }
+
+                  @Override
+                  public int getValueCardinality()
+                  {
+                    return dict.length;
+                  }
+
+                  @Nullable
+                  @Override
+                  public String lookupName(int id)
+                  {
+                    return dict[id];
+                  }
+
+                  @Override
+                  public boolean nameLookupPossibleInAdvance()
+                  {
+                    return true;
+                  }
+
+                  @Nullable
+                  @Override
+                  public IdLookup idLookup()
+                  {
+                    return null;
+                  }
+
+                  @Override
+                  public int getMaxVectorSize()
+                  {
+                    return ids.length;
+                  }
+
+                  @Override
+                  public int getCurrentVectorSize()
+                  {
+                    return ids.length;
+                  }
+                }
+            )
+        )
+    );
+
+    testAggregate(aggregator, ids.length, 3);
+
+    // starting and ending in the middle of runs
+    final int position = 0;
+    final ByteBuffer buf = ByteBuffer.allocate(HyperLogLogCollector.getLatestNumBytesForDenseStorage());
+    aggregator.init(buf, position);
+    aggregator.aggregate(buf, position, 2, 4);
+    Assert.assertEquals(2, ((HyperLogLogCollector) aggregator.get(buf, position)).estimateCardinality(), 0.01);
+  }
+
   private static void testAggregate(
       final CardinalityVectorAggregator aggregator,
       final int numRows,
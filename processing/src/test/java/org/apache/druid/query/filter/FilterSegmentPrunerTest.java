@@ -25,9 +25,11 @@ import org.apache.druid.error.DruidException;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.query.expression.TestExprMacroTable;
 import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.data.StringBloomFilter;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.SegmentId;
 import org.apache.druid.timeline.partition.DimensionRangeShardSpec;
+import org.apache.druid.timeline.partition.NumberedShardSpec;
 import org.apache.druid.timeline.partition.ShardSpec;
 import org.joda.time.Interval;
 import org.junit.jupiter.api.Assertions;
@@ -36,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -79,6 +82,36 @@ class FilterSegmentPrunerTest
     Assertions.assertEquals(Set.copyOf(segs), prunerEmptyFields.prune(segs, Function.identity()));
   }
 
+  @Test
+  void testPruneBloomFilters()
+  {
+    String interval = "2026-02-18T00:00:00Z/2026-02-19T00:00:00Z";
+
+    DataSegment seg1 = makeDataSegment(interval, makeBloomFilter("a", "b"), 0);
+    DataSegment seg2 = makeDataSegment(interval, makeBloomFilter("c", null), 1);
+    DataSegment seg3 = makeDataSegment(interval, null, 2);
+
+    List<DataSegment> segs = List.of(seg1, seg2, seg3);
+
+    DimFilter equalsA = new EqualityFilter("dim1", ColumnType.STRING, "a", null);
+    DimFilter inBC = new InDimFilter("dim1", Set.of("b", "c"));
+    DimFilter equalsZ = new EqualityFilter("dim1", ColumnType.STRING, "z", null);
+    DimFilter isNull = new NullFilter("dim1", null);
+    DimFilter notA = NotDimFilter.of(equalsA);
+    DimFilter range = new RangeFilter("dim1", ColumnType.STRING, "x", "z", null, null, null);
+
+    Assertions.assertEquals(Set.of(seg1, seg3), new FilterSegmentPruner(equalsA, null).prune(segs, Function.identity()));
+    Assertions.assertEquals(Set.copyOf(segs), new FilterSegmentPruner(inBC, null).prune(segs, Function.identity()));
+    Assertions.assertEquals(Set.of(seg3), new FilterSegmentPruner(equalsZ, null).prune(segs, Function.identity()));
+    Assertions.assertEquals(Set.of(seg2, seg3), new FilterSegmentPruner(isNull, null).prune(segs, Function.identity()));
+    Assertions.assertEquals(Set.copyOf(segs), new FilterSegmentPruner(notA, null).prune(segs, Function.identity()));
+    Assertions.assertEquals(Set.copyOf(segs), new FilterSegmentPruner(range, null).prune(segs, Function.identity()));
+    Assertions.assertEquals(
+        Set.copyOf(segs),
+        new FilterSegmentPruner(equalsZ, Collections.emptySet()).prune(segs, Function.identity())
+    );
+  }
+
   @Test
   void testEqualsAndHashcode()
   {
@@ -116,6 +149,29 @@ class FilterSegmentPrunerTest
     );
   }
 
+  private Map<String, StringBloomFilter> makeBloomFilter(String... values)
+  {
+    StringBloomFilter bloomFilter = StringBloomFilter.create(10, StringBloomFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY);
+    for (String value : values) {
+      bloomFilter.add(value);
+    }
+    return Map.of("dim1", bloomFilter);
+  }
+
+  private DataSegment makeDataSegment(
+      String intervalString,
+      @Nullable Map<String, StringBloomFilter> bloomFilters,
+      int partitionNumber
+  )
+  {
+    Interval interval = Intervals.of(intervalString);
+    ShardSpec shardSpec = new NumberedShardSpec(partitionNumber, 3);
+    return DataSegment.builder(SegmentId.of("prune-test", interval, "0", shardSpec))
+                      .shardSpec(shardSpec)
+                      .bloomFilters(bloomFilters)
+                      .build();
+  }
+
   private DataSegment makeDataSegment(String intervalString, ShardSpec shardSpec)
   {
     Interval interval = Intervals.of(intervalString);
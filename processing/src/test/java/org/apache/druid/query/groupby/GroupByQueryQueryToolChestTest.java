@@ -20,17 +20,23 @@
 package org.apache.druid.query.groupby;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
 import org.apache.druid.collections.BlockingPool;
 import org.apache.druid.collections.DefaultBlockingPool;
 import org.apache.druid.collections.SerializablePair;
 import org.apache.druid.data.input.Row;
+import org.apache.druid.frame.allocation.ArenaMemoryAllocatorFactory;
+import org.apache.druid.frame.wire.FrameWireTransferable;
+import org.apache.druid.hll.HyperLogLogCollector;
 import org.apache.druid.jackson.AggregatorsModule;
+import org.apache.druid.jackson.DefaultObjectMapper;
 import org.apache.druid.java.util.common.DateTimes;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.granularity.Granularities;
@@ -38,6 +44,7 @@ import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.query.CacheStrategy;
 import org.apache.druid.query.DruidProcessingConfig;
 import org.apache.druid.query.Druids;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryDataSource;
 import org.apache.druid.query.QueryRunnerTestHelper;
 import org.apache.druid.query.QueryToolChestTestHelper;
@@ -45,6 +52,7 @@ import org.apache.druid.query.aggregation.AggregatorFactory;
 import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
 import org.apache.druid.query.aggregation.FloatSumAggregatorFactory;
 import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.query.aggregation.MetricManipulatorFns;
 import org.apache.druid.query.aggregation.SerializablePairLongDouble;
 import org.apache.druid.query.aggregation.SerializablePairLongFloat;
 import org.apache.druid.query.aggregation.SerializablePairLongLong;
@@ -54,6 +62,7 @@ import org.apache.druid.query.aggregation.firstlast.last.DoubleLastAggregatorFac
 import org.apache.druid.query.aggregation.firstlast.last.FloatLastAggregatorFactory;
 import org.apache.druid.query.aggregation.firstlast.last.LongLastAggregatorFactory;
 import org.apache.druid.query.aggregation.firstlast.last.StringLastAggregatorFactory;
+import org.apache.druid.query.aggregation.hyperloglog.HyperUniquesAggregatorFactory;
 import org.apache.druid.query.aggregation.post.ConstantPostAggregator;
 import org.apache.druid.query.aggregation.post.ExpressionPostAggregator;
 import org.apache.druid.query.dimension.DefaultDimensionSpec;
@@ -73,6 +82,11 @@ import org.apache.druid.query.groupby.having.OrHavingSpec;
 import org.apache.druid.query.groupby.orderby.DefaultLimitSpec;
 import org.apache.druid.query.groupby.orderby.OrderByColumnSpec;
 import org.apache.druid.query.ordering.StringComparators;
+import org.apache.druid.query.rowsandcols.RowsAndColumns;
+import org.apache.druid.query.rowsandcols.semantic.WireTransferable;
+import org.apache.druid.query.rowsandcols.serde.RowsAndColumnsDeserializer;
+import org.apache.druid.query.rowsandcols.serde.RowsAndColumnsSerializer;
+import org.apache.druid.query.rowsandcols.serde.WireTransferableContext;
 import org.apache.druid.segment.TestHelper;
 import org.apache.druid.segment.column.ColumnType;
 import org.apache.druid.segment.column.RowSignature;
@@ -85,6 +99,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -1003,6 +1018,174 @@ public class GroupByQueryQueryToolChestTest extends InitializedNullHandlingTest
     );
   }
 
+  @Test
+  public void testCanTransferResultsAsFrames()
+  {
+    final GroupByQueryQueryToolChest toolChest = new GroupByQueryQueryToolChest(null, null);
+    final GroupByQuery query = new GroupByQuery.Builder()
+        .setDataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .setGranularity(Granularities.DAY)
+        .setDimensions(new DefaultDimensionSpec("col", "dim"))
+        .setInterval(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .setAggregatorSpecs(QueryRunnerTestHelper.ROWS_COUNT)
+        .build();
+
+    Assert.assertFalse(toolChest.canTransferResultsAsFrames(query));
+    Assert.assertTrue(
+        toolChest.canTransferResultsAsFrames(
+            query.withOverriddenContext(ImmutableMap.of(GroupingEngine.CTX_KEY_OUTERMOST, false))
+        )
+    );
+    Assert.assertFalse(
+        toolChest.canTransferResultsAsFrames(
+            query.withDimensionSpecs(ImmutableList.of(new DefaultDimensionSpec("col", "dim", ColumnType.NESTED_DATA)))
+                 .withOverriddenContext(ImmutableMap.of(GroupingEngine.CTX_KEY_OUTERMOST, false))
+        )
+    );
+  }
+
+  @Test
+  public void testResultsAsTransferFramesRoundTrip()
+  {
+    final GroupByQueryQueryToolChest toolChest = new GroupByQueryQueryToolChest(null, null);
+    final GroupByQuery query = new GroupByQuery.Builder()
+        .setDataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .setGranularity(Granularities.DAY)
+        .setDimensions(new DefaultDimensionSpec("col", "dim"))
+        .setInterval(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .setAggregatorSpecs(
+            QueryRunnerTestHelper.ROWS_COUNT,
+            new DoubleSumAggregatorFactory("index", "index")
+        )
+        .setPostAggregatorSpecs(ImmutableList.of(QueryRunnerTestHelper.CONSTANT))
+        .setContext(ImmutableMap.of(GroupingEngine.CTX_KEY_OUTERMOST, false, QueryContexts.FINALIZE_KEY, false))
+        .build();
+
+    final List<ResultRow> rows = ImmutableList.of(
+        ResultRow.of(DateTimes.of("2000-01-01").getMillis(), "foo", 1L, 2.5),
+        ResultRow.of(DateTimes.of("2000-01-01").getMillis(), null, 3L, null),
+        ResultRow.of(DateTimes.of("2000-01-02").getMillis(), "bar", 4L, 5.0)
+    );
+
+    Assert.assertTrue(toolChest.canTransferResultsAsFrames(query));
+    Assert.assertEquals(
+        rows,
+        toolChest.resultsFromTransferFrames(
+            query,
+            toolChest.resultsAsTransferFrames(query, Sequences.simple(rows), ArenaMemoryAllocatorFactory.makeDefault())
+        ).toList()
+    );
+  }
+
+  @Test
+  public void testResultsAsTransferFramesSmileRoundTrip() throws IOException
+  {
+    final GroupByQueryQueryToolChest toolChest = new GroupByQueryQueryToolChest(null, null);
+    final GroupByQuery query = new GroupByQuery.Builder()
+        .setDataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .setGranularity(Granularities.DAY)
+        .setDimensions(new DefaultDimensionSpec("col", "dim"))
+        .setInterval(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .setAggregatorSpecs(
+            QueryRunnerTestHelper.ROWS_COUNT,
+            new DoubleSumAggregatorFactory("index", "index")
+        )
+        .setContext(ImmutableMap.of(GroupingEngine.CTX_KEY_OUTERMOST, false, QueryContexts.FINALIZE_KEY, false))
+        .build();
+
+    final List<ResultRow> rows = ImmutableList.of(
+        ResultRow.of(DateTimes.of("2000-01-01").getMillis(), "foo", 1L, 2.5),
+        ResultRow.of(DateTimes.of("2000-01-01").getMillis(), null, 3L, null),
+        ResultRow.of(DateTimes.of("2000-01-02").getMillis(), "bar", 4L, 5.0)
+    );
+
+    final List<RowsAndColumns> frames = smileRoundTrip(
+        toolChest.resultsAsTransferFrames(query, Sequences.simple(rows), ArenaMemoryAllocatorFactory.makeDefault())
+                 .toList()
+    );
+    Assert.assertEquals(rows, toolChest.resultsFromTransferFrames(query, Sequences.simple(frames)).toList());
+  }
+
+  @Test
+  public void testResultsAsTransferFramesWithComplexIntermediate() throws IOException
+  {
+    final GroupByQueryQueryToolChest toolChest = new GroupByQueryQueryToolChest(null, null);
+    final GroupByQuery query = new GroupByQuery.Builder()
+        .setDataSource(QueryRunnerTestHelper.DATA_SOURCE)
+        .setGranularity(Granularities.ALL)
+        .setDimensions(new DefaultDimensionSpec("col", "dim"))
+        .setInterval(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+        .setAggregatorSpecs(
+            QueryRunnerTestHelper.ROWS_COUNT,
+            new HyperUniquesAggregatorFactory("uniques", "quality_uniques")
+        )
+        .setContext(ImmutableMap.of(GroupingEngine.CTX_KEY_OUTERMOST, false, QueryContexts.FINALIZE_KEY, false))
+        .build();
+
+    final List<ResultRow> rows = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final HyperLogLogCollector collector = HyperLogLogCollector.makeLatestCollector();
+      for (int j = 0; j < 10 * (i + 1); j++) {
+        collector.add(Hashing.murmur3_128().hashBytes(StringUtils.toUtf8(i + "-" + j)).asBytes());
+      }
+      rows.add(ResultRow.of("dim" + i, 1L, collector));
+    }
+
+    Assert.assertTrue(toolChest.canTransferResultsAsFrames(query));
+    final List<RowsAndColumns> frames = smileRoundTrip(
+        toolChest.resultsAsTransferFrames(query, Sequences.simple(rows), ArenaMemoryAllocatorFactory.makeDefault())
+                 .toList()
+    );
+
+    // same as DirectDruidClient, which applies the deserializing manipulator to the rows read from the frames
+    final List<ResultRow> results = Sequences.map(
+        toolChest.resultsFromTransferFrames(query, Sequences.simple(frames)),
+        toolChest.makePreComputeManipulatorFn(query, MetricManipulatorFns.deserializing())
+    ).toList();
+
+    Assert.assertEquals(rows.size(), results.size());
+    for (int i = 0; i < rows.size(); i++) {
+      final ResultRow expected = rows.get(i);
+      final ResultRow actual = results.get(i);
+      Assert.assertEquals(expected.get(0), actual.get(0));
+      Assert.assertEquals(expected.get(1), actual.get(1));
+      Assert.assertTrue(actual.get(2) instanceof HyperLogLogCollector);
+      Assert.assertEquals(
+          ((HyperLogLogCollector) expected.get(2)).estimateCardinality(),
+          ((HyperLogLogCollector) actual.get(2)).estimateCardinality(),
+          0.0
+      );
+    }
+  }
+
+  /**
+   * Writes the frames with a Smile mapper using {@link RowsAndColumnsSerializer}, and reads them back with
+   * {@link RowsAndColumnsDeserializer}, like the data server and the Broker do.
+   */
+  private static List<RowsAndColumns> smileRoundTrip(List<RowsAndColumns> frames) throws IOException
+  {
+    final ObjectMapper smileMapper = new DefaultObjectMapper(new SmileFactory(), null);
+    final WireTransferableContext wtContext = new WireTransferableContext(
+        smileMapper,
+        new WireTransferable.ConcreteDeserializer(
+            smileMapper,
+            ImmutableMap.of(ByteBuffer.wrap(FrameWireTransferable.TYPE_BYTES), new FrameWireTransferable.Deserializer())
+        ),
+        false
+    );
+    smileMapper.registerModule(
+        new SimpleModule()
+            .addSerializer(RowsAndColumns.class, new RowsAndColumnsSerializer(wtContext))
+            .addDeserializer(RowsAndColumns.class, new RowsAndColumnsDeserializer(wtContext))
+    );
+
+    final List<RowsAndColumns> roundTripped = new ArrayList<>(frames.size());
+    for (RowsAndColumns frame : frames) {
+      roundTripped.add(smileMapper.readValue(smileMapper.writeValueAsBytes(frame), RowsAndColumns.class));
+    }
+    return roundTripped;
+  }
+
   @Test
   public void testCanPerformSubqueryOnGroupBys()
   {
@@ -22,6 +22,7 @@ package org.apache.druid.query.scan;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.HumanReadableBytes;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -33,6 +34,7 @@ public class ScanQueryConfigTest
       .<String, String>builder()
       .put("maxSegmentPartitionsOrderedInMemory", "1")
       .put("maxRowsQueuedForOrdering", "1")
+      .put("maxBytesSpilledForOrdering", "1GiB")
       .build();
 
   private final ImmutableMap<String, String> CONFIG_MAP2 = ImmutableMap
@@ -50,6 +52,7 @@ public class ScanQueryConfigTest
     final ScanQueryConfig config = MAPPER.convertValue(CONFIG_MAP, ScanQueryConfig.class);
     Assert.assertEquals(1, config.getMaxRowsQueuedForOrdering());
     Assert.assertEquals(1, config.getMaxSegmentPartitionsOrderedInMemory());
+    Assert.assertEquals(HumanReadableBytes.valueOf(1L << 30), config.getMaxBytesSpilledForOrdering());
 
     final ScanQueryConfig config2 = MAPPER.convertValue(CONFIG_MAP2, ScanQueryConfig.class);
     Assert.assertEquals(100000, config2.getMaxRowsQueuedForOrdering());
@@ -58,5 +61,6 @@ public class ScanQueryConfigTest
     final ScanQueryConfig config3 = MAPPER.convertValue(CONFIG_MAP_EMPTY, ScanQueryConfig.class);
     Assert.assertEquals(100000, config3.getMaxRowsQueuedForOrdering());
     Assert.assertEquals(50, config3.getMaxSegmentPartitionsOrderedInMemory());
+    Assert.assertEquals(HumanReadableBytes.ZERO, config3.getMaxBytesSpilledForOrdering());
   }
 }
@@ -20,7 +20,9 @@
 package org.apache.druid.query.scan;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.HumanReadableBytes;
 import org.apache.druid.java.util.common.Intervals;
 import org.apache.druid.java.util.common.UOE;
 import org.apache.druid.java.util.common.concurrent.Execs;
@@ -52,9 +54,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 
 public class ScanQueryRunnerFactoryTest
@@ -253,6 +258,43 @@ public class ScanQueryRunnerFactoryTest
       validateSortedOutput(output, expectedEventTimestamps);
     }
 
+    @Test
+    public void testSpillingMerge()
+    {
+      final int numPartitions = 5;
+      final List<Long> expectedEventTimestamps = new ArrayList<>(numElements * numPartitions);
+      final List<QueryRunner<ScanResultValue>> runners = new ArrayList<>(numPartitions);
+
+      for (int partition = 0; partition < numPartitions; partition++) {
+        final List<ScanResultValue> scanResultValues = new ArrayList<>(numElements);
+        for (int i = 0; i < numElements; i++) {
+          long timestamp = DateTimes.of("2015-01-01").plusMinutes(i * numPartitions + partition).getMillis();
+          expectedEventTimestamps.add(timestamp);
+          scanResultValues.add(ScanQueryTestHelper.generateScanResultValue(timestamp, resultFormat, 1));
+        }
+        if (query.getTimeOrder() == Order.DESCENDING) {
+          Collections.reverse(scanResultValues);
+        }
+        runners.add((queryPlus, responseContext) -> Sequences.simple(scanResultValues));
+      }
+
+      expectedEventTimestamps.sort(
+          query.getTimeOrder() == Order.DESCENDING ? Comparator.reverseOrder() : Comparator.naturalOrder()
+      );
+
+      // Five runners merged two at a time need two levels of runs on disk
+      List<ScanResultValue> output =
+          FACTORY.spillingMergeAndLimit(
+              Collections.singletonList(runners),
+              QueryPlus.wrap(query),
+              ResponseContext.createEmpty(),
+              2,
+              Long.MAX_VALUE
+          ).toList();
+
+      validateSortedOutput(output, expectedEventTimestamps);
+    }
+
     private void validateSortedOutput(List<ScanResultValue> output, List<Long> expectedEventTimestamps)
     {
       // check each scan result value has one event
@@ -341,6 +383,109 @@ public class ScanQueryRunnerFactoryTest
     }
 
 
+    @Test
+    public void testMergeRunnersSpillsWhenGuardrailsExceeded()
+    {
+      final ScanQueryRunnerFactory factory = makeSpillingFactory(HumanReadableBytes.valueOf(1_000_000));
+      final List<Long> timestamps = runWithTooManySegments(factory, ImmutableMap.of()).stream().map(
+          srv -> srv.getFirstEventTimestamp(ScanQuery.ResultFormat.RESULT_FORMAT_LIST)
+      ).collect(Collectors.toList());
+
+      Assert.assertEquals(
+          LongStream.range(0, 5 * 3).boxed().collect(Collectors.toList()),
+          timestamps
+      );
+    }
+
+    @Test
+    public void testMergeRunnersSpillingLimitExceeded()
+    {
+      final ScanQueryRunnerFactory factory = makeSpillingFactory(HumanReadableBytes.valueOf(1_000_000));
+
+      expectedException.expect(ResourceLimitExceededException.class);
+      expectedException.expectMessage("exceeded its limit of 1 bytes of temporary storage");
+
+      // The query context can lower the limit
+      runWithTooManySegments(factory, ImmutableMap.of(ScanQueryConfig.CTX_KEY_MAX_BYTES_SPILLED_FOR_ORDERING, 1));
+    }
+
+    private static ScanQueryRunnerFactory makeSpillingFactory(final HumanReadableBytes maxBytesSpilledForOrdering)
+    {
+      return new ScanQueryRunnerFactory(
+          new ScanQueryQueryToolChest(DefaultGenericQueryMetricsFactory.instance()),
+          new ScanQueryEngine(),
+          new ScanQueryConfig()
+          {
+            @Override
+            public int getMaxRowsQueuedForOrdering()
+            {
+              return 1;
+            }
+
+            @Override
+            public int getMaxSegmentPartitionsOrderedInMemory()
+            {
+              return 2;
+            }
+
+            @Override
+            public HumanReadableBytes getMaxBytesSpilledForOrdering()
+            {
+              return maxBytesSpilledForOrdering;
+            }
+          }
+      );
+    }
+
+    /**
+     * Runs a query over five segments of the same time chunk, where segment {@code i} has rows at times
+     * {@code i}, {@code i + 5} and {@code i + 10}.
+     */
+    private static List<ScanResultValue> runWithTooManySegments(
+        final ScanQueryRunnerFactory factory,
+        final Map<String, Object> context
+    )
+    {
+      final int numSegments = 5;
+      final QueryRunner<ScanResultValue> runner = factory.mergeRunners(
+          Execs.directExecutor(),
+          IntStream.range(0, numSegments)
+                   .mapToObj(
+                       i -> (QueryRunner<ScanResultValue>) (queryPlus, responseContext) -> Sequences.simple(
+                           IntStream.range(0, 3)
+                                    .mapToObj(
+                                        j -> ScanQueryTestHelper.generateScanResultValue(
+                                            i + (long) j * numSegments,
+                                            ScanQuery.ResultFormat.RESULT_FORMAT_LIST,
+                                            1
+                                        )
+                                    )
+                                    .collect(Collectors.toList())
+                       )
+                   )
+                   .collect(Collectors.toList())
+      );
+
+      return runner.run(
+          QueryPlus.wrap(
+              Druids.newScanQueryBuilder()
+                    .dataSource("foo")
+                    .limit(100)
+                    .intervals(
+                        new MultipleSpecificSegmentSpec(
+                            IntStream.range(0, numSegments)
+                                     .mapToObj(i -> new SegmentDescriptor(Intervals.ETERNITY, "v0", i))
+                                     .collect(Collectors.toList())
+                        )
+                    )
+                    .order(Order.ASCENDING)
+                    .context(context)
+                    .build()
+          ),
+          ResponseContext.createEmpty()
+      ).toList();
+    }
+
     @Test
     public void testMergeRunnersGuardrailsExceeded()
     {
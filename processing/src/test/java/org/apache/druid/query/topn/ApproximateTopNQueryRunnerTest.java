@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.topn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.QueryRunner;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleMaxAggregatorFactory;
+import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ApproximateTopNQueryRunnerTest
+{
+  private static final String DIM = "dim";
+  private static final String METRIC = "count";
+
+  /**
+   * Counts per dimension value of two segments. With a per-segment threshold of 1 or 2 neither "a" nor "c" is known
+   * exactly; with 4 both segments return everything.
+   */
+  private static final List<Map<String, Long>> SEGMENTS = ImmutableList.of(
+      ImmutableMap.of("a", 10L, "b", 9L, "c", 1L),
+      ImmutableMap.of("c", 20L, "a", 1L, "b", 1L)
+  );
+
+  @Test
+  public void testIsEnabled()
+  {
+    final TopNQuery query = makeQuery(ImmutableMap.of(QueryContexts.APPROXIMATE_TOP_N, true));
+    Assert.assertTrue(ApproximateTopNQueryRunner.isEnabled(query));
+    Assert.assertFalse(ApproximateTopNQueryRunner.isEnabled(makeQuery(Collections.emptyMap())));
+    Assert.assertFalse(
+        ApproximateTopNQueryRunner.isEnabled(
+            new TopNQueryBuilder(query).metric(new InvertedTopNMetricSpec(new NumericTopNMetricSpec(METRIC))).build()
+        )
+    );
+    Assert.assertFalse(
+        ApproximateTopNQueryRunner.isEnabled(
+            query.withAggregatorSpecs(ImmutableList.of(new DoubleMaxAggregatorFactory(METRIC, "x")))
+        )
+    );
+  }
+
+  @Test
+  public void testMerge()
+  {
+    final TopNBinaryFn fn = makeBinaryFn(2);
+    final Result<TopNResultValue> merged = fn.apply(
+        ApproximateTopNQueryRunner.withSegmentErrorBounds(makeSegmentResult(SEGMENTS.get(0), 2), METRIC, 2),
+        ApproximateTopNQueryRunner.withSegmentErrorBounds(makeSegmentResult(SEGMENTS.get(1), 2), METRIC, 2)
+    );
+
+    final List<DimensionAndMetricValueExtractor> rows = merged.getValue().getValue();
+    Assert.assertEquals(2, rows.size());
+
+    // "c" is missing from the first segment, which may have had up to 9 of it
+    Assert.assertEquals("c", rows.get(0).getDimensionValue(DIM));
+    Assert.assertEquals(20L, rows.get(0).getMetric(METRIC));
+    Assert.assertEquals(9.0, ApproximateTopNQueryRunner.getSlack(rows.get(0)), 0);
+
+    // "a" is in both segments
+    Assert.assertEquals("a", rows.get(1).getDimensionValue(DIM));
+    Assert.assertEquals(11L, rows.get(1).getMetric(METRIC));
+    Assert.assertEquals(0.0, ApproximateTopNQueryRunner.getSlack(rows.get(1)), 0);
+
+    // "b" was dropped with a value of 9 and a slack of 1
+    Assert.assertEquals(10.0, ApproximateTopNQueryRunner.getUnseen(rows), 0);
+  }
+
+  @Test
+  public void testGrowsThresholdUntilExact()
+  {
+    final List<Integer> thresholds = new ArrayList<>();
+    final ResponseContext responseContext = ResponseContext.createEmpty();
+    final TopNQuery query = makeQuery(
+        ImmutableMap.of(
+            QueryContexts.APPROXIMATE_TOP_N, true,
+            QueryContexts.MIN_TOP_N_THRESHOLD, 1,
+            QueryContexts.MAX_TOP_N_THRESHOLD, 8
+        )
+    );
+
+    final List<Result<TopNResultValue>> results =
+        new ApproximateTopNQueryRunner(makeBaseRunner(thresholds), new TopNQueryConfig())
+            .run(QueryPlus.wrap(query), responseContext)
+            .toList();
+
+    Assert.assertEquals(ImmutableList.of(1, 2, 4), thresholds);
+    Assert.assertEquals(
+        Collections.singletonList(
+            new Result<>(
+                DateTimes.of("2000"),
+                TopNResultValue.create(Collections.singletonList(ImmutableMap.of(DIM, "c", METRIC, 21L)))
+            )
+        ),
+        results
+    );
+    Assert.assertEquals(
+        new TopNErrorBounds(4, true, 0, 11),
+        responseContext.get(ResponseContext.Keys.TOPN_ERROR_BOUNDS)
+    );
+  }
+
+  @Test
+  public void testStopsAtMaxThreshold()
+  {
+    final List<Integer> thresholds = new ArrayList<>();
+    final ResponseContext responseContext = ResponseContext.createEmpty();
+    final TopNQuery query = makeQuery(
+        ImmutableMap.of(
+            QueryContexts.APPROXIMATE_TOP_N, true,
+            QueryContexts.MIN_TOP_N_THRESHOLD, 1,
+            QueryContexts.MAX_TOP_N_THRESHOLD, 2
+        )
+    );
+
+    final List<Result<TopNResultValue>> results =
+        new ApproximateTopNQueryRunner(makeBaseRunner(thresholds), new TopNQueryConfig())
+            .run(QueryPlus.wrap(query), responseContext)
+            .toList();
+
+    Assert.assertEquals(ImmutableList.of(1, 2), thresholds);
+    Assert.assertEquals(
+        Collections.singletonList(ImmutableMap.of(DIM, "c", METRIC, 20L)),
+        Lists.transform(results.get(0).getValue().getValue(), DimensionAndMetricValueExtractor::getBaseObject)
+    );
+    Assert.assertEquals(
+        new TopNErrorBounds(2, false, 9, 11),
+        responseContext.get(ResponseContext.Keys.TOPN_ERROR_BOUNDS)
+    );
+  }
+
+  private static TopNQuery makeQuery(Map<String, Object> context)
+  {
+    return new TopNQueryBuilder().dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+                                 .granularity(Granularities.ALL)
+                                 .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+                                 .dimension(DIM)
+                                 .metric(METRIC)
+                                 .threshold(1)
+                                 .aggregators(new CountAggregatorFactory(METRIC))
+                                 .context(context)
+                                 .build();
+  }
+
+  private static TopNBinaryFn makeBinaryFn(int threshold)
+  {
+    return new TopNBinaryFn(
+        Granularities.ALL,
+        new DefaultDimensionSpec(DIM, DIM),
+        new NumericTopNMetricSpec(METRIC),
+        threshold,
+        ImmutableList.of(new CountAggregatorFactory(METRIC)),
+        Collections.emptyList(),
+        true
+    );
+  }
+
+  /**
+   * Runs the query over {@link #SEGMENTS} the way data servers would, recording the thresholds it was asked for.
+   */
+  private static QueryRunner<Result<TopNResultValue>> makeBaseRunner(List<Integer> thresholds)
+  {
+    return (queryPlus, responseContext) -> {
+      final int threshold = ((TopNQuery) queryPlus.getQuery()).getThreshold();
+      thresholds.add(threshold);
+
+      final TopNBinaryFn fn = makeBinaryFn(threshold);
+      Result<TopNResultValue> merged = null;
+      for (Map<String, Long> segment : SEGMENTS) {
+        merged = fn.apply(
+            merged,
+            ApproximateTopNQueryRunner.withSegmentErrorBounds(makeSegmentResult(segment, threshold), METRIC, threshold)
+        );
+      }
+      return Sequences.simple(Collections.singletonList(merged));
+    };
+  }
+
+  private static Result<TopNResultValue> makeSegmentResult(Map<String, Long> counts, int threshold)
+  {
+    final List<Map<String, Object>> rows = new ArrayList<>();
+    counts.entrySet()
+          .stream()
+          .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+          .limit(threshold)
+          .forEach(entry -> rows.add(ImmutableMap.of(DIM, entry.getKey(), METRIC, entry.getValue())));
+    return new Result<>(DateTimes.of("2000"), TopNResultValue.create(rows));
+  }
+}
@@ -31,6 +31,7 @@ import org.apache.druid.java.util.common.granularity.Granularities;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.query.CacheStrategy;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerFactory;
@@ -76,6 +77,7 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TopNQueryQueryToolChestTest extends InitializedNullHandlingTest
@@ -294,6 +296,93 @@ public class TopNQueryQueryToolChestTest extends InitializedNullHandlingTest
     }
   }
 
+  @Test
+  public void testCacheStrategyWithErrorBounds() throws Exception
+  {
+    final TopNQuery query = new TopNQueryBuilder()
+        .dataSource("dummy")
+        .granularity(Granularities.ALL)
+        .dimension("test")
+        .metric("count")
+        .threshold(1)
+        .intervals("2015-01-01/2015-01-02")
+        .aggregators(new CountAggregatorFactory("count"))
+        .build();
+    final TopNQuery approximateQuery = query.withOverriddenContext(
+        ImmutableMap.of(QueryContexts.APPROXIMATE_TOP_N, true)
+    );
+    final TopNQueryQueryToolChest toolChest = new TopNQueryQueryToolChest(null, null);
+    final CacheStrategy<Result<TopNResultValue>, Object, TopNQuery> strategy =
+        toolChest.getCacheStrategy(approximateQuery);
+
+    Assert.assertFalse(
+        Arrays.equals(
+            toolChest.getCacheStrategy(query).computeCacheKey(query),
+            strategy.computeCacheKey(approximateQuery)
+        )
+    );
+
+    final Result<TopNResultValue> result = ApproximateTopNQueryRunner.withSegmentErrorBounds(
+        new Result<>(
+            DateTimes.utc(123L),
+            TopNResultValue.create(Collections.singletonList(ImmutableMap.of("test", "val1", "count", 3L)))
+        ),
+        "count",
+        1
+    );
+
+    final ObjectMapper objectMapper = TestHelper.makeJsonMapper();
+    final Object fromCacheValue = objectMapper.readValue(
+        objectMapper.writeValueAsBytes(strategy.prepareForSegmentLevelCache().apply(result)),
+        strategy.getCacheObjectClazz()
+    );
+    final List<DimensionAndMetricValueExtractor> rows =
+        strategy.pullFromSegmentLevelCache().apply(fromCacheValue).getValue().getValue();
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals("val1", rows.get(0).getDimensionValue("test"));
+    Assert.assertEquals(3L, rows.get(0).getLongMetric("count").longValue());
+    Assert.assertEquals(0.0, ApproximateTopNQueryRunner.getSlack(rows.get(0)), 0);
+    Assert.assertEquals(3.0, ApproximateTopNQueryRunner.getUnseen(rows), 0);
+  }
+
+  @Test
+  public void testCreateMergeFn()
+  {
+    final TopNQuery query = new TopNQueryBuilder()
+        .dataSource("dummy")
+        .granularity(Granularities.ALL)
+        .dimension("test")
+        .metric("count")
+        .threshold(1)
+        .intervals("2015-01-01/2015-01-02")
+        .aggregators(new CountAggregatorFactory("count"))
+        .build();
+    final TopNQueryQueryToolChest toolChest = new TopNQueryQueryToolChest(null, null);
+
+    final Result<TopNResultValue> result1 = new Result<>(
+        DateTimes.of("2015-01-01"),
+        TopNResultValue.create(
+            ImmutableList.of(
+                ImmutableMap.of("test", "val1", "count", 3L),
+                ImmutableMap.of("test", "val2", "count", 2L)
+            )
+        )
+    );
+    final Result<TopNResultValue> result2 = new Result<>(
+        DateTimes.of("2015-01-01"),
+        TopNResultValue.create(Collections.singletonList(ImmutableMap.of("test", "val2", "count", 2L)))
+    );
+
+    Assert.assertEquals(0, toolChest.createResultComparator(query).compare(result1, result2));
+
+    final List<DimensionAndMetricValueExtractor> rows =
+        toolChest.createMergeFn(query).apply(result1, result2).getValue().getValue();
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals("val2", rows.get(0).getDimensionValue("test"));
+    Assert.assertEquals(4L, rows.get(0).getLongMetric("count").longValue());
+  }
+
   @Test
   public void testResultArraySignature()
   {
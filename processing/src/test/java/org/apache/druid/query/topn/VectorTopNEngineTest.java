@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.query.topn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryRunnerTestHelper;
+import org.apache.druid.query.Result;
+import org.apache.druid.query.TestBufferPool;
+import org.apache.druid.query.dimension.DefaultDimensionSpec;
+import org.apache.druid.query.dimension.ExtractionDimensionSpec;
+import org.apache.druid.query.extraction.SubstringDimExtractionFn;
+import org.apache.druid.segment.QueryableIndexSegment;
+import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.TestIndex;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class VectorTopNEngineTest extends InitializedNullHandlingTest
+{
+  private Segment segment;
+
+  @Before
+  public void setUp()
+  {
+    segment = new QueryableIndexSegment(TestIndex.getMMappedTestIndex(), QueryRunnerTestHelper.SEGMENT_ID);
+  }
+
+  @Test
+  public void testMatchesNonVectorized()
+  {
+    final List<TopNQuery> queries = ImmutableList.of(
+        makeQueryBuilder().dimension(QueryRunnerTestHelper.MARKET_DIMENSION)
+                          .metric(QueryRunnerTestHelper.INDEX_METRIC)
+                          .threshold(2)
+                          .build(),
+        makeQueryBuilder().dimension(QueryRunnerTestHelper.QUALITY_DIMENSION)
+                          .granularity(Granularities.DAY)
+                          .metric(new InvertedTopNMetricSpec(new NumericTopNMetricSpec("rows")))
+                          .threshold(3)
+                          .build(),
+        makeQueryBuilder().dimension(QueryRunnerTestHelper.QUALITY_DIMENSION)
+                          .metric(new DimensionTopNMetricSpec("b", null))
+                          .filters(QueryRunnerTestHelper.MARKET_DIMENSION, "spot")
+                          .threshold(4)
+                          .build(),
+        makeQueryBuilder().dimension(QueryRunnerTestHelper.PARTIAL_NULL_DIMENSION)
+                          .metric(QueryRunnerTestHelper.UNIQUE_METRIC)
+                          .threshold(10)
+                          .build()
+    );
+
+    for (TopNQuery query : queries) {
+      final List<Result<TopNResultValue>> expected = runQuery(query, QueryContexts.Vectorize.FALSE, false, 1 << 20);
+      final List<Result<TopNResultValue>> actual = runQuery(query, QueryContexts.Vectorize.FORCE, true, 1 << 20);
+      Assert.assertFalse(expected.isEmpty());
+      Assert.assertEquals(query.toString(), expected, actual);
+    }
+  }
+
+  @Test
+  public void testFallBackWhenDimensionCannotVectorize()
+  {
+    final List<TopNQuery> queries = ImmutableList.of(
+        makeQueryBuilder().dimension(QueryRunnerTestHelper.PLACEMENTISH_DIMENSION)
+                          .metric(QueryRunnerTestHelper.INDEX_METRIC)
+                          .threshold(2)
+                          .build(),
+        makeQueryBuilder().dimension(
+                              new ExtractionDimensionSpec(
+                                  QueryRunnerTestHelper.MARKET_DIMENSION,
+                                  "market",
+                                  new SubstringDimExtractionFn(0, 1)
+                              )
+                          )
+                          .metric(QueryRunnerTestHelper.INDEX_METRIC)
+                          .threshold(2)
+                          .build(),
+        makeQueryBuilder().dimension(new DefaultDimensionSpec("qualityLong", "qualityLong"))
+                          .metric(QueryRunnerTestHelper.INDEX_METRIC)
+                          .threshold(2)
+                          .build()
+    );
+
+    for (TopNQuery query : queries) {
+      Assert.assertEquals(
+          runQuery(query, QueryContexts.Vectorize.FALSE, false, 1 << 20),
+          runQuery(query, QueryContexts.Vectorize.FORCE, false, 1 << 20)
+      );
+    }
+  }
+
+  @Test
+  public void testFallBackWhenBufferTooSmall()
+  {
+    final TopNQuery query = makeQueryBuilder().dimension(QueryRunnerTestHelper.QUALITY_DIMENSION)
+                                              .metric(QueryRunnerTestHelper.INDEX_METRIC)
+                                              .threshold(3)
+                                              .build();
+
+    Assert.assertEquals(
+        runQuery(query, QueryContexts.Vectorize.FORCE, true, 1 << 20),
+        runQuery(query, QueryContexts.Vectorize.FORCE, false, 1024)
+    );
+  }
+
+  private static TopNQueryBuilder makeQueryBuilder()
+  {
+    return new TopNQueryBuilder().dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+                                 .granularity(Granularities.ALL)
+                                 .intervals(QueryRunnerTestHelper.FULL_ON_INTERVAL_SPEC)
+                                 .aggregators(QueryRunnerTestHelper.COMMON_DOUBLE_AGGREGATORS);
+  }
+
+  private List<Result<TopNResultValue>> runQuery(
+      final TopNQuery query,
+      final QueryContexts.Vectorize vectorize,
+      final boolean expectVectorized,
+      final int bufferSize
+  )
+  {
+    final TopNQuery queryWithContext = query.withOverriddenContext(
+        ImmutableMap.of(QueryContexts.VECTORIZE_KEY, vectorize.toString())
+    );
+    final VectorizedRecordingMetrics queryMetrics = new VectorizedRecordingMetrics();
+    final List<Result<TopNResultValue>> results = new TopNQueryEngine(TestBufferPool.onHeap(bufferSize, 1))
+        .query(queryWithContext, segment, queryMetrics)
+        .toList();
+    Assert.assertEquals(expectVectorized, queryMetrics.vectorized);
+    return results;
+  }
+
+  private static class VectorizedRecordingMetrics extends DefaultTopNQueryMetrics
+  {
+    private boolean vectorized;
+
+    @Override
+    public void vectorized(boolean vectorized)
+    {
+      this.vectorized = vectorized;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.query.vector;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class NumericVectorKernelsTest
+{
+  private static final int SIZE = 517;
+
+  private final Random random = new Random(0);
+
+  @Test
+  public void testLongReductions()
+  {
+    final long[] vector = random.longs(SIZE, -1000, 1000).toArray();
+
+    for (int start = 0; start < 8; start++) {
+      for (int end = SIZE - 8; end <= SIZE; end++) {
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = start; i < end; i++) {
+          sum += vector[i];
+          min = Math.min(min, vector[i]);
+          max = Math.max(max, vector[i]);
+        }
+        Assert.assertEquals(sum, NumericVectorKernels.sum(vector, start, end));
+        Assert.assertEquals(min, NumericVectorKernels.min(Long.MAX_VALUE, vector, start, end));
+        Assert.assertEquals(max, NumericVectorKernels.max(Long.MIN_VALUE, vector, start, end));
+      }
+    }
+  }
+
+  @Test
+  public void testDoubleReductions()
+  {
+    final double[] vector = random.doubles(SIZE, -1000, 1000).toArray();
+
+    for (int start = 0; start < 8; start++) {
+      for (int end = SIZE - 8; end <= SIZE; end++) {
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+          sum += vector[i];
+          min = Math.min(min, vector[i]);
+          max = Math.max(max, vector[i]);
+        }
+        // same order of additions as the nonvectorized aggregators, so the same result
+        Assert.assertEquals(sum, NumericVectorKernels.sum(vector, start, end), 0);
+        Assert.assertEquals(min, NumericVectorKernels.min(Double.POSITIVE_INFINITY, vector, start, end), 0);
+        Assert.assertEquals(max, NumericVectorKernels.max(Double.NEGATIVE_INFINITY, vector, start, end), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testFloatReductions()
+  {
+    final float[] vector = new float[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      vector[i] = i % 7 - 3;
+    }
+
+    Assert.assertEquals(-3f, NumericVectorKernels.min(Float.POSITIVE_INFINITY, vector, 0, SIZE), 0);
+    Assert.assertEquals(3f, NumericVectorKernels.max(Float.NEGATIVE_INFINITY, vector, 0, SIZE), 0);
+    Assert.assertEquals(-3f, NumericVectorKernels.sum(vector, 0, 1), 0);
+    Assert.assertEquals(0f, NumericVectorKernels.sum(vector, 0, 7), 0);
+    Assert.assertEquals(0f, NumericVectorKernels.sum(vector, 0, 0), 0);
+  }
+
+  @Test
+  public void testFloatSumIsSequential()
+  {
+    // 1 is lost when added to 1e8, so summing in any other order can give a different result
+    final float[] vector = {1e8f, 1f, -1e8f, 1f};
+    float sum = 0;
+    for (float value : vector) {
+      sum += value;
+    }
+    Assert.assertEquals(sum, NumericVectorKernels.sum(vector, 0, vector.length), 0);
+  }
+
+  @Test
+  public void testMinMaxPropagateNaN()
+  {
+    final double[] vector = {1, 2, 3, 4, Double.NaN, 6};
+    Assert.assertTrue(Double.isNaN(NumericVectorKernels.min(Double.POSITIVE_INFINITY, vector, 0, vector.length)));
+    Assert.assertTrue(Double.isNaN(NumericVectorKernels.max(Double.NEGATIVE_INFINITY, vector, 0, vector.length)));
+    Assert.assertEquals(1, NumericVectorKernels.min(Double.POSITIVE_INFINITY, vector, 0, 4), 0);
+  }
+
+  @Test
+  public void testSelectEqualsLongs()
+  {
+    final long[] vector = {3, 1, 3, 3, 2, 0, 3};
+    final int[] selection = new int[vector.length];
+
+    int numRows = NumericVectorKernels.selectEquals(vector, vector.length, 3L, selection);
+    Assert.assertArrayEquals(new int[]{0, 2, 3, 6}, Arrays.copyOf(selection, numRows));
+
+    numRows = NumericVectorKernels.selectEquals(vector, vector.length, 4L, selection);
+    Assert.assertEquals(0, numRows);
+
+    final int[] mask = {1, 2, 5, 6};
+    numRows = NumericVectorKernels.selectEquals(vector, mask, mask.length, 3L, selection);
+    Assert.assertArrayEquals(new int[]{2, 6}, Arrays.copyOf(selection, numRows));
+  }
+
+  @Test
+  public void testSelectEqualsDoubles()
+  {
+    final double[] vector = {0.0, -0.0, Double.NaN, 1.5, 0.0};
+    final int[] selection = new int[vector.length];
+
+    int numRows = NumericVectorKernels.selectEquals(vector, vector.length, 0.0, selection);
+    Assert.assertArrayEquals(new int[]{0, 1, 4}, Arrays.copyOf(selection, numRows));
+
+    numRows = NumericVectorKernels.selectEquals(vector, vector.length, Double.NaN, selection);
+    Assert.assertEquals(0, numRows);
+
+    final int[] mask = {2, 3};
+    numRows = NumericVectorKernels.selectEquals(vector, mask, mask.length, 1.5, selection);
+    Assert.assertArrayEquals(new int[]{3}, Arrays.copyOf(selection, numRows));
+  }
+}
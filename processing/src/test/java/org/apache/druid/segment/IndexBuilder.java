@@ -236,6 +236,12 @@ public class IndexBuilder
     return this;
   }
 
+  public IndexBuilder mapIndexSpec(Function<IndexSpec, IndexSpec> f)
+  {
+    this.indexSpec = f.apply(this.indexSpec);
+    return this;
+  }
+
   public IncrementalIndex buildIncrementalIndex()
   {
     if (inputSource != null) {
@@ -29,6 +29,8 @@ import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
+
 public class IndexSpecTest
 {
   @Test
@@ -60,6 +62,100 @@ public class IndexSpecTest
     Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
   }
 
+  @Test
+  public void testSerdeNumericZoneMapRows() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = objectMapper.readValue("{ \"numericZoneMapRows\" : 4096 }", IndexSpec.class);
+
+    Assert.assertEquals(Integer.valueOf(4096), spec.getNumericZoneMapRows());
+    Assert.assertEquals(Integer.valueOf(4096), spec.getEffectiveSpec().getNumericZoneMapRows());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+    Assert.assertNull(IndexSpec.getDefault().getEffectiveSpec().getNumericZoneMapRows());
+    Assert.assertThrows(
+        Exception.class,
+        () -> objectMapper.readValue("{ \"numericZoneMapRows\" : -1 }", IndexSpec.class)
+    );
+  }
+
+  @Test
+  public void testSerdeTrigramIndexColumns() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = objectMapper.readValue(
+        "{ \"trigramIndexColumns\" : [\"dim1\"], \"extendedStringColumnFormat\" : true }",
+        IndexSpec.class
+    );
+
+    Assert.assertEquals(Collections.singleton("dim1"), spec.getTrigramIndexColumns());
+    Assert.assertTrue(spec.hasTrigramIndex("dim1"));
+    Assert.assertFalse(spec.hasTrigramIndex("dim2"));
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+    Assert.assertFalse(IndexSpec.getDefault().getEffectiveSpec().hasTrigramIndex("dim1"));
+    Assert.assertFalse(objectMapper.writeValueAsString(IndexSpec.getDefault()).contains("trigramIndexColumns"));
+  }
+
+  @Test
+  public void testSerdeBloomFilters() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = objectMapper.readValue(
+        "{ \"bloomFilterColumns\" : [\"traceId\"], \"maxPublishedBloomFilterBytes\" : 1024,"
+        + " \"extendedStringColumnFormat\" : true }",
+        IndexSpec.class
+    );
+
+    Assert.assertTrue(spec.hasBloomFilter("traceId"));
+    Assert.assertFalse(spec.hasBloomFilter("host"));
+    Assert.assertEquals(Integer.valueOf(1024), spec.getEffectiveSpec().getMaxPublishedBloomFilterBytes());
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+    Assert.assertFalse(IndexSpec.getDefault().getEffectiveSpec().hasBloomFilter("traceId"));
+    Assert.assertThrows(
+        Exception.class,
+        () -> objectMapper.readValue("{ \"maxPublishedBloomFilterBytes\" : -1 }", IndexSpec.class)
+    );
+  }
+
+  @Test
+  public void testSerdeRunLengthEncodedColumns() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = objectMapper.readValue(
+        "{ \"runLengthEncodedColumns\" : [\"tenant\"], \"extendedStringColumnFormat\" : true }",
+        IndexSpec.class
+    );
+
+    Assert.assertTrue(spec.isRunLengthEncoded("tenant"));
+    Assert.assertFalse(spec.isRunLengthEncoded("host"));
+    Assert.assertTrue(spec.getEffectiveSpec().isRunLengthEncoded("tenant"));
+    Assert.assertEquals(spec, objectMapper.readValue(objectMapper.writeValueAsBytes(spec), IndexSpec.class));
+    Assert.assertFalse(objectMapper.writeValueAsString(IndexSpec.getDefault()).contains("runLengthEncodedColumns"));
+  }
+
+  @Test
+  public void testExtendedStringColumnFormatDisabledByDefault() throws Exception
+  {
+    final ObjectMapper objectMapper = new DefaultObjectMapper();
+    final IndexSpec spec = IndexSpec.builder()
+                                    .withTrigramIndexColumns(Collections.singleton("dim1"))
+                                    .withBloomFilterColumns(Collections.singleton("dim1"))
+                                    .withRunLengthEncodedColumns(Collections.singleton("dim1"))
+                                    .build();
+
+    Assert.assertFalse(spec.isExtendedStringColumnFormat());
+    Assert.assertFalse(spec.getEffectiveSpec().hasTrigramIndex("dim1"));
+    Assert.assertFalse(spec.getEffectiveSpec().hasBloomFilter("dim1"));
+    Assert.assertFalse(spec.getEffectiveSpec().isRunLengthEncoded("dim1"));
+    Assert.assertFalse(objectMapper.writeValueAsString(spec).contains("extendedStringColumnFormat"));
+
+    final IndexSpec enabled = IndexSpec.builder()
+                                       .withRunLengthEncodedColumns(Collections.singleton("dim1"))
+                                       .withExtendedStringColumnFormat(true)
+                                       .build();
+    Assert.assertTrue(enabled.getEffectiveSpec().isRunLengthEncoded("dim1"));
+    Assert.assertEquals(enabled, objectMapper.readValue(objectMapper.writeValueAsBytes(enabled), IndexSpec.class));
+  }
+
   @Test
   public void testDefaults()
   {
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.druid.data.input.InputRow;
+import org.apache.druid.data.input.ListBasedInputRow;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.column.RowSignature;
+import org.apache.druid.segment.data.StringBloomFilter;
+import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class SegmentBloomFiltersTest extends InitializedNullHandlingTest
+{
+  private static final RowSignature SIGNATURE = RowSignature.builder()
+                                                            .add("traceId", ColumnType.STRING)
+                                                            .add("host", ColumnType.STRING)
+                                                            .build();
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testPublishedBloomFilters() throws IOException
+  {
+    final List<InputRow> rows = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      rows.add(
+          new ListBasedInputRow(
+              SIGNATURE,
+              DateTimes.of("2024-01-01").plusMinutes(i),
+              SIGNATURE.getColumnNames(),
+              Arrays.asList(i % 10 == 0 ? null : "trace" + i, "host" + (i % 3))
+          )
+      );
+    }
+    final IndexSpec indexSpec = IndexSpec.builder()
+                                         .withBloomFilterColumns(ImmutableSet.of("traceId", "missing"))
+                                         .withMaxPublishedBloomFilterBytes(256)
+                                         .withExtendedStringColumnFormat(true)
+                                         .build();
+
+    try (QueryableIndex index = buildIndex(rows, indexSpec)) {
+      final StringBloomFilter fullFilter =
+          index.getColumnHolder("traceId").getIndexSupplier().as(StringBloomFilter.class);
+      Assert.assertNotNull(fullFilter);
+      Assert.assertNull(index.getColumnHolder("host").getIndexSupplier().as(StringBloomFilter.class));
+
+      final Map<String, StringBloomFilter> published = SegmentBloomFilters.getPublishedBloomFilters(index, indexSpec);
+      Assert.assertEquals(ImmutableSet.of("traceId"), published.keySet());
+      final StringBloomFilter publishedFilter = published.get("traceId");
+      Assert.assertTrue(publishedFilter.getSerializedSize() <= 256);
+      Assert.assertTrue(fullFilter.getSerializedSize() > 256);
+
+      for (int i = 0; i < 1000; i++) {
+        if (i % 10 != 0) {
+          Assert.assertTrue(fullFilter.mightContain("trace" + i));
+          Assert.assertTrue(publishedFilter.mightContain("trace" + i));
+        }
+      }
+      Assert.assertTrue(fullFilter.mightContain(null));
+      Assert.assertTrue(publishedFilter.mightContain(null));
+      Assert.assertFalse(fullFilter.mightContain("trace0"));
+
+      Assert.assertTrue(
+          SegmentBloomFilters.getPublishedBloomFilters(
+              index,
+              IndexSpec.builder().withBloomFilterColumns(ImmutableSet.of("traceId")).build()
+          ).isEmpty()
+      );
+    }
+  }
+
+  private QueryableIndex buildIndex(List<InputRow> rows, IndexSpec indexSpec) throws IOException
+  {
+    return IndexBuilder.create()
+                       .tmpDir(temporaryFolder.newFolder())
+                       .schema(
+                           IncrementalIndexSchema.builder()
+                                                 .withDimensionsSpec(
+                                                     new DimensionsSpec(
+                                                         DimensionsSpec.getDefaultSchemas(
+                                                             ImmutableList.of("traceId", "host")
+                                                         )
+                                                     )
+                                                 )
+                                                 .withRollup(false)
+                                                 .build()
+                       )
+                       .indexSpec(indexSpec)
+                       .rows(rows)
+                       .buildMMappedIndex();
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.druid.segment.CompressedPools;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class FrameOfReferenceLongEncodingTest
+{
+  private static final int MINI_BLOCK_SIZE = FrameOfReferenceLongEncodingWriter.MINI_BLOCK_SIZE;
+  private static final int HEADER_SIZE = FrameOfReferenceLongEncodingWriter.HEADER_SIZE;
+
+  @Test
+  public void testBitsForRange()
+  {
+    Assert.assertEquals(0, FrameOfReferenceLongEncodingWriter.getBitsForRange(5, 5));
+    Assert.assertEquals(1, FrameOfReferenceLongEncodingWriter.getBitsForRange(5, 6));
+    Assert.assertEquals(8, FrameOfReferenceLongEncodingWriter.getBitsForRange(1000, 1200));
+    Assert.assertEquals(64, FrameOfReferenceLongEncodingWriter.getBitsForRange(Long.MIN_VALUE, Long.MAX_VALUE));
+    Assert.assertEquals(64, FrameOfReferenceLongEncodingWriter.getBitsForRange(-1, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testConstantMiniBlocksHaveNoData() throws IOException
+  {
+    final LongArrayList values = new LongArrayList();
+    for (int i = 0; i < MINI_BLOCK_SIZE * 3; i++) {
+      values.add(i < MINI_BLOCK_SIZE * 2 ? 7L : 11L);
+    }
+
+    final ByteBuffer encoded = FrameOfReferenceLongEncodingWriter.encode(values, ByteOrder.nativeOrder());
+    Assert.assertEquals(3 * HEADER_SIZE, encoded.remaining());
+    assertRoundTrip(values, encoded, ByteOrder.nativeOrder());
+
+    final CompressionFactory.LongEncodingReader reader = makeReader(encoded, ByteOrder.nativeOrder());
+    Assert.assertTrue(reader.isConstant(0, MINI_BLOCK_SIZE * 2));
+    Assert.assertTrue(reader.isConstant(MINI_BLOCK_SIZE / 2, MINI_BLOCK_SIZE));
+    Assert.assertTrue(reader.isConstant(MINI_BLOCK_SIZE * 2, MINI_BLOCK_SIZE));
+    Assert.assertFalse(reader.isConstant(MINI_BLOCK_SIZE, MINI_BLOCK_SIZE * 2));
+  }
+
+  @Test
+  public void testOutlierOnlyWidensItsMiniBlock() throws IOException
+  {
+    final LongArrayList values = new LongArrayList();
+    for (int i = 0; i < MINI_BLOCK_SIZE * 4; i++) {
+      values.add(1_000_000L + (i % 16));
+    }
+    values.set(MINI_BLOCK_SIZE + 3, Long.MIN_VALUE);
+
+    final ByteBuffer encoded = FrameOfReferenceLongEncodingWriter.encode(values, ByteOrder.BIG_ENDIAN);
+    Assert.assertEquals(
+        4 * HEADER_SIZE
+        + 3 * VSizeLongSerde.getSerializedSize(4, MINI_BLOCK_SIZE)
+        + VSizeLongSerde.getSerializedSize(64, MINI_BLOCK_SIZE),
+        encoded.remaining()
+    );
+    assertRoundTrip(values, encoded, ByteOrder.BIG_ENDIAN);
+  }
+
+  @Test
+  public void testRandomRoundTrip() throws IOException
+  {
+    final Random random = new Random(0);
+    for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      final LongArrayList values = new LongArrayList();
+      final int numValues = MINI_BLOCK_SIZE * 5 + 17;
+      for (int i = 0; i < numValues; i++) {
+        final int block = i / MINI_BLOCK_SIZE;
+        values.add(random.nextInt(1 << (block * 8)) - (long) block * 1000);
+      }
+      assertRoundTrip(values, FrameOfReferenceLongEncodingWriter.encode(values, order), order);
+    }
+  }
+
+  @Test
+  public void testWriterReusedAcrossBuffers() throws IOException
+  {
+    final ByteOrder order = ByteOrder.LITTLE_ENDIAN;
+    final FrameOfReferenceLongEncodingWriter writer = new FrameOfReferenceLongEncodingWriter(order);
+    final Random random = new Random(1);
+    for (int region = 0; region < 3; region++) {
+      final LongArrayList values = new LongArrayList();
+      for (int i = 0; i < MINI_BLOCK_SIZE * (region + 2) + region; i++) {
+        values.add(random.nextInt(1 << (region * 10 + 4)));
+      }
+
+      final ByteBuffer buffer = ByteBuffer.allocate(writer.getNumBytes(values.size())).order(order);
+      writer.setBuffer(buffer);
+      for (int i = 0; i < values.size(); i++) {
+        writer.write(values.getLong(i));
+      }
+      writer.flush();
+      buffer.flip();
+
+      Assert.assertEquals(FrameOfReferenceLongEncodingWriter.encode(values, order), buffer);
+      assertRoundTrip(values, buffer, order);
+    }
+  }
+
+  @Test
+  public void testEntireLayoutColumnarLongs() throws IOException
+  {
+    final ByteOrder order = ByteOrder.nativeOrder();
+    final LongArrayList values = new LongArrayList();
+    final Random random = new Random(2);
+    for (int i = 0; i < MINI_BLOCK_SIZE * 3 + 5; i++) {
+      values.add(random.nextInt(1000));
+    }
+    final EntireLayoutColumnarLongsSupplier supplier = new EntireLayoutColumnarLongsSupplier(
+        values.size(),
+        makeReader(FrameOfReferenceLongEncodingWriter.encode(values, order), order)
+    );
+
+    final ColumnarLongs columnA = supplier.get();
+    final ColumnarLongs columnB = supplier.get();
+    final long[] out = new long[values.size()];
+    columnA.get(out, 0, values.size());
+    Assert.assertArrayEquals(values.toLongArray(), out);
+
+    final int[] indexes = {1, MINI_BLOCK_SIZE * 2 + 1, values.size() - 1};
+    final long[] indexed = new long[indexes.length];
+    columnB.get(indexed, indexes, indexes.length);
+    for (int i = 0; i < indexes.length; i++) {
+      Assert.assertEquals(values.getLong(indexes[i]), indexed[i]);
+      Assert.assertEquals(values.getLong(indexes[i]), columnA.get(indexes[i]));
+    }
+  }
+
+  @Test
+  public void testBlockSize()
+  {
+    final FrameOfReferenceLongEncodingWriter writer = new FrameOfReferenceLongEncodingWriter(ByteOrder.nativeOrder());
+    final int blockSize = writer.getBlockSize(CompressedPools.BUFFER_SIZE);
+    Assert.assertEquals(Integer.bitCount(blockSize), 1);
+    Assert.assertTrue(writer.getNumBytes(blockSize) <= CompressedPools.BUFFER_SIZE);
+    Assert.assertTrue(writer.getNumBytes(blockSize * 2) > CompressedPools.BUFFER_SIZE);
+  }
+
+  private static CompressionFactory.LongEncodingReader makeReader(ByteBuffer encoded, ByteOrder order)
+  {
+    final ByteBuffer withMeta = ByteBuffer.allocate(1 + encoded.remaining()).order(order);
+    withMeta.put(CompressionFactory.FRAME_OF_REFERENCE_ENCODING_VERSION);
+    withMeta.put(encoded.duplicate());
+    withMeta.flip();
+
+    return CompressionFactory.LongEncodingFormat.FRAME_OF_REFERENCE.getReader(withMeta, order).duplicate();
+  }
+
+  private static void assertRoundTrip(LongArrayList values, ByteBuffer encoded, ByteOrder order)
+  {
+    final CompressionFactory.LongEncodingReader reader = makeReader(encoded, order);
+
+    for (int i = 0; i < values.size(); i++) {
+      Assert.assertEquals(values.getLong(i), reader.read(i));
+    }
+
+    final long[] out = new long[values.size()];
+    reader.read(out, 0, 0, values.size());
+    Assert.assertArrayEquals(values.toLongArray(), out);
+
+    // unaligned, spanning mini-blocks
+    final int start = MINI_BLOCK_SIZE / 2 + 1;
+    final long[] partial = new long[values.size() - start];
+    reader.read(partial, 0, start, partial.length);
+    for (int i = 0; i < partial.length; i++) {
+      Assert.assertEquals(values.getLong(start + i), partial[i]);
+    }
+
+    final int[] indexes = {3, MINI_BLOCK_SIZE + 3, values.size() - 1};
+    final long[] sparse = new long[indexes.length];
+    Assert.assertEquals(2, reader.read(sparse, 0, indexes, indexes.length, 0, values.size() - 1));
+    Assert.assertEquals(values.getLong(3), sparse[0]);
+    Assert.assertEquals(values.getLong(MINI_BLOCK_SIZE + 3), sparse[1]);
+  }
+}
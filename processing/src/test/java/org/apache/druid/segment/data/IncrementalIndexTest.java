@@ -66,6 +66,7 @@ import org.apache.druid.segment.Segment;
 import org.apache.druid.segment.incremental.IncrementalIndex;
 import org.apache.druid.segment.incremental.IncrementalIndexCreator;
 import org.apache.druid.segment.incremental.IncrementalIndexSchema;
+import org.apache.druid.segment.incremental.OffheapIncrementalIndex;
 import org.apache.druid.segment.incremental.OnheapIncrementalIndex;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.joda.time.Interval;
@@ -86,6 +87,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  */
@@ -114,10 +116,13 @@ public class IncrementalIndexTest extends InitializedNullHandlingTest
   @Parameterized.Parameters(name = "{index}: {0}, {1}, {2}")
   public static Collection<?> constructorFeeder()
   {
+    // preserveExistingMetrics is not supported by the offheap index
     return IncrementalIndexCreator.indexTypeCartesianProduct(
         ImmutableList.of("rollup", "plain"),
         ImmutableList.of(true, false)
-    );
+    ).stream().filter(
+        args -> !(OffheapIncrementalIndex.Spec.TYPE.equals(args[0]) && (boolean) args[2])
+    ).collect(Collectors.toList());
   }
 
   public static AggregatorFactory[] getDefaultCombiningAggregatorFactories()
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.data;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.druid.segment.writeout.OffHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.SegmentWriteOutMedium;
+import org.apache.druid.segment.writeout.WriteOutBytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class RunLengthColumnarIntsTest
+{
+  private final SegmentWriteOutMedium segmentWriteOutMedium = new OffHeapMemorySegmentWriteOutMedium();
+  private final Random rand = new Random(0);
+
+  @After
+  public void tearDown() throws Exception
+  {
+    segmentWriteOutMedium.close();
+  }
+
+  @Test
+  public void testRuns() throws Exception
+  {
+    final int[] vals = new int[10_000];
+    for (int i = 0; i < vals.length; ) {
+      final int runLength = rand.nextInt(200) + 1;
+      final int value = rand.nextInt(50);
+      for (int j = 0; j < runLength && i < vals.length; j++, i++) {
+        vals[i] = value;
+      }
+    }
+    int numRuns = 1;
+    for (int i = 1; i < vals.length; i++) {
+      if (vals[i] != vals[i - 1]) {
+        numRuns++;
+      }
+    }
+    final WritableSupplier<ColumnarInts> supplier = writeAndRead(vals);
+    final ColumnarInts ints = supplier.get();
+    Assert.assertTrue(ints instanceof RunLengthColumnarInts);
+    Assert.assertEquals(numRuns, ((RunLengthColumnarInts) ints).getNumRuns());
+    assertValues(vals, ints);
+
+    // random access, going backwards as well as forwards
+    final ColumnarInts randomAccess = supplier.get();
+    for (int i = 0; i < 1000; i++) {
+      final int row = rand.nextInt(vals.length);
+      Assert.assertEquals(vals[row], randomAccess.get(row));
+    }
+  }
+
+  @Test
+  public void testNumRuns() throws Exception
+  {
+    final int[] vals = new int[900];
+    Arrays.fill(vals, 0, 300, 3);
+    Arrays.fill(vals, 300, 500, 1);
+    Arrays.fill(vals, 500, 900, 4);
+    final RunLengthColumnarInts ints = (RunLengthColumnarInts) writeAndRead(vals).get();
+    Assert.assertEquals(3, ints.getNumRuns());
+    assertValues(vals, ints);
+  }
+
+  @Test
+  public void testRunEnd() throws Exception
+  {
+    final int[] vals = new int[900];
+    Arrays.fill(vals, 0, 300, 3);
+    Arrays.fill(vals, 300, 500, 1);
+    Arrays.fill(vals, 500, 900, 4);
+    final ColumnarInts ints = writeAndRead(vals).get();
+    Assert.assertEquals(300, ints.getRunEnd(0));
+    Assert.assertEquals(300, ints.getRunEnd(299));
+    Assert.assertEquals(500, ints.getRunEnd(300));
+    Assert.assertEquals(900, ints.getRunEnd(899));
+    Assert.assertEquals(500, ints.getRunEnd(450));
+
+    final int[] constant = new int[1000];
+    Arrays.fill(constant, 7);
+    Assert.assertEquals(1000, writeAndRead(constant).get().getRunEnd(10));
+  }
+
+  @Test
+  public void testFallbackWhenLarger() throws Exception
+  {
+    // every row is its own run, which takes 8 bytes per row rather than 1
+    final int[] vals = new int[1000];
+    for (int i = 0; i < vals.length; i++) {
+      vals[i] = i % 2;
+    }
+    final RunLengthColumnarIntsSerializer writer = makeSerializer(vals);
+    Assert.assertFalse(writer.isRunLengthEncoded());
+    Assert.assertEquals(1000, writer.getNumRuns());
+
+    final WriteOutBytes writeOutBytes = segmentWriteOutMedium.makeWriteOutBytes();
+    writer.writeTo(writeOutBytes, null);
+    Assert.assertEquals(writer.getSerializedSize(), writeOutBytes.size());
+    final ByteBuffer buffer = ByteBuffer.wrap(IOUtils.toByteArray(writeOutBytes.asInputStream()));
+    assertValues(vals, VSizeColumnarInts.readFromByteBuffer(buffer));
+  }
+
+  @Test
+  public void testConstant() throws Exception
+  {
+    final int[] vals = new int[1000];
+    Arrays.fill(vals, 7);
+    final ColumnarInts ints = writeAndRead(vals).get();
+    Assert.assertTrue(ints instanceof RunLengthColumnarInts.ConstantColumnarInts);
+    assertValues(vals, ints);
+  }
+
+  @Test
+  public void testWriteEmpty() throws Exception
+  {
+    final ColumnarInts ints = writeAndRead(new int[0]).get();
+    Assert.assertEquals(0, ints.size());
+  }
+
+  private RunLengthColumnarIntsSerializer makeSerializer(int[] vals) throws Exception
+  {
+    final RunLengthColumnarIntsSerializer writer = new RunLengthColumnarIntsSerializer(
+        segmentWriteOutMedium,
+        new VSizeColumnarIntsSerializer(segmentWriteOutMedium, Arrays.stream(vals).max().orElse(0))
+    );
+    writer.open();
+    for (int val : vals) {
+      writer.addValue(val);
+    }
+    return writer;
+  }
+
+  private WritableSupplier<ColumnarInts> writeAndRead(int[] vals) throws Exception
+  {
+    final RunLengthColumnarIntsSerializer writer = makeSerializer(vals);
+    Assert.assertTrue(writer.isRunLengthEncoded());
+    final long writtenLength = writer.getSerializedSize();
+    final WriteOutBytes writeOutBytes = segmentWriteOutMedium.makeWriteOutBytes();
+    writer.writeTo(writeOutBytes, null);
+    Assert.assertEquals(writtenLength, writeOutBytes.size());
+
+    final ByteBuffer buffer = ByteBuffer.wrap(IOUtils.toByteArray(writeOutBytes.asInputStream()));
+    final WritableSupplier<ColumnarInts> supplier = RunLengthColumnarInts.read(buffer);
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertEquals(writtenLength, supplier.getSerializedSize());
+    return supplier;
+  }
+
+  private void assertValues(int[] vals, ColumnarInts ints)
+  {
+    Assert.assertEquals(vals.length, ints.size());
+    for (int i = 0; i < vals.length; i++) {
+      Assert.assertEquals(vals[i], ints.get(i));
+    }
+
+    // contiguous vectors, as read by vector selectors
+    final int[] vector = new int[128];
+    for (int start = 0; start < vals.length; start += vector.length) {
+      final int length = Math.min(vector.length, vals.length - start);
+      ints.get(vector, start, length);
+      for (int i = 0; i < length; i++) {
+        Assert.assertEquals(vals[start + i], vector[i]);
+      }
+    }
+
+    // non-contiguous vectors, as read through a filtered offset
+    final int[] indexes = new int[]{0, vals.length / 3, vals.length / 2, vals.length - 1};
+    ints.get(vector, indexes, indexes.length);
+    for (int i = 0; i < indexes.length; i++) {
+      Assert.assertEquals(vals[indexes[i]], vector[i]);
+    }
+  }
+}
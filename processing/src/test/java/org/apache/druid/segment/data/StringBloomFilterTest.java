@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class StringBloomFilterTest
+{
+  private static final int NUM_VALUES = 10_000;
+
+  @Test
+  public void testNoFalseNegatives()
+  {
+    final StringBloomFilter filter = makeFilter(NUM_VALUES);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      Assert.assertTrue(filter.mightContain("value" + i));
+    }
+    Assert.assertFalse(filter.mightContain(null));
+  }
+
+  @Test
+  public void testFalsePositiveRate()
+  {
+    final StringBloomFilter filter = makeFilter(NUM_VALUES);
+    int falsePositives = 0;
+    for (int i = 0; i < NUM_VALUES; i++) {
+      if (filter.mightContain("other" + i)) {
+        falsePositives++;
+      }
+    }
+    // sized for 1%, allow some slack
+    Assert.assertTrue("falsePositives[" + falsePositives + "]", falsePositives < NUM_VALUES * 0.02);
+  }
+
+  @Test
+  public void testNull()
+  {
+    final StringBloomFilter filter = StringBloomFilter.create(10, StringBloomFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY);
+    Assert.assertFalse(filter.mightContain(null));
+    filter.add(null);
+    Assert.assertTrue(filter.mightContain(null));
+    Assert.assertFalse(filter.mightContain(""));
+    Assert.assertTrue(StringBloomFilter.fromBase64(filter.toBase64()).mightContain(null));
+  }
+
+  @Test
+  public void testFold()
+  {
+    final StringBloomFilter filter = makeFilter(NUM_VALUES);
+    Assert.assertSame(filter, filter.fold(filter.getSerializedSize()));
+
+    final StringBloomFilter folded = filter.fold(1024);
+    Assert.assertTrue(folded.getSerializedSize() <= 1024);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      Assert.assertTrue(folded.mightContain("value" + i));
+    }
+
+    // cannot fold below a single word
+    Assert.assertEquals(15, filter.fold(0).getSerializedSize());
+  }
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    final StringBloomFilter filter = makeFilter(100);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(filter.getSerializedSize() + 3);
+    buffer.put(new byte[]{1, 2, 3});
+    buffer.put(filter.toBytes());
+    buffer.position(3);
+    Assert.assertEquals(filter, StringBloomFilter.fromByteBuffer(buffer));
+    Assert.assertFalse(buffer.hasRemaining());
+
+    final ObjectMapper mapper = new DefaultObjectMapper();
+    Assert.assertEquals(filter, mapper.readValue(mapper.writeValueAsString(filter), StringBloomFilter.class));
+  }
+
+  private static StringBloomFilter makeFilter(int numValues)
+  {
+    final StringBloomFilter filter =
+        StringBloomFilter.create(numValues, StringBloomFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY);
+    for (int i = 0; i < numValues; i++) {
+      filter.add("value" + i);
+    }
+    return filter;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.data;
+
+import org.apache.druid.collections.bitmap.BitmapFactory;
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.query.DefaultBitmapResultFactory;
+import org.apache.druid.query.filter.DruidPredicateFactory;
+import org.apache.druid.query.filter.LikeDimFilter;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+import org.apache.druid.segment.index.IndexedStringDruidPredicateIndexes;
+import org.apache.druid.segment.index.IndexedUtf8TrigramSubstringIndexes;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.roaringbitmap.IntIterator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class Utf8TrigramIndexTest extends InitializedNullHandlingTest
+{
+  private static final BitmapSerdeFactory BITMAP_SERDE_FACTORY = RoaringBitmapSerdeFactory.getInstance();
+  private static final BitmapFactory BITMAP_FACTORY = BITMAP_SERDE_FACTORY.getBitmapFactory();
+
+  private final DefaultBitmapResultFactory resultFactory = new DefaultBitmapResultFactory(BITMAP_FACTORY);
+
+  @Test
+  public void testGetDictionaryIds() throws IOException
+  {
+    final Utf8TrigramIndex index = writeAndRead(Arrays.asList(null, "", "ab", "abc", "abcd", "bcd", "héllo"));
+
+    Assert.assertEquals(Arrays.asList(3, 4), toList(index.getDictionaryIds(gram("abc"))));
+    Assert.assertEquals(Arrays.asList(4, 5), toList(index.getDictionaryIds(gram("bcd"))));
+    Assert.assertNull(index.getDictionaryIds(gram("xyz")));
+
+    // multi-byte characters are split across trigrams
+    final int[] grams = Utf8TrigramIndex.getGrams("héllo");
+    Assert.assertEquals(4, grams.length);
+    for (int gram : grams) {
+      Assert.assertEquals(Collections.singletonList(6), toList(index.getDictionaryIds(gram)));
+    }
+    Assert.assertEquals(0, Utf8TrigramIndex.getGrams("ab").length);
+    Assert.assertEquals(1, Utf8TrigramIndex.getGrams("aaaa").length);
+  }
+
+  @Test
+  public void testEmptyIndex() throws IOException
+  {
+    final Utf8TrigramIndex index = writeAndRead(Arrays.asList(null, "", "a"));
+    Assert.assertEquals(0, index.getNumGrams());
+    Assert.assertNull(index.getDictionaryIds(gram("abc")));
+  }
+
+  @Test
+  public void testSubstringIndexesMatchPredicateIndexes() throws IOException
+  {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final TreeSet<String> distinctValues = new TreeSet<>();
+    for (int i = 0; i < 500; i++) {
+      distinctValues.add(randomString(random, random.nextInt(12)));
+    }
+    final List<String> values = new ArrayList<>();
+    values.add(null);
+    values.addAll(distinctValues);
+
+    final Utf8TrigramIndex trigramIndex = writeAndRead(values);
+    final ListIndexed<String> dictionary = new ListIndexed<>(values);
+    final List<ImmutableBitmap> bitmapList = new ArrayList<>();
+    for (int i = 0; i < values.size(); i++) {
+      final MutableBitmap bitmap = BITMAP_FACTORY.makeEmptyMutableBitmap();
+      bitmap.add(i);
+      bitmapList.add(BITMAP_FACTORY.makeImmutableBitmap(bitmap));
+    }
+    final ListIndexed<ImmutableBitmap> bitmaps = new ListIndexed<>(bitmapList);
+
+    final IndexedUtf8TrigramSubstringIndexes<ListIndexed<String>> substringIndexes =
+        new IndexedUtf8TrigramSubstringIndexes<>(BITMAP_FACTORY, dictionary, bitmaps, trigramIndex);
+    final IndexedStringDruidPredicateIndexes<ListIndexed<String>> predicateIndexes =
+        new IndexedStringDruidPredicateIndexes<>(BITMAP_FACTORY, dictionary, bitmaps);
+
+    for (int i = 0; i < 200; i++) {
+      final String pattern = "%" + randomString(random, 3 + random.nextInt(3)) + "%"
+                             + (random.nextBoolean() ? randomString(random, random.nextInt(4)) + "%" : "");
+      final LikeDimFilter.LikeMatcher matcher = LikeDimFilter.LikeMatcher.from(pattern, null);
+      final DruidPredicateFactory predicateFactory = matcher.predicateFactory(null);
+      final BitmapColumnIndex substringIndex = substringIndexes.forSubstrings(matcher.getLiterals(), predicateFactory);
+      Assert.assertNotNull(pattern, substringIndex);
+      for (boolean includeUnknown : new boolean[]{false, true}) {
+        Assert.assertEquals(
+            pattern,
+            toList(predicateIndexes.forPredicate(predicateFactory).computeBitmapResult(resultFactory, includeUnknown)),
+            toList(substringIndex.computeBitmapResult(resultFactory, includeUnknown))
+        );
+      }
+    }
+
+    // no literal long enough to have a trigram
+    final LikeDimFilter.LikeMatcher shortMatcher = LikeDimFilter.LikeMatcher.from("%ab%c%", null);
+    Assert.assertNull(substringIndexes.forSubstrings(shortMatcher.getLiterals(), shortMatcher.predicateFactory(null)));
+  }
+
+  private static Utf8TrigramIndex writeAndRead(List<String> dictionary) throws IOException
+  {
+    final Utf8TrigramIndexWriter writer = new Utf8TrigramIndexWriter(
+        new OnHeapMemorySegmentWriteOutMedium(),
+        "test",
+        BITMAP_SERDE_FACTORY
+    );
+    for (int i = 0; i < dictionary.size(); i++) {
+      writer.add(i, dictionary.get(i));
+    }
+    final long size = writer.getSerializedSize();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(Channels.newChannel(out), null);
+    Assert.assertEquals(size, out.size());
+
+    final ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    final Utf8TrigramIndex index = Utf8TrigramIndex.read(buffer, BITMAP_SERDE_FACTORY, null);
+    Assert.assertFalse(buffer.hasRemaining());
+    return index;
+  }
+
+  private static int gram(String value)
+  {
+    final int[] grams = Utf8TrigramIndex.getGrams(value);
+    Assert.assertEquals(1, grams.length);
+    return grams[0];
+  }
+
+  private static String randomString(ThreadLocalRandom random, int length)
+  {
+    // small alphabet, including a multi-byte character, so that trigrams are shared between many values
+    final char[] alphabet = {'a', 'b', 'c', 'é'};
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      sb.append(alphabet[random.nextInt(alphabet.length)]);
+    }
+    return sb.toString();
+  }
+
+  private static List<Integer> toList(ImmutableBitmap bitmap)
+  {
+    final List<Integer> list = new ArrayList<>();
+    final IntIterator iterator = bitmap.iterator();
+    while (iterator.hasNext()) {
+      list.add(iterator.next());
+    }
+    return list;
+  }
+}
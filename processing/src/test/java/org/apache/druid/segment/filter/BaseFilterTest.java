@@ -556,6 +556,37 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
                           return Pair.of(new QueryableIndexCursorFactory(index), index);
                         }
                     )
+                    .put(
+                        "mmappedZoneMaps",
+                        input -> {
+                          // tiny zones so that range filters on numeric columns skip, accept, and scan zones
+                          input.mapIndexSpec(
+                              indexSpec -> IndexSpec.builder()
+                                                    .withBitmapSerdeFactory(indexSpec.getBitmapSerdeFactory())
+                                                    .withNumericZoneMapRows(2)
+                                                    .build()
+                          );
+                          final QueryableIndex index = input.buildMMappedIndex();
+                          return Pair.of(new QueryableIndexCursorFactory(index), index);
+                        }
+                    )
+                    .put(
+                        "mmappedTrigrams",
+                        input -> {
+                          // substring filters on these columns use the trigram index instead of scanning dictionaries
+                          input.mapIndexSpec(
+                              indexSpec -> IndexSpec.builder()
+                                                    .withBitmapSerdeFactory(indexSpec.getBitmapSerdeFactory())
+                                                    .withTrigramIndexColumns(
+                                                        ImmutableSet.of("dim0", "dim1", "dim2", "dim3", "s0")
+                                                    )
+                                                    .withExtendedStringColumnFormat(true)
+                                                    .build()
+                          );
+                          final QueryableIndex index = input.buildMMappedIndex();
+                          return Pair.of(new QueryableIndexCursorFactory(index), index);
+                        }
+                    )
                     .put(
                         "rowBasedWithoutTypeSignature",
                         input -> Pair.of(input.buildRowBasedSegmentWithoutTypeSignature().as(CursorFactory.class), () -> {})
@@ -680,6 +711,10 @@ public abstract class BaseFilterTest extends InitializedNullHandlingTest
       StringEncodingStrategy encodingStrategy
   )
   {
+    if (finisherEntry.getKey().equals("mmappedZoneMaps") || finisherEntry.getKey().equals("mmappedTrigrams")) {
+      // zone maps and trigram indexes only add indexes to the written columns, so only run the default options
+      return storeNullColumns || useV10 || !StringEncodingStrategy.UTF8_STRATEGY.equals(encodingStrategy);
+    }
     if (finisherEntry.getKey().contains("mmap")) {
       // storeNullColumns does not exist on v10, which always stores 'null' columns
       return useV10 && !storeNullColumns;
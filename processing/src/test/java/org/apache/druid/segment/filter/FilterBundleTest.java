@@ -37,6 +37,7 @@ import org.apache.druid.segment.QueryableIndex;
 import org.apache.druid.segment.TestIndex;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.index.BitmapColumnIndex;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.junit.After;
 import org.junit.Assert;
@@ -86,10 +87,16 @@ public class FilterBundleTest extends InitializedNullHandlingTest
         cursorAutoArrangeFilters
     );
 
+    // Both have the same cost, but with cursorAutoArrangeFilters flag on, isRobot goes first because it matches more
+    // rows, which need not be checked against the other child of the OR.
     Assert.assertEquals(
-        "index: OR (selectionSize = 39244)\n"
-        + "  index: countryName = United States (selectionSize = 528)\n"
-        + "  index: isRobot = true (selectionSize = 15420)\n",
+        cursorAutoArrangeFilters
+        ? "index: OR (selectionSize = 39244)\n"
+          + "  index: isRobot = true (selectionSize = 15420)\n"
+          + "  index: countryName = United States (selectionSize = 528)\n"
+        : "index: OR (selectionSize = 39244)\n"
+          + "  index: countryName = United States (selectionSize = 528)\n"
+          + "  index: isRobot = true (selectionSize = 15420)\n",
         filterBundle.getInfo().describe()
     );
   }
@@ -183,8 +190,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
   }
 
   @Test
-  @Parameters({"true"})
-  public void test_pageLike_and_country_pageLike_with_cursorAutoArrangeFilters(boolean cursorAutoArrangeFilters)
+  public void test_pageLike_and_country_pageLike_with_cursorAutoArrangeFilters()
   {
     final FilterBundle filterBundle = makeFilterBundle(
         new AndFilter(
@@ -193,7 +199,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
                 new EqualityFilter("countryName", ColumnType.STRING, "United States", null)
             )
         ),
-        cursorAutoArrangeFilters
+        true
     );
 
     // With cursorAutoArrangeFilters flag on, the indexes are sorted by cost ASC, hence country name index is used first.
@@ -227,8 +233,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
   }
 
   @Test
-  @Parameters({"true"})
-  public void test_or_pageLike_countryNotNull_pageLike_with_cursorAutoArrangeFilters(boolean cursorAutoArrangeFilters)
+  public void test_or_pageLike_countryNotNull_pageLike_with_cursorAutoArrangeFilters()
   {
     final FilterBundle filterBundle = makeFilterBundle(
         new OrFilter(
@@ -237,7 +242,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
                 new NotFilter(new NullFilter("countryName", null))
             )
         ),
-        cursorAutoArrangeFilters
+        true
     );
 
     // With cursorAutoArrangeFilters flag on, the indexes are sorted by cost ASC, hence country name index is used first.
@@ -272,8 +277,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
 
 
   @Test
-  @Parameters({"true"})
-  public void test_and_cursorAutoArrangeFilters(boolean cursorAutoArrangeFilters)
+  public void test_and_cursorAutoArrangeFilters()
   {
     final FilterBundle filterBundle = makeFilterBundle(
         new AndFilter(
@@ -288,7 +292,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
                 new NotFilter(new NullFilter("countryName", null))
             )
         ),
-        cursorAutoArrangeFilters
+        true
     );
 
     // The estimate cost for child Filters:
@@ -307,8 +311,7 @@ public class FilterBundleTest extends InitializedNullHandlingTest
   }
 
   @Test
-  @Parameters({"true"})
-  public void test_or_cursorAutoArrangeFilters(boolean cursorAutoArrangeFilters)
+  public void test_or_cursorAutoArrangeFilters()
   {
     final FilterBundle filterBundle = makeFilterBundle(
         new OrFilter(
@@ -330,13 +333,13 @@ public class FilterBundleTest extends InitializedNullHandlingTest
                 new NullFilter("countryName", null)
             )
         ),
-        cursorAutoArrangeFilters
+        true
     );
 
-    // The estimate cost for child Filters:
-    // 1. countryName NullFilter: 0
-    // 2. channel EqualityFilter: 1
-    // 3. isRobot TypedInFilter: 2
+    // The estimate cost for child Filters, and the rank (cost divided by estimated selectivity) for OR children:
+    // 1. countryName NullFilter: 0, rank 0
+    // 2. isRobot TypedInFilter: 2, rank 2 since it matches every row
+    // 3. channel EqualityFilter: 1, rank ~3.4 since it matches ~29% of rows
     // 4. page LikeFilter with prefix and countryName EqualityFilter: 1 + size of page dictionary with keys matching "O" prefix
     // 5. page LikeFilter and countryName EqualityFilter: 1 + size of page dictionary
     Assert.assertEquals(
@@ -344,8 +347,8 @@ public class FilterBundleTest extends InitializedNullHandlingTest
         + "  matcher: OR\n"
         + "    with partial index: OR (selectionSize = 39244)\n"
         + "      index: countryName IS NULL (selectionSize = 35445)\n"
-        + "      index: channel = #en.wikipedia (selectionSize = 11549)\n"
         + "      index: isRobot IN (false, true) (STRING) (selectionSize = 39244)\n"
+        + "      index: channel = #en.wikipedia (selectionSize = 11549)\n"
         + "  matcher: AND\n"
         + "    with partial index: countryName = United States (selectionSize = 528)\n"
         + "    matcher: page LIKE 'O%'\n"
@@ -466,6 +469,84 @@ public class FilterBundleTest extends InitializedNullHandlingTest
     );
   }
 
+  @Test
+  public void test_and_isRobot_country_with_cursorAutoArrangeFilters()
+  {
+    final FilterBundle filterBundle = makeFilterBundle(
+        new AndFilter(
+            ImmutableList.of(
+                new EqualityFilter("isRobot", ColumnType.STRING, "true", null),
+                new EqualityFilter("countryName", ColumnType.STRING, "United States", null)
+            )
+        ),
+        true
+    );
+
+    // Both have the same cost, but countryName goes first because it removes more rows from the intersection.
+    Assert.assertEquals(
+        "index: AND (selectionSize = 0)\n"
+        + "  index: countryName = United States (selectionSize = 528)\n"
+        + "  index: isRobot = true (selectionSize = 15420)\n",
+        filterBundle.getInfo().describe()
+    );
+  }
+
+  @Test
+  public void test_estimatedSelectivity()
+  {
+    final int numRows = indexSelector.getNumRows();
+    final Filter country = new EqualityFilter("countryName", ColumnType.STRING, "United States", null);
+    final Filter isRobot = new EqualityFilter("isRobot", ColumnType.STRING, "true", null);
+    final Filter countryIsNull = new NullFilter("countryName", null);
+    final Filter isRobotIn = new TypedInFilter(
+        "isRobot",
+        ColumnType.STRING,
+        ImmutableList.of("false", "true"),
+        null,
+        null
+    );
+
+    Assert.assertEquals(528.0 / numRows, estimatedSelectivity(country), 1e-9);
+    Assert.assertEquals(35445.0 / numRows, estimatedSelectivity(countryIsNull), 1e-9);
+    Assert.assertEquals(3799.0 / numRows, estimatedSelectivity(new NotFilter(countryIsNull)), 1e-9);
+    Assert.assertEquals(1.0, estimatedSelectivity(isRobotIn), 1e-9);
+    Assert.assertEquals(
+        (528.0 / numRows) * (15420.0 / numRows),
+        estimatedSelectivity(new AndFilter(ImmutableList.of(country, isRobot))),
+        1e-9
+    );
+    Assert.assertEquals(
+        1.0 - (1.0 - 528.0 / numRows) * (1.0 - 15420.0 / numRows),
+        estimatedSelectivity(new OrFilter(ImmutableList.of(country, isRobot))),
+        1e-9
+    );
+
+    // Matchers have no estimate, which makes an OR unknown but leaves an AND with the estimate of its other children
+    final Filter pageLike = new LikeDimFilter("page", "%u%", null, null).toFilter();
+    Assert.assertEquals(
+        528.0 / numRows,
+        estimatedSelectivity(new AndFilter(ImmutableList.of(country, pageLike))),
+        1e-9
+    );
+    Assert.assertEquals(
+        BitmapColumnIndex.UNKNOWN_SELECTIVITY,
+        estimatedSelectivity(new OrFilter(ImmutableList.of(country, pageLike))),
+        0.0
+    );
+
+    // Nothing is estimated unless filters are being arranged
+    Assert.assertEquals(
+        BitmapColumnIndex.UNKNOWN_SELECTIVITY,
+        new FilterBundle.Builder(country, indexSelector, false).getEstimatedSelectivity(),
+        0.0
+    );
+  }
+
+  private double estimatedSelectivity(final Filter filter)
+  {
+    return new FilterBundle.Builder(filter, indexSelector, true).getEstimatedSelectivity();
+  }
+
   protected FilterBundle makeFilterBundle(final Filter filter, boolean cursorAutoArrangeFilters)
   {
     return new FilterBundle.Builder(filter, indexSelector,
@@ -226,6 +226,31 @@ public class LikeFilterTest extends BaseFilterTest
     );
   }
 
+  @Test
+  public void testWildcardMatchMultipleLiterals()
+  {
+    assertFilterMatches(
+        new LikeDimFilter("dim1", "%oo%ba_%", null, null),
+        ImmutableList.of("2", "4", "5")
+    );
+    assertFilterMatches(
+        NotDimFilter.of(new LikeDimFilter("dim1", "%oo%ba_%", null, null)),
+        ImmutableList.of("0", "1", "3", "6")
+    );
+    assertFilterMatches(
+        new LikeDimFilter("dim1", "%arbaz", null, null),
+        ImmutableList.of("4")
+    );
+    assertFilterMatches(
+        new LikeDimFilter("dim1", "%qux%", null, null),
+        ImmutableList.of()
+    );
+    assertFilterMatches(
+        NotDimFilter.of(new LikeDimFilter("dim1", "%qux%", null, null)),
+        ImmutableList.of("0", "1", "2", "3", "4", "5", "6")
+    );
+  }
+
   @Test
   public void testMatchEmptyString()
   {
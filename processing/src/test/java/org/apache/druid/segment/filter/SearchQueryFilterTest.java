@@ -29,6 +29,7 @@ import org.apache.druid.js.JavaScriptConfig;
 import org.apache.druid.query.extraction.ExtractionFn;
 import org.apache.druid.query.extraction.JavaScriptExtractionFn;
 import org.apache.druid.query.filter.Filter;
+import org.apache.druid.query.filter.NotDimFilter;
 import org.apache.druid.query.filter.SearchQueryDimFilter;
 import org.apache.druid.query.search.ContainsSearchQuerySpec;
 import org.apache.druid.query.search.SearchQuerySpec;
@@ -93,6 +94,11 @@ public class SearchQueryFilterTest extends BaseFilterTest
     assertFilterMatches(new SearchQueryDimFilter("dim1", specForValue("def"), null), ImmutableList.of("4"));
     assertFilterMatches(new SearchQueryDimFilter("dim1", specForValue("abc"), null), ImmutableList.of("5"));
     assertFilterMatches(new SearchQueryDimFilter("dim1", specForValue("ab"), null), ImmutableList.of("4", "5"));
+    assertFilterMatches(new SearchQueryDimFilter("dim1", specForValue("abcd"), null), ImmutableList.of());
+    assertFilterMatches(
+        NotDimFilter.of(new SearchQueryDimFilter("dim1", specForValue("abc"), null)),
+        ImmutableList.of("0", "1", "2", "3", "4")
+    );
   }
 
   @Test
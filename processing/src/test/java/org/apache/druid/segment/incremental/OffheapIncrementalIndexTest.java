@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.segment.incremental;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.apache.druid.data.input.MapBasedInputRow;
+import org.apache.druid.data.input.Row;
+import org.apache.druid.data.input.impl.AggregateProjectionSpec;
+import org.apache.druid.data.input.impl.DimensionsSpec;
+import org.apache.druid.data.input.impl.StringDimensionSchema;
+import org.apache.druid.error.DruidException;
+import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.aggregation.DoubleSumAggregatorFactory;
+import org.apache.druid.query.aggregation.LongSumAggregatorFactory;
+import org.apache.druid.segment.TestHelper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class OffheapIncrementalIndexTest
+{
+  private static final ObjectMapper MAPPER = TestHelper.makeJsonMapper();
+
+  @Test
+  public void testSpecSerde() throws JsonProcessingException
+  {
+    final OffheapIncrementalIndex.Spec spec = new OffheapIncrementalIndex.Spec(1_000_000L, 4096, 512);
+    Assert.assertEquals(spec, MAPPER.readValue(MAPPER.writeValueAsString(spec), AppendableIndexSpec.class));
+
+    final OffheapIncrementalIndex.Spec defaultSpec = new OffheapIncrementalIndex.Spec();
+    Assert.assertEquals(
+        defaultSpec,
+        MAPPER.readValue("{\"type\": \"offheap\"}", AppendableIndexSpec.class)
+    );
+  }
+
+  @Test
+  public void testSpecEqualsAndHashCode()
+  {
+    EqualsVerifier.forClass(OffheapIncrementalIndex.Spec.class)
+                  .usingGetClass()
+                  .verify();
+  }
+
+  @Test
+  public void testRollupAcrossChunks()
+  {
+    // 8 + 9 + 9 (sums have a null byte) = 26 bytes per row, so a 100 byte chunk holds 3 rows
+    final OffheapIncrementalIndex index = (OffheapIncrementalIndex) new OffheapIncrementalIndex.Builder()
+        .setChunkSize(100)
+        .setSimpleTestingIndexSchema(
+            new CountAggregatorFactory("count"),
+            new LongSumAggregatorFactory("sum", "value"),
+            new DoubleSumAggregatorFactory("doubleSum", "value")
+        )
+        .setMaxRowCount(1000)
+        .build();
+
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 10; i++) {
+        index.add(
+            new MapBasedInputRow(
+                0,
+                List.of("dim"),
+                ImmutableMap.of("dim", String.valueOf(i), "value", i)
+            )
+        );
+      }
+    }
+
+    Assert.assertEquals(10, index.numRows());
+    Assert.assertEquals(4 * 3 * 26, index.getOffheapBytesAllocated());
+
+    final List<Row> rows = new ArrayList<>();
+    index.iterableWithPostAggregations(null, false).forEach(rows::add);
+    Assert.assertEquals(10, rows.size());
+    for (Row row : rows) {
+      final long value = Long.parseLong(row.getDimension("dim").get(0));
+      Assert.assertEquals(3L, row.getMetric("count"));
+      Assert.assertEquals(3 * value, row.getMetric("sum"));
+      Assert.assertEquals(3.0 * value, row.getMetric("doubleSum").doubleValue(), 0.0);
+    }
+
+    index.close();
+    Assert.assertEquals(0, index.getOffheapBytesAllocated());
+  }
+
+  @Test
+  public void testReadsDuringIngestion() throws Exception
+  {
+    final OffheapIncrementalIndex index = (OffheapIncrementalIndex) new OffheapIncrementalIndex.Builder()
+        .setChunkSize(1000)
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"), new LongSumAggregatorFactory("sum", "value"))
+        .setMaxRowCount(100_000)
+        .build();
+
+    // more rows than row locks, each added twice, so rows sharing a lock are read while others are aggregated into
+    final int numKeys = 4 * OffheapIncrementalIndex.NUM_ROW_LOCKS;
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final ExecutorService reader = Execs.singleThreaded("offheap-reader-%d");
+    try {
+      final Future<?> readerFuture = reader.submit(() -> {
+        while (!done.get()) {
+          for (Row row : index.iterableWithPostAggregations(null, false)) {
+            final long count = row.getMetric("count").longValue();
+            final long value = Long.parseLong(row.getDimension("dim").get(0));
+            Assert.assertTrue(count == 1 || count == 2);
+            Assert.assertEquals(count * value, row.getMetric("sum").longValue());
+          }
+        }
+      });
+
+      for (int round = 0; round < 2; round++) {
+        for (int i = 0; i < numKeys; i++) {
+          index.add(new MapBasedInputRow(0, List.of("dim"), ImmutableMap.of("dim", String.valueOf(i), "value", i)));
+        }
+      }
+      done.set(true);
+      readerFuture.get();
+    }
+    finally {
+      reader.shutdownNow();
+    }
+
+    Assert.assertEquals(numKeys, index.numRows());
+    for (Row row : index.iterableWithPostAggregations(null, false)) {
+      final long value = Long.parseLong(row.getDimension("dim").get(0));
+      Assert.assertEquals(2L, row.getMetric("count"));
+      Assert.assertEquals(2 * value, row.getMetric("sum"));
+    }
+    index.close();
+  }
+
+  @Test
+  public void testMaxOffheapBytesInMemory()
+  {
+    // 8 bytes per row
+    final IncrementalIndex index = new OffheapIncrementalIndex.Builder()
+        .setMaxOffheapBytesInMemory(16)
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"))
+        .setMaxRowCount(1000)
+        .build();
+
+    index.add(new MapBasedInputRow(0, List.of("dim"), ImmutableMap.of("dim", "a")));
+    Assert.assertTrue(index.canAppendRow());
+    index.add(new MapBasedInputRow(0, List.of("dim"), ImmutableMap.of("dim", "b")));
+    Assert.assertFalse(index.canAppendRow());
+    Assert.assertEquals("Maximum off-heap size in bytes [16] reached", index.getOutOfRowsReason());
+    index.close();
+  }
+
+  @Test
+  public void testLargeAggregatorFallsBackToOnheap()
+  {
+    // count is 8 bytes, sum is 9 bytes since it has a null byte
+    final IncrementalIndex offheap = new OffheapIncrementalIndex.Builder()
+        .setMaxAggregatorIntermediateSize(8)
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"))
+        .setMaxRowCount(1000)
+        .build();
+    Assert.assertTrue(offheap instanceof OffheapIncrementalIndex);
+    offheap.close();
+
+    final IncrementalIndex onheap = new OffheapIncrementalIndex.Builder()
+        .setMaxAggregatorIntermediateSize(8)
+        .setSimpleTestingIndexSchema(new CountAggregatorFactory("count"), new LongSumAggregatorFactory("sum", "value"))
+        .setMaxRowCount(1000)
+        .build();
+    Assert.assertTrue(onheap instanceof OnheapIncrementalIndex);
+    onheap.close();
+  }
+
+  @Test
+  public void testProjectionsNotSupported()
+  {
+    final AggregateProjectionSpec projectionSpec =
+        AggregateProjectionSpec.builder("proj")
+                               .groupingColumns(new StringDimensionSchema("string"))
+                               .aggregators(new CountAggregatorFactory("count"))
+                               .build();
+    final DruidException e = Assert.assertThrows(
+        DruidException.class,
+        () -> new OffheapIncrementalIndex.Builder()
+            .setIndexSchema(
+                IncrementalIndexSchema.builder()
+                                      .withDimensionsSpec(
+                                          DimensionsSpec.builder()
+                                                        .setDimensions(List.of(new StringDimensionSchema("string")))
+                                                        .build()
+                                      )
+                                      .withMetrics(new CountAggregatorFactory("count"))
+                                      .withProjections(List.of(projectionSpec))
+                                      .build()
+            )
+            .setMaxRowCount(1000)
+            .build()
+    );
+    Assert.assertEquals(
+        "appendableIndexSpec type[offheap] does not support projections, use type[onheap] instead",
+        e.getMessage()
+    );
+  }
+}
@@ -80,6 +80,35 @@ public class InlineJoinableFactoryTest
     Assert.assertEquals(3, joinable.getCardinality("long"));
   }
 
+  @Test
+  public void testBuildReusesCachedTable()
+  {
+    final InlineJoinableFactory cachingFactory = new InlineJoinableFactory(new InlineJoinableFactoryConfig(10));
+    final InlineDataSource sameRows = InlineDataSource.fromIterable(
+        ImmutableList.of(
+            new Object[]{"foo", 1L},
+            new Object[]{"bar", 2L}
+        ),
+        inlineDataSource.getRowSignature()
+    );
+
+    Assert.assertTrue(cachingFactory.build(inlineDataSource, makeCondition("x == \"j.long\"")).isPresent());
+    Assert.assertTrue(cachingFactory.build(sameRows, makeCondition("x == \"j.long\"")).isPresent());
+    Assert.assertEquals(1, cachingFactory.getCachedTableCount());
+
+    // different key columns need a different table
+    final Joinable otherKeyJoinable = cachingFactory.build(sameRows, makeCondition("x == \"j.str\"")).get();
+    Assert.assertEquals(ImmutableList.of("str", "long"), otherKeyJoinable.getAvailableColumns());
+    Assert.assertEquals(2, cachingFactory.getCachedTableCount());
+  }
+
+  @Test
+  public void testBuildWithoutCache()
+  {
+    Assert.assertTrue(factory.build(inlineDataSource, makeCondition("x == \"j.long\"")).isPresent());
+    Assert.assertEquals(0, factory.getCachedTableCount());
+  }
+
   @Test
   public void testIsDirectlyJoinable()
   {
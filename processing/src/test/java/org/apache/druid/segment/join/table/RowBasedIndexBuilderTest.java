@@ -265,6 +265,28 @@ public class RowBasedIndexBuilderTest
     index.findUniqueLong(5L);
   }
 
+  @Test
+  public void test_stringKey_manyDuplicateKeys()
+  {
+    final RowBasedIndexBuilder builder =
+        new RowBasedIndexBuilder(ColumnType.STRING)
+            .add("abc")
+            .add("def")
+            .add("abc")
+            .add("abc")
+            .add("abc");
+
+    final IndexedTable.Index index = builder.build();
+
+    MatcherAssert.assertThat(index, CoreMatchers.instanceOf(MapIndex.class));
+    Assert.assertFalse(index.areKeysUnique(false));
+
+    Assert.assertEquals(intSet(0, 2, 3, 4), index.find("abc"));
+    Assert.assertEquals(intSet(1), index.find("def"));
+    Assert.assertEquals(0, index.find("abc").firstInt());
+    Assert.assertEquals(4, index.find("abc").lastInt());
+  }
+
   public IntSortedSet intSet(final int... ints)
   {
     final IntAVLTreeSet retVal = new IntAVLTreeSet();
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.druid.segment.serde;
+
+import org.apache.druid.collections.bitmap.ImmutableBitmap;
+import org.apache.druid.collections.bitmap.MutableBitmap;
+import org.apache.druid.query.DefaultBitmapResultFactory;
+import org.apache.druid.segment.DoubleColumnSerializerV2;
+import org.apache.druid.segment.GenericColumnSerializer;
+import org.apache.druid.segment.IndexIO;
+import org.apache.druid.segment.LongColumnSerializerV2;
+import org.apache.druid.segment.column.ColumnBuilder;
+import org.apache.druid.segment.column.ColumnConfig;
+import org.apache.druid.segment.column.ColumnIndexSupplier;
+import org.apache.druid.segment.data.CompressionFactory;
+import org.apache.druid.segment.data.CompressionStrategy;
+import org.apache.druid.segment.data.RoaringBitmapSerdeFactory;
+import org.apache.druid.segment.index.BitmapColumnIndex;
+import org.apache.druid.segment.index.semantic.NullValueIndex;
+import org.apache.druid.segment.index.semantic.NumericRangeIndexes;
+import org.apache.druid.segment.selector.TestColumnValueSelector;
+import org.apache.druid.segment.writeout.OnHeapMemorySegmentWriteOutMedium;
+import org.apache.druid.testing.InitializedNullHandlingTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.roaringbitmap.IntIterator;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class NumericZoneMapIndexSupplierTest extends InitializedNullHandlingTest
+{
+  private static final int NUM_ROWS = 1000;
+  private static final int ZONE_ROWS = 64;
+
+  private final DefaultBitmapResultFactory resultFactory =
+      new DefaultBitmapResultFactory(RoaringBitmapSerdeFactory.getInstance().getBitmapFactory());
+
+  @Test
+  public void testLongRangeMatchesScan() throws IOException
+  {
+    // sorted-ish values so that most zones are skipped or fully matched, with some nulls and a few outliers
+    final List<Object> values = new ArrayList<>();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      if (i % 37 == 0) {
+        values.add(null);
+      } else if (i % 101 == 0) {
+        values.add(-1000L);
+      } else {
+        values.add((long) i);
+      }
+    }
+    final ColumnIndexSupplier indexSupplier = readColumn(values, true, ZONE_ROWS);
+    final NumericRangeIndexes rangeIndexes = indexSupplier.as(NumericRangeIndexes.class);
+    Assert.assertNotNull(rangeIndexes);
+    Assert.assertNotNull(indexSupplier.as(NullValueIndex.class));
+
+    assertRange(rangeIndexes, values, 100L, false, 200L, false);
+    assertRange(rangeIndexes, values, 100L, true, 200L, true);
+    assertRange(rangeIndexes, values, null, false, 10L, true);
+    assertRange(rangeIndexes, values, 990L, false, null, false);
+    assertRange(rangeIndexes, values, -1000L, false, -1000L, false);
+    assertRange(rangeIndexes, values, 2000L, false, null, false);
+    // fractional bounds are rounded the same way the long predicate does
+    assertRange(rangeIndexes, values, 99.5, true, 200.5, true);
+    assertRange(rangeIndexes, values, 99.5, false, 200.5, false);
+
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < 50; i++) {
+      final long start = random.nextLong(-1100, NUM_ROWS + 100);
+      final long end = start + random.nextLong(0, 300);
+      assertRange(rangeIndexes, values, start, random.nextBoolean(), end, random.nextBoolean());
+    }
+  }
+
+  @Test
+  public void testDoubleRangeMatchesScan() throws IOException
+  {
+    final List<Object> values = new ArrayList<>();
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      if (i % 53 == 0) {
+        values.add(null);
+      } else if (i == 500) {
+        values.add(Double.NaN);
+      } else if (i == 600) {
+        values.add(-0.0);
+      } else {
+        values.add(i / 10.0 + random.nextDouble());
+      }
+    }
+    final ColumnIndexSupplier indexSupplier = readColumn(values, false, ZONE_ROWS);
+    final NumericRangeIndexes rangeIndexes = indexSupplier.as(NumericRangeIndexes.class);
+    Assert.assertNotNull(rangeIndexes);
+
+    assertRange(rangeIndexes, values, 10.0, false, 20.0, false);
+    assertRange(rangeIndexes, values, null, false, 0.0, false);
+    assertRange(rangeIndexes, values, 0.0, false, null, false);
+    assertRange(rangeIndexes, values, 90.0, true, null, false);
+    assertRange(rangeIndexes, values, 200.0, false, null, false);
+    for (int i = 0; i < 50; i++) {
+      final double start = random.nextDouble(-10, 110);
+      final double end = start + random.nextDouble(0, 30);
+      assertRange(rangeIndexes, values, start, random.nextBoolean(), end, random.nextBoolean());
+    }
+  }
+
+  @Test
+  public void testFallsBackToMatcherWhenZonesDoNotHelp() throws IOException
+  {
+    // every zone covers the whole value range, so the zone map cannot skip or accept anything
+    final List<Object> values = new ArrayList<>();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      values.add((long) (i % ZONE_ROWS));
+    }
+    final ColumnIndexSupplier indexSupplier = readColumn(values, true, ZONE_ROWS);
+    final BitmapColumnIndex index = indexSupplier.as(NumericRangeIndexes.class).forRange(10L, false, 20L, false);
+    Assert.assertNull(index.computeBitmapResult(resultFactory, NUM_ROWS, NUM_ROWS, false));
+    Assert.assertEquals(
+        toList(expected(values, 10L, false, 20L, false, false)),
+        toList(index.computeBitmapResult(resultFactory, false))
+    );
+
+    // the range only overlaps a single zone, which is cheaper to scan than applying the matcher to every row
+    final List<Object> sorted = new ArrayList<>();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      sorted.add((long) i);
+    }
+    final BitmapColumnIndex sortedIndex = readColumn(sorted, true, ZONE_ROWS)
+        .as(NumericRangeIndexes.class)
+        .forRange(10L, false, 20L, false);
+    Assert.assertEquals(
+        toList(expected(sorted, 10L, false, 20L, false, false)),
+        toList(sortedIndex.computeBitmapResult(resultFactory, NUM_ROWS, NUM_ROWS, false))
+    );
+    Assert.assertNull(sortedIndex.computeBitmapResult(resultFactory, ZONE_ROWS - 1, NUM_ROWS, false));
+  }
+
+  @Test
+  public void testNoZoneMap() throws IOException
+  {
+    final List<Object> values = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      values.add(i % 3 == 0 ? null : (long) i);
+    }
+    final ColumnIndexSupplier indexSupplier = readColumn(values, true, 0);
+    Assert.assertNull(indexSupplier.as(NumericRangeIndexes.class));
+    Assert.assertNotNull(indexSupplier.as(NullValueIndex.class));
+  }
+
+  private void assertRange(
+      NumericRangeIndexes rangeIndexes,
+      List<Object> values,
+      @Nullable Number start,
+      boolean startStrict,
+      @Nullable Number end,
+      boolean endStrict
+  )
+  {
+    final BitmapColumnIndex index = rangeIndexes.forRange(start, startStrict, end, endStrict);
+    for (boolean includeUnknown : new boolean[]{false, true}) {
+      final ImmutableBitmap expected = expected(values, start, startStrict, end, endStrict, includeUnknown);
+      final ImmutableBitmap actual = index.computeBitmapResult(resultFactory, includeUnknown);
+      Assert.assertEquals(
+          start + (startStrict ? " < x" : " <= x") + (endStrict ? " < " : " <= ") + end,
+          toList(expected),
+          toList(actual)
+      );
+    }
+  }
+
+  private ImmutableBitmap expected(
+      List<Object> values,
+      @Nullable Number start,
+      boolean startStrict,
+      @Nullable Number end,
+      boolean endStrict,
+      boolean includeUnknown
+  )
+  {
+    final MutableBitmap bitmap = RoaringBitmapSerdeFactory.getInstance().getBitmapFactory().makeEmptyMutableBitmap();
+    for (int row = 0; row < values.size(); row++) {
+      final Object value = values.get(row);
+      if (value == null) {
+        if (includeUnknown) {
+          bitmap.add(row);
+        }
+        continue;
+      }
+      final boolean matches;
+      if (value instanceof Long) {
+        final long v = (Long) value;
+        matches = (start == null || (startStrict ? v > start.doubleValue() : v >= start.doubleValue()))
+                  && (end == null || (endStrict ? v < end.doubleValue() : v <= end.doubleValue()));
+      } else {
+        final double v = (Double) value;
+        matches = (start == null || (startStrict
+                                     ? Double.compare(v, start.doubleValue()) > 0
+                                     : Double.compare(v, start.doubleValue()) >= 0))
+                  && (end == null || (endStrict
+                                      ? Double.compare(v, end.doubleValue()) < 0
+                                      : Double.compare(v, end.doubleValue()) <= 0));
+      }
+      if (matches) {
+        bitmap.add(row);
+      }
+    }
+    return RoaringBitmapSerdeFactory.getInstance().getBitmapFactory().makeImmutableBitmap(bitmap);
+  }
+
+  private static List<Integer> toList(ImmutableBitmap bitmap)
+  {
+    final List<Integer> rows = new ArrayList<>();
+    final IntIterator iterator = bitmap.iterator();
+    while (iterator.hasNext()) {
+      rows.add(iterator.next());
+    }
+    return rows;
+  }
+
+  private static ColumnIndexSupplier readColumn(List<Object> values, boolean isLong, int zoneMapRows)
+      throws IOException
+  {
+    final OnHeapMemorySegmentWriteOutMedium medium = new OnHeapMemorySegmentWriteOutMedium();
+    final GenericColumnSerializer<Object> serializer;
+    final ColumnPartSerde partSerde;
+    if (isLong) {
+      serializer = LongColumnSerializerV2.create(
+          "test",
+          medium,
+          "test",
+          CompressionStrategy.LZ4,
+          CompressionFactory.LongEncodingStrategy.LONGS,
+          RoaringBitmapSerdeFactory.getInstance(),
+          zoneMapRows
+      );
+      partSerde = LongNumericColumnPartSerdeV2.serializerBuilder()
+                                              .withByteOrder(IndexIO.BYTE_ORDER)
+                                              .withBitmapSerdeFactory(RoaringBitmapSerdeFactory.getInstance())
+                                              .withZoneMap(zoneMapRows > 0)
+                                              .withDelegate(serializer)
+                                              .build();
+    } else {
+      serializer = DoubleColumnSerializerV2.create(
+          "test",
+          medium,
+          "test",
+          CompressionStrategy.LZ4,
+          RoaringBitmapSerdeFactory.getInstance(),
+          zoneMapRows
+      );
+      partSerde = DoubleNumericColumnPartSerdeV2.serializerBuilder()
+                                                .withByteOrder(IndexIO.BYTE_ORDER)
+                                                .withBitmapSerdeFactory(RoaringBitmapSerdeFactory.getInstance())
+                                                .withZoneMap(zoneMapRows > 0)
+                                                .withDelegate(serializer)
+                                                .build();
+    }
+
+    serializer.open();
+    final TestColumnValueSelector<Object> selector = TestColumnValueSelector.of(Object.class, values);
+    while (!selector.isDone()) {
+      selector.advance();
+      serializer.serialize(selector);
+    }
+    final long size = partSerde.getSerializer().getSerializedSize();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    partSerde.getSerializer().writeTo(Channels.newChannel(out), null);
+    Assert.assertEquals(size, out.size());
+
+    final ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    final ColumnBuilder builder = new ColumnBuilder();
+    partSerde.getDeserializer().read(buffer, builder, ColumnConfig.DEFAULT, null);
+    Assert.assertFalse(buffer.hasRemaining());
+    return builder.build().getIndexSupplier();
+  }
+}
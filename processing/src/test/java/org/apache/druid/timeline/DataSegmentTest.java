@@ -40,6 +40,7 @@ import org.apache.druid.query.filter.SelectorDimFilter;
 import org.apache.druid.segment.IndexSpec;
 import org.apache.druid.segment.VirtualColumns;
 import org.apache.druid.segment.column.ColumnType;
+import org.apache.druid.segment.data.StringBloomFilter;
 import org.apache.druid.segment.transform.CompactionTransformSpec;
 import org.apache.druid.segment.virtual.ExpressionVirtualColumn;
 import org.apache.druid.timeline.DataSegment.PruneSpecsHolder;
@@ -370,6 +371,25 @@ public class DataSegmentTest
     Assert.assertEquals("empty metrics", ImmutableList.of(), segment2.getMetrics());
   }
 
+  @Test
+  public void testSerializationWithBloomFilters() throws Exception
+  {
+    final StringBloomFilter bloomFilter = StringBloomFilter.create(10, 0.01);
+    bloomFilter.add("abc");
+    final DataSegment segment = DataSegment.builder(SegmentId.of(
+        "foo",
+        Intervals.of("2012-01-01/2012-01-02"),
+        DateTimes.of("2012-01-01T11:22:33.444Z").toString(),
+        null
+    )).bloomFilters(ImmutableMap.of("dim1", bloomFilter)).build();
+
+    final DataSegment segment2 = MAPPER.readValue(MAPPER.writeValueAsString(segment), DataSegment.class);
+    Assert.assertEquals(ImmutableMap.of("dim1", bloomFilter), segment2.getBloomFilters());
+    Assert.assertTrue(segment2.getBloomFilters().get("dim1").mightContain("abc"));
+    Assert.assertNull(segment2.withSize(1).toBuilder().bloomFilters(null).build().getBloomFilters());
+    Assert.assertEquals(segment2.getBloomFilters(), segment2.withSize(1).getBloomFilters());
+  }
+
   @Test
   public void testWithLastCompactionState()
   {
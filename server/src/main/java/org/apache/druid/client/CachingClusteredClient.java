@@ -103,6 +103,7 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BinaryOperator;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
@@ -116,6 +117,11 @@ import java.util.stream.Collectors;
 public class CachingClusteredClient implements QuerySegmentWalker
 {
   private static final EmittingLogger log = new EmittingLogger(CachingClusteredClient.class);
+  /**
+   * With {@link QueryContexts#HEDGE_DELAY_AUTO}, requests are hedged once they take this many times longer than the
+   * moving average latency of the server, which already leans towards recent slow responses.
+   */
+  private static final double ADAPTIVE_HEDGE_DELAY_LATENCY_MULTIPLIER = 2;
   private final QueryRunnerFactoryConglomerate conglomerate;
   private final TimelineServerView serverView;
   private final Cache cache;
@@ -263,7 +269,13 @@ public class CachingClusteredClient implements QuerySegmentWalker
     private final boolean populateCache;
     private final boolean isBySegment;
     private final int uncoveredIntervalsLimit;
+    private final long hedgeDelay;
     private final Map<String, Cache.NamedKey> cachePopulatorKeyMap = new HashMap<>();
+    /**
+     * Servers which serve all segments queried from a server, used to hedge requests to it. Only populated if hedging
+     * is enabled.
+     */
+    private final Map<DruidServer, Set<QueryableDruidServer>> hedgeCandidatesByServer = new HashMap<>();
     private final ExecutionVertex ev;
     private final List<Interval> intervals;
     private final CacheKeyManager<T> cacheKeyManager;
@@ -284,6 +296,7 @@ public class CachingClusteredClient implements QuerySegmentWalker
       // Note that enabling this leads to putting uncovered intervals information in the response headers
       // and might blow up in some cases https://github.com/apache/druid/issues/2108
       this.uncoveredIntervalsLimit = queryContext.getUncoveredIntervalsLimit();
+      this.hedgeDelay = queryContext.getHedgeDelay();
       // For nested queries, we need to look at the intervals of the inner most query.
       this.intervals = ev
           .getEffectiveQuerySegmentSpec()
@@ -386,7 +399,11 @@ public class CachingClusteredClient implements QuerySegmentWalker
     {
       BinaryOperator<T> mergeFn = toolChest.createMergeFn(query);
       final QueryContext queryContext = query.context();
-      if (parallelMergeConfig.useParallelMergePool() && queryContext.getEnableParallelMerges() && mergeFn != null) {
+      // a single input has nothing to merge, so don't pay for handing its results over to the merge pool
+      if (parallelMergeConfig.useParallelMergePool()
+          && queryContext.getEnableParallelMerges()
+          && mergeFn != null
+          && sequencesByInterval.size() > 1) {
         final ParallelMergeCombiningSequence<T> parallelSequence = new ParallelMergeCombiningSequence<>(
             pool,
             sequencesByInterval,
@@ -606,6 +623,15 @@ public class CachingClusteredClient implements QuerySegmentWalker
         } else {
           final DruidServer server = queryableDruidServer.getServer();
           serverSegments.computeIfAbsent(server, s -> new ArrayList<>()).add(segmentServer.getSegmentDescriptor());
+          if (hedgeDelay != 0) {
+            // only hedge to servers the tier selector strategy would have picked just as well
+            final Set<QueryableDruidServer> candidates =
+                segmentServer.getServer().getServersLike(queryableDruidServer, cloneQueryMode);
+            hedgeCandidatesByServer.merge(server, candidates, (existing, next) -> {
+              existing.retainAll(next);
+              return existing;
+            });
+          }
         }
       }
       return serverSegments;
@@ -665,12 +691,13 @@ public class CachingClusteredClient implements QuerySegmentWalker
     )
     {
       segmentsByServer.forEach((server, segmentsOfServer) -> {
-        final QueryRunner serverRunner = serverView.getQueryRunner(server);
+        final QueryRunner<T> directRunner = serverView.getQueryRunner(server);
 
-        if (serverRunner == null) {
+        if (directRunner == null) {
           log.error("Server [%s] doesn't have a query runner", server.getName());
           return;
         }
+        final QueryRunner serverRunner = makeHedgedRunner(server, directRunner);
 
         // Divide user-provided maxQueuedBytes by the number of servers, and limit each server to that much.
         final long maxQueuedBytes = query.context().getMaxQueuedBytes(httpClientConfig.getMaxQueuedBytes());
@@ -688,6 +715,51 @@ public class CachingClusteredClient implements QuerySegmentWalker
       });
     }
 
+    /**
+     * Returns a runner which hedges requests to the given server with another server that serves all of the segments
+     * queried from it, see {@link DirectDruidClient#runHedged}. Returns the server's own runner if hedging is disabled
+     * or no such server exists. Among the candidates, the one which responded fastest recently is used.
+     */
+    private QueryRunner<T> makeHedgedRunner(final DruidServer server, final QueryRunner<T> serverRunner)
+    {
+      final Set<QueryableDruidServer> candidates = hedgeCandidatesByServer.get(server);
+      if (candidates == null || !(serverRunner instanceof DirectDruidClient)) {
+        return serverRunner;
+      }
+      final DirectDruidClient<T> primary = (DirectDruidClient<T>) serverRunner;
+      final long delayMillis;
+      if (hedgeDelay == QueryContexts.HEDGE_DELAY_ADAPTIVE) {
+        delayMillis = TimeUnit.NANOSECONDS.toMillis(
+            (long) (primary.getAverageLatencyNs() * ADAPTIVE_HEDGE_DELAY_LATENCY_MULTIPLIER)
+        );
+      } else {
+        delayMillis = hedgeDelay;
+      }
+      if (delayMillis <= 0) {
+        // no latency has been measured for the server yet
+        return serverRunner;
+      }
+
+      DirectDruidClient<T> backup = null;
+      for (QueryableDruidServer candidate : candidates) {
+        if (candidate.getServer().getName().equals(server.getName())
+            || !(candidate.getQueryRunner() instanceof DirectDruidClient)) {
+          continue;
+        }
+        @SuppressWarnings("unchecked")
+        final DirectDruidClient<T> candidateClient = (DirectDruidClient<T>) candidate.getQueryRunner();
+        if (backup == null || candidateClient.getAverageLatencyNs() < backup.getAverageLatencyNs()) {
+          backup = candidateClient;
+        }
+      }
+      if (backup == null) {
+        return serverRunner;
+      }
+      final DirectDruidClient<T> hedgeTarget = backup;
+      return (hedgedQueryPlus, hedgedResponseContext) ->
+          primary.runHedged(hedgedQueryPlus, hedgedResponseContext, hedgeTarget, delayMillis);
+    }
+
     @SuppressWarnings("unchecked")
     private Sequence<T> getBySegmentServerResults(
         final QueryRunner serverRunner,
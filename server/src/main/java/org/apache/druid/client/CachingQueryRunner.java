@@ -27,25 +27,41 @@ import com.google.common.primitives.Bytes;
 import org.apache.druid.client.cache.Cache;
 import org.apache.druid.client.cache.CacheConfig;
 import org.apache.druid.client.cache.CachePopulator;
+import org.apache.druid.java.util.common.DateTimes;
+import org.apache.druid.java.util.common.ISE;
+import org.apache.druid.java.util.common.granularity.Granularity;
 import org.apache.druid.java.util.common.guava.BaseSequence;
+import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.Sequences;
 import org.apache.druid.query.CacheStrategy;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryToolChest;
 import org.apache.druid.query.SegmentDescriptor;
 import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.spec.SpecificSegmentSpec;
 import org.joda.time.Interval;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class CachingQueryRunner<T> implements QueryRunner<T>
 {
+  /**
+   * Upper limit on the number of granularity buckets a segment's results are split into when
+   * {@link QueryContexts#SEGMENT_CACHE_BY_GRANULARITY_KEY} is set, to bound the number of cache entries.
+   */
+  static final int MAX_GRANULARITY_BUCKETS = 1000;
+
   private final String cacheId;
   private final SegmentDescriptor segmentDescriptor;
   private final Interval actualDataInterval;
@@ -101,42 +117,18 @@ public class CachingQueryRunner<T> implements QueryRunner<T>
       key = null;
     }
 
+    if (useCache && populateCache && canSplitByGranularity(query, strategy)) {
+      final List<Interval> buckets = getGranularityBuckets(query.getGranularity(), segmentDescriptor.getInterval());
+      if (buckets != null) {
+        return runByGranularityBucket(queryPlus, responseContext, strategy, buckets);
+      }
+    }
+
     if (useCache) {
       final Function cacheFn = strategy.pullFromSegmentLevelCache();
       final byte[] cachedResult = cache.get(key);
       if (cachedResult != null) {
-        final TypeReference cacheObjectClazz = strategy.getCacheObjectClazz();
-
-        return Sequences.map(
-            new BaseSequence<>(
-                new BaseSequence.IteratorMaker<T, Iterator<T>>()
-                {
-                  @Override
-                  public Iterator<T> make()
-                  {
-                    try {
-                      if (cachedResult.length == 0) {
-                        return Collections.emptyIterator();
-                      }
-
-                      return mapper.readValues(
-                          mapper.getFactory().createParser(cachedResult),
-                          cacheObjectClazz
-                      );
-                    }
-                    catch (IOException e) {
-                      throw new RuntimeException(e);
-                    }
-                  }
-
-                  @Override
-                  public void cleanup(Iterator<T> iterFromMake)
-                  {
-                  }
-                }
-            ),
-            cacheFn
-        );
+        return readCachedResult(cachedResult, strategy.getCacheObjectClazz(), cacheFn);
       }
     }
 
@@ -176,6 +168,185 @@ public class CachingQueryRunner<T> implements QueryRunner<T>
     ) && cacheKeyPrefix.isPresent();
   }
 
+  /**
+   * @return whether segment-level results may be cached per granularity bucket, see
+   * {@link CacheStrategy#isSegmentLevelCacheSplittableByGranularity}
+   */
+  @VisibleForTesting
+  boolean canSplitByGranularity(Query<T> query, CacheStrategy strategy)
+  {
+    return query.context().isSegmentCacheByGranularity()
+           && !query.context().isBySegment()
+           && strategy.isSegmentLevelCacheSplittableByGranularity(query);
+  }
+
+  /**
+   * Splits the interval into buckets of the given granularity. Returns null if the interval is not aligned to the
+   * granularity, or would produce more than {@link #MAX_GRANULARITY_BUCKETS} buckets, in which case results are cached
+   * for the interval as a whole.
+   */
+  @Nullable
+  @VisibleForTesting
+  static List<Interval> getGranularityBuckets(Granularity granularity, Interval interval)
+  {
+    if (granularity.bucketStart(interval.getStartMillis()) != interval.getStartMillis()
+        || granularity.bucketStart(interval.getEndMillis()) != interval.getEndMillis()) {
+      return null;
+    }
+
+    final List<Interval> buckets = new ArrayList<>();
+    for (Interval bucket : granularity.getIterable(interval)) {
+      if (buckets.size() == MAX_GRANULARITY_BUCKETS) {
+        return null;
+      }
+      buckets.add(bucket);
+    }
+    return buckets.isEmpty() ? null : buckets;
+  }
+
+  /**
+   * Serves each granularity bucket from the cache if possible. Each contiguous range of buckets that are not cached is
+   * computed by a single run of the base runner over the whole range. Its results are then split by bucket and cached
+   * per bucket, so that later queries covering a different but overlapping set of buckets can reuse them.
+   */
+  private Sequence<T> runByGranularityBucket(
+      final QueryPlus<T> queryPlus,
+      final ResponseContext responseContext,
+      final CacheStrategy strategy,
+      final List<Interval> buckets
+  )
+  {
+    final Query<T> query = queryPlus.getQuery();
+    final byte[] queryCacheKey = Bytes.concat(cacheKeyPrefix.get(), strategy.computeCacheKey(query));
+    final List<Cache.NamedKey> keys = new ArrayList<>(buckets.size());
+    for (Interval bucket : buckets) {
+      keys.add(
+          CacheUtil.computeSegmentCacheKey(
+              cacheId,
+              alignToActualDataInterval(makeBucketDescriptor(bucket)),
+              queryCacheKey
+          )
+      );
+    }
+    final Map<Cache.NamedKey, byte[]> cachedResults = cache.getBulk(keys);
+
+    final Function pullFn = strategy.pullFromSegmentLevelCache();
+    final List<Sequence<T>> sequences = new ArrayList<>();
+    int i = 0;
+    while (i < buckets.size()) {
+      final byte[] cachedResult = cachedResults.get(keys.get(i));
+      if (cachedResult != null) {
+        sequences.add(readCachedResult(cachedResult, strategy.getCacheObjectClazz(), pullFn));
+        i++;
+      } else {
+        int end = i + 1;
+        while (end < buckets.size() && cachedResults.get(keys.get(end)) == null) {
+          end++;
+        }
+        sequences.add(
+            runMissingBuckets(queryPlus, responseContext, strategy, buckets.subList(i, end), keys.subList(i, end))
+        );
+        i = end;
+      }
+    }
+    return Sequences.concat(sequences);
+  }
+
+  /**
+   * Runs the base runner once over a contiguous range of buckets, and caches its results split by bucket timestamp.
+   * The results are materialized to split them, much like cache population already holds on to them until the
+   * segment is done.
+   */
+  private Sequence<T> runMissingBuckets(
+      final QueryPlus<T> queryPlus,
+      final ResponseContext responseContext,
+      final CacheStrategy strategy,
+      final List<Interval> buckets,
+      final List<Cache.NamedKey> keys
+  )
+  {
+    final Interval range = new Interval(buckets.get(0).getStart(), buckets.get(buckets.size() - 1).getEnd());
+    final QueryPlus<T> rangeQueryPlus = queryPlus.withQuery(
+        queryPlus.getQuery().withQuerySegmentSpec(new SpecificSegmentSpec(makeBucketDescriptor(range)))
+    );
+    final Function prepareFn = strategy.prepareForSegmentLevelCache();
+
+    return new LazySequence<>(
+        () -> {
+          final List<T> results = base.run(rangeQueryPlus, responseContext).toList();
+          final List<Sequence<T>> bucketSequences = new ArrayList<>(buckets.size());
+          int start = 0;
+          for (int b = 0; b < buckets.size(); b++) {
+            final long bucketEnd = buckets.get(b).getEndMillis();
+            int end = start;
+            while (end < results.size() && strategy.getResultTimestampMillis(results.get(end)) < bucketEnd) {
+              end++;
+            }
+            bucketSequences.add(
+                cachePopulator.wrap(
+                    Sequences.simple(results.subList(start, end)),
+                    value -> prepareFn.apply(value),
+                    cache,
+                    keys.get(b)
+                )
+            );
+            start = end;
+          }
+          if (start != results.size()) {
+            throw new ISE(
+                "Result with timestamp[%s] is outside of interval[%s]",
+                DateTimes.utc(strategy.getResultTimestampMillis(results.get(start))),
+                range
+            );
+          }
+          return Sequences.concat(bucketSequences);
+        }
+    );
+  }
+
+  private Sequence<T> readCachedResult(
+      final byte[] cachedResult,
+      final TypeReference cacheObjectClazz,
+      final Function cacheFn
+  )
+  {
+    return Sequences.map(
+        new BaseSequence<>(
+            new BaseSequence.IteratorMaker<T, Iterator<T>>()
+            {
+              @Override
+              public Iterator<T> make()
+              {
+                try {
+                  if (cachedResult.length == 0) {
+                    return Collections.emptyIterator();
+                  }
+
+                  return mapper.readValues(
+                      mapper.getFactory().createParser(cachedResult),
+                      cacheObjectClazz
+                  );
+                }
+                catch (IOException e) {
+                  throw new RuntimeException(e);
+                }
+              }
+
+              @Override
+              public void cleanup(Iterator<T> iterFromMake)
+              {
+              }
+            }
+        ),
+        cacheFn
+    );
+  }
+
+  private SegmentDescriptor makeBucketDescriptor(Interval bucket)
+  {
+    return new SegmentDescriptor(bucket, segmentDescriptor.getVersion(), segmentDescriptor.getPartitionNumber());
+  }
+
   private SegmentDescriptor alignToActualDataInterval(SegmentDescriptor in)
   {
     Interval interval = in.getInterval();
@@ -27,6 +27,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.apache.druid.java.util.common.RE;
 import org.apache.druid.java.util.common.StringUtils;
 import org.apache.druid.java.util.common.concurrent.Execs;
@@ -41,9 +42,11 @@ import org.apache.druid.java.util.http.client.response.ClientResponse;
 import org.apache.druid.java.util.http.client.response.HttpResponseHandler;
 import org.apache.druid.java.util.http.client.response.StatusResponseHandler;
 import org.apache.druid.java.util.http.client.response.StatusResponseHolder;
+import org.apache.druid.query.FrameTransferQueryRunner;
 import org.apache.druid.query.Queries;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryContext;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryMetrics;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
@@ -55,6 +58,7 @@ import org.apache.druid.query.ResourceLimitExceededException;
 import org.apache.druid.query.aggregation.MetricManipulatorFns;
 import org.apache.druid.query.context.ConcurrentResponseContext;
 import org.apache.druid.query.context.ResponseContext;
+import org.apache.druid.query.rowsandcols.RowsAndColumns;
 import org.apache.druid.server.QueryResource;
 import org.apache.druid.utils.CloseableUtils;
 import org.jboss.netty.buffer.ChannelBuffer;
@@ -65,6 +69,7 @@ import org.jboss.netty.handler.codec.http.HttpMethod;
 import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.joda.time.Duration;
 
+import javax.annotation.Nullable;
 import javax.ws.rs.core.MediaType;
 
 import java.io.IOException;
@@ -72,6 +77,7 @@ import java.io.InputStream;
 import java.io.SequenceInputStream;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -88,7 +94,7 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class DirectDruidClient<T> implements QueryRunner<T>
 {
-  public static final String QUERY_FAIL_TIME = "queryFailTime";
+  public static final String QUERY_FAIL_TIME = QueryContexts.QUERY_FAIL_TIME;
 
   private static final Logger log = new Logger(DirectDruidClient.class);
   private static final int VAL_TO_REDUCE_REMAINING_RESPONSES = -1;
@@ -102,6 +108,7 @@ public class DirectDruidClient<T> implements QueryRunner<T>
   private final ServiceEmitter emitter;
 
   private final AtomicInteger openConnections;
+  private final ServerLatencyTracker latencyTracker;
   private final boolean isSmile;
   private final ScheduledExecutorService queryCancellationExecutor;
 
@@ -142,6 +149,7 @@ public class DirectDruidClient<T> implements QueryRunner<T>
 
     this.isSmile = this.objectMapper.getFactory() instanceof SmileFactory;
     this.openConnections = new AtomicInteger();
+    this.latencyTracker = new ServerLatencyTracker();
     this.queryCancellationExecutor = queryCancellationExecutor;
   }
 
@@ -150,16 +158,220 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     return openConnections.get();
   }
 
+  /**
+   * Returns the moving average of the time this server took to start responding to queries, in nanoseconds, or 0 if
+   * it has not responded to any yet. See {@link ServerLatencyTracker}.
+   */
+  public double getAverageLatencyNs()
+  {
+    return latencyTracker.getAverageNs();
+  }
+
   @Override
   public Sequence<T> run(final QueryPlus<T> queryPlus, final ResponseContext context)
   {
     final Query<T> query = queryPlus.getQuery();
-    QueryToolChest<T, Query<T>> toolChest = conglomerate.getToolChest(query);
-    boolean isBySegment = query.context().isBySegment();
-    final JavaType queryResultType = isBySegment ? toolChest.getBySegmentResultType() : toolChest.getBaseResultType();
+    return makeResultSequence(query, sendQuery(query, context, new AtomicBoolean(false)));
+  }
+
+  /**
+   * Like {@link #run}, but if this server has not started responding within {@code hedgeDelayMillis}, or fails before
+   * that, the query is also sent to {@code backup}, which must serve the same segments. Results are read from
+   * whichever server starts responding first, and the request to the other server is cancelled. The query only fails
+   * once neither server can respond anymore.
+   *
+   * Each of the two requests is sent with its own query id, derived from the id of the query, since the backup is
+   * usually also running its own request for other segments of the same query, and cancelling the losing request by
+   * the id of the query would cancel that one too.
+   *
+   * Each request gets its own response context, and only the context of the server whose results are used is merged
+   * into {@code context}, so that the response is counted once in
+   * {@link ResponseContext.Keys#REMAINING_RESPONSES_FROM_QUERY_SERVERS}.
+   */
+  public Sequence<T> runHedged(
+      final QueryPlus<T> queryPlus,
+      final ResponseContext context,
+      final DirectDruidClient<T> backup,
+      final long hedgeDelayMillis
+  )
+  {
+    final Query<T> query = queryPlus.getQuery();
+    final long requestStartTimeNs = System.nanoTime();
+    final SettableFuture<InputStream> winner = SettableFuture.create();
+    // number of requests which may still respond, the query fails once this drops to zero without a winner
+    final AtomicInteger numPending = new AtomicInteger(1);
+    final AtomicBoolean backupSent = new AtomicBoolean(false);
+    final AtomicReference<ListenableFuture<InputStream>> backupFutureRef = new AtomicReference<>();
+
+    final Query<T> primaryQuery = withHedgedRequestId(query);
+    final ResponseContext primaryContext = makeHedgedResponseContext(context);
+    final AtomicBoolean primaryLatencyRecorded = new AtomicBoolean(false);
+    final ListenableFuture<InputStream> primaryFuture = sendQuery(primaryQuery, primaryContext, primaryLatencyRecorded);
+
+    final Runnable sendBackup = () -> {
+      if (winner.isDone() || !backupSent.compareAndSet(false, true)) {
+        return;
+      }
+      log.debug("Hedging queryId[%s] from host[%s] to host[%s]", query.getId(), host, backup.host);
+      numPending.incrementAndGet();
+      final Query<T> backupQuery = withHedgedRequestId(query);
+      final ResponseContext backupContext = makeHedgedResponseContext(context);
+      final ListenableFuture<InputStream> backupFuture;
+      try {
+        backupFuture = backup.sendQuery(backupQuery, backupContext, new AtomicBoolean(false));
+      }
+      catch (Exception e) {
+        log.warn(e, "Unable to hedge queryId[%s] to host[%s]", query.getId(), backup.host);
+        if (numPending.decrementAndGet() == 0) {
+          winner.setException(e);
+        }
+        return;
+      }
+      backupFutureRef.set(backupFuture);
+      addHedgeCallback(
+          backup,
+          query,
+          backupQuery,
+          backupFuture,
+          backupContext,
+          context,
+          winner,
+          numPending,
+          () -> {
+            primaryFuture.cancel(true);
+            // the cancelled request is not measured otherwise, so count it as failed unless it responded already
+            if (primaryLatencyRecorded.compareAndSet(false, true)) {
+              latencyTracker.addFailure(System.nanoTime() - requestStartTimeNs);
+            }
+          },
+          () -> {}
+      );
+      if (winner.isDone()) {
+        // the primary request finished while the backup was being sent, this is a no-op if the backup won
+        backupFuture.cancel(true);
+      }
+    };
+
+    addHedgeCallback(
+        this,
+        query,
+        primaryQuery,
+        primaryFuture,
+        primaryContext,
+        context,
+        winner,
+        numPending,
+        () -> {
+          final ListenableFuture<InputStream> backupFuture = backupFutureRef.get();
+          if (backupFuture != null) {
+            backupFuture.cancel(true);
+          }
+        },
+        () -> {
+          // don't wait for the hedge delay if the primary cannot respond anyway
+          if (!primaryFuture.isCancelled()) {
+            sendBackup.run();
+          }
+        }
+    );
+    queryCancellationExecutor.schedule(sendBackup, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+
+    return makeResultSequence(query, winner);
+  }
 
+  /**
+   * Returns the query with an id of its own, used for one of the requests of {@link #runHedged}.
+   */
+  private static <T> Query<T> withHedgedRequestId(final Query<T> query)
+  {
+    return query.withId(StringUtils.format("%s_hedged_%s", query.getId(), UUID.randomUUID()));
+  }
+
+  private static ResponseContext makeHedgedResponseContext(final ResponseContext context)
+  {
+    final ResponseContext hedgedContext = ResponseContext.createEmpty();
+    // share the byte count, so that maxScatterGatherBytes is enforced across all requests of the query
+    hedgedContext.put(ResponseContext.Keys.QUERY_TOTAL_BYTES_GATHERED, context.getTotalBytes());
+    hedgedContext.initializeRemainingResponses();
+    return hedgedContext;
+  }
+
+  /**
+   * Handles the response of one of the requests of {@link #runHedged}. {@code query} is the query being hedged and
+   * {@code requestQuery} the copy of it sent in this request. {@code cancelOther} is run if this request wins, and
+   * {@code beforeFailure} if it fails, before the query is failed if no other request is pending.
+   */
+  private static <T> void addHedgeCallback(
+      final DirectDruidClient<T> client,
+      final Query<T> query,
+      final Query<T> requestQuery,
+      final ListenableFuture<InputStream> future,
+      final ResponseContext hedgedContext,
+      final ResponseContext context,
+      final SettableFuture<InputStream> winner,
+      final AtomicInteger numPending,
+      final Runnable cancelOther,
+      final Runnable beforeFailure
+  )
+  {
+    Futures.addCallback(
+        future,
+        new FutureCallback<>()
+        {
+          @Override
+          public void onSuccess(InputStream result)
+          {
+            synchronized (winner) {
+              if (winner.isDone()) {
+                // Both servers responded at about the same time, so stop the one which lost. Its stream is closed
+                // once the cancellation has been sent rather than here, since closing drains it, which would block
+                // this thread until the response ends.
+                client.cancelQuery(requestQuery, client.getQueryUrl() + requestQuery.getId(), result);
+                return;
+              }
+              removeMagicResponseContextFields(hedgedContext);
+              context.addRemainingResponse(query.getMostSpecificId(), VAL_TO_REDUCE_REMAINING_RESPONSES);
+              context.merge(hedgedContext);
+              winner.set(result);
+            }
+            cancelOther.run();
+          }
+
+          @Override
+          public void onFailure(Throwable t)
+          {
+            beforeFailure.run();
+            if (numPending.decrementAndGet() == 0) {
+              if (future.isCancelled()) {
+                winner.cancel(true);
+              } else {
+                winner.setException(t);
+              }
+            }
+          }
+        },
+        Execs.directExecutor()
+    );
+  }
+
+  private String getQueryUrl()
+  {
+    return scheme + "://" + host + "/druid/v2/";
+  }
+
+  /**
+   * Sends the query to this server. {@code latencyRecorded} is set once a latency sample has been recorded for the
+   * request, so that each request is counted at most once in {@link #getAverageLatencyNs()}.
+   */
+  private ListenableFuture<InputStream> sendQuery(
+      final Query<T> query,
+      final ResponseContext context,
+      final AtomicBoolean latencyRecorded
+  )
+  {
+    final QueryToolChest<T, Query<T>> toolChest = conglomerate.getToolChest(query);
     final ListenableFuture<InputStream> future;
-    final String url = scheme + "://" + host + "/druid/v2/";
+    final String url = getQueryUrl();
     final String cancelUrl = url + query.getId();
 
     try {
@@ -237,6 +449,9 @@ public class DirectDruidClient<T> implements QueryRunner<T>
 
           log.debug("Initial response from url[%s] for queryId[%s]", url, query.getId());
           responseStartTimeNs = System.nanoTime();
+          if (latencyRecorded.compareAndSet(false, true)) {
+            latencyTracker.add(responseStartTimeNs - requestStartTimeNs);
+          }
           acquireResponseMetrics().reportNodeTimeToFirstByte(responseStartTimeNs - requestStartTimeNs).emit(emitter);
 
           final boolean continueReading;
@@ -497,6 +712,9 @@ public class DirectDruidClient<T> implements QueryRunner<T>
               openConnections.getAndDecrement();
               if (future.isCancelled()) {
                 cancelQuery(query, cancelUrl);
+              } else if (latencyRecorded.compareAndSet(false, true)) {
+                // Count failures before the first byte, such as timeouts or connection errors, as slow responses.
+                latencyTracker.addFailure(System.nanoTime() - requestStartTimeNs);
               }
             }
           },
@@ -507,6 +725,23 @@ public class DirectDruidClient<T> implements QueryRunner<T>
     catch (IOException e) {
       throw new RuntimeException(e);
     }
+    return future;
+  }
+
+  private Sequence<T> makeResultSequence(final Query<T> query, final ListenableFuture<InputStream> future)
+  {
+    final QueryToolChest<T, Query<T>> toolChest = conglomerate.getToolChest(query);
+    final boolean isBySegment = query.context().isBySegment();
+    final boolean isFrames = FrameTransferQueryRunner.shouldTransferResultsAsFrames(query, toolChest);
+    final JavaType queryResultType;
+    if (isBySegment) {
+      queryResultType = toolChest.getBySegmentResultType();
+    } else if (isFrames) {
+      queryResultType = objectMapper.getTypeFactory().constructType(RowsAndColumns.class);
+    } else {
+      queryResultType = toolChest.getBaseResultType();
+    }
+    final String url = getQueryUrl();
 
     Sequence<T> retVal = new BaseSequence<>(
         new BaseSequence.IteratorMaker<T, JsonParserIterator<T>>()
@@ -532,6 +767,12 @@ public class DirectDruidClient<T> implements QueryRunner<T>
         }
     );
 
+    if (isFrames) {
+      // the data server sent frames, see FrameTransferQueryRunner; the cast is only valid until they are converted
+      //noinspection unchecked
+      retVal = toolChest.resultsFromTransferFrames(query, (Sequence<RowsAndColumns>) (Sequence<?>) retVal);
+    }
+
     // bySegment queries are de-serialized after caching results in order to
     // avoid the cost of de-serializing and then re-serializing again when adding to cache
     if (!isBySegment) {
@@ -548,6 +789,14 @@ public class DirectDruidClient<T> implements QueryRunner<T>
   }
 
   private void cancelQuery(Query<T> query, String cancelUrl)
+  {
+    cancelQuery(query, cancelUrl, null);
+  }
+
+  /**
+   * Asks the server to cancel the query, and then closes {@code response}, if given, without blocking the caller.
+   */
+  private void cancelQuery(Query<T> query, String cancelUrl, @Nullable InputStream response)
   {
     Runnable cancelRunnable = () -> {
       try {
@@ -583,6 +832,12 @@ public class DirectDruidClient<T> implements QueryRunner<T>
       catch (IOException e) {
         log.error(e, "Error cancelling query[%s]", query);
       }
+      if (response != null) {
+        CloseableUtils.closeAndSuppressExceptions(
+            response,
+            e -> log.warn(e, "Error closing cancelled response of query[%s]", query.getId())
+        );
+      }
     };
     queryCancellationExecutor.submit(cancelRunnable);
   }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponentially weighted moving average of the response latency of a single server, used by
+ * {@link org.apache.druid.client.selector.LatencyAwareServerSelectorStrategy} to steer queries away from slow
+ * replicas.
+ * <p>
+ * The average is weighted by time rather than by number of samples, so that it reflects roughly the last
+ * {@link #DECAY_PERIOD_NS} of responses regardless of query rate. Every sample has a weight of at least
+ * {@link #MIN_SAMPLE_WEIGHT} though, so that a server which starts responding slowly, for example due to a GC pause,
+ * is avoided after a few slow responses even when they arrive close together, while a single outlier only moves the
+ * average part of the way. The average also decays towards zero while no samples arrive, so that a server which was
+ * avoided for being slow gets picked again eventually and its latency is measured anew.
+ */
+public class ServerLatencyTracker
+{
+  static final long DECAY_PERIOD_NS = TimeUnit.SECONDS.toNanos(10);
+  static final double MIN_SAMPLE_WEIGHT = 0.2;
+
+  /**
+   * A failed request counts as a response taking this many times the current average, or as long as it took if that
+   * is longer, so that fast failures such as refused connections do not make the server look faster.
+   */
+  static final double FAILURE_PENALTY_MULTIPLIER = 4;
+
+  private double averageNs = 0;
+  private long lastUpdateNs = 0;
+  private boolean hasSamples = false;
+
+  public void add(long latencyNs)
+  {
+    add(latencyNs, System.nanoTime());
+  }
+
+  /**
+   * Records a request which failed, or was abandoned, before the server started responding.
+   *
+   * @param elapsedNs time between sending the request and its failure
+   */
+  public void addFailure(long elapsedNs)
+  {
+    addFailure(elapsedNs, System.nanoTime());
+  }
+
+  /**
+   * Returns the current average latency in nanoseconds, or 0 if no response has been recorded yet.
+   */
+  public double getAverageNs()
+  {
+    return getAverageNs(System.nanoTime());
+  }
+
+  @VisibleForTesting
+  synchronized void add(long latencyNs, long nowNs)
+  {
+    if (hasSamples) {
+      final double weight = Math.min(decay(nowNs), 1 - MIN_SAMPLE_WEIGHT);
+      averageNs = averageNs * weight + latencyNs * (1 - weight);
+    } else {
+      averageNs = latencyNs;
+    }
+    lastUpdateNs = nowNs;
+    hasSamples = true;
+  }
+
+  @VisibleForTesting
+  synchronized void addFailure(long elapsedNs, long nowNs)
+  {
+    add((long) Math.max(elapsedNs, getAverageNs(nowNs) * FAILURE_PENALTY_MULTIPLIER), nowNs);
+  }
+
+  @VisibleForTesting
+  synchronized double getAverageNs(long nowNs)
+  {
+    if (!hasSamples) {
+      return 0;
+    }
+    return averageNs * decay(nowNs);
+  }
+
+  private double decay(long nowNs)
+  {
+    return Math.exp(-(double) Math.max(0, nowNs - lastUpdateNs) / DECAY_PERIOD_NS);
+  }
+}
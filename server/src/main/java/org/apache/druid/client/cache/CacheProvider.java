@@ -28,7 +28,8 @@ import com.google.inject.Provider;
     @JsonSubTypes.Type(name = "local", value = LocalCacheProvider.class),
     @JsonSubTypes.Type(name = "memcached", value = MemcachedCacheProvider.class),
     @JsonSubTypes.Type(name = "hybrid", value = HybridCacheProvider.class),
-    @JsonSubTypes.Type(name = "caffeine", value = CaffeineCacheProvider.class)
+    @JsonSubTypes.Type(name = "caffeine", value = CaffeineCacheProvider.class),
+    @JsonSubTypes.Type(name = "file", value = FileCacheProvider.class)
 })
 public interface CacheProvider extends Provider<Cache>
 {
@@ -0,0 +1,541 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import org.apache.druid.java.util.common.ByteBufferUtils;
+import org.apache.druid.java.util.common.FileUtils;
+import org.apache.druid.java.util.common.StringUtils;
+import org.apache.druid.java.util.common.lifecycle.LifecycleStop;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.java.util.emitter.service.ServiceEmitter;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * A local cache that keeps its entries on disk, so they survive process restarts. Meant to be used as the L2 of a
+ * {@link HybridCache}, with a small heap cache such as {@link CaffeineCache} as L1.
+ *
+ * Entries are appended to a log of fixed-size, memory-mapped files, and located through an in-memory index from key to
+ * file and offset. Once the current file is full a new one is started, and when the total size of the files would
+ * exceed {@link FileCacheConfig#getSizeInBytes()} the oldest file is deleted along with all of its entries. Eviction is
+ * therefore first-in-first-out at the granularity of a file. Replacing an entry leaves the old copy in its file until
+ * that file is evicted.
+ *
+ * On startup the index is rebuilt by scanning the files in the cache directory. Each record carries a checksum, and a
+ * file is only read up to its first invalid record, so a torn write from a crash loses just the entries written last.
+ */
+public class FileCache implements Cache
+{
+  private static final Logger log = new Logger(FileCache.class);
+
+  private static final byte VERSION = 0x1;
+  private static final String FILE_SUFFIX = ".cache";
+
+  /**
+   * Each file starts with a version byte, followed by records of: key length (int), value length (int), checksum of key
+   * and value (int), serialized {@link NamedKey}, and value. A key length of zero marks the end of the records.
+   */
+  private static final int FILE_HEADER_SIZE = 1;
+  private static final int RECORD_HEADER_SIZE = 3 * Integer.BYTES;
+
+  private final File directory;
+  private final int fileSize;
+  private final int maxFiles;
+
+  private final ConcurrentHashMap<NamedKey, Location> index = new ConcurrentHashMap<>();
+
+  /**
+   * Files ordered from oldest to newest. Entries are appended to the last one. Guarded by {@link #appendLock}.
+   */
+  private final Deque<CacheFile> files = new ArrayDeque<>();
+  private final Object appendLock = new Object();
+
+  /**
+   * Held for reading while copying a value out of a file, and for writing while unmapping a file, so a file is never
+   * unmapped while it is being read from.
+   */
+  private final ReadWriteLock unmapLock = new ReentrantReadWriteLock();
+
+  private final AtomicLong hitCount = new AtomicLong(0);
+  private final AtomicLong missCount = new AtomicLong(0);
+  private final AtomicLong evictionCount = new AtomicLong(0);
+  private final AtomicLong errorCount = new AtomicLong(0);
+
+  private boolean closed = false;
+
+  public static FileCache create(final FileCacheConfig config)
+  {
+    Preconditions.checkArgument(
+        config.getFileSizeInBytes() > FILE_HEADER_SIZE + RECORD_HEADER_SIZE
+        && config.getFileSizeInBytes() <= Integer.MAX_VALUE,
+        "fileSizeInBytes[%s] must be between %s and %s",
+        config.getFileSizeInBytes(),
+        FILE_HEADER_SIZE + RECORD_HEADER_SIZE + 1,
+        Integer.MAX_VALUE
+    );
+
+    final int maxFiles = (int) Math.min(Integer.MAX_VALUE, config.getSizeInBytes() / config.getFileSizeInBytes());
+    Preconditions.checkArgument(
+        maxFiles >= 2,
+        "sizeInBytes[%s] must be at least twice fileSizeInBytes[%s]",
+        config.getSizeInBytes(),
+        config.getFileSizeInBytes()
+    );
+
+    try {
+      final FileCache cache = new FileCache(
+          new File(config.getDirectory()),
+          (int) config.getFileSizeInBytes(),
+          maxFiles
+      );
+      cache.load();
+      return cache;
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private FileCache(final File directory, final int fileSize, final int maxFiles)
+  {
+    this.directory = directory;
+    this.fileSize = fileSize;
+    this.maxFiles = maxFiles;
+  }
+
+  @Override
+  @Nullable
+  public byte[] get(NamedKey key)
+  {
+    unmapLock.readLock().lock();
+    try {
+      final Location location = index.get(key);
+      if (location == null) {
+        missCount.incrementAndGet();
+        return null;
+      }
+      hitCount.incrementAndGet();
+      return location.file.read(location.offset, location.length);
+    }
+    finally {
+      unmapLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void put(NamedKey key, byte[] value)
+  {
+    final byte[] keyBytes = key.toByteArray();
+    if ((long) RECORD_HEADER_SIZE + keyBytes.length + value.length > fileSize - FILE_HEADER_SIZE) {
+      // Does not fit in a file, skip it.
+      return;
+    }
+
+    synchronized (appendLock) {
+      if (closed) {
+        return;
+      }
+
+      try {
+        CacheFile file = files.getLast();
+        int offset = file.append(keyBytes, value);
+        if (offset < 0) {
+          file = roll();
+          offset = file.append(keyBytes, value);
+        }
+        index.put(key, new Location(file, offset, value.length));
+        file.keys.add(key);
+      }
+      catch (IOException e) {
+        errorCount.incrementAndGet();
+        log.warn(e, "Failed to write to cache directory[%s]", directory);
+      }
+    }
+  }
+
+  @Override
+  public Map<NamedKey, byte[]> getBulk(Iterable<NamedKey> keys)
+  {
+    final Map<NamedKey, byte[]> retVal = new HashMap<>();
+    for (NamedKey key : keys) {
+      final byte[] value = get(key);
+      if (value != null) {
+        retVal.put(key, value);
+      }
+    }
+    return retVal;
+  }
+
+  /**
+   * Entries are not evicted when a namespace is closed. They are still valid if the namespace is opened again, even
+   * after a restart, and otherwise age out with the file they were written to.
+   */
+  @Override
+  public void close(String namespace)
+  {
+  }
+
+  /**
+   * Flushes and unmaps all files. Their contents are kept, and will be loaded again by the next instance using the same
+   * directory.
+   */
+  @Override
+  @LifecycleStop
+  public void close()
+  {
+    synchronized (appendLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+
+      unmapLock.writeLock().lock();
+      try {
+        index.clear();
+        for (CacheFile file : files) {
+          file.close();
+        }
+        files.clear();
+      }
+      finally {
+        unmapLock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public CacheStats getStats()
+  {
+    final long sizeInBytes;
+    synchronized (appendLock) {
+      sizeInBytes = files.stream().mapToLong(file -> file.writePosition).sum();
+    }
+    return new CacheStats(
+        hitCount.get(),
+        missCount.get(),
+        index.size(),
+        sizeInBytes,
+        evictionCount.get(),
+        0,
+        errorCount.get()
+    );
+  }
+
+  @Override
+  public boolean isLocal()
+  {
+    return true;
+  }
+
+  @Override
+  public void doMonitor(ServiceEmitter emitter)
+  {
+    // No special monitoring
+  }
+
+  @VisibleForTesting
+  int getNumFiles()
+  {
+    synchronized (appendLock) {
+      return files.size();
+    }
+  }
+
+  /**
+   * Maps the files left in the directory by a previous instance and rebuilds the index from their records, then starts
+   * appending to the newest one.
+   */
+  private void load() throws IOException
+  {
+    FileUtils.mkdirp(directory);
+
+    final List<File> existing = new ArrayList<>();
+    final File[] listed = directory.listFiles((dir, name) -> parseFileId(name) >= 0);
+    if (listed != null) {
+      existing.addAll(Arrays.asList(listed));
+    }
+    existing.sort(Comparator.comparingLong(file -> parseFileId(file.getName())));
+
+    synchronized (appendLock) {
+      for (File existingFile : existing) {
+        final CacheFile file;
+        try {
+          file = CacheFile.open(existingFile, parseFileId(existingFile.getName()), fileSize);
+        }
+        catch (IOException e) {
+          log.warn(e, "Deleting unreadable cache file[%s]", existingFile);
+          Files.deleteIfExists(existingFile.toPath());
+          continue;
+        }
+        if (file == null) {
+          log.warn("Deleting cache file[%s] with unknown version", existingFile);
+          Files.deleteIfExists(existingFile.toPath());
+          continue;
+        }
+
+        file.scan(this);
+        files.addLast(file);
+        evictIfNeeded();
+      }
+
+      if (files.isEmpty()) {
+        files.addLast(CacheFile.create(makeFile(0), 0, fileSize));
+      }
+    }
+
+    log.info("Loaded [%,d] entries from [%,d] files in cache directory[%s].", index.size(), files.size(), directory);
+  }
+
+  private CacheFile roll() throws IOException
+  {
+    final long nextId = files.getLast().id + 1;
+    final CacheFile next = CacheFile.create(makeFile(nextId), nextId, fileSize);
+    files.addLast(next);
+    evictIfNeeded();
+    return next;
+  }
+
+  /**
+   * Deletes the oldest files while there are more than {@link #maxFiles}. Only the entries of an evicted file are
+   * removed from the index, which does not block readers, and {@link #unmapLock} is only held for writing while the file
+   * is unmapped.
+   */
+  private void evictIfNeeded()
+  {
+    while (files.size() > maxFiles) {
+      final CacheFile evicted = files.removeFirst();
+      for (NamedKey key : evicted.keys) {
+        // Skip keys that were written again to a newer file.
+        final Location location = index.get(key);
+        if (location != null && location.file == evicted && index.remove(key, location)) {
+          evictionCount.incrementAndGet();
+        }
+      }
+
+      unmapLock.writeLock().lock();
+      try {
+        evicted.close();
+      }
+      finally {
+        unmapLock.writeLock().unlock();
+      }
+
+      try {
+        Files.deleteIfExists(evicted.path.toPath());
+      }
+      catch (IOException e) {
+        errorCount.incrementAndGet();
+        log.warn(e, "Failed to delete evicted cache file[%s]", evicted.path);
+      }
+    }
+  }
+
+  private File makeFile(final long id)
+  {
+    return new File(directory, StringUtils.format("%020d%s", id, FILE_SUFFIX));
+  }
+
+  private static long parseFileId(final String name)
+  {
+    if (!name.endsWith(FILE_SUFFIX)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(name.substring(0, name.length() - FILE_SUFFIX.length()));
+    }
+    catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static int checksum(final ByteBuffer buffer, final int position, final int length)
+  {
+    final ByteBuffer region = buffer.duplicate();
+    region.limit(position + length).position(position);
+    final CRC32 crc = new CRC32();
+    crc.update(region);
+    return (int) crc.getValue();
+  }
+
+  private static class Location
+  {
+    private final CacheFile file;
+    private final int offset;
+    private final int length;
+
+    Location(final CacheFile file, final int offset, final int length)
+    {
+      this.file = file;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  private static class CacheFile
+  {
+    private final File path;
+    private final long id;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Offset at which the next record is written. Only modified with {@link #appendLock} held.
+     */
+    private int writePosition = FILE_HEADER_SIZE;
+
+    /**
+     * Keys of the records in this file, so that eviction does not have to scan the whole index. Only modified with
+     * {@link #appendLock} held.
+     */
+    private final List<NamedKey> keys = new ArrayList<>();
+
+    private CacheFile(final File path, final long id, final MappedByteBuffer buffer)
+    {
+      this.path = path;
+      this.id = id;
+      this.buffer = buffer;
+    }
+
+    static CacheFile create(final File path, final long id, final int fileSize) throws IOException
+    {
+      final CacheFile file = new CacheFile(path, id, map(path, fileSize));
+      file.buffer.put(0, VERSION);
+      return file;
+    }
+
+    /**
+     * Maps an existing file, or returns null if it was written with an unknown version.
+     */
+    @Nullable
+    static CacheFile open(final File path, final long id, final int fileSize) throws IOException
+    {
+      final MappedByteBuffer buffer = map(path, fileSize);
+      if (buffer.get(0) != VERSION) {
+        ByteBufferUtils.unmap(buffer);
+        return null;
+      }
+      return new CacheFile(path, id, buffer);
+    }
+
+    private static MappedByteBuffer map(final File path, final int fileSize) throws IOException
+    {
+      try (FileChannel channel = FileChannel.open(
+          path.toPath(),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.READ,
+          StandardOpenOption.WRITE
+      )) {
+        // Files written with a larger fileSizeInBytes keep their size, so none of their records are cut off.
+        final long size = Math.min(Integer.MAX_VALUE, Math.max(channel.size(), fileSize));
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      }
+    }
+
+    /**
+     * Adds all valid records of this file to the index of the cache, and positions the file to append after them.
+     */
+    void scan(final FileCache cache)
+    {
+      int position = FILE_HEADER_SIZE;
+      while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+        final int keyLength = buffer.getInt(position);
+        final int valueLength = buffer.getInt(position + Integer.BYTES);
+        final int expectedChecksum = buffer.getInt(position + 2 * Integer.BYTES);
+        final int dataPosition = position + RECORD_HEADER_SIZE;
+        if (keyLength < Integer.BYTES
+            || valueLength < 0
+            || (long) dataPosition + keyLength + valueLength > buffer.capacity()
+            || checksum(buffer, dataPosition, keyLength + valueLength) != expectedChecksum) {
+          break;
+        }
+
+        final int namespaceLength = buffer.getInt(dataPosition);
+        if (namespaceLength < 0 || namespaceLength > keyLength - Integer.BYTES) {
+          break;
+        }
+        final byte[] namespace = read(dataPosition + Integer.BYTES, namespaceLength);
+        final byte[] key = read(
+            dataPosition + Integer.BYTES + namespaceLength,
+            keyLength - Integer.BYTES - namespaceLength
+        );
+        final NamedKey namedKey = new NamedKey(StringUtils.fromUtf8(namespace), key);
+        cache.index.put(namedKey, new Location(this, dataPosition + keyLength, valueLength));
+        keys.add(namedKey);
+        position = dataPosition + keyLength + valueLength;
+      }
+      writePosition = position;
+    }
+
+    /**
+     * Appends a record, and returns the offset of its value, or -1 if there is not enough space left in this file.
+     * The record header is written last, so a record only becomes visible to {@link #scan} once it is complete.
+     */
+    int append(final byte[] key, final byte[] value)
+    {
+      final int dataPosition = writePosition + RECORD_HEADER_SIZE;
+      if ((long) dataPosition + key.length + value.length > buffer.capacity()) {
+        return -1;
+      }
+
+      buffer.put(dataPosition, key);
+      buffer.put(dataPosition + key.length, value);
+      buffer.putInt(writePosition + Integer.BYTES, value.length);
+      buffer.putInt(writePosition + 2 * Integer.BYTES, checksum(buffer, dataPosition, key.length + value.length));
+      buffer.putInt(writePosition, key.length);
+
+      writePosition = dataPosition + key.length + value.length;
+      return dataPosition + key.length;
+    }
+
+    byte[] read(final int offset, final int length)
+    {
+      final byte[] value = new byte[length];
+      buffer.get(offset, value);
+      return value;
+    }
+
+    void close()
+    {
+      buffer.force();
+      ByteBufferUtils.unmap(buffer);
+    }
+  }
+}
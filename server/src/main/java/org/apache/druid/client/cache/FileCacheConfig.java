@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.druid.java.util.common.HumanReadableBytes;
+
+import javax.validation.constraints.NotNull;
+
+public class FileCacheConfig
+{
+  // directory holding the cache files, which are reloaded from here on startup
+  @JsonProperty
+  @NotNull
+  private String directory;
+
+  // maximum total size of the cache files on disk
+  @JsonProperty
+  private HumanReadableBytes sizeInBytes = HumanReadableBytes.valueOf(10L * 1024 * 1024 * 1024);
+
+  // size of each cache file, which is also the unit of eviction. Entries larger than this are not cached.
+  @JsonProperty
+  private HumanReadableBytes fileSizeInBytes = HumanReadableBytes.valueOf(64 * 1024 * 1024);
+
+  public String getDirectory()
+  {
+    return directory;
+  }
+
+  public long getSizeInBytes()
+  {
+    return sizeInBytes.getBytes();
+  }
+
+  public long getFileSizeInBytes()
+  {
+    return fileSizeInBytes.getBytes();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "FileCacheConfig{" +
+           "directory='" + directory + '\'' +
+           ", sizeInBytes=" + sizeInBytes +
+           ", fileSizeInBytes=" + fileSizeInBytes +
+           '}';
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.client.QueryableDruidServer;
+import org.apache.druid.timeline.DataSegment;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks servers by their expected cost, which is their moving average response latency (see
+ * {@link org.apache.druid.client.ServerLatencyTracker}) times one more than their number of open connections, so that
+ * a replica which is slow, for example due to GC pauses or a deep processing queue, gets fewer queries than its
+ * peers.
+ * <p>
+ * A single server is picked with "power of two choices": two servers are chosen at random and the cheaper one is
+ * used. Compared to always picking the cheapest server, this keeps the broker from sending every query to whichever
+ * server looked best at the time, which would overload it before its latency catches up.
+ */
+public class LatencyAwareServerSelectorStrategy implements ServerSelectorStrategy
+{
+  private static final Comparator<ServerCost> COMPARATOR =
+      Comparator.comparingDouble((ServerCost c) -> c.cost)
+                // servers which have not responded yet all cost 0, so balance them by connections
+                .thenComparingInt(c -> c.numOpenConnections);
+
+  @Nullable
+  @Override
+  public QueryableDruidServer pick(Set<QueryableDruidServer> servers, DataSegment segment)
+  {
+    final int numServers = servers.size();
+    if (numServers <= 2) {
+      return numServers == 0 ? null : leastOf(servers, 1).get(0);
+    }
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int first = random.nextInt(numServers);
+    // pick a different second server by skipping over the first one
+    int second = random.nextInt(numServers - 1);
+    if (second >= first) {
+      second++;
+    }
+    final QueryableDruidServer firstServer = Iterators.get(servers.iterator(), first);
+    final QueryableDruidServer secondServer = Iterators.get(servers.iterator(), second);
+    return COMPARATOR.compare(new ServerCost(firstServer), new ServerCost(secondServer)) <= 0
+           ? firstServer
+           : secondServer;
+  }
+
+  @Override
+  public List<QueryableDruidServer> pick(Set<QueryableDruidServer> servers, DataSegment segment, int numServersToPick)
+  {
+    if (servers.size() <= numServersToPick) {
+      return ImmutableList.copyOf(servers);
+    }
+    if (numServersToPick == 1) {
+      return ImmutableList.of(pick(servers, segment));
+    }
+    return leastOf(servers, numServersToPick);
+  }
+
+  /**
+   * Returns the {@code n} cheapest servers. Costs are read once up front, since they change as queries run, and servers
+   * which cost the same are returned in random order.
+   */
+  private static List<QueryableDruidServer> leastOf(Set<QueryableDruidServer> servers, int n)
+  {
+    final List<ServerCost> costs = new ArrayList<>(servers.size());
+    for (QueryableDruidServer server : servers) {
+      costs.add(new ServerCost(server));
+    }
+    Collections.shuffle(costs, ThreadLocalRandom.current());
+    // List.sort is stable, so the shuffled order breaks ties
+    costs.sort(COMPARATOR);
+    final ImmutableList.Builder<QueryableDruidServer> picked = ImmutableList.builderWithExpectedSize(n);
+    for (int i = 0; i < n; i++) {
+      picked.add(costs.get(i).server);
+    }
+    return picked.build();
+  }
+
+  private static class ServerCost
+  {
+    private final QueryableDruidServer server;
+    private final double cost;
+    private final int numOpenConnections;
+
+    ServerCost(QueryableDruidServer server)
+    {
+      this.server = server;
+      if (server.getQueryRunner() instanceof DirectDruidClient) {
+        final DirectDruidClient<?> client = (DirectDruidClient<?>) server.getQueryRunner();
+        this.numOpenConnections = client.getNumOpenConnections();
+        this.cost = client.getAverageLatencyNs() * (numOpenConnections + 1);
+      } else {
+        this.numOpenConnections = 0;
+        this.cost = 0;
+      }
+    }
+  }
+}
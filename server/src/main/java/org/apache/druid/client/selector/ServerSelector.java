@@ -189,6 +189,31 @@ public class ServerSelector implements Overshadowable<ServerSelector>
     return servers;
   }
 
+  /**
+   * Returns the servers serving this segment which are as preferred by the {@link TierSelectorStrategy} as
+   * {@code picked}, a server returned by {@link #pick}: those of the same type, priority and tier, including
+   * {@code picked} itself.
+   */
+  public Set<QueryableDruidServer> getServersLike(QueryableDruidServer picked, CloneQueryMode cloneQueryMode)
+  {
+    final Set<QueryableDruidServer> servers = new HashSet<>();
+
+    synchronized (this) {
+      final Int2ObjectRBTreeMap<Set<QueryableDruidServer>> candidates =
+          historicalServers.isEmpty() ? realtimeServers : filter.getQueryableServers(historicalServers, cloneQueryMode);
+      final Set<QueryableDruidServer> samePriority = candidates.get(picked.getServer().getPriority());
+      if (samePriority != null) {
+        for (QueryableDruidServer server : samePriority) {
+          if (server.getServer().getTier().equals(picked.getServer().getTier())) {
+            servers.add(server);
+          }
+        }
+      }
+    }
+
+    return servers;
+  }
+
   @Nullable
   public <T> QueryableDruidServer pick(@Nullable Query<T> query, CloneQueryMode cloneQueryMode)
   {
@@ -22,6 +22,7 @@ package org.apache.druid.discovery;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -34,6 +35,7 @@ import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.io.Closer;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.context.ResponseContext;
 import org.apache.druid.rpc.FixedServiceLocator;
 import org.apache.druid.rpc.IgnoreHttpResponseHandler;
@@ -80,18 +82,25 @@ public class DataServerClient
   /**
    * Issue a query. Returns a future that resolves when the server starts sending its response.
    *
-   * @param query           query to run
+   * @param queryToRun      query to run
    * @param responseContext response context to populate
    * @param queryResultType type of result object
    * @param closer          closer; this call will register a query canceler with this closer
    */
   public <T> ListenableFuture<Sequence<T>> run(
-      final Query<T> query,
+      final Query<T> queryToRun,
       final ResponseContext responseContext,
       final JavaType queryResultType,
       final Closer closer
   )
   {
+    // Results are always read as queryResultType, so don't let the data server send them as frames.
+    final Query<T> query = queryToRun.context().isTransferResultsAsFrames()
+                           ? queryToRun.withOverriddenContext(
+                               ImmutableMap.of(QueryContexts.TRANSFER_RESULTS_AS_FRAMES_KEY, false)
+                           )
+                           : queryToRun;
+
     RequestBuilder requestBuilder = new RequestBuilder(HttpMethod.POST, BASE_PATH);
     final boolean isSmile = objectMapper.getFactory() instanceof SmileFactory;
     if (isSmile) {
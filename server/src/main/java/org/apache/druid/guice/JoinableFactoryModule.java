@@ -34,6 +34,7 @@ import org.apache.druid.query.LookupDataSource;
 import org.apache.druid.segment.join.BroadcastTableJoinableFactory;
 import org.apache.druid.segment.join.FrameBasedInlineJoinableFactory;
 import org.apache.druid.segment.join.InlineJoinableFactory;
+import org.apache.druid.segment.join.InlineJoinableFactoryConfig;
 import org.apache.druid.segment.join.JoinableFactory;
 import org.apache.druid.segment.join.LookupJoinableFactory;
 import org.apache.druid.segment.join.MapJoinableFactory;
@@ -72,6 +73,8 @@ public class JoinableFactoryModule implements Module
       binder.bind(factory).in(LazySingleton.class);
     });
 
+    JsonConfigProvider.bind(binder, "druid.join.inline", InlineJoinableFactoryConfig.class);
+
     binder.bind(JoinableFactory.class).to(MapJoinableFactory.class)
           .in(Scopes.SINGLETON);
   }
@@ -196,6 +196,16 @@ public class SegmentGenerationMetrics
     mergeCpuTime.set(elapsedCpuTimeNanos);
   }
 
+  public void incrementMergeTime(long elapsedMergeTimeMillis)
+  {
+    mergeTimeMillis.addAndGet(elapsedMergeTimeMillis);
+  }
+
+  public void incrementMergeCpuTime(long elapsedCpuTimeNanos)
+  {
+    mergeCpuTime.addAndGet(elapsedCpuTimeNanos);
+  }
+
   public void setPersistCpuTime(long elpasedCpuTimeNanos)
   {
     persistCpuTime.set(elpasedCpuTimeNanos);
@@ -31,6 +31,7 @@ public interface AppenderatorConfig extends TuningConfig
 {
 
   int DEFAULT_NUM_PERSIST_THREADS = 1;
+  int DEFAULT_NUM_MERGE_THREADS = 1;
 
   boolean isReportParseExceptions();
 
@@ -51,6 +52,14 @@ public interface AppenderatorConfig extends TuningConfig
     return DEFAULT_NUM_PERSIST_THREADS;
   }
 
+  /**
+   * Number of sinks merged concurrently at hand-off. Merging is CPU and memory heavy, so this is one by default.
+   */
+  default int getNumMergeThreads()
+  {
+    return DEFAULT_NUM_MERGE_THREADS;
+  }
+
   /**
    * Maximum number of rows in a single segment before pushing to deep storage
    */
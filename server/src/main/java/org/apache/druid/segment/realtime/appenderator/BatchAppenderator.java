@@ -57,6 +57,7 @@ import org.apache.druid.segment.QueryableIndexSegment;
 import org.apache.druid.segment.SchemaPayload;
 import org.apache.druid.segment.SchemaPayloadPlus;
 import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.SegmentBloomFilters;
 import org.apache.druid.segment.SegmentSchemaMapping;
 import org.apache.druid.segment.incremental.IncrementalIndexAddResult;
 import org.apache.druid.segment.incremental.ParseExceptionHandler;
@@ -843,6 +844,7 @@ public class BatchAppenderator implements Appenderator
                 .toBuilder()
                 .dimensions(Lists.newArrayList(index.getAvailableDimensions().iterator()))
                 .totalRows(index.getNumRows())
+                .bloomFilters(SegmentBloomFilters.getPublishedBloomFilters(index, tuningConfig.getIndexSpec()))
                 .build();
       }
       catch (Throwable t) {
@@ -44,6 +44,7 @@ import org.apache.druid.query.DataSource;
 import org.apache.druid.query.DefaultQueryMetrics;
 import org.apache.druid.query.DirectQueryProcessingPool;
 import org.apache.druid.query.FinalizeResultsQueryRunner;
+import org.apache.druid.query.FrameTransferQueryRunner;
 import org.apache.druid.query.NoopQueryRunner;
 import org.apache.druid.query.Query;
 import org.apache.druid.query.QueryDataSource;
@@ -373,8 +374,11 @@ public class SinkQuerySegmentWalker implements QuerySegmentWalker
                   new SinkMetricsEmittingQueryRunner<>(
                       emitter,
                       toolChest,
-                      new FinalizeResultsQueryRunner<>(
-                          toolChest.mergeResults(mergedRunner, true),
+                      new FrameTransferQueryRunner<>(
+                          new FinalizeResultsQueryRunner<>(
+                              toolChest.mergeResults(mergedRunner, true),
+                              toolChest
+                          ),
                           toolChest
                       ),
                       segmentMetricsAccumulator,
@@ -25,6 +25,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -65,6 +66,7 @@ import org.apache.druid.segment.QueryableIndexSegment;
 import org.apache.druid.segment.SchemaPayload;
 import org.apache.druid.segment.SchemaPayloadPlus;
 import org.apache.druid.segment.Segment;
+import org.apache.druid.segment.SegmentBloomFilters;
 import org.apache.druid.segment.SegmentSchemaMapping;
 import org.apache.druid.segment.column.RowSignature;
 import org.apache.druid.segment.incremental.IncrementalIndexAddResult;
@@ -96,6 +98,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -194,6 +197,12 @@ public class StreamAppenderator implements Appenderator
   // where persist and push Executor try to put tasks in each other queues
   // thus creating circular dependency
   private volatile ListeningExecutorService intermediateTempExecutor = null;
+  // persist hydrants of different sinks concurrently, only created when numPersistThreads > 1
+  @Nullable
+  private volatile ListeningExecutorService persistWorkerExecutor = null;
+  // merge and push sinks concurrently on hand-off, only created when numMergeThreads > 1
+  @Nullable
+  private volatile ListeningExecutorService mergeExecutor = null;
   private volatile long nextFlush;
   private volatile FileLock basePersistDirLock = null;
   private volatile FileChannel basePersistDirLockChannel = null;
@@ -686,9 +695,7 @@ public class StreamAppenderator implements Appenderator
             final long startPersistCpuNanos = JvmUtils.safeGetThreadCpuTime();
             try {
               setTaskThreadContext();
-              for (Pair<FireHydrant, SegmentIdWithShardSpec> pair : indexesToPersist) {
-                metrics.incrementRowOutputCount(persistHydrant(pair.lhs, pair.rhs));
-              }
+              persistHydrants(indexesToPersist);
 
               if (committer != null) {
                 log.debug(
@@ -815,17 +822,24 @@ public class StreamAppenderator implements Appenderator
               theSinks.keySet().stream().map(SegmentIdWithShardSpec::toString).collect(Collectors.joining(", "))
           );
 
+          final List<SegmentIdWithShardSpec> identifiersToPush = new ArrayList<>();
+          final List<Callable<DataSegmentWithMetadata>> mergeAndPushTasks = new ArrayList<>();
           for (Map.Entry<SegmentIdWithShardSpec, Sink> entry : theSinks.entrySet()) {
             if (droppingSinks.contains(entry.getKey())) {
               log.warn("Skipping push of currently-dropping sink[%s]", entry.getKey());
               continue;
             }
 
-            final DataSegmentWithMetadata dataSegmentWithMetadata = mergeAndPush(
-                entry.getKey(),
-                entry.getValue(),
-                useUniquePath
-            );
+            identifiersToPush.add(entry.getKey());
+            mergeAndPushTasks.add(() -> {
+              setTaskThreadContext();
+              return mergeAndPush(entry.getKey(), entry.getValue(), useUniquePath);
+            });
+          }
+
+          final List<DataSegmentWithMetadata> pushedSegments = runPerSink(mergeExecutor, mergeAndPushTasks);
+          for (int i = 0; i < identifiersToPush.size(); i++) {
+            final DataSegmentWithMetadata dataSegmentWithMetadata = pushedSegments.get(i);
             if (dataSegmentWithMetadata != null) {
               DataSegment segment = dataSegmentWithMetadata.getDataSegment();
               dataSegments.add(segment);
@@ -843,7 +857,7 @@ public class StreamAppenderator implements Appenderator
                 );
               }
             } else {
-              log.warn("mergeAndPush[%s] returned null, skipping.", entry.getKey());
+              log.warn("mergeAndPush[%s] returned null, skipping.", identifiersToPush.get(i));
             }
           }
 
@@ -869,7 +883,8 @@ public class StreamAppenderator implements Appenderator
 
   /**
    * Merge segment, push to deep storage. Should only be used on segments that have been fully persisted. Must only
-   * be run in the single-threaded pushExecutor.
+   * be run from a push in the single-threaded pushExecutor, either directly or on {@link #mergeExecutor} while that
+   * push waits for it, so that {@link #pushBarrier()} still covers it.
    *
    * @param identifier    sink identifier
    * @param sink          sink to push
@@ -966,9 +981,10 @@ public class StreamAppenderator implements Appenderator
             tuningConfig.getMaxColumnsToMerge()
         );
 
-        metrics.setMergeCpuTime(JvmUtils.safeGetThreadCpuTime() - startMergeCpuNanos);
+        // sinks may be merged concurrently on mergeExecutor, so accumulate rather than overwrite
+        metrics.incrementMergeCpuTime(JvmUtils.safeGetThreadCpuTime() - startMergeCpuNanos);
         mergeTimeMillis = mergeStopwatch.millisElapsed();
-        metrics.setMergeTime(mergeTimeMillis);
+        metrics.incrementMergeTime(mergeTimeMillis);
 
         log.debug("Segment[%s] built in %,dms.", identifier, mergeTimeMillis);
         QueryableIndex index = indexIO.loadIndex(mergedFile);
@@ -978,6 +994,7 @@ public class StreamAppenderator implements Appenderator
                 .toBuilder()
                 .dimensions(Lists.newArrayList(index.getAvailableDimensions().iterator()))
                 .totalRows(index.getNumRows())
+                .bloomFilters(SegmentBloomFilters.getPublishedBloomFilters(index, tuningConfig.getIndexSpec()))
                 .build();
       }
       catch (Throwable t) {
@@ -1062,9 +1079,19 @@ public class StreamAppenderator implements Appenderator
           intermediateTempExecutor == null || intermediateTempExecutor.awaitTermination(365, TimeUnit.DAYS),
           "intermediateTempExecutor not terminated"
       );
+      Preconditions.checkState(
+          persistWorkerExecutor == null || persistWorkerExecutor.awaitTermination(365, TimeUnit.DAYS),
+          "persistWorkerExecutor not terminated"
+      );
+      Preconditions.checkState(
+          mergeExecutor == null || mergeExecutor.awaitTermination(365, TimeUnit.DAYS),
+          "mergeExecutor not terminated"
+      );
       persistExecutor = null;
       pushExecutor = null;
       intermediateTempExecutor = null;
+      persistWorkerExecutor = null;
+      mergeExecutor = null;
     }
     catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -1108,8 +1135,18 @@ public class StreamAppenderator implements Appenderator
           intermediateTempExecutor == null || intermediateTempExecutor.awaitTermination(365, TimeUnit.DAYS),
           "intermediateTempExecutor not terminated"
       );
+      Preconditions.checkState(
+          persistWorkerExecutor == null || persistWorkerExecutor.awaitTermination(365, TimeUnit.DAYS),
+          "persistWorkerExecutor not terminated"
+      );
+      Preconditions.checkState(
+          mergeExecutor == null || mergeExecutor.awaitTermination(365, TimeUnit.DAYS),
+          "mergeExecutor not terminated"
+      );
       persistExecutor = null;
       intermediateTempExecutor = null;
+      persistWorkerExecutor = null;
+      mergeExecutor = null;
     }
     catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -1269,6 +1306,26 @@ public class StreamAppenderator implements Appenderator
           Execs.newBlockingSingleThreaded("[" + StringUtils.encodeForFormat(myId) + "]-appenderator-abandon", 0)
       );
     }
+
+    // persistExecutor and pushExecutor hand work for individual sinks to these and wait for it, so the number of
+    // incremental indexes being written is bounded by numPersistThreads and the number of sinks being merged by
+    // numMergeThreads
+    if (tuningConfig.getNumPersistThreads() > 1 && persistWorkerExecutor == null) {
+      persistWorkerExecutor = MoreExecutors.listeningDecorator(
+          Execs.multiThreaded(
+              tuningConfig.getNumPersistThreads(),
+              "[" + StringUtils.encodeForFormat(myId) + "]-appenderator-persist-worker-%d"
+          )
+      );
+    }
+    if (tuningConfig.getNumMergeThreads() > 1 && mergeExecutor == null) {
+      mergeExecutor = MoreExecutors.listeningDecorator(
+          Execs.multiThreaded(
+              tuningConfig.getNumMergeThreads(),
+              "[" + StringUtils.encodeForFormat(myId) + "]-appenderator-merge-worker-%d"
+          )
+      );
+    }
   }
 
   private void shutdownExecutors()
@@ -1285,6 +1342,14 @@ public class StreamAppenderator implements Appenderator
       intermediateTempExecutor.shutdownNow();
     }
 
+    if (persistWorkerExecutor != null) {
+      persistWorkerExecutor.shutdownNow();
+    }
+
+    if (mergeExecutor != null) {
+      mergeExecutor.shutdownNow();
+    }
+
     if (exec != null) {
       exec.shutdownNow();
     }
@@ -1655,8 +1720,80 @@ public class StreamAppenderator implements Appenderator
   }
 
   /**
-   * Persists the given hydrant and returns the number of rows persisted. Must only be called in the single-threaded
-   * persistExecutor.
+   * Persists the given hydrants. Hydrants of the same sink share a persist directory and are persisted in order on one
+   * thread, while hydrants of different sinks are persisted concurrently when {@link #persistWorkerExecutor} exists.
+   */
+  private void persistHydrants(List<Pair<FireHydrant, SegmentIdWithShardSpec>> indexesToPersist)
+  {
+    final Map<SegmentIdWithShardSpec, List<FireHydrant>> hydrantsBySink = new LinkedHashMap<>();
+    for (Pair<FireHydrant, SegmentIdWithShardSpec> pair : indexesToPersist) {
+      hydrantsBySink.computeIfAbsent(pair.rhs, k -> new ArrayList<>()).add(pair.lhs);
+    }
+
+    final List<Callable<Void>> persistTasks = new ArrayList<>();
+    for (Map.Entry<SegmentIdWithShardSpec, List<FireHydrant>> entry : hydrantsBySink.entrySet()) {
+      persistTasks.add(() -> {
+        setTaskThreadContext();
+        for (FireHydrant hydrant : entry.getValue()) {
+          metrics.incrementRowOutputCount(persistHydrant(hydrant, entry.getKey()));
+        }
+        return null;
+      });
+    }
+    runPerSink(persistWorkerExecutor, persistTasks);
+  }
+
+  /**
+   * Runs the given per-sink tasks and returns their results in order. Tasks run on the calling thread if
+   * {@code workerExecutor} is null, otherwise concurrently on it while the calling thread waits. If any task fails,
+   * the remaining ones are cancelled and the failure is rethrown.
+   */
+  private static <T> List<T> runPerSink(
+      @Nullable final ListeningExecutorService workerExecutor,
+      final List<Callable<T>> tasks
+  )
+  {
+    final List<T> results = new ArrayList<>(tasks.size());
+    if (workerExecutor == null || tasks.size() <= 1) {
+      for (Callable<T> task : tasks) {
+        try {
+          results.add(task.call());
+        }
+        catch (Exception e) {
+          Throwables.throwIfUnchecked(e);
+          throw new RuntimeException(e);
+        }
+      }
+      return results;
+    }
+
+    final List<ListenableFuture<T>> futures = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      futures.add(workerExecutor.submit(task));
+    }
+    final ListenableFuture<List<T>> allFutures = Futures.allAsList(futures);
+    try {
+      results.addAll(allFutures.get());
+      return results;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+    finally {
+      for (ListenableFuture<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Persists the given hydrant and returns the number of rows persisted. Must only be called from
+   * {@link #persistHydrants}.
    *
    * @param indexToPersist hydrant to persist
    * @param identifier     the segment this hydrant is going to be part of
@@ -510,6 +510,12 @@ public class UnifiedIndexerAppenderatorsManager implements AppenderatorsManager
       return baseConfig.getNumPersistThreads();
     }
 
+    @Override
+    public int getNumMergeThreads()
+    {
+      return baseConfig.getNumMergeThreads();
+    }
+
     @Override
     public boolean isReleaseLocksOnHandoff()
     {
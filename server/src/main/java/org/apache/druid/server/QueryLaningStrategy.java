@@ -25,10 +25,12 @@ import com.google.common.primitives.Ints;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import org.apache.druid.client.SegmentServerSelector;
 import org.apache.druid.query.QueryPlus;
+import org.apache.druid.server.scheduling.AdaptiveQueryLaningStrategy;
 import org.apache.druid.server.scheduling.HiLoQueryLaningStrategy;
 import org.apache.druid.server.scheduling.ManualQueryLaningStrategy;
 import org.apache.druid.server.scheduling.NoQueryLaningStrategy;
 
+import javax.annotation.Nullable;
 import java.util.Optional;
 import java.util.Set;
 
@@ -37,7 +39,8 @@ import java.util.Set;
 @JsonSubTypes(value = {
     @JsonSubTypes.Type(name = "none", value = NoQueryLaningStrategy.class),
     @JsonSubTypes.Type(name = "hilo", value = HiLoQueryLaningStrategy.class),
-    @JsonSubTypes.Type(name = "manual", value = ManualQueryLaningStrategy.class)
+    @JsonSubTypes.Type(name = "manual", value = ManualQueryLaningStrategy.class),
+    @JsonSubTypes.Type(name = "adaptive", value = AdaptiveQueryLaningStrategy.class)
 })
 public interface QueryLaningStrategy
 {
@@ -54,6 +57,39 @@ public interface QueryLaningStrategy
    */
   <T> Optional<String> computeLane(QueryPlus<T> query, Set<SegmentServerSelector> segments);
 
+  /**
+   * Current limit on the number of concurrent queries for a lane, which is never more than the limit for the lane from
+   * {@link #getLaneLimits}. Strategies with static limits always return that limit.
+   *
+   * This method must be thread safe
+   */
+  default int getCurrentLaneLimit(String lane, int maxLimit)
+  {
+    return maxLimit;
+  }
+
+  /**
+   * Called by {@link QueryScheduler} when a query it ran has finished, with the lane the query ran in, if any, and how
+   * long the server spent producing its results. Time spent by the consumer of the results, such as writing them to a
+   * slow client, is not included. Strategies that adapt lane limits to load use this as their latency signal.
+   *
+   * This method must be thread safe
+   */
+  default void onQueryFinished(@Nullable String lane, long durationNanos)
+  {
+    // do nothing
+  }
+
+  /**
+   * Called by {@link QueryScheduler} when a query is rejected because its lane is at capacity.
+   *
+   * This method must be thread safe
+   */
+  default void onLaneCapacityExceeded(String lane)
+  {
+    // do nothing
+  }
+
   default int computeLimitFromPercent(int totalLimit, int value)
   {
     return Ints.checkedCast((long) Math.ceil(totalLimit * ((double) value / 100)));
@@ -20,6 +20,7 @@
 package org.apache.druid.server;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
@@ -30,10 +31,14 @@ import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import org.apache.druid.client.SegmentServerSelector;
 import org.apache.druid.java.util.common.concurrent.Execs;
+import org.apache.druid.java.util.common.guava.Accumulator;
+import org.apache.druid.java.util.common.guava.DelegatingYieldingAccumulator;
 import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.Sequence;
 import org.apache.druid.java.util.common.guava.SequenceWrapper;
 import org.apache.druid.java.util.common.guava.Sequences;
+import org.apache.druid.java.util.common.guava.Yielder;
+import org.apache.druid.java.util.common.guava.YieldingAccumulator;
 import org.apache.druid.java.util.common.logger.Logger;
 import org.apache.druid.java.util.emitter.core.NoopEmitter;
 import org.apache.druid.java.util.emitter.service.ServiceEmitter;
@@ -190,20 +195,35 @@ public class QueryScheduler implements QueryWatcher
    */
   public <T> Sequence<T> run(Query<?> query, Sequence<T> resultSequence)
   {
-    return Sequences.wrap(resultSequence, new SequenceWrapper()
+    final ProcessingTimer timer = new ProcessingTimer();
+    return Sequences.wrap(timer.excludeConsumer(resultSequence), new SequenceWrapper()
     {
       private List<Bulkhead> bulkheads = null;
+
       @Override
       public void before()
       {
         bulkheads = acquireLanes(query);
       }
 
+      @Override
+      public <RetType> RetType wrap(Supplier<RetType> sequenceProcessing)
+      {
+        timer.start();
+        try {
+          return sequenceProcessing.get();
+        }
+        finally {
+          timer.stop();
+        }
+      }
+
       @Override
       public void after(boolean isDone, Throwable thrown)
       {
         if (bulkheads != null) {
           finishLanes(bulkheads);
+          laningStrategy.onQueryFinished(query.context().getLane(), timer.getNanos());
         }
       }
     });
@@ -282,9 +302,20 @@ public class QueryScheduler implements QueryWatcher
       laneConfig.ifPresent(config -> {
         Bulkhead laneLimiter = laneRegistry.bulkhead(lane, config);
         if (!laneLimiter.tryAcquirePermission()) {
+          laningStrategy.onLaneCapacityExceeded(lane);
           throw new QueryCapacityExceededException(lane, config.getMaxConcurrentCalls());
         }
         hallPasses.add(laneLimiter);
+
+        // the bulkhead enforces the maximum limit of the lane, strategies that adapt their limits to load may
+        // currently allow fewer concurrent queries than that
+        final int maxLimit = config.getMaxConcurrentCalls();
+        final int currentLimit = laningStrategy.getCurrentLaneLimit(lane, maxLimit);
+        if (currentLimit < maxLimit
+            && maxLimit - laneLimiter.getMetrics().getAvailableConcurrentCalls() > currentLimit) {
+          laningStrategy.onLaneCapacityExceeded(lane);
+          throw new QueryCapacityExceededException(lane, currentLimit);
+        }
       });
 
       // everyone needs to take one from the total lane; to ensure we don't acquire a lane and never release it, we want
@@ -344,4 +375,75 @@ public class QueryScheduler implements QueryWatcher
     }
     return configs;
   }
+
+  /**
+   * Measures how long the server spends producing the results of a query sequence, excluding time spent in the
+   * accumulators of whoever consumes it, such as writing results out to a slow client. A sequence and its yielders are
+   * only ever processed by one thread at a time, so no synchronization is needed beyond that hand-off.
+   */
+  private static class ProcessingTimer
+  {
+    private long nanos = 0;
+    private long startNanos;
+
+    private void start()
+    {
+      startNanos = System.nanoTime();
+    }
+
+    private void stop()
+    {
+      nanos += System.nanoTime() - startNanos;
+    }
+
+    private long getNanos()
+    {
+      return nanos;
+    }
+
+    private <T> Sequence<T> excludeConsumer(Sequence<T> baseSequence)
+    {
+      return new Sequence<>()
+      {
+        @Override
+        public <OutType> OutType accumulate(OutType initValue, Accumulator<OutType, T> accumulator)
+        {
+          return baseSequence.accumulate(
+              initValue,
+              (accumulated, in) -> {
+                stop();
+                try {
+                  return accumulator.accumulate(accumulated, in);
+                }
+                finally {
+                  start();
+                }
+              }
+          );
+        }
+
+        @Override
+        public <OutType> Yielder<OutType> toYielder(OutType initValue, YieldingAccumulator<OutType, T> accumulator)
+        {
+          return baseSequence.toYielder(
+              initValue,
+              new DelegatingYieldingAccumulator<>(accumulator)
+              {
+                @Override
+                public OutType accumulate(OutType accumulated, T in)
+                {
+                  stop();
+                  try {
+                    return super.accumulate(accumulated, in);
+                  }
+                  finally {
+                    start();
+                  }
+                }
+              }
+          );
+        }
+      };
+    }
+  }
 }
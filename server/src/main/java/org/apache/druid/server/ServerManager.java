@@ -43,6 +43,7 @@ import org.apache.druid.query.CPUTimeMetricQueryRunner;
 import org.apache.druid.query.DataSegmentAndDescriptor;
 import org.apache.druid.query.DataSource;
 import org.apache.druid.query.FinalizeResultsQueryRunner;
+import org.apache.druid.query.FrameTransferQueryRunner;
 import org.apache.druid.query.LeafSegmentsBundle;
 import org.apache.druid.query.MetricsEmittingQueryRunner;
 import org.apache.druid.query.NoopQueryRunner;
@@ -650,8 +651,11 @@ public class ServerManager implements QuerySegmentWalker
             cacheKeyPrefix
         );
         final QueryRunner<T> queryRunner = CPUTimeMetricQueryRunner.safeBuild(
-            new FinalizeResultsQueryRunner<>(
-                toolChest.mergeResults(factory.mergeRunners(queryProcessingPool, queryRunners), true),
+            new FrameTransferQueryRunner<>(
+                new FinalizeResultsQueryRunner<>(
+                    toolChest.mergeResults(factory.mergeRunners(queryProcessingPool, queryRunners), true),
+                    toolChest
+                ),
                 toolChest
             ),
             toolChest,
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.scheduling;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.apache.druid.client.SegmentServerSelector;
+import org.apache.druid.java.util.common.logger.Logger;
+import org.apache.druid.query.QueryContext;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.server.QueryLaningStrategy;
+import org.apache.druid.server.QueryScheduler;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query laning strategy whose lane limits adapt to load, using additive increase and multiplicative decrease (AIMD).
+ *
+ * Lanes are configured like {@link ManualQueryLaningStrategy}, but the configured limits are maximums. Queries are
+ * assigned to the lane from their query context, or, like {@link HiLoQueryLaningStrategy}, to the 'low' lane if one is
+ * configured and their priority is below zero. Queries without a lane are considered interactive and are never limited
+ * by this strategy.
+ *
+ * The durations of interactive queries run by the {@link QueryScheduler}, that is, queries without a lane, are
+ * collected into windows of {@link #windowSize} queries. Laned queries are left out, so that the heavy queries being
+ * shed do not feed the signal that sheds them. Durations are measured until the server has produced all results,
+ * excluding time spent writing them to the client. At the end of each window, if the {@link #latencyPercentile} duration of the window is
+ * above {@link #targetLatencyMillis}, every lane limit is multiplied by {@link #backoffRatio}, shedding laned work so
+ * that interactive queries keep their latency. Otherwise, every lane that rejected a query during the window has its
+ * limit raised by one, up to the configured maximum.
+ */
+public class AdaptiveQueryLaningStrategy implements QueryLaningStrategy
+{
+  private static final Logger log = new Logger(AdaptiveQueryLaningStrategy.class);
+
+  public static final int DEFAULT_WINDOW_SIZE = 100;
+  public static final double DEFAULT_LATENCY_PERCENTILE = 0.99;
+  public static final double DEFAULT_BACKOFF_RATIO = 0.75;
+  public static final int DEFAULT_MIN_LIMIT = 1;
+
+  @JsonProperty
+  private final Map<String, Integer> lanes;
+
+  @JsonProperty
+  private final boolean isLimitPercent;
+
+  @JsonProperty
+  private final long targetLatencyMillis;
+
+  @JsonProperty
+  private final double latencyPercentile;
+
+  @JsonProperty
+  private final int windowSize;
+
+  @JsonProperty
+  private final double backoffRatio;
+
+  @JsonProperty
+  private final int minLimit;
+
+  private final long targetLatencyNanos;
+
+  @GuardedBy("this")
+  private final long[] window;
+  @GuardedBy("this")
+  private int windowPosition = 0;
+
+  /**
+   * State of each lane, created by {@link #getLaneLimits} once the maximum limits are known.
+   */
+  @GuardedBy("this")
+  private Map<String, LaneState> laneStates = Collections.emptyMap();
+
+  @JsonCreator
+  public AdaptiveQueryLaningStrategy(
+      @JsonProperty("lanes") Map<String, Integer> lanes,
+      @JsonProperty("isLimitPercent") @Nullable Boolean isLimitPercent,
+      @JsonProperty("targetLatencyMillis") Long targetLatencyMillis,
+      @JsonProperty("latencyPercentile") @Nullable Double latencyPercentile,
+      @JsonProperty("windowSize") @Nullable Integer windowSize,
+      @JsonProperty("backoffRatio") @Nullable Double backoffRatio,
+      @JsonProperty("minLimit") @Nullable Integer minLimit
+  )
+  {
+    this.lanes = Preconditions.checkNotNull(lanes, "lanes must be set");
+    this.isLimitPercent = isLimitPercent != null ? isLimitPercent : false;
+    Preconditions.checkArgument(lanes.size() > 0, "lanes must define at least one lane");
+    Preconditions.checkArgument(
+        lanes.values().stream().allMatch(x -> this.isLimitPercent ? 0 < x && x <= 100 : x > 0),
+        this.isLimitPercent ? "All lane limits must be in the range 1 to 100" : "All lane limits must be greater than 0"
+    );
+    Preconditions.checkArgument(
+        lanes.keySet().stream().noneMatch(QueryScheduler.TOTAL::equals),
+        "Lane cannot be named 'total'"
+    );
+    Preconditions.checkArgument(
+        lanes.keySet().stream().noneMatch("default"::equals),
+        "Lane cannot be named 'default'"
+    );
+
+    this.targetLatencyMillis = Preconditions.checkNotNull(targetLatencyMillis, "targetLatencyMillis must be set");
+    Preconditions.checkArgument(targetLatencyMillis > 0, "targetLatencyMillis must be greater than 0");
+    this.latencyPercentile = latencyPercentile != null ? latencyPercentile : DEFAULT_LATENCY_PERCENTILE;
+    Preconditions.checkArgument(
+        0 < this.latencyPercentile && this.latencyPercentile <= 1,
+        "latencyPercentile must be greater than 0 and at most 1"
+    );
+    this.windowSize = windowSize != null ? windowSize : DEFAULT_WINDOW_SIZE;
+    Preconditions.checkArgument(this.windowSize > 0, "windowSize must be greater than 0");
+    this.backoffRatio = backoffRatio != null ? backoffRatio : DEFAULT_BACKOFF_RATIO;
+    Preconditions.checkArgument(
+        0 < this.backoffRatio && this.backoffRatio < 1,
+        "backoffRatio must be greater than 0 and less than 1"
+    );
+    this.minLimit = minLimit != null ? minLimit : DEFAULT_MIN_LIMIT;
+    Preconditions.checkArgument(this.minLimit > 0, "minLimit must be greater than 0");
+
+    this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+    this.window = new long[this.windowSize];
+  }
+
+  @Override
+  public synchronized Object2IntMap<String> getLaneLimits(int totalLimit)
+  {
+    final Object2IntMap<String> laneLimits = new Object2IntArrayMap<>(lanes.size());
+    final Map<String, LaneState> states = new HashMap<>();
+    lanes.forEach((lane, value) -> {
+      final int maxLimit = isLimitPercent ? computeLimitFromPercent(totalLimit, value) : value;
+      laneLimits.put(lane, maxLimit);
+      states.put(lane, new LaneState(maxLimit, Math.min(minLimit, maxLimit)));
+    });
+    laneStates = states;
+    return laneLimits;
+  }
+
+  @Override
+  public <T> Optional<String> computeLane(QueryPlus<T> query, Set<SegmentServerSelector> segments)
+  {
+    final QueryContext queryContext = query.getQuery().context();
+    final String lane = queryContext.getLane();
+    if (lane != null) {
+      return Optional.of(lane);
+    }
+    if (lanes.containsKey(HiLoQueryLaningStrategy.LOW)
+        && queryContext.get(QueryContexts.PRIORITY_KEY) != null
+        && queryContext.getPriority() < 0) {
+      return Optional.of(HiLoQueryLaningStrategy.LOW);
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public synchronized int getCurrentLaneLimit(String lane, int maxLimit)
+  {
+    final LaneState state = laneStates.get(lane);
+    return state == null ? maxLimit : Math.min(state.limit, maxLimit);
+  }
+
+  @Override
+  public synchronized void onQueryFinished(@Nullable String lane, long durationNanos)
+  {
+    if (lane != null) {
+      return;
+    }
+    window[windowPosition++] = durationNanos;
+    if (windowPosition == windowSize) {
+      adjustLimits();
+      windowPosition = 0;
+    }
+  }
+
+  @Override
+  public synchronized void onLaneCapacityExceeded(String lane)
+  {
+    final LaneState state = laneStates.get(lane);
+    if (state != null) {
+      state.capacityExceeded = true;
+    }
+  }
+
+  private void adjustLimits()
+  {
+    Arrays.sort(window);
+    final int index = Math.min(windowSize - 1, (int) Math.ceil(latencyPercentile * windowSize) - 1);
+    final boolean overTarget = window[index] > targetLatencyNanos;
+
+    laneStates.forEach((lane, state) -> {
+      final int previousLimit = state.limit;
+      if (overTarget) {
+        state.limit = Math.max(state.minLimit, (int) (state.limit * backoffRatio));
+      } else if (state.capacityExceeded) {
+        state.limit = Math.min(state.maxLimit, state.limit + 1);
+      }
+      state.capacityExceeded = false;
+      if (state.limit != previousLimit) {
+        log.debug(
+            "Lane[%s] limit changed from [%d] to [%d], window latency was [%,d]ms",
+            lane,
+            previousLimit,
+            state.limit,
+            TimeUnit.NANOSECONDS.toMillis(window[index])
+        );
+      }
+    });
+  }
+
+  @VisibleForTesting
+  synchronized int getLaneLimit(String lane)
+  {
+    return laneStates.get(lane).limit;
+  }
+
+  private static class LaneState
+  {
+    private final int maxLimit;
+    private final int minLimit;
+    private int limit;
+    private boolean capacityExceeded;
+
+    private LaneState(int maxLimit, int minLimit)
+    {
+      this.maxLimit = maxLimit;
+      this.minLimit = minLimit;
+      this.limit = maxLimit;
+    }
+  }
+}
@@ -51,6 +51,7 @@ import org.apache.druid.java.util.emitter.service.ServiceEmitter;
 import org.apache.druid.query.CacheStrategy;
 import org.apache.druid.query.Druids;
 import org.apache.druid.query.Query;
+import org.apache.druid.query.QueryContexts;
 import org.apache.druid.query.QueryPlus;
 import org.apache.druid.query.QueryRunner;
 import org.apache.druid.query.QueryRunnerTestHelper;
@@ -71,6 +72,7 @@ import org.apache.druid.query.topn.TopNResultValue;
 import org.apache.druid.testing.InitializedNullHandlingTest;
 import org.easymock.EasyMock;
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -81,6 +83,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -206,6 +209,78 @@ public class CachingQueryRunnerTest extends InitializedNullHandlingTest
     }
   }
 
+  @Test
+  public void testSegmentCacheByGranularity()
+  {
+    final TimeseriesQuery query = Druids.newTimeseriesQueryBuilder()
+                                        .dataSource(QueryRunnerTestHelper.DATA_SOURCE)
+                                        .granularity(Granularities.HOUR)
+                                        .intervals("2011-04-01/2011-04-02")
+                                        .aggregators(new CountAggregatorFactory("rows"))
+                                        .context(ImmutableMap.of(QueryContexts.SEGMENT_CACHE_BY_GRANULARITY_KEY, true))
+                                        .build();
+    final QueryToolChest toolchest = new TimeseriesQueryQueryToolChest();
+    final Cache cache = MapCache.create(Long.MAX_VALUE);
+    final List<Interval> baseIntervals = new ArrayList<>();
+
+    // Results of the first query are cached per hour, so the second query only has to compute the hours before and
+    // after the ones it shares with the first, with one base run for each contiguous range of missing hours.
+    Assert.assertEquals(
+        makeHourlyTimeseriesResults("2011-04-01T01", "2011-04-01T02").toString(),
+        makeGranularityCachingQueryRunner(Intervals.of("2011-04-01T01/2011-04-01T03"), cache, toolchest, baseIntervals)
+            .run(QueryPlus.wrap(query))
+            .toList()
+            .toString()
+    );
+    Assert.assertEquals(Collections.singletonList(Intervals.of("2011-04-01T01/2011-04-01T03")), baseIntervals);
+
+    baseIntervals.clear();
+    Assert.assertEquals(
+        makeHourlyTimeseriesResults(
+            "2011-04-01T00",
+            "2011-04-01T01",
+            "2011-04-01T02",
+            "2011-04-01T03",
+            "2011-04-01T04"
+        ).toString(),
+        makeGranularityCachingQueryRunner(Intervals.of("2011-04-01T00/2011-04-01T05"), cache, toolchest, baseIntervals)
+            .run(QueryPlus.wrap(query))
+            .toList()
+            .toString()
+    );
+    Assert.assertEquals(
+        Arrays.asList(Intervals.of("2011-04-01T00/2011-04-01T01"), Intervals.of("2011-04-01T03/2011-04-01T05")),
+        baseIntervals
+    );
+
+    // descending timeseries results are not split, so the query is passed to the base runner as is
+    baseIntervals.clear();
+    Assert.assertEquals(
+        24,
+        makeGranularityCachingQueryRunner(Intervals.of("2011-04-01T01/2011-04-01T05"), cache, toolchest, baseIntervals)
+            .run(QueryPlus.wrap(Druids.TimeseriesQueryBuilder.copy(query).descending(true).build()))
+            .toList()
+            .size()
+    );
+    Assert.assertEquals(Collections.singletonList(Intervals.of("2011-04-01/2011-04-02")), baseIntervals);
+  }
+
+  @Test
+  public void testGetGranularityBuckets()
+  {
+    Assert.assertEquals(
+        Arrays.asList(Intervals.of("2011-04-01T00/2011-04-01T01"), Intervals.of("2011-04-01T01/2011-04-01T02")),
+        CachingQueryRunner.getGranularityBuckets(Granularities.HOUR, Intervals.of("2011-04-01T00/2011-04-01T02"))
+    );
+    Assert.assertNull(
+        CachingQueryRunner.getGranularityBuckets(Granularities.HOUR, Intervals.of("2011-04-01T00:30/2011-04-01T02"))
+    );
+    Assert.assertNull(
+        CachingQueryRunner.getGranularityBuckets(Granularities.HOUR, Intervals.of("2011-04-01T00/2011-04-01T02:30"))
+    );
+    Assert.assertNull(CachingQueryRunner.getGranularityBuckets(Granularities.MINUTE, Intervals.of("2011-04-01/P1D")));
+  }
+
   @Test
   public void testNullCacheKeyPrefix()
   {
@@ -405,6 +480,65 @@ public class CachingQueryRunnerTest extends InitializedNullHandlingTest
     Assert.assertEquals(expectedResults.toString(), results.toString());
   }
 
+  private CachingQueryRunner makeGranularityCachingQueryRunner(
+      Interval interval,
+      Cache cache,
+      QueryToolChest toolchest,
+      List<Interval> baseIntervals
+  )
+  {
+    return new CachingQueryRunner(
+        CACHE_ID,
+        Optional.of(new byte[0]),
+        new SegmentDescriptor(interval, "version", 0),
+        Intervals.of("2011-04-01/2011-04-02"),
+        objectMapper,
+        cache,
+        toolchest,
+        // return one row for each hour of the queried interval
+        new QueryRunner()
+        {
+          @Override
+          public Sequence run(QueryPlus queryPlus, ResponseContext responseContext)
+          {
+            final Interval queried = Iterables.getOnlyElement(((Query<?>) queryPlus.getQuery()).getIntervals());
+            baseIntervals.add(queried);
+            final List<String> hours = new ArrayList<>();
+            for (Interval hour : Granularities.HOUR.getIterable(queried)) {
+              hours.add(hour.getStart().toString());
+            }
+            return Sequences.simple(makeHourlyTimeseriesResults(hours.toArray(new String[0])));
+          }
+        },
+        new ForegroundCachePopulator(objectMapper, new CachePopulatorStats(), -1),
+        new CacheConfig()
+        {
+          @Override
+          public boolean isPopulateCache()
+          {
+            return true;
+          }
+
+          @Override
+          public boolean isUseCache()
+          {
+            return true;
+          }
+        }
+    );
+  }
+
+  private static List<Result<TimeseriesResultValue>> makeHourlyTimeseriesResults(String... timestamps)
+  {
+    final List<Result<TimeseriesResultValue>> results = new ArrayList<>();
+    for (String timestamp : timestamps) {
+      results.add(
+          new Result<>(DateTimes.of(timestamp), new TimeseriesResultValue(ImmutableMap.of("rows", 1L)))
+      );
+    }
+    return results;
+  }
+
   private CachingQueryRunner makeCachingQueryRunner(
       byte[] cacheKeyPrefix,
       Cache cache,
@@ -165,6 +165,165 @@ public class DirectDruidClientTest
     Assert.assertEquals(2, client2.getNumOpenConnections());
   }
 
+  @Test
+  public void testRunHedgedUsesBackupWhenPrimaryIsSlow()
+  {
+    final QueuedTestHttpClient primaryHttpClient = new QueuedTestHttpClient();
+    final QueuedTestHttpClient backupHttpClient = new QueuedTestHttpClient();
+    final DirectDruidClient primary = makeDirectDruidClient(primaryHttpClient);
+    final DirectDruidClient backup = makeDirectDruidClient(backupHttpClient);
+
+    final SettableFuture<InputStream> primaryFuture = SettableFuture.create();
+    primaryHttpClient.enqueue(primaryFuture);
+    final SettableFuture<InputStream> backupFuture = SettableFuture.create();
+    backupHttpClient.enqueue(backupFuture);
+
+    final QueryPlus queryPlus = getQueryPlus();
+    final Sequence results = primary.runHedged(queryPlus, responseContext, backup, 100);
+    Assert.assertEquals(1, primary.getNumOpenConnections());
+    Assert.assertTrue(backupHttpClient.getRequests().isEmpty());
+
+    // the hedge delay passes without a response from the primary
+    blockingExecutorService.finishNextPendingTask();
+    Assert.assertEquals(1, backupHttpClient.getRequests().size());
+    Assert.assertEquals(1, backup.getNumOpenConnections());
+
+    backupFuture.set(
+        new ByteArrayInputStream(StringUtils.toUtf8("[{\"timestamp\":\"2014-01-01T01:02:03Z\", \"result\": 42.0}]"))
+    );
+    Assert.assertTrue(primaryFuture.isCancelled());
+    Assert.assertEquals(0, primary.getNumOpenConnections());
+    Assert.assertTrue(primary.getAverageLatencyNs() > 0);
+
+    final List<Result> resultList = results.toList();
+    Assert.assertEquals(1, resultList.size());
+    Assert.assertEquals(DateTimes.of("2014-01-01T01:02:03Z"), resultList.get(0).getTimestamp());
+    // the response is counted once, even though the query was sent to two servers
+    Assert.assertEquals(
+        -1,
+        (int) responseContext.getRemainingResponses().get(queryPlus.getQuery().getMostSpecificId())
+    );
+  }
+
+  @Test
+  public void testRunHedgedDoesNotHedgeWhenPrimaryResponds()
+  {
+    final QueuedTestHttpClient primaryHttpClient = new QueuedTestHttpClient();
+    final QueuedTestHttpClient backupHttpClient = new QueuedTestHttpClient();
+    final DirectDruidClient primary = makeDirectDruidClient(primaryHttpClient);
+    final DirectDruidClient backup = makeDirectDruidClient(backupHttpClient);
+
+    final SettableFuture<InputStream> primaryFuture = SettableFuture.create();
+    primaryHttpClient.enqueue(primaryFuture);
+
+    final Sequence results = primary.runHedged(getQueryPlus(), responseContext, backup, 100);
+    primaryFuture.set(
+        new ByteArrayInputStream(StringUtils.toUtf8("[{\"timestamp\":\"2014-01-01T01:02:03Z\", \"result\": 42.0}]"))
+    );
+    blockingExecutorService.finishNextPendingTask();
+    Assert.assertTrue(backupHttpClient.getRequests().isEmpty());
+    Assert.assertEquals(1, results.toList().size());
+  }
+
+  @Test
+  public void testRunHedgedFailsOnlyWhenBothFail()
+  {
+    final QueuedTestHttpClient primaryHttpClient = new QueuedTestHttpClient();
+    final QueuedTestHttpClient backupHttpClient = new QueuedTestHttpClient();
+    final DirectDruidClient primary = makeDirectDruidClient(primaryHttpClient);
+    final DirectDruidClient backup = makeDirectDruidClient(backupHttpClient);
+
+    final SettableFuture<InputStream> primaryFuture = SettableFuture.create();
+    primaryHttpClient.enqueue(primaryFuture);
+    final SettableFuture<InputStream> backupFuture = SettableFuture.create();
+    backupHttpClient.enqueue(backupFuture);
+
+    final Sequence results = primary.runHedged(getQueryPlus(), responseContext, backup, 100);
+    blockingExecutorService.finishNextPendingTask();
+
+    primaryFuture.setException(new ReadTimeoutException());
+    Assert.assertFalse(backupFuture.isDone());
+
+    backupFuture.setException(new ReadTimeoutException());
+    QueryInterruptedException actualException = Assert.assertThrows(QueryInterruptedException.class, results::toList);
+    Assert.assertTrue(actualException.getCause() instanceof ReadTimeoutException);
+  }
+
+  @Test
+  public void testRunHedgedSendsBackupWhenPrimaryFails()
+  {
+    final QueuedTestHttpClient primaryHttpClient = new QueuedTestHttpClient();
+    final QueuedTestHttpClient backupHttpClient = new QueuedTestHttpClient();
+    final DirectDruidClient primary = makeDirectDruidClient(primaryHttpClient);
+    final DirectDruidClient backup = makeDirectDruidClient(backupHttpClient);
+
+    final SettableFuture<InputStream> primaryFuture = SettableFuture.create();
+    primaryHttpClient.enqueue(primaryFuture);
+    final SettableFuture<InputStream> backupFuture = SettableFuture.create();
+    backupHttpClient.enqueue(backupFuture);
+
+    final Sequence results = primary.runHedged(getQueryPlus(), responseContext, backup, 100);
+
+    // the primary fails before the hedge delay has passed
+    primaryFuture.setException(new ReadTimeoutException());
+    Assert.assertEquals(1, backupHttpClient.getRequests().size());
+
+    backupFuture.set(
+        new ByteArrayInputStream(StringUtils.toUtf8("[{\"timestamp\":\"2014-01-01T01:02:03Z\", \"result\": 42.0}]"))
+    );
+    Assert.assertEquals(1, results.toList().size());
+
+    // the hedge delay passing later does not send another request
+    blockingExecutorService.finishNextPendingTask();
+    Assert.assertEquals(1, backupHttpClient.getRequests().size());
+  }
+
+  @Test
+  public void testRunHedgedCancelsOnlyTheLosingRequest()
+  {
+    final QueuedTestHttpClient primaryHttpClient = new QueuedTestHttpClient();
+    final QueuedTestHttpClient backupHttpClient = new QueuedTestHttpClient();
+    final DirectDruidClient primary = makeDirectDruidClient(primaryHttpClient);
+    final DirectDruidClient backup = makeDirectDruidClient(backupHttpClient);
+
+    final SettableFuture<InputStream> primaryFuture = SettableFuture.create();
+    primaryHttpClient.enqueue(primaryFuture);
+    // the backup also serves another group of segments of the same query
+    final SettableFuture<InputStream> otherSegmentsFuture = SettableFuture.create();
+    backupHttpClient.enqueue(otherSegmentsFuture);
+    final SettableFuture<InputStream> backupFuture = SettableFuture.create();
+    backupHttpClient.enqueue(backupFuture);
+
+    final QueryPlus queryPlus = getQueryPlus();
+    final String queryId = queryPlus.getQuery().getId();
+    final Sequence otherSegmentsResults = backup.run(queryPlus, responseContext);
+    final Sequence results = primary.runHedged(queryPlus, responseContext, backup, 100);
+    blockingExecutorService.finishNextPendingTask();
+    Assert.assertEquals(2, backupHttpClient.getRequests().size());
+
+    // the primary responds first, so the request to the backup loses
+    primaryFuture.set(
+        new ByteArrayInputStream(StringUtils.toUtf8("[{\"timestamp\":\"2014-01-01T01:02:03Z\", \"result\": 42.0}]"))
+    );
+    Assert.assertTrue(backupFuture.isCancelled());
+    Assert.assertFalse(otherSegmentsFuture.isDone());
+    Assert.assertEquals(1, results.toList().size());
+
+    // the cancellation is sent for the id of the losing request only
+    blockingExecutorService.finishNextPendingTask();
+    Assert.assertEquals(3, backupHttpClient.getRequests().size());
+    final Request cancelRequest = backupHttpClient.getRequests().get(2);
+    Assert.assertEquals(HttpMethod.DELETE, cancelRequest.getMethod());
+    final String cancelledId = cancelRequest.getUrl().getPath().substring("/druid/v2/".length());
+    Assert.assertNotEquals(queryId, cancelledId);
+    Assert.assertTrue(cancelledId.startsWith(queryId));
+
+    otherSegmentsFuture.set(
+        new ByteArrayInputStream(StringUtils.toUtf8("[{\"timestamp\":\"2014-01-01T01:02:03Z\", \"result\": 42.0}]"))
+    );
+    Assert.assertEquals(1, otherSegmentsResults.toList().size());
+  }
+
   @Test
   public void testCancel() throws MalformedURLException
   {
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServerLatencyTrackerTest
+{
+  private static final long DECAY = ServerLatencyTracker.DECAY_PERIOD_NS;
+
+  @Test
+  public void testNoSamples()
+  {
+    Assert.assertEquals(0, new ServerLatencyTracker().getAverageNs(1000), 0);
+  }
+
+  @Test
+  public void testFirstSampleIsAverage()
+  {
+    final ServerLatencyTracker tracker = new ServerLatencyTracker();
+    tracker.add(100, 0);
+    Assert.assertEquals(100, tracker.getAverageNs(0), 0);
+  }
+
+  @Test
+  public void testSampleInQuickSuccessionHasMinimumWeight()
+  {
+    final double weight = ServerLatencyTracker.MIN_SAMPLE_WEIGHT;
+    final ServerLatencyTracker tracker = new ServerLatencyTracker();
+    tracker.add(100, 0);
+
+    // a single slow response only moves the average part of the way
+    tracker.add(5100, 1);
+    Assert.assertEquals(100 + 5000 * weight, tracker.getAverageNs(1), 1e-3);
+
+    // and so does a fast one
+    tracker.add(100, 2);
+    Assert.assertEquals(100 + 5000 * weight * (1 - weight), tracker.getAverageNs(2), 1e-3);
+  }
+
+  @Test
+  public void testSamplesFarApartHaveMoreWeight()
+  {
+    final ServerLatencyTracker tracker = new ServerLatencyTracker();
+    tracker.add(5000, 0);
+
+    // one decay period later, a faster response moves the average most of the way
+    tracker.add(100, DECAY);
+    Assert.assertEquals(100 + 4900 / Math.E, tracker.getAverageNs(DECAY), 1);
+  }
+
+  @Test
+  public void testFailureIsPenalized()
+  {
+    final ServerLatencyTracker tracker = new ServerLatencyTracker();
+    tracker.add(1000, 0);
+
+    // a fast failure counts as a multiple of the average rather than pulling it down
+    tracker.addFailure(10, 1);
+    final double penalized = 1000 + 1000 * (ServerLatencyTracker.FAILURE_PENALTY_MULTIPLIER - 1)
+                                    * ServerLatencyTracker.MIN_SAMPLE_WEIGHT;
+    Assert.assertEquals(penalized, tracker.getAverageNs(1), 1);
+
+    // a slow failure counts as long as it took
+    final ServerLatencyTracker other = new ServerLatencyTracker();
+    other.addFailure(5000, 0);
+    Assert.assertEquals(5000, other.getAverageNs(0), 0);
+  }
+
+  @Test
+  public void testAverageDecaysWhileIdle()
+  {
+    final ServerLatencyTracker tracker = new ServerLatencyTracker();
+    tracker.add(5000, 0);
+    Assert.assertEquals(5000 / Math.E, tracker.getAverageNs(DECAY), 1e-6);
+    Assert.assertTrue(tracker.getAverageNs(10 * DECAY) < 1);
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.java.util.common.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+public class FileCacheTest extends CacheTestBase<FileCache>
+{
+  private static final ObjectMapper MAPPER = new DefaultObjectMapper();
+  private static final byte[] HI = StringUtils.toUtf8("hiiiiiiiiiiiiiiiiiii");
+  private static final byte[] HO = StringUtils.toUtf8("hooooooooooooooooooo");
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException
+  {
+    directory = temporaryFolder.newFolder();
+    cache = FileCache.create(makeConfig(1024 * 1024, 64 * 1024));
+  }
+
+  @After
+  public void tearDown()
+  {
+    cache.close();
+  }
+
+  @Test
+  public void testBaseOps()
+  {
+    final Cache.NamedKey aKey = new Cache.NamedKey("a", HI);
+    Assert.assertNull(cache.get(aKey));
+    put(cache, aKey, 1);
+    Assert.assertEquals(1, get(cache, aKey));
+
+    final Cache.NamedKey bKey = new Cache.NamedKey("b", HI);
+    put(cache, bKey, 2);
+    Assert.assertEquals(1, get(cache, aKey));
+    Assert.assertEquals(2, get(cache, bKey));
+
+    put(cache, aKey, 3);
+    Assert.assertEquals(3, get(cache, aKey));
+
+    final CacheStats stats = cache.getStats();
+    Assert.assertEquals(2, stats.getNumEntries());
+    Assert.assertEquals(4, stats.getNumHits());
+    Assert.assertEquals(1, stats.getNumMisses());
+  }
+
+  @Test
+  public void testGetBulk()
+  {
+    final Cache.NamedKey key1 = new Cache.NamedKey("the", HI);
+    put(cache, key1, 2);
+    final Cache.NamedKey key2 = new Cache.NamedKey("the", HO);
+    put(cache, key2, 10);
+    final Cache.NamedKey missingKey = new Cache.NamedKey("a", HO);
+
+    final Map<Cache.NamedKey, byte[]> result = cache.getBulk(ImmutableList.of(key1, key2, missingKey));
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(2, Ints.fromByteArray(result.get(key1)));
+    Assert.assertEquals(10, Ints.fromByteArray(result.get(key2)));
+  }
+
+  @Test
+  public void testReloadAfterClose()
+  {
+    final Cache.NamedKey aKey = new Cache.NamedKey("a", HI);
+    final Cache.NamedKey bKey = new Cache.NamedKey("", HO);
+    put(cache, aKey, 1);
+    put(cache, bKey, 2);
+    put(cache, aKey, 3);
+    cache.close();
+    Assert.assertNull(cache.get(aKey));
+
+    cache = FileCache.create(makeConfig(1024 * 1024, 64 * 1024));
+    Assert.assertEquals(2, cache.getStats().getNumEntries());
+    Assert.assertEquals(3, get(cache, aKey));
+    Assert.assertEquals(2, get(cache, bKey));
+
+    // appends continue after the reloaded entries
+    final Cache.NamedKey cKey = new Cache.NamedKey("c", HI);
+    put(cache, cKey, 4);
+    cache.close();
+    cache = FileCache.create(makeConfig(1024 * 1024, 64 * 1024));
+    Assert.assertEquals(3, get(cache, aKey));
+    Assert.assertEquals(4, get(cache, cKey));
+  }
+
+  @Test
+  public void testEvictsOldestFile() throws IOException
+  {
+    directory = temporaryFolder.newFolder();
+    final FileCache smallCache = FileCache.create(makeConfig(4 * 4096, 4096));
+
+    // each record takes 1022 bytes, so a file holds four of them
+    final byte[] value = new byte[1000];
+    for (int i = 0; i < 28; i++) {
+      smallCache.put(new Cache.NamedKey("ns", Ints.toByteArray(i)), value);
+    }
+
+    Assert.assertEquals(4, smallCache.getNumFiles());
+    final CacheStats stats = smallCache.getStats();
+    Assert.assertEquals(16, stats.getNumEntries());
+    Assert.assertEquals(12, stats.getNumEvictions());
+    Assert.assertNull(smallCache.get(new Cache.NamedKey("ns", Ints.toByteArray(11))));
+    Assert.assertArrayEquals(value, smallCache.get(new Cache.NamedKey("ns", Ints.toByteArray(12))));
+    Assert.assertArrayEquals(value, smallCache.get(new Cache.NamedKey("ns", Ints.toByteArray(27))));
+    smallCache.close();
+  }
+
+  @Test
+  public void testEvictionKeepsKeysRewrittenToNewerFile() throws IOException
+  {
+    directory = temporaryFolder.newFolder();
+    final FileCache smallCache = FileCache.create(makeConfig(4 * 4096, 4096));
+
+    final byte[] value = new byte[1000];
+    final Cache.NamedKey rewritten = new Cache.NamedKey("ns", Ints.toByteArray(0));
+    for (int i = 0; i < 16; i++) {
+      smallCache.put(new Cache.NamedKey("ns", Ints.toByteArray(i)), value);
+    }
+    // now in the newest file, while the oldest file still holds its first copy
+    smallCache.put(rewritten, value);
+    for (int i = 16; i < 19; i++) {
+      smallCache.put(new Cache.NamedKey("ns", Ints.toByteArray(i)), value);
+    }
+
+    Assert.assertEquals(4, smallCache.getNumFiles());
+    Assert.assertEquals(3, smallCache.getStats().getNumEvictions());
+    Assert.assertArrayEquals(value, smallCache.get(rewritten));
+    Assert.assertNull(smallCache.get(new Cache.NamedKey("ns", Ints.toByteArray(1))));
+    smallCache.close();
+  }
+
+  @Test
+  public void testSkipsValuesLargerThanFile()
+  {
+    final Cache.NamedKey key = new Cache.NamedKey("a", HI);
+    cache.put(key, new byte[64 * 1024]);
+    Assert.assertNull(cache.get(key));
+    Assert.assertEquals(0, cache.getStats().getNumEntries());
+  }
+
+  @Test
+  public void testReloadStopsAtCorruptRecord() throws IOException
+  {
+    final Cache.NamedKey aKey = new Cache.NamedKey("a", HI);
+    final Cache.NamedKey bKey = new Cache.NamedKey("b", HI);
+    put(cache, aKey, 1);
+    put(cache, bKey, 2);
+    final long sizeAfterB = cache.getStats().getSizeInBytes();
+    cache.close();
+
+    // flip the last byte of the value of the second record, as if the write was torn
+    final File[] files = directory.listFiles();
+    Assert.assertNotNull(files);
+    Assert.assertEquals(1, files.length);
+    try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+      file.seek(sizeAfterB - 1);
+      final int lastByte = file.read();
+      file.seek(sizeAfterB - 1);
+      file.write(lastByte ^ 0xFF);
+    }
+
+    cache = FileCache.create(makeConfig(1024 * 1024, 64 * 1024));
+    Assert.assertEquals(1, get(cache, aKey));
+    Assert.assertNull(cache.get(bKey));
+
+    put(cache, bKey, 5);
+    Assert.assertEquals(5, get(cache, bKey));
+  }
+
+  @Test
+  public void testDeserializeProvider() throws IOException
+  {
+    final CacheProvider provider = MAPPER.readValue(
+        StringUtils.format(
+            "{\"type\":\"file\",\"directory\":\"%s\",\"sizeInBytes\":\"1MiB\",\"fileSizeInBytes\":\"64KiB\"}",
+            directory.getAbsolutePath()
+        ),
+        CacheProvider.class
+    );
+    Assert.assertTrue(provider instanceof FileCacheProvider);
+    Assert.assertEquals(directory.getAbsolutePath(), ((FileCacheConfig) provider).getDirectory());
+    Assert.assertEquals(1024 * 1024, ((FileCacheConfig) provider).getSizeInBytes());
+    Assert.assertEquals(64 * 1024, ((FileCacheConfig) provider).getFileSizeInBytes());
+  }
+
+  @Test
+  public void testTooSmallSize()
+  {
+    Assert.assertThrows(IllegalArgumentException.class, () -> FileCache.create(makeConfig(4096, 4096)));
+  }
+
+  private FileCacheConfig makeConfig(long sizeInBytes, long fileSizeInBytes)
+  {
+    return MAPPER.convertValue(
+        ImmutableMap.of(
+            "directory", directory.getAbsolutePath(),
+            "sizeInBytes", sizeInBytes,
+            "fileSizeInBytes", fileSizeInBytes
+        ),
+        FileCacheConfig.class
+    );
+  }
+
+  private static int get(Cache cache, Cache.NamedKey key)
+  {
+    return Ints.fromByteArray(cache.get(key));
+  }
+
+  private static void put(Cache cache, Cache.NamedKey key, Integer value)
+  {
+    cache.put(key, Ints.toByteArray(value));
+  }
+}
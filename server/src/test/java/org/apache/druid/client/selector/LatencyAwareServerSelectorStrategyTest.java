@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.client.selector;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.druid.client.DirectDruidClient;
+import org.apache.druid.client.DruidServer;
+import org.apache.druid.client.QueryableDruidServer;
+import org.apache.druid.jackson.DefaultObjectMapper;
+import org.apache.druid.server.coordination.ServerType;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class LatencyAwareServerSelectorStrategyTest
+{
+  private final LatencyAwareServerSelectorStrategy strategy = new LatencyAwareServerSelectorStrategy();
+
+  @Test
+  public void testSerde() throws Exception
+  {
+    Assert.assertTrue(
+        new DefaultObjectMapper().readValue("{\"type\":\"latencyAware\"}", ServerSelectorStrategy.class)
+        instanceof LatencyAwareServerSelectorStrategy
+    );
+  }
+
+  @Test
+  public void testPicksFasterOfTwo()
+  {
+    final QueryableDruidServer fast = mockServer("fast", 1_000_000, 2);
+    final QueryableDruidServer slow = mockServer("slow", 50_000_000, 0);
+    final Set<QueryableDruidServer> servers = ImmutableSet.of(fast, slow);
+
+    for (int i = 0; i < 100; ++i) {
+      Assert.assertEquals(fast, strategy.pick(servers, null));
+    }
+  }
+
+  @Test
+  public void testSlowServerIsPickedLess()
+  {
+    final QueryableDruidServer slow = mockServer("slow", 50_000_000, 0);
+    final Set<QueryableDruidServer> servers = ImmutableSet.of(
+        slow,
+        mockServer("fast1", 1_000_000, 0),
+        mockServer("fast2", 1_000_000, 0),
+        mockServer("fast3", 1_000_000, 0)
+    );
+
+    final Map<String, Integer> picks = new HashMap<>();
+    for (int i = 0; i < 1000; ++i) {
+      picks.merge(strategy.pick(servers, null).getServer().getName(), 1, Integer::sum);
+    }
+    // power of two choices never picks the most expensive server, but spreads queries over the others
+    Assert.assertFalse(picks.containsKey("slow"));
+    Assert.assertEquals(3, picks.size());
+  }
+
+  @Test
+  public void testOpenConnectionsWithoutLatency()
+  {
+    final QueryableDruidServer idle = mockServer("idle", 0, 0);
+    final QueryableDruidServer busy = mockServer("busy", 0, 10);
+    for (int i = 0; i < 100; ++i) {
+      Assert.assertEquals(idle, strategy.pick(ImmutableSet.of(idle, busy), null));
+    }
+  }
+
+  @Test
+  public void testPickMultiple()
+  {
+    final QueryableDruidServer s1 = mockServer("s1", 1_000_000, 0);
+    final QueryableDruidServer s2 = mockServer("s2", 2_000_000, 0);
+    final QueryableDruidServer s3 = mockServer("s3", 3_000_000, 0);
+    final List<QueryableDruidServer> picked = strategy.pick(ImmutableSet.of(s3, s1, s2), null, 2);
+    Assert.assertEquals(ImmutableSet.of(s1, s2), ImmutableSet.copyOf(picked));
+    Assert.assertEquals(3, strategy.pick(ImmutableSet.of(s3, s1, s2), null, 5).size());
+  }
+
+  private QueryableDruidServer mockServer(String name, double latencyNs, int openConnections)
+  {
+    DirectDruidClient client = EasyMock.createMock(DirectDruidClient.class);
+    EasyMock.expect(client.getAverageLatencyNs()).andReturn(latencyNs).anyTimes();
+    EasyMock.expect(client.getNumOpenConnections()).andReturn(openConnections).anyTimes();
+    EasyMock.replay(client);
+    return new QueryableDruidServer(
+        new DruidServer(
+            name,
+            "localhost",
+            null,
+            0,
+            null,
+            ServerType.HISTORICAL,
+            DruidServer.DEFAULT_TIER,
+            0
+        ), client
+    );
+  }
+}
@@ -21,10 +21,12 @@ package org.apache.druid.client.selector;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.apache.druid.client.DirectDruidClient;
 import org.apache.druid.client.DruidServer;
 import org.apache.druid.client.QueryableDruidServer;
 import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.query.CloneQueryMode;
 import org.apache.druid.server.coordination.ServerType;
 import org.apache.druid.timeline.DataSegment;
 import org.apache.druid.timeline.partition.NoneShardSpec;
@@ -168,4 +170,37 @@ public class ServerSelectorTest
     Assert.assertTrue(selector.hasData());
   }
 
+  @Test
+  public void testGetServersLike()
+  {
+    final ServerSelector selector = new ServerSelector(
+        DataSegment.builder()
+                   .dataSource("test_servers_like")
+                   .interval(Intervals.of("2012/2013"))
+                   .version("v1")
+                   .shardSpec(NoneShardSpec.instance())
+                   .size(0)
+                   .build(),
+        new HighestPriorityTierSelectorStrategy(new RandomServerSelectorStrategy()),
+        HistoricalFilter.IDENTITY_FILTER
+    );
+    final QueryableDruidServer hot1 = makeServer("hot1", "hot", 1);
+    final QueryableDruidServer hot2 = makeServer("hot2", "hot", 1);
+    final QueryableDruidServer otherTier = makeServer("other", "other", 1);
+    final QueryableDruidServer cold = makeServer("cold", "cold", 0);
+    for (QueryableDruidServer server : ImmutableList.of(hot1, hot2, otherTier, cold)) {
+      selector.addServerAndUpdateSegment(server, selector.getSegment());
+    }
+
+    Assert.assertEquals(ImmutableSet.of(hot1, hot2), selector.getServersLike(hot1, CloneQueryMode.EXCLUDECLONES));
+    Assert.assertEquals(ImmutableSet.of(cold), selector.getServersLike(cold, CloneQueryMode.EXCLUDECLONES));
+  }
+
+  private static QueryableDruidServer makeServer(String name, String tier, int priority)
+  {
+    return new QueryableDruidServer(
+        new DruidServer(name, name, null, 0, null, ServerType.HISTORICAL, tier, priority),
+        EasyMock.createMock(DirectDruidClient.class)
+    );
+  }
 }
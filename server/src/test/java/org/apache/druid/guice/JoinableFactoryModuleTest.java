@@ -47,6 +47,7 @@ import org.junit.Test;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 public class JoinableFactoryModuleTest
@@ -119,6 +120,8 @@ public class JoinableFactoryModuleTest
     final ImmutableList.Builder<Module> modulesBuilder =
         ImmutableList.<Module>builder()
             .add(new JoinableFactoryModule())
+            .add(new ConfigModule())
+            .add(binder -> binder.bind(Properties.class).toInstance(new Properties()))
             .add(binder -> binder.bind(LookupExtractorFactoryContainerProvider.class).toInstance(lookupProvider))
             .add(binder -> binder.bind(SegmentManager.class).toInstance(EasyMock.createMock(SegmentManager.class)))
             .add(binder -> binder.bindScope(LazySingleton.class, Scopes.SINGLETON));
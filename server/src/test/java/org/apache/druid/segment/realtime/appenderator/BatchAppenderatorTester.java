@@ -175,6 +175,8 @@ public class BatchAppenderatorTester implements AutoCloseable
         OffHeapMemorySegmentWriteOutMediumFactory.instance(),
         IndexMerger.UNLIMITED_MAX_COLUMNS_TO_MERGE,
         basePersistDirectory == null ? createNewBasePersistDirectory() : basePersistDirectory,
+        null,
+        null,
         null
     );
     metrics = new SegmentGenerationMetrics();
@@ -203,6 +203,57 @@ public class StreamAppenderatorTest extends InitializedNullHandlingTest
     }
   }
 
+  @Test
+  public void testParallelPersistAndMerge() throws Exception
+  {
+    try (final StreamAppenderatorTester tester =
+             new StreamAppenderatorTester.Builder().maxRowsInMemory(100)
+                                                   .numPersistThreads(3)
+                                                   .numMergeThreads(3)
+                                                   .basePersistDirectory(temporaryFolder.newFolder())
+                                                   .build()) {
+      final Appenderator appenderator = tester.getAppenderator();
+      final ConcurrentMap<String, String> commitMetadata = new ConcurrentHashMap<>();
+      final Supplier<Committer> committerSupplier = committerSupplierFromConcurrentMap(commitMetadata);
+
+      appenderator.startJob();
+      commitMetadata.put("x", "1");
+      appenderator.add(IDENTIFIERS.get(0), ir("2000", "foo", 1), committerSupplier);
+      appenderator.add(IDENTIFIERS.get(1), ir("2000", "bar", 2), committerSupplier);
+      appenderator.add(IDENTIFIERS.get(2), ir("2001", "baz", 4), committerSupplier);
+
+      // first persist: one hydrant per sink, persisted concurrently
+      appenderator.persistAll(committerSupplier.get()).get();
+
+      commitMetadata.put("x", "2");
+      appenderator.add(IDENTIFIERS.get(0), ir("2000", "qux", 8), committerSupplier);
+      appenderator.add(IDENTIFIERS.get(2), ir("2001", "quux", 16), committerSupplier);
+
+      // push persists the remaining hydrants and merges the three sinks concurrently
+      final SegmentsAndCommitMetadata segmentsAndCommitMetadata = appenderator.push(
+          appenderator.getSegments(),
+          committerSupplier.get(),
+          false
+      ).get();
+      Assert.assertEquals(ImmutableMap.of("x", "2"), segmentsAndCommitMetadata.getCommitMetadata());
+
+      final List<DataSegment> segments = sorted(segmentsAndCommitMetadata.getSegments());
+      Assert.assertEquals(IDENTIFIERS, Lists.transform(segments, SegmentIdWithShardSpec::fromDataSegment));
+      Assert.assertEquals(
+          ImmutableList.of(2, 1, 2),
+          Lists.transform(segments, DataSegment::getTotalRows)
+      );
+      Assert.assertEquals(
+          Lists.transform(segments, DataSegment::toString),
+          Lists.transform(sorted(tester.getPushedSegments()), DataSegment::toString)
+      );
+
+      final SegmentGenerationMetrics segmentGenerationMetrics = tester.getMetrics();
+      Assert.assertEquals(2, segmentGenerationMetrics.numPersists());
+      Assert.assertEquals(5, segmentGenerationMetrics.rowOutput());
+    }
+  }
+
   @Test
   public void testPushFailure() throws Exception
   {
@@ -116,7 +116,9 @@ public class StreamAppenderatorTester implements AutoCloseable
       final PolicyEnforcer policyEnforcer,
       final boolean releaseLocksOnHandoff,
       final TaskIntervalUnlocker taskIntervalUnlocker,
-      final SegmentGenerationMetrics segmentGenerationMetrics
+      final SegmentGenerationMetrics segmentGenerationMetrics,
+      final int numPersistThreads,
+      final int numMergeThreads
   )
   {
     objectMapper = new DefaultObjectMapper();
@@ -163,7 +165,9 @@ public class StreamAppenderatorTester implements AutoCloseable
         OffHeapMemorySegmentWriteOutMediumFactory.instance(),
         IndexMerger.UNLIMITED_MAX_COLUMNS_TO_MERGE,
         basePersistDirectory,
-        releaseLocksOnHandoff
+        releaseLocksOnHandoff,
+        numPersistThreads,
+        numMergeThreads
     );
 
     metrics = segmentGenerationMetrics == null ? new SegmentGenerationMetrics() : segmentGenerationMetrics;
@@ -366,6 +370,8 @@ public class StreamAppenderatorTester implements AutoCloseable
     private boolean releaseLocksOnHandoff;
     private TaskIntervalUnlocker taskIntervalUnlocker = interval -> {};
     private SegmentGenerationMetrics segmentGenerationMetrics;
+    private int numPersistThreads = AppenderatorConfig.DEFAULT_NUM_PERSIST_THREADS;
+    private int numMergeThreads = AppenderatorConfig.DEFAULT_NUM_MERGE_THREADS;
 
     public Builder maxRowsInMemory(final int maxRowsInMemory)
     {
@@ -439,6 +445,18 @@ public class StreamAppenderatorTester implements AutoCloseable
       return this;
     }
 
+    public Builder numPersistThreads(int numPersistThreads)
+    {
+      this.numPersistThreads = numPersistThreads;
+      return this;
+    }
+
+    public Builder numMergeThreads(int numMergeThreads)
+    {
+      this.numMergeThreads = numMergeThreads;
+      return this;
+    }
+
     public StreamAppenderatorTester build()
     {
       return new StreamAppenderatorTester(
@@ -455,7 +473,9 @@ public class StreamAppenderatorTester implements AutoCloseable
           policyEnforcer,
           releaseLocksOnHandoff,
           taskIntervalUnlocker,
-          segmentGenerationMetrics
+          segmentGenerationMetrics,
+          numPersistThreads,
+          numMergeThreads
       );
     }
 
@@ -478,7 +498,9 @@ public class StreamAppenderatorTester implements AutoCloseable
           policyEnforcer,
           releaseLocksOnHandoff,
           taskIntervalUnlocker,
-          segmentGenerationMetrics
+          segmentGenerationMetrics,
+          numPersistThreads,
+          numMergeThreads
       );
     }
   }
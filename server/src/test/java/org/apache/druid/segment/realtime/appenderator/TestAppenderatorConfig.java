@@ -47,6 +47,8 @@ public class TestAppenderatorConfig implements AppenderatorConfig
   @Nullable
   private final SegmentWriteOutMediumFactory segmentWriteOutMediumFactory;
   private final boolean releaseLocksOnHandoff;
+  private final int numPersistThreads;
+  private final int numMergeThreads;
 
   public TestAppenderatorConfig(
       AppendableIndexSpec appendableIndexSpec,
@@ -60,7 +62,9 @@ public class TestAppenderatorConfig implements AppenderatorConfig
       @Nullable SegmentWriteOutMediumFactory segmentWriteOutMediumFactory,
       Integer maxColumnsToMerge,
       File basePersistDirectory,
-      @Nullable Boolean releaseLocksOnHandoff
+      @Nullable Boolean releaseLocksOnHandoff,
+      @Nullable Integer numPersistThreads,
+      @Nullable Integer numMergeThreads
   )
   {
     this.appendableIndexSpec = appendableIndexSpec;
@@ -78,6 +82,8 @@ public class TestAppenderatorConfig implements AppenderatorConfig
     this.partitionsSpec = null;
     this.indexSpecForIntermediatePersists = this.indexSpec;
     this.releaseLocksOnHandoff = Configs.valueOrDefault(releaseLocksOnHandoff, false);
+    this.numPersistThreads = Configs.valueOrDefault(numPersistThreads, DEFAULT_NUM_PERSIST_THREADS);
+    this.numMergeThreads = Configs.valueOrDefault(numMergeThreads, DEFAULT_NUM_MERGE_THREADS);
   }
 
   @Override
@@ -172,6 +178,18 @@ public class TestAppenderatorConfig implements AppenderatorConfig
     return releaseLocksOnHandoff;
   }
 
+  @Override
+  public int getNumPersistThreads()
+  {
+    return numPersistThreads;
+  }
+
+  @Override
+  public int getNumMergeThreads()
+  {
+    return numMergeThreads;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -191,6 +209,8 @@ public class TestAppenderatorConfig implements AppenderatorConfig
            reportParseExceptions == that.reportParseExceptions &&
            pushTimeout == that.pushTimeout &&
            releaseLocksOnHandoff == that.releaseLocksOnHandoff &&
+           numPersistThreads == that.numPersistThreads &&
+           numMergeThreads == that.numMergeThreads &&
            Objects.equals(partitionsSpec, that.partitionsSpec) &&
            Objects.equals(indexSpec, that.indexSpec) &&
            Objects.equals(indexSpecForIntermediatePersists, that.indexSpecForIntermediatePersists) &&
@@ -215,7 +235,9 @@ public class TestAppenderatorConfig implements AppenderatorConfig
         reportParseExceptions,
         pushTimeout,
         segmentWriteOutMediumFactory,
-        releaseLocksOnHandoff
+        releaseLocksOnHandoff,
+        numPersistThreads,
+        numMergeThreads
     );
   }
 
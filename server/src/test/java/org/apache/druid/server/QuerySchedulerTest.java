@@ -39,6 +39,7 @@ import org.apache.druid.guice.annotations.Global;
 import org.apache.druid.guice.annotations.Json;
 import org.apache.druid.java.util.common.concurrent.Execs;
 import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.java.util.common.guava.Accumulator;
 import org.apache.druid.java.util.common.guava.BaseSequence;
 import org.apache.druid.java.util.common.guava.LazySequence;
 import org.apache.druid.java.util.common.guava.Sequence;
@@ -65,6 +66,7 @@ import org.apache.druid.query.groupby.having.HavingSpec;
 import org.apache.druid.query.topn.TopNQuery;
 import org.apache.druid.query.topn.TopNQueryBuilder;
 import org.apache.druid.server.initialization.ServerConfig;
+import org.apache.druid.server.scheduling.AdaptiveQueryLaningStrategy;
 import org.apache.druid.server.scheduling.HiLoQueryLaningStrategy;
 import org.apache.druid.server.scheduling.ManualQueryPrioritizationStrategy;
 import org.apache.druid.server.scheduling.NoQueryLaningStrategy;
@@ -337,6 +339,115 @@ public class QuerySchedulerTest
     assertHiLoHasAllCapacity(TEST_HI_CAPACITY, TEST_LO_CAPACITY);
   }
 
+  @Test
+  public void testAdaptiveShedsLaneWhenOverTargetLatency() throws IOException
+  {
+    final QueryScheduler adaptiveScheduler = new QueryScheduler(
+        TEST_HI_CAPACITY,
+        ManualQueryPrioritizationStrategy.INSTANCE,
+        new AdaptiveQueryLaningStrategy(ImmutableMap.of(HiLoQueryLaningStrategy.LOW, 4), null, 1L, null, 1, 0.5, null),
+        SERVER_CONFIG_WITH_TOTAL
+    );
+
+    // a slow interactive query pushes the latency of the window over the target, halving the 'low' lane
+    Query<?> interactive = adaptiveScheduler.prioritizeAndLaneQuery(
+        QueryPlus.wrap(makeInteractiveQuery()),
+        ImmutableSet.of()
+    );
+    Sequence<Integer> slowSequence = Sequences.wrap(makeSequence(1), new SequenceWrapper()
+    {
+      @Override
+      public void before()
+      {
+        try {
+          Thread.sleep(10);
+        }
+        catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    Assert.assertEquals(1, consumeAndCloseSequence(adaptiveScheduler.run(interactive, slowSequence)));
+    Assert.assertEquals(4, adaptiveScheduler.getLaneAvailableCapacity(HiLoQueryLaningStrategy.LOW));
+
+    Query<?> report1 = adaptiveScheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeReportQuery()), ImmutableSet.of());
+    Yielders.each(adaptiveScheduler.run(report1, Sequences.empty()));
+    Query<?> report2 = adaptiveScheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeReportQuery()), ImmutableSet.of());
+    Yielders.each(adaptiveScheduler.run(report2, Sequences.empty()));
+    Assert.assertEquals(2, adaptiveScheduler.getLaneAvailableCapacity(HiLoQueryLaningStrategy.LOW));
+
+    Throwable t = Assert.assertThrows(
+        QueryCapacityExceededException.class,
+        () -> Yielders.each(
+            adaptiveScheduler.run(
+                adaptiveScheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeReportQuery()), ImmutableSet.of()),
+                Sequences.empty()
+            )
+        )
+    );
+    Assert.assertEquals(
+        "Too many concurrent queries for lane 'low', query capacity of 2 exceeded. Please try your query again later.",
+        t.getMessage()
+    );
+    // the rejected query released what it acquired
+    Assert.assertEquals(2, adaptiveScheduler.getLaneAvailableCapacity(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(3, adaptiveScheduler.getTotalAvailableCapacity());
+
+    // interactive queries are not limited by the lane
+    Query<?> interactive2 = adaptiveScheduler.prioritizeAndLaneQuery(
+        QueryPlus.wrap(makeInteractiveQuery()),
+        ImmutableSet.of()
+    );
+    Yielders.each(adaptiveScheduler.run(interactive2, Sequences.empty()));
+    Assert.assertEquals(2, adaptiveScheduler.getTotalAvailableCapacity());
+  }
+
+  @Test
+  public void testAdaptiveIgnoresSlowConsumersAndLanedQueries()
+  {
+    final QueryScheduler adaptiveScheduler = new QueryScheduler(
+        TEST_HI_CAPACITY,
+        ManualQueryPrioritizationStrategy.INSTANCE,
+        new AdaptiveQueryLaningStrategy(ImmutableMap.of(HiLoQueryLaningStrategy.LOW, 4), null, 50L, null, 1, 0.5, null),
+        SERVER_CONFIG_WITH_TOTAL
+    );
+    final Accumulator<Integer, Integer> slowConsumer = (accumulated, in) -> {
+      try {
+        Thread.sleep(100);
+      }
+      catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return accumulated + 1;
+    };
+
+    // time spent by the consumer of an interactive query's results is not part of its latency
+    Query<?> interactive = adaptiveScheduler.prioritizeAndLaneQuery(
+        QueryPlus.wrap(makeInteractiveQuery()),
+        ImmutableSet.of()
+    );
+    Assert.assertEquals(2, (int) adaptiveScheduler.run(interactive, makeSequence(2)).accumulate(0, slowConsumer));
+    Assert.assertEquals(4, adaptiveScheduler.getLaneAvailableCapacity(HiLoQueryLaningStrategy.LOW));
+
+    // slow laned queries do not count towards the latency that sheds them
+    Query<?> report = adaptiveScheduler.prioritizeAndLaneQuery(QueryPlus.wrap(makeReportQuery()), ImmutableSet.of());
+    Sequence<Integer> slowSequence = Sequences.wrap(makeSequence(1), new SequenceWrapper()
+    {
+      @Override
+      public void before()
+      {
+        try {
+          Thread.sleep(100);
+        }
+        catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    Assert.assertEquals(1, (int) adaptiveScheduler.run(report, slowSequence).accumulate(0, slowConsumer));
+    Assert.assertEquals(4, adaptiveScheduler.getLaneAvailableCapacity(HiLoQueryLaningStrategy.LOW));
+  }
+
   @Test
   public void testNotLimitedByDefaultLimiterIfNoTotalIsSet()
   {
@@ -606,6 +717,28 @@ public class QuerySchedulerTest
     Assert.assertEquals(QueryScheduler.UNAVAILABLE, scheduler.getLaneAvailableCapacity("non-existent"));
   }
 
+  @Test
+  public void testConfigAdaptive()
+  {
+    final Injector injector = createInjector();
+    final String propertyPrefix = "druid.query.scheduler";
+    final JsonConfigProvider<QuerySchedulerProvider> provider = JsonConfigProvider.of(
+        propertyPrefix,
+        QuerySchedulerProvider.class
+    );
+    final Properties properties = new Properties();
+    properties.put(propertyPrefix + ".numThreads", "10");
+    properties.put(propertyPrefix + ".laning.strategy", "adaptive");
+    properties.put(propertyPrefix + ".laning.isLimitPercent", "true");
+    properties.put(propertyPrefix + ".laning.lanes.low", "40");
+    properties.put(propertyPrefix + ".laning.targetLatencyMillis", "2000");
+    provider.inject(properties, injector.getInstance(JsonConfigurator.class));
+    final QueryScheduler scheduler = provider.get().get();
+    Assert.assertEquals(10, scheduler.getTotalAvailableCapacity());
+    Assert.assertEquals(4, scheduler.getLaneAvailableCapacity(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(QueryScheduler.UNAVAILABLE, scheduler.getLaneAvailableCapacity("non-existent"));
+  }
+
   private void maybeDelayNextIteration(int i) throws InterruptedException
   {
     if (i > 0 && i % 10 == 0) {
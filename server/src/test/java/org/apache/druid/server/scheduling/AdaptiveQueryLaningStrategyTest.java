@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.druid.server.scheduling;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.apache.druid.java.util.common.Intervals;
+import org.apache.druid.java.util.common.granularity.Granularities;
+import org.apache.druid.query.Druids;
+import org.apache.druid.query.QueryContexts;
+import org.apache.druid.query.QueryPlus;
+import org.apache.druid.query.aggregation.CountAggregatorFactory;
+import org.apache.druid.query.timeseries.TimeseriesQuery;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("ResultOfObjectAllocationIgnored")
+public class AdaptiveQueryLaningStrategyTest
+{
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1000);
+
+  private Druids.TimeseriesQueryBuilder queryBuilder;
+  private AdaptiveQueryLaningStrategy strategy;
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Before
+  public void setup()
+  {
+    this.queryBuilder = Druids.newTimeseriesQueryBuilder()
+                              .dataSource("test")
+                              .intervals(ImmutableList.of(Intervals.ETERNITY))
+                              .granularity(Granularities.DAY)
+                              .aggregators(new CountAggregatorFactory("count"));
+    this.strategy = new AdaptiveQueryLaningStrategy(
+        ImmutableMap.of(HiLoQueryLaningStrategy.LOW, 8, "reports", 4),
+        null,
+        100L,
+        0.5,
+        4,
+        0.5,
+        2
+    );
+    strategy.getLaneLimits(10);
+  }
+
+  @Test
+  public void testLanesMustBeSet()
+  {
+    expectedException.expect(NullPointerException.class);
+    expectedException.expectMessage("lanes must be set");
+    new AdaptiveQueryLaningStrategy(null, null, 100L, null, null, null, null);
+  }
+
+  @Test
+  public void testTargetLatencyMustBeSet()
+  {
+    expectedException.expect(NullPointerException.class);
+    expectedException.expectMessage("targetLatencyMillis must be set");
+    new AdaptiveQueryLaningStrategy(ImmutableMap.of("one", 1), null, null, null, null, null, null);
+  }
+
+  @Test
+  public void testLaneCannotBeNamedTotal()
+  {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Lane cannot be named 'total'");
+    new AdaptiveQueryLaningStrategy(ImmutableMap.of("total", 1), null, 100L, null, null, null, null);
+  }
+
+  @Test
+  public void testBackoffRatioMustBeLessThanOne()
+  {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("backoffRatio must be greater than 0 and less than 1");
+    new AdaptiveQueryLaningStrategy(ImmutableMap.of("one", 1), null, 100L, null, null, 1.0, null);
+  }
+
+  @Test
+  public void testLaneLimitsArePercentOfTotal()
+  {
+    AdaptiveQueryLaningStrategy percentStrategy = new AdaptiveQueryLaningStrategy(
+        ImmutableMap.of("one", 1, "fifty", 50),
+        true,
+        100L,
+        null,
+        null,
+        null,
+        null
+    );
+    Object2IntMap<String> laneConfig = percentStrategy.getLaneLimits(10);
+    Assert.assertEquals(2, laneConfig.size());
+    Assert.assertEquals(1, laneConfig.getInt("one"));
+    Assert.assertEquals(5, laneConfig.getInt("fifty"));
+    Assert.assertEquals(5, percentStrategy.getCurrentLaneLimit("fifty", 5));
+  }
+
+  @Test
+  public void testLaning()
+  {
+    TimeseriesQuery interactive = queryBuilder.context(ImmutableMap.of(QueryContexts.PRIORITY_KEY, 0)).build();
+    Assert.assertFalse(strategy.computeLane(QueryPlus.wrap(interactive), ImmutableSet.of()).isPresent());
+
+    TimeseriesQuery low = queryBuilder.context(ImmutableMap.of(QueryContexts.PRIORITY_KEY, -1)).build();
+    Assert.assertEquals(
+        HiLoQueryLaningStrategy.LOW,
+        strategy.computeLane(QueryPlus.wrap(low), ImmutableSet.of()).get()
+    );
+
+    TimeseriesQuery manual = queryBuilder.context(
+        ImmutableMap.of(QueryContexts.PRIORITY_KEY, -1, QueryContexts.LANE_KEY, "reports")
+    ).build();
+    Assert.assertEquals("reports", strategy.computeLane(QueryPlus.wrap(manual), ImmutableSet.of()).get());
+  }
+
+  @Test
+  public void testNoLowLaneLeavesLowPriorityQueriesUnlaned()
+  {
+    AdaptiveQueryLaningStrategy noLow = new AdaptiveQueryLaningStrategy(
+        ImmutableMap.of("reports", 4),
+        null,
+        100L,
+        null,
+        null,
+        null,
+        null
+    );
+    TimeseriesQuery low = queryBuilder.context(ImmutableMap.of(QueryContexts.PRIORITY_KEY, -1)).build();
+    Assert.assertFalse(noLow.computeLane(QueryPlus.wrap(low), ImmutableSet.of()).isPresent());
+  }
+
+  @Test
+  public void testMultiplicativeDecreaseWhenOverTarget()
+  {
+    Assert.assertEquals(8, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(4, strategy.getLaneLimit("reports"));
+
+    // median of the window is over the target
+    finishWindow(FAST, SLOW, SLOW, SLOW);
+    Assert.assertEquals(4, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(2, strategy.getLaneLimit("reports"));
+    Assert.assertEquals(4, strategy.getCurrentLaneLimit(HiLoQueryLaningStrategy.LOW, 8));
+
+    // never below the minimum limit
+    finishWindow(SLOW, SLOW, SLOW, SLOW);
+    finishWindow(SLOW, SLOW, SLOW, SLOW);
+    Assert.assertEquals(2, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(2, strategy.getLaneLimit("reports"));
+  }
+
+  @Test
+  public void testNoChangeUntilWindowIsFull()
+  {
+    strategy.onQueryFinished(null, SLOW);
+    strategy.onQueryFinished(null, SLOW);
+    strategy.onQueryFinished(null, SLOW);
+    Assert.assertEquals(8, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    strategy.onQueryFinished(null, SLOW);
+    Assert.assertEquals(4, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+  }
+
+  @Test
+  public void testLanedQueriesAreIgnored()
+  {
+    strategy.onQueryFinished(HiLoQueryLaningStrategy.LOW, SLOW);
+    strategy.onQueryFinished(HiLoQueryLaningStrategy.LOW, SLOW);
+    strategy.onQueryFinished("reports", SLOW);
+    strategy.onQueryFinished("reports", SLOW);
+    Assert.assertEquals(8, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(4, strategy.getLaneLimit("reports"));
+
+    // the laned queries did not take up room in the window
+    finishWindow(FAST, FAST, FAST);
+    strategy.onQueryFinished(null, SLOW);
+    Assert.assertEquals(8, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+  }
+
+  @Test
+  public void testAdditiveIncreaseOnlyForLanesAtCapacity()
+  {
+    finishWindow(SLOW, SLOW, SLOW, SLOW);
+    Assert.assertEquals(4, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(2, strategy.getLaneLimit("reports"));
+
+    // under target, but only 'reports' turned queries away
+    strategy.onLaneCapacityExceeded("reports");
+    finishWindow(FAST, FAST, FAST, SLOW);
+    Assert.assertEquals(4, strategy.getLaneLimit(HiLoQueryLaningStrategy.LOW));
+    Assert.assertEquals(3, strategy.getLaneLimit("reports"));
+
+    // never above the configured limit
+    for (int i = 0; i < 5; i++) {
+      strategy.onLaneCapacityExceeded("reports");
+      finishWindow(FAST, FAST, FAST, FAST);
+    }
+    Assert.assertEquals(4, strategy.getLaneLimit("reports"));
+  }
+
+  @Test
+  public void testUnknownLaneUsesMaxLimit()
+  {
+    strategy.onLaneCapacityExceeded("non-existent");
+    Assert.assertEquals(3, strategy.getCurrentLaneLimit("non-existent", 3));
+  }
+
+  private void finishWindow(long... durations)
+  {
+    for (long duration : durations) {
+      strategy.onQueryFinished(null, duration);
+    }
+  }
+}